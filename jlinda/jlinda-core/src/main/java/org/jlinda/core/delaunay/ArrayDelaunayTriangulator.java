@@ -0,0 +1,521 @@
+package org.jlinda.core.delaunay;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Delaunay triangulation of scattered points held in flat arrays.
+ * <p>
+ * Uses the divide and conquer algorithm of Guibas and Stolfi on a quad-edge structure kept in int arrays. The points
+ * are sorted once. Above {@link #PARALLEL_THRESHOLD} points the two halves of a split are triangulated as fork/join
+ * tasks and then merged, and each half only touches the edges of its own index range. The result is a {@link Mesh}
+ * of point index triples and triangle neighbours, no objects are created per point or per triangle.
+ * <p>
+ * The orientation and in-circle tests use {@link RobustPredicates}, so regular, sheared and masked grids, whose
+ * points are cocircular or collinear up to round off, are triangulated without holes or broken edge rings.
+ * <p>
+ * The triangles can be passed to
+ * {@link TriangleInterpolator#interpolate(double[], double[], int[], org.jlinda.core.Window, double, double, double,
+ * double, TriangleInterpolator.ZData[])} in place of a {@link FastDelaunayTriangulator}.
+ */
+public final class ArrayDelaunayTriangulator {
+
+    // below this number of points a split is triangulated on the calling thread
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // sorted distinct points, y already scaled
+    private final double[] px;
+    private final double[] py;
+    private final int[] pointIndex;
+
+    // quad-edge structure, 4 directed edges per quad edge; org is set for the primal edges and -1 when free
+    private final int[] next;
+    private final int[] org;
+    private final int[] freeNext;
+
+    private ArrayDelaunayTriangulator(final double[] px, final double[] py, final int[] pointIndex) {
+        this.px = px;
+        this.py = py;
+        this.pointIndex = pointIndex;
+
+        // a planar graph on m points has at most 3m - 6 edges, so 3 quad edges per point always suffice
+        final int numQuads = 3 * px.length;
+        next = new int[4 * numQuads];
+        org = new int[4 * numQuads];
+        freeNext = new int[numQuads];
+        Arrays.fill(org, -1);
+    }
+
+    /**
+     * Triangulate points, skipping those marked invalid.
+     *
+     * @param x_in         x coordinates
+     * @param y_in         y coordinates
+     * @param numPoints    number of points to use from the arrays
+     * @param xyRatio      scale applied to y before triangulation, as in {@link TriangleInterpolator}
+     * @param invalidIndex marker of invalid coordinates
+     * @return the triangulation, with no triangles if there are fewer than three points or all are collinear
+     */
+    public static Mesh triangulate(final double[] x_in, final double[] y_in, final int numPoints,
+                                   final double xyRatio, final double invalidIndex) {
+
+        int numValid = 0;
+        final int[] valid = new int[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            if (x_in[i] != invalidIndex && y_in[i] != invalidIndex) {
+                valid[numValid++] = i;
+            }
+        }
+
+        final double[] sx = new double[numValid];
+        final double[] sy = new double[numValid];
+        for (int k = 0; k < numValid; k++) {
+            sx[k] = x_in[valid[k]];
+            sy[k] = y_in[valid[k]] * xyRatio;
+        }
+        final int[] order = sortByXY(sx, sy, numValid);
+
+        // drop duplicate points
+        int m = 0;
+        final double[] px = new double[numValid];
+        final double[] py = new double[numValid];
+        final int[] pointIndex = new int[numValid];
+        for (int k = 0; k < numValid; k++) {
+            final int o = order[k];
+            if (m > 0 && sx[o] == px[m - 1] && sy[o] == py[m - 1]) {
+                continue;
+            }
+            px[m] = sx[o];
+            py[m] = sy[o];
+            pointIndex[m] = valid[o];
+            m++;
+        }
+
+        if (m < 3) {
+            return new Mesh(new int[0], new int[0], x_in, y_in, xyRatio);
+        }
+
+        final ArrayDelaunayTriangulator dt = new ArrayDelaunayTriangulator(
+                Arrays.copyOf(px, m), Arrays.copyOf(py, m), Arrays.copyOf(pointIndex, m));
+
+        if (m <= PARALLEL_THRESHOLD) {
+            final Pool pool = dt.createPool(0, m);
+            dt.triangulate(0, m, pool, new int[2]);
+        } else {
+            ForkJoinPool.commonPool().invoke(dt.new Task(0, m));
+        }
+        return dt.createMesh(x_in, y_in, xyRatio);
+    }
+
+    // --- quad-edge algebra ---
+
+    private static int rot(final int e) {
+        return (e & ~3) | ((e + 1) & 3);
+    }
+
+    private static int rotInv(final int e) {
+        return (e & ~3) | ((e + 3) & 3);
+    }
+
+    private static int sym(final int e) {
+        return e ^ 2;
+    }
+
+    private int oprev(final int e) {
+        return rot(next[rot(e)]);
+    }
+
+    private int lnext(final int e) {
+        return rot(next[rotInv(e)]);
+    }
+
+    private int rprev(final int e) {
+        return next[sym(e)];
+    }
+
+    private int dest(final int e) {
+        return org[sym(e)];
+    }
+
+    private int makeEdge(final Pool pool, final int a, final int b) {
+        final int e = 4 * pool.alloc();
+        next[e] = e;
+        next[e + 1] = e + 3;
+        next[e + 2] = e + 2;
+        next[e + 3] = e + 1;
+        org[e] = a;
+        org[e + 2] = b;
+        return e;
+    }
+
+    private void splice(final int a, final int b) {
+        final int alpha = rot(next[a]);
+        final int beta = rot(next[b]);
+        final int t1 = next[b];
+        final int t2 = next[a];
+        final int t3 = next[beta];
+        final int t4 = next[alpha];
+        next[a] = t1;
+        next[b] = t2;
+        next[alpha] = t3;
+        next[beta] = t4;
+    }
+
+    private int connect(final Pool pool, final int a, final int b) {
+        final int e = makeEdge(pool, dest(a), org[b]);
+        splice(e, lnext(a));
+        splice(sym(e), b);
+        return e;
+    }
+
+    private void deleteEdge(final Pool pool, final int e) {
+        splice(e, oprev(e));
+        splice(sym(e), oprev(sym(e)));
+        final int q = e >> 2;
+        org[4 * q] = -1;
+        org[4 * q + 2] = -1;
+        pool.free(q);
+    }
+
+    // --- predicates ---
+
+    private boolean ccw(final int a, final int b, final int c) {
+        return RobustPredicates.orient(px[a], py[a], px[b], py[b], px[c], py[c]) > 0;
+    }
+
+    private boolean rightOf(final int p, final int e) {
+        return ccw(p, dest(e), org[e]);
+    }
+
+    private boolean leftOf(final int p, final int e) {
+        return ccw(p, org[e], dest(e));
+    }
+
+    /**
+     * @return true if d lies inside the circle through a, b, c given counter clockwise
+     */
+    private boolean inCircle(final int a, final int b, final int c, final int d) {
+        return RobustPredicates.inCircle(px[a], py[a], px[b], py[b], px[c], py[c], px[d], py[d]) > 0;
+    }
+
+    // --- divide and conquer ---
+
+    /**
+     * Triangulate the sorted points lo to hi - 1.
+     *
+     * @param out set to the counter clockwise hull edge out of the leftmost point and the clockwise hull edge out
+     *            of the rightmost point
+     */
+    private void triangulate(final int lo, final int hi, final Pool pool, final int[] out) {
+        final int n = hi - lo;
+        if (n == 2) {
+            final int a = makeEdge(pool, lo, lo + 1);
+            out[0] = a;
+            out[1] = sym(a);
+        } else if (n == 3) {
+            final int s1 = lo, s2 = lo + 1, s3 = lo + 2;
+            final int a = makeEdge(pool, s1, s2);
+            final int b = makeEdge(pool, s2, s3);
+            splice(sym(a), b);
+            if (ccw(s1, s2, s3)) {
+                connect(pool, b, a);
+                out[0] = a;
+                out[1] = sym(b);
+            } else if (ccw(s1, s3, s2)) {
+                final int c = connect(pool, b, a);
+                out[0] = sym(c);
+                out[1] = c;
+            } else {
+                // collinear
+                out[0] = a;
+                out[1] = sym(b);
+            }
+        } else {
+            final int mid = (lo + hi) >>> 1;
+            final int[] left = new int[2];
+            final int[] right = new int[2];
+            triangulate(lo, mid, pool, left);
+            triangulate(mid, hi, pool, right);
+            merge(left[0], left[1], right[0], right[1], pool, out);
+        }
+    }
+
+    private void merge(int ldo, int ldi, int rdi, int rdo, final Pool pool, final int[] out) {
+
+        // lower common tangent of the two halves
+        while (true) {
+            if (leftOf(org[rdi], ldi)) {
+                ldi = lnext(ldi);
+            } else if (rightOf(org[ldi], rdi)) {
+                rdi = rprev(rdi);
+            } else {
+                break;
+            }
+        }
+
+        int basel = connect(pool, sym(rdi), ldi);
+        if (org[ldi] == org[ldo]) {
+            ldo = sym(basel);
+        }
+        if (org[rdi] == org[rdo]) {
+            rdo = basel;
+        }
+
+        // zip the halves together from the bottom up
+        while (true) {
+            int lcand = next[sym(basel)];
+            if (rightOf(dest(lcand), basel)) {
+                while (inCircle(dest(basel), org[basel], dest(lcand), dest(next[lcand]))) {
+                    final int t = next[lcand];
+                    deleteEdge(pool, lcand);
+                    lcand = t;
+                }
+            }
+
+            int rcand = oprev(basel);
+            if (rightOf(dest(rcand), basel)) {
+                while (inCircle(dest(basel), org[basel], dest(rcand), dest(oprev(rcand)))) {
+                    final int t = oprev(rcand);
+                    deleteEdge(pool, rcand);
+                    rcand = t;
+                }
+            }
+
+            final boolean lvalid = rightOf(dest(lcand), basel);
+            final boolean rvalid = rightOf(dest(rcand), basel);
+            if (!lvalid && !rvalid) {
+                break;
+            }
+
+            if (!lvalid || (rvalid && inCircle(dest(lcand), org[lcand], org[rcand], dest(rcand)))) {
+                basel = connect(pool, rcand, sym(basel));
+            } else {
+                basel = connect(pool, sym(basel), sym(lcand));
+            }
+        }
+
+        out[0] = ldo;
+        out[1] = rdo;
+    }
+
+    private final class Task extends RecursiveAction {
+        private final int lo, hi;
+        private final int[] result = new int[2];
+        private Pool pool;
+
+        Task(final int lo, final int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                pool = createPool(lo, hi);
+                triangulate(lo, hi, pool, result);
+                return;
+            }
+
+            final int mid = (lo + hi) >>> 1;
+            final Task left = new Task(lo, mid);
+            final Task right = new Task(mid, hi);
+            invokeAll(left, right);
+
+            pool = left.pool;
+            pool.append(right.pool);
+            merge(left.result[0], left.result[1], right.result[0], right.result[1], pool, result);
+        }
+    }
+
+    /**
+     * Free quad edges of a range of points, 3 per point, linked through freeNext.
+     */
+    private Pool createPool(final int lo, final int hi) {
+        final Pool pool = new Pool();
+        for (int q = 3 * hi - 1; q >= 3 * lo; q--) {
+            pool.free(q);
+        }
+        return pool;
+    }
+
+    private final class Pool {
+        private int head = -1;
+        private int tail = -1;
+
+        int alloc() {
+            if (head == -1) {
+                throw new IllegalStateException("delaunay: out of edges");
+            }
+            final int q = head;
+            head = freeNext[q];
+            if (head == -1) {
+                tail = -1;
+            }
+            return q;
+        }
+
+        void free(final int q) {
+            freeNext[q] = head;
+            head = q;
+            if (tail == -1) {
+                tail = q;
+            }
+        }
+
+        void append(final Pool other) {
+            if (other.head == -1) {
+                return;
+            }
+            if (head == -1) {
+                head = other.head;
+            } else {
+                freeNext[tail] = other.head;
+            }
+            tail = other.tail;
+        }
+    }
+
+    // --- result ---
+
+    private Mesh createMesh(final double[] x_in, final double[] y_in, final double xyRatio) {
+
+        final int numEdges = next.length;
+        final int[] triangleOfEdge = new int[numEdges];
+        Arrays.fill(triangleOfEdge, -1);
+
+        final int[] faces = new int[3 * 2 * px.length];
+        int numTriangles = 0;
+        for (int e = 0; e < numEdges; e += 2) {
+            if (org[e] == -1 || triangleOfEdge[e] != -1) {
+                continue;
+            }
+            final int e1 = lnext(e);
+            final int e2 = lnext(e1);
+            if (lnext(e2) != e || !ccw(org[e], org[e1], org[e2])) {
+                // outer face
+                continue;
+            }
+            triangleOfEdge[e] = triangleOfEdge[e1] = triangleOfEdge[e2] = numTriangles;
+            faces[3 * numTriangles] = e;
+            faces[3 * numTriangles + 1] = e1;
+            faces[3 * numTriangles + 2] = e2;
+            numTriangles++;
+        }
+
+        final int[] triangles = new int[3 * numTriangles];
+        final int[] neighbours = new int[3 * numTriangles];
+        for (int k = 0; k < 3 * numTriangles; k++) {
+            triangles[k] = pointIndex[org[faces[k]]];
+            neighbours[k] = triangleOfEdge[sym(faces[k])];
+        }
+        return new Mesh(triangles, neighbours, x_in, y_in, xyRatio);
+    }
+
+    /**
+     * Triangles as point index triples in counter clockwise order. Neighbour k of a triangle lies across the edge
+     * from its point k to its point k + 1, -1 on the convex hull.
+     */
+    public static final class Mesh {
+        public final int[] triangles;
+        public final int[] neighbours;
+        private final double[] x;
+        private final double[] y;
+        private final double xyRatio;
+
+        Mesh(final int[] triangles, final int[] neighbours, final double[] x, final double[] y,
+             final double xyRatio) {
+            this.triangles = triangles;
+            this.neighbours = neighbours;
+            this.x = x;
+            this.y = y;
+            this.xyRatio = xyRatio;
+        }
+
+        public int getNumTriangles() {
+            return triangles.length / 3;
+        }
+
+        /**
+         * Find the triangle holding a point by walking across edges from a start triangle, which is fast when
+         * consecutive queries are close to each other.
+         *
+         * @param xp    x coordinate of the point
+         * @param yp    y coordinate of the point, not scaled
+         * @param start triangle to start from, e.g. the result of the previous query
+         * @return the triangle holding the point, or -1 if it is outside the convex hull
+         */
+        public int locate(final double xp, final double yp, final int start) {
+            final int numTriangles = getNumTriangles();
+            if (numTriangles == 0) {
+                return -1;
+            }
+
+            int t = (start >= 0 && start < numTriangles) ? start : 0;
+            final double ys = yp * xyRatio;
+
+            // a visibility walk with exact orientation tests ends on a Delaunay triangulation
+            for (int step = 0; step <= numTriangles; step++) {
+                int across = -1;
+                for (int k = 0; k < 3; k++) {
+                    final int a = triangles[3 * t + k];
+                    final int b = triangles[3 * t + (k + 1) % 3];
+                    if (RobustPredicates.orient(x[a], y[a] * xyRatio, x[b], y[b] * xyRatio, xp, ys) < 0) {
+                        across = k;
+                        break;
+                    }
+                }
+                if (across == -1) {
+                    return t;
+                }
+                t = neighbours[3 * t + across];
+                if (t == -1) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // --- sorting ---
+
+    /**
+     * @return the order of the points by x, then y
+     */
+    private static int[] sortByXY(final double[] x, final double[] y, final int n) {
+        int[] order = new int[n];
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        // bottom up merge sort
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                final int mid = Math.min(lo + width, n);
+                final int hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    final int a = order[i], b = order[j];
+                    if (x[b] < x[a] || (x[b] == x[a] && y[b] < y[a])) {
+                        buffer[k++] = b;
+                        j++;
+                    } else {
+                        buffer[k++] = a;
+                        i++;
+                    }
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+            }
+            final int[] tmp = order;
+            order = buffer;
+            buffer = tmp;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,179 @@
+package org.jlinda.core.delaunay;
+
+/**
+ * Triangulation of points that come from a regular rows x cols grid, such as a DEM tile coded into radar
+ * coordinates, without a general Delaunay triangulation.
+ * <p>
+ * When all grid points are valid and the grid is mapped without folding (every cell is a convex quadrilateral of
+ * the same orientation), each cell is split along the diagonal that satisfies the empty circumcircle test. If in
+ * addition every edge between neighbouring cells passes that test, all edges of the mesh are locally Delaunay and
+ * the mesh is the Delaunay triangulation of the grid points over the area the grid covers. Otherwise no
+ * triangulation is returned and the caller falls back to {@link FastDelaunayTriangulator}.
+ */
+public final class GridTriangulator {
+
+    // relative tolerance of the in-circle test, co-circular points accept either diagonal
+    private static final double IN_CIRCLE_EPS = 1e-10;
+
+    private GridTriangulator() {
+    }
+
+    /**
+     * Triangulate a grid of points in row-major order.
+     *
+     * @param x_in         x coordinates of rows x cols points
+     * @param y_in         y coordinates of rows x cols points
+     * @param rows         number of grid rows
+     * @param cols         number of grid columns
+     * @param xyRatio      scale applied to y before triangulation, as in {@link TriangleInterpolator}
+     * @param invalidIndex marker of invalid coordinates
+     * @return three point indices per triangle, or null if the grid cannot be triangulated cell by cell
+     */
+    public static int[] triangulate(final double[] x_in, final double[] y_in, final int rows, final int cols,
+                                    final double xyRatio, final double invalidIndex) {
+
+        if (rows < 2 || cols < 2 || x_in.length < rows * cols || y_in.length < rows * cols) {
+            return null;
+        }
+
+        for (int k = 0; k < rows * cols; k++) {
+            if (x_in[k] == invalidIndex || y_in[k] == invalidIndex) {
+                return null;
+            }
+        }
+
+        final Grid grid = new Grid(x_in, y_in, cols, xyRatio);
+        final int numCells = (rows - 1) * (cols - 1);
+        final boolean[] diagonalBD = new boolean[numCells];
+        final int[] corners = new int[4];
+
+        // every cell convex with the same orientation, so the mesh does not fold
+        double sign = 0;
+        for (int i = 0; i < rows - 1; i++) {
+            for (int j = 0; j < cols - 1; j++) {
+                grid.corners(i, j, corners);
+                for (int c = 0; c < 4; c++) {
+                    final double o = grid.orient(corners[c], corners[(c + 1) % 4], corners[(c + 2) % 4]);
+                    if (sign == 0) {
+                        sign = Math.signum(o);
+                    }
+                    if (o * sign <= 0) {
+                        return null;
+                    }
+                }
+
+                // split along B-D when D lies inside the circumcircle of A, B, C
+                diagonalBD[i * (cols - 1) + j] = grid.inCircle(corners[0], corners[1], corners[2], corners[3]);
+            }
+        }
+
+        // edges between neighbouring cells
+        for (int i = 0; i < rows - 1; i++) {
+            for (int j = 0; j < cols - 1; j++) {
+                if (i > 0 && !isLocallyDelaunay(grid, i - 1, j, Edge.BOTTOM, i, j, Edge.TOP, diagonalBD, corners)) {
+                    return null;
+                }
+                if (j > 0 && !isLocallyDelaunay(grid, i, j - 1, Edge.RIGHT, i, j, Edge.LEFT, diagonalBD, corners)) {
+                    return null;
+                }
+            }
+        }
+
+        final int[] triangles = new int[6 * numCells];
+        int t = 0;
+        for (int i = 0; i < rows - 1; i++) {
+            for (int j = 0; j < cols - 1; j++) {
+                grid.corners(i, j, corners);
+                if (diagonalBD[i * (cols - 1) + j]) {
+                    t = put(triangles, t, corners[0], corners[1], corners[3]);
+                    t = put(triangles, t, corners[1], corners[2], corners[3]);
+                } else {
+                    t = put(triangles, t, corners[0], corners[1], corners[2]);
+                    t = put(triangles, t, corners[0], corners[2], corners[3]);
+                }
+            }
+        }
+        return triangles;
+    }
+
+    private static int put(final int[] triangles, final int t, final int a, final int b, final int c) {
+        triangles[t] = a;
+        triangles[t + 1] = b;
+        triangles[t + 2] = c;
+        return t + 3;
+    }
+
+    // cell edges in corner order A(i,j), B(i,j+1), C(i+1,j+1), D(i+1,j)
+    private enum Edge {
+        TOP, RIGHT, BOTTOM, LEFT
+    }
+
+    /**
+     * Corner opposite to the edge in the triangle of the cell that holds the edge.
+     */
+    private static int oppositeCorner(final Edge edge, final boolean diagonalBD) {
+        if (diagonalBD) {
+            return (edge == Edge.TOP || edge == Edge.RIGHT) ? 3 : 1;
+        }
+        return (edge == Edge.TOP || edge == Edge.LEFT) ? 2 : 0;
+    }
+
+    private static boolean isLocallyDelaunay(final Grid grid, final int i0, final int j0, final Edge edge0,
+                                             final int i1, final int j1, final Edge edge1,
+                                             final boolean[] diagonalBD, final int[] corners) {
+
+        final int cols1 = grid.cols - 1;
+        grid.corners(i0, j0, corners);
+        final int a = corners[edge0.ordinal()];
+        final int b = corners[(edge0.ordinal() + 1) % 4];
+        final int c = corners[oppositeCorner(edge0, diagonalBD[i0 * cols1 + j0])];
+
+        grid.corners(i1, j1, corners);
+        final int d = corners[oppositeCorner(edge1, diagonalBD[i1 * cols1 + j1])];
+
+        return !grid.inCircle(a, b, c, d);
+    }
+
+    private static final class Grid {
+        private final double[] x;
+        private final double[] y;
+        private final int cols;
+        private final double xyRatio;
+
+        Grid(final double[] x, final double[] y, final int cols, final double xyRatio) {
+            this.x = x;
+            this.y = y;
+            this.cols = cols;
+            this.xyRatio = xyRatio;
+        }
+
+        void corners(final int i, final int j, final int[] corners) {
+            corners[0] = i * cols + j;
+            corners[1] = corners[0] + 1;
+            corners[2] = corners[1] + cols;
+            corners[3] = corners[0] + cols;
+        }
+
+        double orient(final int a, final int b, final int c) {
+            final double ax = x[a], ay = y[a] * xyRatio;
+            return (x[b] - ax) * (y[c] * xyRatio - ay) - (y[b] * xyRatio - ay) * (x[c] - ax);
+        }
+
+        /**
+         * @return true if d lies strictly inside the circumcircle of the triangle a, b, c
+         */
+        boolean inCircle(final int a, final int b, final int c, final int d) {
+            final double dx = x[d], dy = y[d] * xyRatio;
+            final double adx = x[a] - dx, ady = y[a] * xyRatio - dy;
+            final double bdx = x[b] - dx, bdy = y[b] * xyRatio - dy;
+            final double cdx = x[c] - dx, cdy = y[c] * xyRatio - dy;
+
+            final double t0 = (adx * adx + ady * ady) * (bdx * cdy - cdx * bdy);
+            final double t1 = (bdx * bdx + bdy * bdy) * (cdx * ady - adx * cdy);
+            final double t2 = (cdx * cdx + cdy * cdy) * (adx * bdy - bdx * ady);
+            final double det = (t0 + t1 + t2) * Math.signum(orient(a, b, c));
+
+            return det > IN_CIRCLE_EPS * (Math.abs(t0) + Math.abs(t1) + Math.abs(t2));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.jlinda.core.delaunay;
+
+import java.util.Arrays;
+
+/**
+ * Orientation and in-circle tests with exact signs, after Shewchuk, "Adaptive Precision Floating-Point Arithmetic
+ * and Fast Robust Geometric Predicates".
+ * <p>
+ * The determinant is first evaluated in floating point and its sign returned when it exceeds the forward error
+ * bound. Otherwise it is evaluated again exactly, on expansions: sums of non overlapping doubles of increasing
+ * magnitude, whose largest component carries the sign. Nearly degenerate input such as regular or sheared grids
+ * therefore gets consistent answers and the triangulation cannot tangle.
+ */
+final class RobustPredicates {
+
+    private static final double EPSILON = Math.ulp(1.0) / 2;
+    private static final double CCW_ERROR_BOUND = (3.0 + 16.0 * EPSILON) * EPSILON;
+    private static final double ICC_ERROR_BOUND = (10.0 + 96.0 * EPSILON) * EPSILON;
+
+    private RobustPredicates() {
+    }
+
+    /**
+     * @return a value whose sign is that of (b - a) x (c - a): positive if a, b, c are counter clockwise, zero if
+     * they are collinear
+     */
+    static double orient(final double ax, final double ay, final double bx, final double by,
+                         final double cx, final double cy) {
+        final double left = (bx - ax) * (cy - ay);
+        final double right = (by - ay) * (cx - ax);
+        final double det = left - right;
+        final double bound = CCW_ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+        if (det > bound || -det > bound) {
+            return det;
+        }
+
+        final double[] exact = difference(
+                product(twoDiff(bx, ax), twoDiff(cy, ay)),
+                product(twoDiff(by, ay), twoDiff(cx, ax)));
+        return sign(exact);
+    }
+
+    /**
+     * @return a value that is positive if d lies inside the circle through a, b, c given counter clockwise,
+     * negative if outside and zero if the four points are cocircular
+     */
+    static double inCircle(final double ax, final double ay, final double bx, final double by,
+                           final double cx, final double cy, final double dx, final double dy) {
+        final double adx = ax - dx, ady = ay - dy;
+        final double bdx = bx - dx, bdy = by - dy;
+        final double cdx = cx - dx, cdy = cy - dy;
+
+        final double bdxcdy = bdx * cdy, cdxbdy = cdx * bdy;
+        final double cdxady = cdx * ady, adxcdy = adx * cdy;
+        final double adxbdy = adx * bdy, bdxady = bdx * ady;
+        final double alift = adx * adx + ady * ady;
+        final double blift = bdx * bdx + bdy * bdy;
+        final double clift = cdx * cdx + cdy * cdy;
+
+        final double det = alift * (bdxcdy - cdxbdy) + blift * (cdxady - adxcdy) + clift * (adxbdy - bdxady);
+        final double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift +
+                (Math.abs(cdxady) + Math.abs(adxcdy)) * blift +
+                (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+        final double bound = ICC_ERROR_BOUND * permanent;
+        if (det > bound || -det > bound) {
+            return det;
+        }
+
+        final double[] eax = twoDiff(ax, dx), eay = twoDiff(ay, dy);
+        final double[] ebx = twoDiff(bx, dx), eby = twoDiff(by, dy);
+        final double[] ecx = twoDiff(cx, dx), ecy = twoDiff(cy, dy);
+
+        final double[] bc = difference(product(ebx, ecy), product(ecx, eby));
+        final double[] ca = difference(product(ecx, eay), product(eax, ecy));
+        final double[] ab = difference(product(eax, eby), product(ebx, eay));
+
+        final double[] exact = sum(sum(
+                product(sum(product(eax, eax), product(eay, eay)), bc),
+                product(sum(product(ebx, ebx), product(eby, eby)), ca)),
+                product(sum(product(ecx, ecx), product(ecy, ecy)), ab));
+        return sign(exact);
+    }
+
+    // --- expansion arithmetic, components in increasing magnitude without zeros ---
+
+    private static double sign(final double[] e) {
+        return e.length == 0 ? 0.0 : e[e.length - 1];
+    }
+
+    /**
+     * a - b as an expansion of up to two components.
+     */
+    private static double[] twoDiff(final double a, final double b) {
+        final double x = a - b;
+        final double bVirtual = a - x;
+        final double aVirtual = x + bVirtual;
+        final double y = (a - aVirtual) + (bVirtual - b);
+        return compress(y, x);
+    }
+
+    private static double[] compress(final double low, final double high) {
+        if (low == 0.0) {
+            return high == 0.0 ? new double[0] : new double[]{high};
+        }
+        return new double[]{low, high};
+    }
+
+    private static double[] sum(final double[] e, final double[] f) {
+        double[] h = e;
+        for (double b : f) {
+            h = grow(h, b);
+        }
+        return h;
+    }
+
+    private static double[] difference(final double[] e, final double[] f) {
+        final double[] negated = new double[f.length];
+        for (int i = 0; i < f.length; i++) {
+            negated[i] = -f[i];
+        }
+        return sum(e, negated);
+    }
+
+    private static double[] product(final double[] e, final double[] f) {
+        double[] h = new double[0];
+        for (double b : f) {
+            h = sum(h, scale(e, b));
+        }
+        return h;
+    }
+
+    /**
+     * e + b, Shewchuk's GROW-EXPANSION with zero elimination.
+     */
+    private static double[] grow(final double[] e, final double b) {
+        final double[] h = new double[e.length + 1];
+        int n = 0;
+        double q = b;
+        for (double component : e) {
+            final double x = q + component;
+            final double bVirtual = x - q;
+            final double aVirtual = x - bVirtual;
+            final double y = (q - aVirtual) + (component - bVirtual);
+            if (y != 0.0) {
+                h[n++] = y;
+            }
+            q = x;
+        }
+        if (q != 0.0) {
+            h[n++] = q;
+        }
+        return n == h.length ? h : Arrays.copyOf(h, n);
+    }
+
+    /**
+     * e * b, each component product split exactly into product and round off by fused multiply-add.
+     */
+    private static double[] scale(final double[] e, final double b) {
+        double[] h = new double[0];
+        for (double component : e) {
+            final double p = component * b;
+            final double err = Math.fma(component, b, -p);
+            h = grow(grow(h, err), p);
+        }
+        return h;
+    }
+}
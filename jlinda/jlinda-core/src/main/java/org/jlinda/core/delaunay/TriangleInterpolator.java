@@ -49,6 +49,61 @@ public class TriangleInterpolator {
         }
     }
 
+    /**
+     * Grid data given on a rows x cols grid in row-major order. The grid is split into triangles cell by cell when
+     * that gives the Delaunay triangulation, see {@link GridTriangulator}, otherwise it is triangulated as
+     * scattered points.
+     */
+    public static void gridDataLinear(final double[] x_in, final double[] y_in, final int rows, final int cols,
+                                      final ZData[] zList, final Window window, final double xyRatio,
+                                      final int xScale, final int yScale, final double invalidIndex,
+                                      final int offset) throws Exception {
+
+        final int[] triangles = GridTriangulator.triangulate(x_in, y_in, rows, cols, xyRatio, invalidIndex);
+        if (triangles != null) {
+            interpolate(x_in, y_in, triangles, window, xScale, yScale, offset, invalidIndex, zList);
+            return;
+        }
+
+        // the input arrays may be longer than the grid
+        final FastDelaunayTriangulator FDT = triangulate(x_in, y_in, rows * cols, xyRatio, invalidIndex);
+        if(FDT != null) {
+            interpolate(xyRatio, window, xScale, yScale, offset, invalidIndex, FDT, zList);
+        }
+    }
+
+    /**
+     * As {@link #gridDataLinear(double[][], double[][], ZData[], Window, double, int, int, double, int)}, but
+     * triangulated with the {@link ArrayDelaunayTriangulator}, which splits large point sets over threads.
+     */
+    public static void gridDataLinearArray(final double[][] x_in, final double[][] y_in, final ZData[] zList,
+                                           final Window window, final double xyRatio, final int xScale,
+                                           final int yScale, final double invalidIndex, final int offset) {
+
+        // point k of the flattened grid is row k / cols, column k % cols, as expected by ZData
+        final int cols = x_in[0].length;
+        final double[] x = new double[x_in.length * cols];
+        final double[] y = new double[x_in.length * cols];
+        for (int i = 0; i < x_in.length; i++) {
+            System.arraycopy(x_in[i], 0, x, i * cols, cols);
+            System.arraycopy(y_in[i], 0, y, i * cols, cols);
+        }
+        gridDataLinearArray(x, y, zList, window, xyRatio, xScale, yScale, invalidIndex, offset);
+    }
+
+    /**
+     * As {@link #gridDataLinear(double[], double[], ZData[], Window, double, int, int, double, int)}, but
+     * triangulated with the {@link ArrayDelaunayTriangulator}, which splits large point sets over threads.
+     */
+    public static void gridDataLinearArray(final double[] x_in, final double[] y_in, final ZData[] zList,
+                                           final Window window, final double xyRatio, final int xScale,
+                                           final int yScale, final double invalidIndex, final int offset) {
+
+        final ArrayDelaunayTriangulator.Mesh mesh =
+                ArrayDelaunayTriangulator.triangulate(x_in, y_in, x_in.length, xyRatio, invalidIndex);
+        interpolate(x_in, y_in, mesh.triangles, window, xScale, yScale, offset, invalidIndex, zList);
+    }
+
     public static FastDelaunayTriangulator triangulate(final double[][] x_in, final double[][] y_in,
                                                        final double xyRatio, final double invalidIndex)
             throws Exception {
@@ -88,10 +143,16 @@ public class TriangleInterpolator {
     public static FastDelaunayTriangulator triangulate(final double[] x_in, final double[] y_in,
                                                        final double xyRatio, final double invalidIndex)
             throws Exception {
+        return triangulate(x_in, y_in, x_in.length, xyRatio, invalidIndex);
+    }
+
+    private static FastDelaunayTriangulator triangulate(final double[] x_in, final double[] y_in, final int numPoints,
+                                                        final double xyRatio, final double invalidIndex)
+            throws Exception {
 
         java.util.List<Geometry> list = new ArrayList<>();
         GeometryFactory gf = new GeometryFactory();
-        for (int i = 0; i < x_in.length; i++) {
+        for (int i = 0; i < numPoints; i++) {
             if (x_in[i] == invalidIndex || y_in[i] == invalidIndex) {
                 continue;
             }
@@ -120,11 +181,6 @@ public class TriangleInterpolator {
         final double x_min = tileWindow.linelo;
         final double y_min = tileWindow.pixlo;
 
-        long i_min, i_max, j_min, j_max; // minimas/maximas
-        double xp, yp;
-        double xkj, ykj, xlj, ylj;
-        double f; // function
-
         // containers for xy coordinates of Triangles: p1-p2-p3-p1
         final double[] vx = new double[4];
         final double[] vy = new double[4];
@@ -147,88 +203,133 @@ public class TriangleInterpolator {
             vx[2] = triangle.getC().x;
             vy[2] = triangle.getC().y / xyRatio;
 
-            // skip invalid indices
-            if (vx[0] == invalidIndex || vx[1] == invalidIndex || vx[2] == invalidIndex ||
-                    vy[0] == invalidIndex || vy[1] == invalidIndex || vy[2] == invalidIndex) {
-                continue;
-            }
+            vz[0] = triangle.getA().z;
+            vz[1] = triangle.getB().z;
+            vz[2] = triangle.getC().z;
 
-            // Compute grid indices the current triangle may cover
-            xp = Math.min(Math.min(vx[0], vx[1]), vx[2]);
-            i_min = coordToIndex(xp, x_min, xScale, offset);
+            interpolateTriangle(vx, vy, vz, x_min, y_min, nx, ny, xScale, yScale, offset, invalidIndex, zList);
+        }
+        //long t5 = System.currentTimeMillis();
+        //SystemUtils.LOG.info("Data set interpolated in " + (0.001 * (t5 - t4)) + " sec");
+    }
 
-            xp = Math.max(Math.max(vx[0], vx[1]), vx[2]);
-            i_max = coordToIndex(xp, x_min, xScale, offset);
+    /**
+     * Interpolate over triangles given as three point indices each, as returned by
+     * {@link GridTriangulator#triangulate}.
+     */
+    public static void interpolate(final double[] x_in, final double[] y_in, final int[] triangles,
+                                   final Window tileWindow, final double xScale, final double yScale,
+                                   final double offset, final double invalidIndex, final ZData[] zList) {
 
-            yp = Math.min(Math.min(vy[0], vy[1]), vy[2]);
-            j_min = coordToIndex(yp, y_min, yScale, offset);
+        final double x_min = tileWindow.linelo;
+        final double y_min = tileWindow.pixlo;
 
-            yp = Math.max(Math.max(vy[0], vy[1]), vy[2]);
-            j_max = coordToIndex(yp, y_min, yScale, offset);
+        final double[] vx = new double[4];
+        final double[] vy = new double[4];
+        final double[] vz = new double[3];
 
-            // skip triangle that is above or below the region
-            if ((i_max < 0) || (i_min >= nx)) {
-                continue;
-            }
+        final int nx = (int) tileWindow.lines();
+        final int ny = (int) tileWindow.pixels();
 
-            // skip triangle that is on the left or right of the region
-            if ((j_max < 0) || (j_min >= ny)) {
-                continue;
+        for (int t = 0; t + 2 < triangles.length; t += 3) {
+            for (int v = 0; v < 3; v++) {
+                final int k = triangles[t + v];
+                vx[v] = x_in[k];
+                vy[v] = y_in[k];
+                vz[v] = k;
             }
+            vx[3] = vx[0];
+            vy[3] = vy[0];
 
-            // triangle covers the upper or lower boundary
-            if (i_min < 0) {
-                i_min = 0;
-            }
+            interpolateTriangle(vx, vy, vz, x_min, y_min, nx, ny, xScale, yScale, offset, invalidIndex, zList);
+        }
+    }
 
-            if (i_max >= nx) {
-                i_max = nx - 1;
-            }
+    private static void interpolateTriangle(final double[] vx, final double[] vy, final double[] vz,
+                                            final double x_min, final double y_min, final int nx, final int ny,
+                                            final double xScale, final double yScale, final double offset,
+                                            final double invalidIndex, final ZData[] zList) {
 
-            // triangle covers left or right boundary
-            if (j_min < 0) {
-                j_min = 0;
-            }
+        long i_min, i_max, j_min, j_max; // minimas/maximas
+        double xp, yp;
+        double xkj, ykj, xlj, ylj;
+        double f; // function
 
-            if (j_max >= ny) {
-                j_max = ny - 1;
-            }
+        // skip invalid indices
+        if (vx[0] == invalidIndex || vx[1] == invalidIndex || vx[2] == invalidIndex ||
+                vy[0] == invalidIndex || vy[1] == invalidIndex || vy[2] == invalidIndex) {
+            return;
+        }
 
-            // compute plane defined by the three vertices of the triangle: z = ax + by + c
-            xkj = vx[1] - vx[0];
-            ykj = vy[1] - vy[0];
-            xlj = vx[2] - vx[0];
-            ylj = vy[2] - vy[0];
+        // Compute grid indices the current triangle may cover
+        xp = Math.min(Math.min(vx[0], vx[1]), vx[2]);
+        i_min = coordToIndex(xp, x_min, xScale, offset);
 
-            f = 1.0 / (xkj * ylj - ykj * xlj);
+        xp = Math.max(Math.max(vx[0], vx[1]), vx[2]);
+        i_max = coordToIndex(xp, x_min, xScale, offset);
 
-            vz[0] = triangle.getA().z;
-            vz[1] = triangle.getB().z;
-            vz[2] = triangle.getC().z;
+        yp = Math.min(Math.min(vy[0], vy[1]), vy[2]);
+        j_min = coordToIndex(yp, y_min, yScale, offset);
 
-            for(ZData data : zList) {
-                getABC(vx, vy, vz, data, f, xkj, ykj, xlj, ylj);
-            }
+        yp = Math.max(Math.max(vy[0], vy[1]), vy[2]);
+        j_max = coordToIndex(yp, y_min, yScale, offset);
+
+        // skip triangle that is above or below the region
+        if ((i_max < 0) || (i_min >= nx)) {
+            return;
+        }
+
+        // skip triangle that is on the left or right of the region
+        if ((j_max < 0) || (j_min >= ny)) {
+            return;
+        }
+
+        // triangle covers the upper or lower boundary
+        if (i_min < 0) {
+            i_min = 0;
+        }
 
-            final PointInTriangle pointInTriangle = new PointInTriangle(vx, vy);
+        if (i_max >= nx) {
+            i_max = nx - 1;
+        }
+
+        // triangle covers left or right boundary
+        if (j_min < 0) {
+            j_min = 0;
+        }
+
+        if (j_max >= ny) {
+            j_max = ny - 1;
+        }
 
-            for (int i = (int)i_min; i <= i_max; i++) {
-                xp = x_min + i * xScale + offset;
-                for (int j = (int)j_min; j <= j_max; j++) {
-                    yp = y_min + j * yScale + offset;
+        // compute plane defined by the three vertices of the triangle: z = ax + by + c
+        xkj = vx[1] - vx[0];
+        ykj = vy[1] - vy[0];
+        xlj = vx[2] - vx[0];
+        ylj = vy[2] - vy[0];
 
-                    if(!pointInTriangle.test(xp, yp)) {
-                        continue;
-                    }
+        f = 1.0 / (xkj * ylj - ykj * xlj);
 
-                    for(ZData d : zList) {
-                        d.z_out[i][j] = d.a * xp + d.b * yp + d.c;
-                    }
+        for(ZData data : zList) {
+            getABC(vx, vy, vz, data, f, xkj, ykj, xlj, ylj);
+        }
+
+        final PointInTriangle pointInTriangle = new PointInTriangle(vx, vy);
+
+        for (int i = (int)i_min; i <= i_max; i++) {
+            xp = x_min + i * xScale + offset;
+            for (int j = (int)j_min; j <= j_max; j++) {
+                yp = y_min + j * yScale + offset;
+
+                if(!pointInTriangle.test(xp, yp)) {
+                    continue;
+                }
+
+                for(ZData d : zList) {
+                    d.z_out[i][j] = d.a * xp + d.b * yp + d.c;
                 }
             }
         }
-        //long t5 = System.currentTimeMillis();
-        //SystemUtils.LOG.info("Data set interpolated in " + (0.001 * (t5 - t4)) + " sec");
     }
 
     private static void getABC(
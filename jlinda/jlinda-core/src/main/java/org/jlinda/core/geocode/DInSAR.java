@@ -184,7 +184,9 @@ public class DInSAR {
         DoubleMatrix rangeAxisNormalize = DoubleMatrix.linspace((int) tileWindow.pixlo, (int) tileWindow.pixhi, defoData.columns);
         normalize_inplace(rangeAxisNormalize, minP, maxP);
 
-        DoubleMatrix ratio = PolyUtils.polyval(azimuthAxisNormalize, rangeAxisNormalize, rhs, PolyUtils.degreeFromCoefficients(rhs.length));
+        DoubleMatrix ratio = new DoubleMatrix(azimuthAxisNormalize.length, rangeAxisNormalize.length);
+        PolyUtils.polyvalGrid(azimuthAxisNormalize.data, azimuthAxisNormalize.length, rangeAxisNormalize.data,
+                rangeAxisNormalize.length, rhs.data, PolyUtils.degreeFromCoefficients(rhs.length), ratio.data);
 
         DoubleMatrix scaledTopo = topoData.mul(ratio);
         ComplexDoubleMatrix ratioBaselinesCplx = new ComplexDoubleMatrix(MatrixFunctions.cos(scaledTopo), MatrixFunctions.sin(scaledTopo).neg());
@@ -35,12 +35,17 @@ public class TopoPhase {
     public double[][] latitude;
     public double[][] longitude;
 
-    private double[][] demRadarCode_x;
-    private double[][] demRadarCode_y;
-    private double[][] demRadarCode_phase; // interpolated grid
-    private double[][] demElevation;
-    private double[][] demLatitude;
-    private double[][] demLongitude;
+    // radar coded DEM posts, nRows x nCols in row-major order
+    private double[] demRadarCode_x;
+    private double[] demRadarCode_y;
+    private double[] demRadarCode_phase; // interpolated grid
+    private double[] demElevation;
+    private double[] demLatitude;
+    private double[] demLongitude;
+
+    // use the per thread buffers for the radar coded DEM, only while computeTopoPhase() runs
+    private boolean usePooledBuffers = false;
+    private static final ThreadLocal<Buffers> pooledBuffers = ThreadLocal.withInitial(Buffers::new);
 
     private int nRows;
     private int nCols;
@@ -85,15 +90,26 @@ public class TopoPhase {
     }
 
     public double[][] getDemRadarCode_phase() {
-        return demRadarCode_phase;
+        return toGrid(demRadarCode_phase);
     }
 
     public double[][] getDemRadarCode_x() {
-        return demRadarCode_x;
+        return toGrid(demRadarCode_x);
     }
 
     public double[][] getDemRadarCode_y() {
-        return demRadarCode_y;
+        return toGrid(demRadarCode_y);
+    }
+
+    private double[][] toGrid(final double[] data) {
+        if (data == null) {
+            return null;
+        }
+        final double[][] grid = new double[nRows][nCols];
+        for (int i = 0; i < nRows; i++) {
+            System.arraycopy(data, i * nCols, grid[i], 0, nCols);
+        }
+        return grid;
     }
 
     public double getRngAzRatio() {
@@ -108,14 +124,25 @@ public class TopoPhase {
 
         //logger.info("Converting DEM to radar system for this tile.");
 
-        demRadarCode_x = new double[nRows][nCols];
-        demRadarCode_y = new double[nRows][nCols];
-        demRadarCode_phase = new double[nRows][nCols];
-        demElevation = new double[nRows][nCols];
-        demLatitude = new double[nRows][nCols];
-        demLongitude = new double[nRows][nCols];
-
         final int nPoints = nRows * nCols;
+        if (usePooledBuffers) {
+            final Buffers buffers = pooledBuffers.get();
+            buffers.ensureCapacity(nPoints);
+            demRadarCode_x = buffers.x;
+            demRadarCode_y = buffers.y;
+            demRadarCode_phase = buffers.phase;
+            demElevation = buffers.elevation;
+            demLatitude = buffers.latitude;
+            demLongitude = buffers.longitude;
+        } else {
+            demRadarCode_x = new double[nPoints];
+            demRadarCode_y = new double[nPoints];
+            demRadarCode_phase = new double[nPoints];
+            demElevation = new double[nPoints];
+            demLatitude = new double[nPoints];
+            demLongitude = new double[nPoints];
+        }
+
         final boolean onlyTopoRefPhase = true;
 
         //logger.info("Number of points in DEM: " + nPoints);
@@ -141,12 +168,12 @@ public class TopoPhase {
             lambda = upperLeftLambda;
             double[] heightArray = dem.data[i];
 
-            for (int j = 0; j < nCols; j++) {
+            for (int j = 0, k = i * nCols; j < nCols; j++, k++) {
 
                 height = heightArray[j];
-                demElevation[i][j] = height;
-                demLatitude[i][j] = phi;
-                demLongitude[i][j] = lambda;
+                demElevation[k] = height;
+                demLatitude[k] = phi;
+                demLongitude[k] = lambda;
 
                 if (height != dem.noDataValue) {
 
@@ -156,8 +183,8 @@ public class TopoPhase {
                     line = sarPoint.y;
                     pix = sarPoint.x;
 
-                    demRadarCode_y[i][j] = line;
-                    demRadarCode_x[i][j] = pix;
+                    demRadarCode_y[k] = line;
+                    demRadarCode_x[k] = pix;
 
                     pointOnDem = Ellipsoid.ell2xyz(phi_lam_height);
                     slaveTime = slaveOrbit.xyz2t(pointOnDem, slaveMeta);
@@ -195,7 +222,7 @@ public class TopoPhase {
                         ref_phase = masterMin4piCDivLam * masterMeta.pix2tr(pix) - slaveMin4piCDivLam * slaveTime.x;
                     }
 
-                    demRadarCode_phase[i][j] = ref_phase;
+                    demRadarCode_phase[k] = ref_phase;
 
                 } else {
 
@@ -206,13 +233,13 @@ public class TopoPhase {
                     pix = sarPoint.x;
 
                     if (useInvalidIndex) {
-                        demRadarCode_y[i][j] = invalidIndex;//line;
-                        demRadarCode_x[i][j] = invalidIndex;//pix;
+                        demRadarCode_y[k] = invalidIndex;//line;
+                        demRadarCode_x[k] = invalidIndex;//pix;
                     } else {
-                        demRadarCode_y[i][j] = line;
-                        demRadarCode_x[i][j] = pix;
+                        demRadarCode_y[k] = line;
+                        demRadarCode_x[k] = pix;
                     }
-                    demRadarCode_phase[i][j] = 0;
+                    demRadarCode_phase[k] = 0;
                 }
 
                 lambda += dem.longitudeDelta;
@@ -337,7 +364,8 @@ public class TopoPhase {
             };
         }
 
-        TriangleInterpolator.gridDataLinear(demRadarCode_y, demRadarCode_x, data,
+        // the DEM posts form a grid, which is split into triangles cell by cell where possible
+        TriangleInterpolator.gridDataLinear(demRadarCode_y, demRadarCode_x, nRows, nCols, data,
                 tileWindow, rngAzRatio, mlAz, mlRg, invalidIndex, offset);
     }
 
@@ -475,6 +503,7 @@ public class TopoPhase {
         // at the same time.
         try {
             final TopoPhase topoPhase = new TopoPhase(mstMetaData, mstOrbit, slvMetaData, slvOrbit, tileWindow, demTile);
+            topoPhase.usePooledBuffers = true;
 
             // We do not want to use ivalidIndex if it is outputting lat/lon because we do not want to mask out the sea
             // pixels like we do with elevation.
@@ -482,6 +511,9 @@ public class TopoPhase {
 
             topoPhase.gridData(outputDEM, outputLatLon);
 
+            // the radar coded DEM goes back to the pool, only the gridded results are handed out
+            topoPhase.releaseBuffers();
+
             return topoPhase;
 
         } catch (Exception e) {
@@ -489,6 +521,15 @@ public class TopoPhase {
         }
     }
 
+    private void releaseBuffers() {
+        demRadarCode_x = null;
+        demRadarCode_y = null;
+        demRadarCode_phase = null;
+        demElevation = null;
+        demLatitude = null;
+        demLongitude = null;
+    }
+
     private static double[] computeMaxHeight(
             final PixelPos[] corners, final Rectangle rectangle, final String tileExtensionPercent,
             final ElevationModel dem, final double demNoDataValue) throws Exception {
@@ -552,4 +593,24 @@ public class TopoPhase {
 
         return heightArray;
     }
+
+    private static final class Buffers {
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private double[] phase = new double[0];
+        private double[] elevation = new double[0];
+        private double[] latitude = new double[0];
+        private double[] longitude = new double[0];
+
+        void ensureCapacity(final int nPoints) {
+            if (x.length < nPoints) {
+                x = new double[nPoints];
+                y = new double[nPoints];
+                phase = new double[nPoints];
+                elevation = new double[nPoints];
+                latitude = new double[nPoints];
+                longitude = new double[nPoints];
+            }
+        }
+    }
 }
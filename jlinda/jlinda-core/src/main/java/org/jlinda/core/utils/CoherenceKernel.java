@@ -0,0 +1,241 @@
+package org.jlinda.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Allocation free coherence estimation on interleaved complex buffers (re, im, re, im, ...) in row-major order.
+ * <p>
+ * Gives the same result as {@link SarUtils#coherence2} on the cross product and norms of a pair, but keeps
+ * running column sums over the azimuth window and a running row sum over the range window, so the cost per
+ * pixel does not depend on the window size. The per row products are kept in a ring buffer of winL rows
+ * which is reused by the calling thread.
+ * <p>
+ * Rows and columns sliding out of the window leave round off in the running sums that is relative to the power
+ * they carried, so where a window holds little power compared to what passed through the sums before, the sums
+ * are taken again from the ring buffer.
+ */
+public final class CoherenceKernel {
+
+    // cross product real and imaginary parts, master power, slave power
+    private static final int NUM_SUMS = 4;
+
+    // running sums smaller than this fraction of the largest power seen carry mostly round off, recompute them
+    private static final double RECOMPUTE_RATIO = 1e-9;
+
+    private static final ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(Workspace::new);
+
+    private CoherenceKernel() {
+    }
+
+    /**
+     * Estimate the coherence of a pair.
+     *
+     * @param master interleaved complex master samples of rows x cols
+     * @param slave  interleaved complex slave samples of rows x cols
+     * @param rows   number of rows (azimuth)
+     * @param cols   number of columns (range)
+     * @param winL   estimation window size in azimuth
+     * @param winP   estimation window size in range
+     * @param out    coherence of (rows - winL + 1) x (cols - winP + 1) in row-major order
+     */
+    public static void coherence(final double[] master, final double[] slave, final int rows, final int cols,
+                                 final int winL, final int winP, final double[] out) {
+        checkArguments(master.length, slave.length, rows, cols, winL, winP, out.length);
+
+        final Workspace ws = workspace.get();
+        ws.ensureCapacity(winL, cols);
+        final double[] ring = ws.ring;
+        final int rowSize = NUM_SUMS * cols;
+        final int outCols = cols - winP + 1;
+
+        estimate(rows, cols, winL, winP, ws,
+                (r, slot) -> loadRow(master, slave, r, cols, ring, slot * rowSize),
+                (i, cohRow) -> System.arraycopy(cohRow, 0, out, i * outCols, outCols));
+    }
+
+    /**
+     * Estimate the coherence of a pair of single precision samples, the sums are kept in double precision.
+     *
+     * @see #coherence(double[], double[], int, int, int, int, double[])
+     */
+    public static void coherence(final float[] master, final float[] slave, final int rows, final int cols,
+                                 final int winL, final int winP, final float[] out) {
+        checkArguments(master.length, slave.length, rows, cols, winL, winP, out.length);
+
+        final Workspace ws = workspace.get();
+        ws.ensureCapacity(winL, cols);
+        final double[] ring = ws.ring;
+        final int rowSize = NUM_SUMS * cols;
+        final int outCols = cols - winP + 1;
+
+        estimate(rows, cols, winL, winP, ws,
+                (r, slot) -> loadRow(master, slave, r, cols, ring, slot * rowSize),
+                (i, cohRow) -> {
+                    final int offset = i * outCols;
+                    for (int j = 0; j < outCols; j++) {
+                        out[offset + j] = (float) cohRow[j];
+                    }
+                });
+    }
+
+    private static void checkArguments(final int masterLength, final int slaveLength, final int rows, final int cols,
+                                       final int winL, final int winP, final int outLength) {
+        if (winL < 1 || winP < 1 || winL > rows || winP > cols) {
+            throw new IllegalArgumentException("coherence: window " + winL + "x" + winP +
+                    " does not fit " + rows + "x" + cols + " samples");
+        }
+        if (masterLength < 2 * rows * cols || slaveLength < 2 * rows * cols) {
+            throw new IllegalArgumentException("coherence: not the same dimensions.");
+        }
+        if (outLength < (rows - winL + 1) * (cols - winP + 1)) {
+            throw new IllegalArgumentException("coherence: output too small.");
+        }
+    }
+
+    private static void loadRow(final double[] master, final double[] slave, final int row, final int cols,
+                                final double[] ring, final int offset) {
+        int in = 2 * row * cols;
+        int o = offset;
+        for (int c = 0; c < cols; c++, in += 2, o += NUM_SUMS) {
+            final double mr = master[in], mi = master[in + 1];
+            final double sr = slave[in], si = slave[in + 1];
+            ring[o] = mr * sr + mi * si;
+            ring[o + 1] = mi * sr - mr * si;
+            ring[o + 2] = mr * mr + mi * mi;
+            ring[o + 3] = sr * sr + si * si;
+        }
+    }
+
+    private static void loadRow(final float[] master, final float[] slave, final int row, final int cols,
+                                final double[] ring, final int offset) {
+        int in = 2 * row * cols;
+        int o = offset;
+        for (int c = 0; c < cols; c++, in += 2, o += NUM_SUMS) {
+            final double mr = master[in], mi = master[in + 1];
+            final double sr = slave[in], si = slave[in + 1];
+            ring[o] = mr * sr + mi * si;
+            ring[o + 1] = mi * sr - mr * si;
+            ring[o + 2] = mr * mr + mi * mi;
+            ring[o + 3] = sr * sr + si * si;
+        }
+    }
+
+    private interface RowLoader {
+        void load(int row, int slot);
+    }
+
+    private interface RowSink {
+        void store(int row, double[] coherence);
+    }
+
+    private static void estimate(final int rows, final int cols, final int winL, final int winP,
+                                 final Workspace ws, final RowLoader loader, final RowSink sink) {
+        final double[] ring = ws.ring;
+        final double[] colSums = ws.colSums;
+        final double[] cohRow = ws.cohRow;
+        final int rowSize = NUM_SUMS * cols;
+        final int outRows = rows - winL + 1;
+        final int outCols = cols - winP + 1;
+
+        // column sums over the first winL rows
+        Arrays.fill(colSums, 0, rowSize, 0.0);
+        double peakM = 0, peakS = 0; // largest column sums of power so far
+        for (int slot = 0; slot < winL; slot++) {
+            loader.load(slot, slot);
+            final int offset = slot * rowSize;
+            for (int k = 0; k < rowSize; k++) {
+                colSums[k] += ring[offset + k];
+            }
+        }
+
+        for (int i = 0; i < outRows; i++) {
+            // running sum along the row
+            double sumRe = 0, sumIm = 0, powM = 0, powS = 0;
+            for (int c = 0; c < cols; c++) {
+                final int k = NUM_SUMS * c;
+                peakM = Math.max(peakM, colSums[k + 2]);
+                peakS = Math.max(peakS, colSums[k + 3]);
+                if (c < winP) {
+                    sumRe += colSums[k];
+                    sumIm += colSums[k + 1];
+                    powM += colSums[k + 2];
+                    powS += colSums[k + 3];
+                }
+            }
+            final double limitM = RECOMPUTE_RATIO * winP * peakM;
+            final double limitS = RECOMPUTE_RATIO * winP * peakS;
+            for (int j = 0; j < outCols; j++) {
+                if (j > 0) {
+                    final int add = NUM_SUMS * (j + winP - 1);
+                    final int sub = NUM_SUMS * (j - 1);
+                    sumRe += colSums[add] - colSums[sub];
+                    sumIm += colSums[add + 1] - colSums[sub + 1];
+                    powM += colSums[add + 2] - colSums[sub + 2];
+                    powS += colSums[add + 3] - colSums[sub + 3];
+                }
+                if (powM <= limitM || powS <= limitS) {
+                    cohRow[j] = windowCoherence(ring, winL, rowSize, j, winP);
+                } else {
+                    cohRow[j] = coherence(sumRe, sumIm, powM, powS);
+                }
+            }
+            sink.store(i, cohRow);
+
+            // slide the column sums down by one row
+            if (i + 1 < outRows) {
+                final int offset = (i % winL) * rowSize;
+                for (int k = 0; k < rowSize; k++) {
+                    colSums[k] -= ring[offset + k];
+                }
+                loader.load(i + winL, i % winL);
+                for (int k = 0; k < rowSize; k++) {
+                    colSums[k] += ring[offset + k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Coherence of the window starting at column j, summed from the ring buffer which holds exactly its rows.
+     */
+    private static double windowCoherence(final double[] ring, final int winL, final int rowSize, final int j,
+                                          final int winP) {
+        double sumRe = 0, sumIm = 0, powM = 0, powS = 0;
+        for (int slot = 0; slot < winL; slot++) {
+            final int start = slot * rowSize + NUM_SUMS * j;
+            final int end = start + NUM_SUMS * winP;
+            for (int k = start; k < end; k += NUM_SUMS) {
+                sumRe += ring[k];
+                sumIm += ring[k + 1];
+                powM += ring[k + 2];
+                powS += ring[k + 3];
+            }
+        }
+        return coherence(sumRe, sumIm, powM, powS);
+    }
+
+    private static double coherence(final double sumRe, final double sumIm, final double powM, final double powS) {
+        final double product = powM * powS;
+        if (!(product > 0.0)) {
+            return 0.0;
+        }
+        // |sum of cross products| cannot exceed the square root of the power product but for round off
+        return Math.min(1.0, Math.sqrt(sumRe * sumRe + sumIm * sumIm) / Math.sqrt(product));
+    }
+
+    private static final class Workspace {
+        private double[] ring = new double[0];
+        private double[] colSums = new double[0];
+        private double[] cohRow = new double[0];
+
+        void ensureCapacity(final int winL, final int cols) {
+            if (ring.length < winL * NUM_SUMS * cols) {
+                ring = new double[winL * NUM_SUMS * cols];
+            }
+            if (colSums.length < NUM_SUMS * cols) {
+                colSums = new double[NUM_SUMS * cols];
+                cohRow = new double[cols];
+            }
+        }
+    }
+}
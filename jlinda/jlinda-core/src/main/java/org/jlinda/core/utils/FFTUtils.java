@@ -0,0 +1,246 @@
+package org.jlinda.core.utils;
+
+import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
+import edu.emory.mathcs.jtransforms.fft.FloatFFT_1D;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In place complex FFTs on interleaved buffers (re, im, re, im, ...) holding a rows x cols grid in row-major order.
+ * <p>
+ * Plans are cached per transform length and reused by the calling thread. Rows are transformed where they lie,
+ * columns are gathered a block at a time into a per thread buffer, so a batch of transforms allocates nothing
+ * once the thread has seen the sizes involved.
+ * <p>
+ * A column-major jblas matrix of r x c is a row-major grid of c x r, so its columns are the rows here.
+ */
+public final class FFTUtils {
+
+    // columns gathered per pass over the grid
+    private static final int COLUMN_BLOCK = 8;
+
+    private static final ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(Workspace::new);
+
+    private FFTUtils() {
+    }
+
+    // --- double precision ---
+
+    public static void forward(final double[] data, final int offset, final int length) {
+        workspace.get().doublePlan(length).complexForward(data, offset);
+    }
+
+    public static void inverse(final double[] data, final int offset, final int length, final boolean scale) {
+        workspace.get().doublePlan(length).complexInverse(data, offset, scale);
+    }
+
+    /**
+     * Transform each of the rows of the grid.
+     */
+    public static void forwardRows(final double[] data, final int rows, final int cols) {
+        transformRows(data, rows, cols, true, false);
+    }
+
+    public static void inverseRows(final double[] data, final int rows, final int cols, final boolean scale) {
+        transformRows(data, rows, cols, false, scale);
+    }
+
+    /**
+     * Transform each of the columns of the grid.
+     */
+    public static void forwardColumns(final double[] data, final int rows, final int cols) {
+        transformColumns(data, rows, cols, true, false);
+    }
+
+    public static void inverseColumns(final double[] data, final int rows, final int cols, final boolean scale) {
+        transformColumns(data, rows, cols, false, scale);
+    }
+
+    public static void forward2D(final double[] data, final int rows, final int cols) {
+        transformRows(data, rows, cols, true, false);
+        transformColumns(data, rows, cols, true, false);
+    }
+
+    public static void inverse2D(final double[] data, final int rows, final int cols, final boolean scale) {
+        transformColumns(data, rows, cols, false, scale);
+        transformRows(data, rows, cols, false, scale);
+    }
+
+    private static void transformRows(final double[] data, final int rows, final int cols,
+                                      final boolean forward, final boolean scale) {
+        checkSize(data.length, rows, cols);
+        final DoubleFFT_1D fft = workspace.get().doublePlan(cols);
+        for (int r = 0, offset = 0; r < rows; r++, offset += 2 * cols) {
+            if (forward) {
+                fft.complexForward(data, offset);
+            } else {
+                fft.complexInverse(data, offset, scale);
+            }
+        }
+    }
+
+    private static void transformColumns(final double[] data, final int rows, final int cols,
+                                         final boolean forward, final boolean scale) {
+        checkSize(data.length, rows, cols);
+        final Workspace ws = workspace.get();
+        final DoubleFFT_1D fft = ws.doublePlan(rows);
+        final double[] buffer = ws.doubleBuffer(COLUMN_BLOCK * 2 * rows);
+        final int rowLength = 2 * cols;
+
+        for (int c0 = 0; c0 < cols; c0 += COLUMN_BLOCK) {
+            final int n = Math.min(COLUMN_BLOCK, cols - c0);
+
+            // gather: each row contributes n neighbouring samples
+            for (int r = 0; r < rows; r++) {
+                int in = r * rowLength + 2 * c0;
+                for (int b = 0; b < n; b++, in += 2) {
+                    final int out = 2 * (b * rows + r);
+                    buffer[out] = data[in];
+                    buffer[out + 1] = data[in + 1];
+                }
+            }
+
+            for (int b = 0; b < n; b++) {
+                if (forward) {
+                    fft.complexForward(buffer, 2 * b * rows);
+                } else {
+                    fft.complexInverse(buffer, 2 * b * rows, scale);
+                }
+            }
+
+            for (int r = 0; r < rows; r++) {
+                int out = r * rowLength + 2 * c0;
+                for (int b = 0; b < n; b++, out += 2) {
+                    final int in = 2 * (b * rows + r);
+                    data[out] = buffer[in];
+                    data[out + 1] = buffer[in + 1];
+                }
+            }
+        }
+    }
+
+    // --- single precision ---
+
+    public static void forward(final float[] data, final int offset, final int length) {
+        workspace.get().floatPlan(length).complexForward(data, offset);
+    }
+
+    public static void inverse(final float[] data, final int offset, final int length, final boolean scale) {
+        workspace.get().floatPlan(length).complexInverse(data, offset, scale);
+    }
+
+    public static void forwardRows(final float[] data, final int rows, final int cols) {
+        transformRows(data, rows, cols, true, false);
+    }
+
+    public static void inverseRows(final float[] data, final int rows, final int cols, final boolean scale) {
+        transformRows(data, rows, cols, false, scale);
+    }
+
+    public static void forwardColumns(final float[] data, final int rows, final int cols) {
+        transformColumns(data, rows, cols, true, false);
+    }
+
+    public static void inverseColumns(final float[] data, final int rows, final int cols, final boolean scale) {
+        transformColumns(data, rows, cols, false, scale);
+    }
+
+    public static void forward2D(final float[] data, final int rows, final int cols) {
+        transformRows(data, rows, cols, true, false);
+        transformColumns(data, rows, cols, true, false);
+    }
+
+    public static void inverse2D(final float[] data, final int rows, final int cols, final boolean scale) {
+        transformColumns(data, rows, cols, false, scale);
+        transformRows(data, rows, cols, false, scale);
+    }
+
+    private static void transformRows(final float[] data, final int rows, final int cols,
+                                      final boolean forward, final boolean scale) {
+        checkSize(data.length, rows, cols);
+        final FloatFFT_1D fft = workspace.get().floatPlan(cols);
+        for (int r = 0, offset = 0; r < rows; r++, offset += 2 * cols) {
+            if (forward) {
+                fft.complexForward(data, offset);
+            } else {
+                fft.complexInverse(data, offset, scale);
+            }
+        }
+    }
+
+    private static void transformColumns(final float[] data, final int rows, final int cols,
+                                         final boolean forward, final boolean scale) {
+        checkSize(data.length, rows, cols);
+        final Workspace ws = workspace.get();
+        final FloatFFT_1D fft = ws.floatPlan(rows);
+        final float[] buffer = ws.floatBuffer(COLUMN_BLOCK * 2 * rows);
+        final int rowLength = 2 * cols;
+
+        for (int c0 = 0; c0 < cols; c0 += COLUMN_BLOCK) {
+            final int n = Math.min(COLUMN_BLOCK, cols - c0);
+
+            for (int r = 0; r < rows; r++) {
+                int in = r * rowLength + 2 * c0;
+                for (int b = 0; b < n; b++, in += 2) {
+                    final int out = 2 * (b * rows + r);
+                    buffer[out] = data[in];
+                    buffer[out + 1] = data[in + 1];
+                }
+            }
+
+            for (int b = 0; b < n; b++) {
+                if (forward) {
+                    fft.complexForward(buffer, 2 * b * rows);
+                } else {
+                    fft.complexInverse(buffer, 2 * b * rows, scale);
+                }
+            }
+
+            for (int r = 0; r < rows; r++) {
+                int out = r * rowLength + 2 * c0;
+                for (int b = 0; b < n; b++, out += 2) {
+                    final int in = 2 * (b * rows + r);
+                    data[out] = buffer[in];
+                    data[out + 1] = buffer[in + 1];
+                }
+            }
+        }
+    }
+
+    private static void checkSize(final int dataLength, final int rows, final int cols) {
+        if (dataLength < 2 * rows * cols) {
+            throw new IllegalArgumentException("fft: buffer of " + dataLength + " values is too small for "
+                    + rows + "x" + cols + " complex samples");
+        }
+    }
+
+    private static final class Workspace {
+        private final Map<Integer, DoubleFFT_1D> doublePlans = new HashMap<>();
+        private final Map<Integer, FloatFFT_1D> floatPlans = new HashMap<>();
+        private double[] doubleBuffer = new double[0];
+        private float[] floatBuffer = new float[0];
+
+        DoubleFFT_1D doublePlan(final int length) {
+            return doublePlans.computeIfAbsent(length, DoubleFFT_1D::new);
+        }
+
+        FloatFFT_1D floatPlan(final int length) {
+            return floatPlans.computeIfAbsent(length, FloatFFT_1D::new);
+        }
+
+        double[] doubleBuffer(final int size) {
+            if (doubleBuffer.length < size) {
+                doubleBuffer = new double[size];
+            }
+            return doubleBuffer;
+        }
+
+        float[] floatBuffer(final int size) {
+            if (floatBuffer.length < size) {
+                floatBuffer = new float[size];
+            }
+            return floatBuffer;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.esa.snap.core.util.SystemUtils;
 import org.jblas.DoubleMatrix;
 import org.jblas.Solve;
 
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -438,6 +439,108 @@ public class PolyUtils {
         return result;
     }
 
+    /**
+     * Evaluates a 2-D polynomial on the grid spanned by x and y into a caller provided array. The result is
+     * stored like a jblas matrix with x along the rows: result[i + j * x.length] = p(x[i], y[j]).
+     * <p>
+     * The polynomial is separable into a polynomial in x whose coefficients are polynomials in y. These are
+     * evaluated once per y with Horner's scheme, after which every grid point costs a single Horner pass in x.
+     *
+     * @param x      x axis, numX values
+     * @param y      y axis, numY values
+     * @param coeff  coefficients in the order of {@link #polyval(double, double, double[], int)}
+     * @param degree degree of the polynomial, -1 to derive it from the number of coefficients
+     * @param result output of at least numX * numY values
+     */
+    public static void polyvalGrid(final double[] x, final int numX, final double[] y, final int numY,
+                                   final double[] coeff, int degree, final double[] result) {
+
+        if (degree == -1) {
+            degree = degreeFromCoefficients(coeff.length);
+        }
+
+        if (degree < 0 || numberOfCoefficients(degree) > coeff.length) {
+            throw new IllegalArgumentException("polyvalGrid: degree " + degree + " does not match " +
+                    coeff.length + " coefficients");
+        }
+
+        if (result.length < numX * numY) {
+            throw new IllegalArgumentException("polyvalGrid: result array too small");
+        }
+
+        // coefficients of x^p for the current y
+        final double[] a = new double[degree + 1];
+
+        for (int j = 0; j < numY; j++) {
+            final double yy = y[j];
+
+            // term x^p * y^q is stored at l * (l + 1) / 2 + q with l = p + q
+            for (int p = 0; p <= degree; p++) {
+                double sum = 0.0;
+                for (int q = degree - p; q >= 0; q--) {
+                    final int l = p + q;
+                    sum = sum * yy + coeff[l * (l + 1) / 2 + q];
+                }
+                a[p] = sum;
+            }
+
+            final int offset = j * numX;
+            switch (degree) {
+                case 0:
+                    Arrays.fill(result, offset, offset + numX, a[0]);
+                    break;
+                case 1: {
+                    final double a0 = a[0], a1 = a[1];
+                    for (int i = 0; i < numX; i++) {
+                        result[offset + i] = a0 + x[i] * a1;
+                    }
+                    break;
+                }
+                case 2: {
+                    final double a0 = a[0], a1 = a[1], a2 = a[2];
+                    for (int i = 0; i < numX; i++) {
+                        final double xx = x[i];
+                        result[offset + i] = a0 + xx * (a1 + xx * a2);
+                    }
+                    break;
+                }
+                case 3: {
+                    final double a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+                    for (int i = 0; i < numX; i++) {
+                        final double xx = x[i];
+                        result[offset + i] = a0 + xx * (a1 + xx * (a2 + xx * a3));
+                    }
+                    break;
+                }
+                case 4: {
+                    final double a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+                    for (int i = 0; i < numX; i++) {
+                        final double xx = x[i];
+                        result[offset + i] = a0 + xx * (a1 + xx * (a2 + xx * (a3 + xx * a4)));
+                    }
+                    break;
+                }
+                case 5: {
+                    final double a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4], a5 = a[5];
+                    for (int i = 0; i < numX; i++) {
+                        final double xx = x[i];
+                        result[offset + i] = a0 + xx * (a1 + xx * (a2 + xx * (a3 + xx * (a4 + xx * a5))));
+                    }
+                    break;
+                }
+                default:
+                    for (int i = 0; i < numX; i++) {
+                        final double xx = x[i];
+                        double sum = a[degree];
+                        for (int p = degree - 1; p >= 0; p--) {
+                            sum = sum * xx + a[p];
+                        }
+                        result[offset + i] = sum;
+                    }
+            }
+        }
+    }
+
     public static DoubleMatrix polyval(final DoubleMatrix x, final DoubleMatrix y, final DoubleMatrix coeff, int degree) {
 
         if (!x.isColumnVector()) {
@@ -1,6 +1,5 @@
 package org.jlinda.core.utils;
 
-import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
 import edu.emory.mathcs.jtransforms.fft.DoubleFFT_2D;
 import org.esa.snap.core.util.SystemUtils;
 import org.jblas.ComplexDoubleMatrix;
@@ -12,38 +11,21 @@ public class SpectralUtils {
 
     static Logger logger = SystemUtils.LOG;
 
-    private static void fftTransform1D_inplace(ComplexDoubleMatrix vector, int fftLength, int direction) {
-        switch (direction) {
-            case 1:
-                fft1D_inplace(vector, fftLength);
-                break;
-            case -1:
-                invfft1D_inplace(vector, fftLength);
-                break;
-            default:
-                throw new IllegalArgumentException("fourier1D: direction 1, or -1");
-        }
-    }
-
     public static void fft1D_inplace(ComplexDoubleMatrix vector, final int fftLength) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(fftLength);
-        fft.complexForward(vector.data);
+        FFTUtils.forward(vector.data, 0, fftLength);
     }
 
     public static void invfft1D_inplace(ComplexDoubleMatrix vector, final int fftLength) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(fftLength);
-        fft.complexInverse(vector.data, true);
+        FFTUtils.inverse(vector.data, 0, fftLength, true);
     }
 
     public static ComplexDoubleMatrix fft1D(ComplexDoubleMatrix vector, final int fftLength) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(fftLength);
-        fft.complexForward(vector.data);
+        FFTUtils.forward(vector.data, 0, fftLength);
         return vector;
     }
 
     public static ComplexDoubleMatrix invfft1D(ComplexDoubleMatrix vector, final int fftLength) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(fftLength);
-        fft.complexInverse(vector.data, true);
+        FFTUtils.inverse(vector.data, 0, fftLength, true);
         return vector;
     }
 
@@ -53,25 +35,25 @@ public class SpectralUtils {
         return result;
     }
 
+    // jblas keeps the samples column by column, so the matrix columns are the rows of the FFTUtils grid
     private static void fftTransformInPlace(ComplexDoubleMatrix cplxData, int dimension, int flag) {
-        int i;
         final int columns = cplxData.columns;
         final int rows = cplxData.rows;
 
         switch (dimension) {
             case 1: {
-                for (i = 0; i < columns; ++i) {
-                    ComplexDoubleMatrix VECTOR = cplxData.getColumn(i);
-                    fftTransform1D_inplace(VECTOR, rows, flag);
-                    cplxData.putColumn(i, VECTOR);
+                if (flag == 1) {
+                    FFTUtils.forwardRows(cplxData.data, columns, rows);
+                } else {
+                    FFTUtils.inverseRows(cplxData.data, columns, rows, true);
                 }
                 break;
             }
             case 2: {
-                for (i = 0; i < rows; ++i) {
-                    ComplexDoubleMatrix VECTOR = cplxData.getRow(i);
-                    fftTransform1D_inplace(VECTOR, columns, flag);
-                    cplxData.putRow(i, VECTOR);
+                if (flag == 1) {
+                    FFTUtils.forwardColumns(cplxData.data, columns, rows);
+                } else {
+                    FFTUtils.inverseColumns(cplxData.data, columns, rows, true);
                 }
                 break;
             }
@@ -98,11 +80,7 @@ public class SpectralUtils {
     }
 
     public static void fft2D_inplace(ComplexDoubleMatrix A) {
-        ComplexDoubleMatrix aTemp = A.transpose();
-        DoubleFFT_2D fft2d = new DoubleFFT_2D(aTemp.rows, aTemp.columns);
-//        fft2d.complexForward(A.data);
-        fft2d.complexForward(aTemp.data);
-        A.data = aTemp.transpose().data;
+        FFTUtils.forward2D(A.data, A.columns, A.rows);
     }
 
     public static ComplexDoubleMatrix fft2D(ComplexDoubleMatrix inMatrix) {
@@ -117,11 +95,7 @@ public class SpectralUtils {
     }
 
     public static void invfft2D_inplace(ComplexDoubleMatrix A) {
-        DoubleFFT_2D fft2d = new DoubleFFT_2D(A.rows, A.columns);
-//        fft2d.complexInverse(A.data, true);
-        ComplexDoubleMatrix aTemp = A.transpose();
-        fft2d.complexInverse(aTemp.data, true);
-        A.data = aTemp.transpose().data;
+        FFTUtils.inverse2D(A.data, A.columns, A.rows, true);
     }
 
     public static ComplexDoubleMatrix invfft2d(ComplexDoubleMatrix inMatrix) {
@@ -0,0 +1,347 @@
+package org.jlinda.core.delaunay;
+
+import org.jlinda.core.Window;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ArrayDelaunayTriangulatorTest {
+
+    private static final double invalidIndex = -9999.0;
+
+    private static double[] randomCoordinates(final Random random, final int n, final double scale) {
+        final double[] c = new double[n];
+        for (int i = 0; i < n; i++) {
+            c[i] = scale * random.nextDouble();
+        }
+        return c;
+    }
+
+    private static double orient(final double[] x, final double[] y, final int a, final int b, final int c) {
+        return (x[b] - x[a]) * (y[c] - y[a]) - (y[b] - y[a]) * (x[c] - x[a]);
+    }
+
+    private static boolean inCircle(final double[] x, final double[] y, final int a, final int b, final int c,
+                                    final int d) {
+        final double adx = x[a] - x[d], ady = y[a] - y[d];
+        final double bdx = x[b] - x[d], bdy = y[b] - y[d];
+        final double cdx = x[c] - x[d], cdy = y[c] - y[d];
+        final double det = (adx * adx + ady * ady) * (bdx * cdy - cdx * bdy) +
+                (bdx * bdx + bdy * bdy) * (cdx * ady - adx * cdy) +
+                (cdx * cdx + cdy * cdy) * (adx * bdy - bdx * ady);
+        return det > 1e-9;
+    }
+
+    // every edge locally Delaunay, neighbours symmetric and Euler's formula for the triangle count
+    private static void checkMesh(final ArrayDelaunayTriangulator.Mesh mesh, final double[] x, final double[] y,
+                                  final int numPoints) {
+        final int[] t = mesh.triangles;
+        final int[] nb = mesh.neighbours;
+        final int numTriangles = mesh.getNumTriangles();
+
+        int hullEdges = 0;
+        for (int i = 0; i < numTriangles; i++) {
+            // exact, triangles along grid lines that are straight up to round off are thin but valid
+            final int a0 = t[3 * i], a1 = t[3 * i + 1], a2 = t[3 * i + 2];
+            Assert.assertTrue(RobustPredicates.orient(x[a0], y[a0], x[a1], y[a1], x[a2], y[a2]) > 0);
+            for (int k = 0; k < 3; k++) {
+                final int j = nb[3 * i + k];
+                if (j == -1) {
+                    hullEdges++;
+                    continue;
+                }
+                final int a = t[3 * i + k];
+                final int b = t[3 * i + (k + 1) % 3];
+
+                // the neighbour holds the same edge the other way round
+                boolean found = false;
+                for (int m = 0; m < 3; m++) {
+                    if (t[3 * j + m] == b && t[3 * j + (m + 1) % 3] == a) {
+                        Assert.assertEquals(i, nb[3 * j + m]);
+                        Assert.assertFalse(inCircle(x, y, t[3 * i], t[3 * i + 1], t[3 * i + 2],
+                                t[3 * j + (m + 2) % 3]));
+                        found = true;
+                    }
+                }
+                Assert.assertTrue(found);
+            }
+        }
+        Assert.assertEquals(2 * numPoints - 2 - hullEdges, numTriangles);
+    }
+
+    // sum of the triangle areas against the area of the convex hull, so a mesh with holes fails
+    private static void checkArea(final ArrayDelaunayTriangulator.Mesh mesh, final double[] x, final double[] y) {
+        final int[] t = mesh.triangles;
+        double area = 0;
+        for (int i = 0; i < mesh.getNumTriangles(); i++) {
+            area += 0.5 * orient(x, y, t[3 * i], t[3 * i + 1], t[3 * i + 2]);
+        }
+        final double hullArea = convexHullArea(x, y);
+        Assert.assertEquals(hullArea, area, 1e-9 * hullArea);
+    }
+
+    // monotone chain over the valid points
+    private static double convexHullArea(final double[] x, final double[] y) {
+        final Integer[] order = new Integer[x.length];
+        int n = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] != invalidIndex && y[i] != invalidIndex) {
+                order[n++] = i;
+            }
+        }
+        final Integer[] points = Arrays.copyOf(order, n);
+        Arrays.sort(points, (a, b) -> x[a] != x[b] ? Double.compare(x[a], x[b]) : Double.compare(y[a], y[b]));
+
+        final int[] hull = new int[2 * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            while (k >= 2 && orient(x, y, hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = points[i];
+        }
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && orient(x, y, hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = points[i];
+        }
+
+        double area = 0;
+        for (int i = 0; i + 1 < k; i++) {
+            area += x[hull[i]] * y[hull[i + 1]] - x[hull[i + 1]] * y[hull[i]];
+        }
+        return 0.5 * area;
+    }
+
+    private static double[] scale(final double[] y, final double xyRatio) {
+        final double[] ys = new double[y.length];
+        for (int i = 0; i < y.length; i++) {
+            ys[i] = y[i] == invalidIndex ? invalidIndex : y[i] * xyRatio;
+        }
+        return ys;
+    }
+
+    // affine grid far from the origin, points of a cell are cocircular up to round off
+    private static double[][] shearedGrid(final int n) {
+        final double[] x = new double[n * n];
+        final double[] y = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                x[i * n + j] = 0.98 * i + 0.13 * j + 1000.123;
+                y[i * n + j] = 0.07 * i + 1.9 * j + 50.7;
+            }
+        }
+        return new double[][]{x, y};
+    }
+
+    private static void checkGrid(final double[] x, final double[] y, final double xyRatio) {
+        int numValid = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] != invalidIndex) {
+                numValid++;
+            }
+        }
+        final ArrayDelaunayTriangulator.Mesh mesh =
+                ArrayDelaunayTriangulator.triangulate(x, y, x.length, xyRatio, invalidIndex);
+        final double[] ys = scale(y, xyRatio);
+        checkMesh(mesh, x, ys, numValid);
+        checkArea(mesh, x, ys);
+    }
+
+    @Test
+    public void testShearedGrids() {
+        final double[][] grid100 = shearedGrid(100);
+        checkGrid(grid100[0], grid100[1], 1.0);
+
+        final double[][] grid60 = shearedGrid(60);
+        checkGrid(grid60[0], grid60[1], 0.2);
+
+        // large enough to be split over threads
+        final double[][] grid200 = shearedGrid(200);
+        checkGrid(grid200[0], grid200[1], 0.2);
+    }
+
+    @Test
+    public void testMaskedGrids() {
+        final Random random = new Random(4);
+        for (int g = 0; g < 40; g++) {
+            // radar geometry: lines along azimuth, pixels along a slightly curved range
+            final int rows = 20 + random.nextInt(60);
+            final int cols = 20 + random.nextInt(60);
+            final double line0 = 1000 * random.nextDouble();
+            final double pixel0 = 5000 * random.nextDouble();
+            final double skew = 0.1 * (random.nextDouble() - 0.5);
+            // without curvature every cell is a parallelogram, cocircular up to round off
+            final double curvature = random.nextBoolean() ? 1e-4 * random.nextDouble() : 0.0;
+            final double[] x = new double[rows * cols];
+            final double[] y = new double[rows * cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    x[i * cols + j] = line0 + i + skew * j;
+                    y[i * cols + j] = pixel0 + 4.1 * j + curvature * j * j + skew * i;
+                }
+            }
+
+            // layover and shadow like holes and an invalid border
+            for (int h = 0; h < 1 + random.nextInt(4); h++) {
+                final int i0 = random.nextInt(rows), j0 = random.nextInt(cols);
+                final int i1 = Math.min(rows, i0 + 1 + random.nextInt(rows / 3));
+                final int j1 = Math.min(cols, j0 + 1 + random.nextInt(cols / 3));
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        x[i * cols + j] = invalidIndex;
+                        y[i * cols + j] = invalidIndex;
+                    }
+                }
+            }
+            for (int k = 0; k < x.length; k++) {
+                if (random.nextInt(20) == 0) {
+                    x[k] = invalidIndex;
+                    y[k] = invalidIndex;
+                }
+            }
+
+            checkGrid(x, y, 0.25);
+        }
+    }
+
+    @Test
+    public void testCollinearRuns() {
+        final int n = 250;
+        final int runs = 60;
+        final double[] x = new double[(runs + 2) * n];
+        final double[] y = new double[x.length];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            // long runs that are collinear up to round off, tens of them side by side
+            for (int r = 0; r < runs; r++) {
+                x[k] = 1000.123 + 0.98 * i + 0.13 * r;
+                y[k++] = 50.7 + 0.07 * i + 1.9 * r;
+            }
+            // exactly collinear, along and across the sort order
+            x[k] = 0.5 * i;
+            y[k++] = i + 1;
+            x[k] = 990;
+            y[k++] = 0.25 * i;
+        }
+        checkGrid(x, y, 1.0);
+        checkGrid(x, y, 0.2);
+    }
+
+    @Test
+    public void testMatchesFastDelaunayTriangulator() throws Exception {
+        final Random random = new Random(6);
+        final int n = 3000;
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        final double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 100 + 200 * random.nextDouble();
+            y[i] = 400 + 800 * random.nextDouble();
+            z[i] = 50 * Math.sin(0.05 * x[i]) + 0.1 * y[i] + random.nextDouble();
+        }
+
+        final Window window = new Window(120, 279, 450, 1149);
+        final int lines = (int) window.lines();
+        final int pixels = (int) window.pixels();
+        final double[][] expected = new double[lines][pixels];
+        final double[][] actual = new double[lines][pixels];
+        for (int i = 0; i < lines; i++) {
+            Arrays.fill(expected[i], Double.NaN);
+            Arrays.fill(actual[i], Double.NaN);
+        }
+
+        TriangleInterpolator.gridDataLinear(x, y, new TriangleInterpolator.ZData[]{
+                new TriangleInterpolator.ZData(z, expected)}, window, 0.25, 1, 1, invalidIndex, 0);
+        TriangleInterpolator.gridDataLinearArray(x, y, new TriangleInterpolator.ZData[]{
+                new TriangleInterpolator.ZData(z, actual)}, window, 0.25, 1, 1, invalidIndex, 0);
+
+        int numInterpolated = 0;
+        for (int i = 0; i < lines; i++) {
+            for (int j = 0; j < pixels; j++) {
+                if (Double.isNaN(expected[i][j])) {
+                    Assert.assertTrue(Double.isNaN(actual[i][j]));
+                } else {
+                    Assert.assertEquals(expected[i][j], actual[i][j], 1e-9);
+                    numInterpolated++;
+                }
+            }
+        }
+        Assert.assertTrue(numInterpolated > lines * pixels / 2);
+    }
+
+    @Test
+    public void testRandomPoints() {
+        final Random random = new Random(1);
+        final int n = 2000;
+        final double[] x = randomCoordinates(random, n, 100);
+        final double[] y = randomCoordinates(random, n, 100);
+
+        final ArrayDelaunayTriangulator.Mesh mesh = ArrayDelaunayTriangulator.triangulate(x, y, n, 1.0, invalidIndex);
+        checkMesh(mesh, x, y, n);
+    }
+
+    @Test
+    public void testParallelSplit() {
+        final Random random = new Random(2);
+        final int n = 5 * ArrayDelaunayTriangulator.PARALLEL_THRESHOLD;
+        final double[] x = randomCoordinates(random, n, 1000);
+        final double[] y = randomCoordinates(random, n, 1000);
+
+        final ArrayDelaunayTriangulator.Mesh mesh = ArrayDelaunayTriangulator.triangulate(x, y, n, 1.0, invalidIndex);
+        checkMesh(mesh, x, y, n);
+    }
+
+    @Test
+    public void testInvalidDuplicateAndCollinearPoints() {
+        final double[] x = {0, 1, 2, 3, invalidIndex, 1};
+        final double[] y = {0, 0, 0, 0, 5, 0};
+        Assert.assertEquals(0, ArrayDelaunayTriangulator.triangulate(x, y, 6, 1.0, invalidIndex).getNumTriangles());
+
+        final double[] x2 = {0, 1, 0, 1, 1, 0.4};
+        final double[] y2 = {0, 0, 1, 1, 1, invalidIndex};
+        final ArrayDelaunayTriangulator.Mesh mesh = ArrayDelaunayTriangulator.triangulate(x2, y2, 6, 1.0, invalidIndex);
+        Assert.assertEquals(2, mesh.getNumTriangles());
+        for (int v : mesh.triangles) {
+            Assert.assertTrue(v != 4 && v != 5);
+        }
+    }
+
+    @Test
+    public void testLocate() {
+        final Random random = new Random(3);
+        final int n = 500;
+        final double[] x = randomCoordinates(random, n, 50);
+        final double[] y = randomCoordinates(random, n, 200);
+        final double xyRatio = 0.25;
+
+        final ArrayDelaunayTriangulator.Mesh mesh =
+                ArrayDelaunayTriangulator.triangulate(x, y, n, xyRatio, invalidIndex);
+        final double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            ys[i] = y[i] * xyRatio;
+        }
+
+        int t = 0;
+        for (int q = 0; q < 200; q++) {
+            final int a = random.nextInt(n);
+            final int b = random.nextInt(n);
+            // midpoints of two points lie inside the convex hull
+            final double xp = 0.5 * (x[a] + x[b]);
+            final double yp = 0.5 * (y[a] + y[b]);
+            t = mesh.locate(xp, yp, t);
+            Assert.assertTrue(t >= 0);
+
+            final int[] v = mesh.triangles;
+            final double[] px = {x[v[3 * t]], x[v[3 * t + 1]], x[v[3 * t + 2]], xp};
+            final double[] py = {ys[v[3 * t]], ys[v[3 * t + 1]], ys[v[3 * t + 2]], yp * xyRatio};
+            Assert.assertTrue(orient(px, py, 0, 1, 3) >= -1e-9);
+            Assert.assertTrue(orient(px, py, 1, 2, 3) >= -1e-9);
+            Assert.assertTrue(orient(px, py, 2, 0, 3) >= -1e-9);
+        }
+        Assert.assertEquals(-1, mesh.locate(-10, -10, t));
+    }
+}
@@ -0,0 +1,101 @@
+package org.jlinda.core.delaunay;
+
+import org.jlinda.core.Window;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class GridTriangulatorTest {
+
+    private static final double invalidIndex = -9999.0;
+    private static final int rows = 12;
+    private static final int cols = 15;
+
+    // grid rotated by the heading, stretched in range and slightly perturbed like a radar coded DEM
+    private static void radarCodedGrid(final double[] x, final double[] y, final long seed) {
+        final Random random = new Random(seed);
+        final double heading = Math.toRadians(12.0);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                final double u = i * 3.0 + 0.2 * (random.nextDouble() - 0.5);
+                final double v = j * 2.0 + 0.2 * (random.nextDouble() - 0.5);
+                x[i * cols + j] = 100 + u * Math.cos(heading) - v * Math.sin(heading);
+                y[i * cols + j] = 200 + (u * Math.sin(heading) + v * Math.cos(heading)) * 4.0;
+            }
+        }
+    }
+
+    @Test
+    public void testTriangulationIsDelaunay() {
+        final double[] x = new double[rows * cols];
+        final double[] y = new double[rows * cols];
+        radarCodedGrid(x, y, 1);
+        final double xyRatio = 0.25;
+
+        final int[] triangles = GridTriangulator.triangulate(x, y, rows, cols, xyRatio, invalidIndex);
+        Assert.assertNotNull(triangles);
+        Assert.assertEquals(6 * (rows - 1) * (cols - 1), triangles.length);
+
+        // no point lies inside the circumcircle of a triangle
+        for (int t = 0; t < triangles.length; t += 3) {
+            final double ax = x[triangles[t]], ay = y[triangles[t]] * xyRatio;
+            final double bx = x[triangles[t + 1]], by = y[triangles[t + 1]] * xyRatio;
+            final double cx = x[triangles[t + 2]], cy = y[triangles[t + 2]] * xyRatio;
+            final double d = 2 * (ax * (by - cy) + bx * (cy - ay) + cx * (ay - by));
+            final double ux = ((ax * ax + ay * ay) * (by - cy) + (bx * bx + by * by) * (cy - ay) +
+                    (cx * cx + cy * cy) * (ay - by)) / d;
+            final double uy = ((ax * ax + ay * ay) * (cx - bx) + (bx * bx + by * by) * (ax - cx) +
+                    (cx * cx + cy * cy) * (bx - ax)) / d;
+            final double r2 = (ax - ux) * (ax - ux) + (ay - uy) * (ay - uy);
+
+            for (int k = 0; k < rows * cols; k++) {
+                final double dx = x[k] - ux, dy = y[k] * xyRatio - uy;
+                Assert.assertTrue(dx * dx + dy * dy >= r2 * (1 - 1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidOrFoldedGrid() {
+        final double[] x = new double[rows * cols];
+        final double[] y = new double[rows * cols];
+
+        radarCodedGrid(x, y, 2);
+        x[5 * cols + 7] = invalidIndex;
+        Assert.assertNull(GridTriangulator.triangulate(x, y, rows, cols, 0.25, invalidIndex));
+
+        radarCodedGrid(x, y, 2);
+        final double tmp = y[5 * cols + 7];
+        y[5 * cols + 7] = y[5 * cols + 8];
+        y[5 * cols + 8] = tmp;
+        Assert.assertNull(GridTriangulator.triangulate(x, y, rows, cols, 0.25, invalidIndex));
+    }
+
+    @Test
+    public void testInterpolateLinearFunction() {
+        final double[] x = new double[rows * cols];
+        final double[] y = new double[rows * cols];
+        radarCodedGrid(x, y, 3);
+
+        final double[] z = new double[rows * cols];
+        for (int k = 0; k < z.length; k++) {
+            z[k] = 0.5 * x[k] - 0.25 * y[k] + 3.0;
+        }
+
+        final int[] triangles = GridTriangulator.triangulate(x, y, rows, cols, 0.25, invalidIndex);
+        Assert.assertNotNull(triangles);
+
+        final Window window = new Window(110, 119, 220, 232);
+        final double[][] out = new double[(int) window.lines()][(int) window.pixels()];
+        TriangleInterpolator.interpolate(x, y, triangles, window, 1, 1, 0, invalidIndex,
+                new TriangleInterpolator.ZData[]{new TriangleInterpolator.ZData(z, out)});
+
+        for (int i = 0; i < out.length; i++) {
+            for (int j = 0; j < out[i].length; j++) {
+                final double expected = 0.5 * (window.linelo + i) - 0.25 * (window.pixlo + j) + 3.0;
+                Assert.assertEquals(expected, out[i][j], 1e-9);
+            }
+        }
+    }
+}
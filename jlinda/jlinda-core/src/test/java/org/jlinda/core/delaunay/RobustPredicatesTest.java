@@ -0,0 +1,77 @@
+package org.jlinda.core.delaunay;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public class RobustPredicatesTest {
+
+    private static BigDecimal big(final double v) {
+        return new BigDecimal(v);
+    }
+
+    private static int exactOrient(final double ax, final double ay, final double bx, final double by,
+                                   final double cx, final double cy) {
+        return big(bx).subtract(big(ax)).multiply(big(cy).subtract(big(ay)))
+                .subtract(big(by).subtract(big(ay)).multiply(big(cx).subtract(big(ax)))).signum();
+    }
+
+    private static int exactInCircle(final double ax, final double ay, final double bx, final double by,
+                                     final double cx, final double cy, final double dx, final double dy) {
+        final BigDecimal adx = big(ax).subtract(big(dx)), ady = big(ay).subtract(big(dy));
+        final BigDecimal bdx = big(bx).subtract(big(dx)), bdy = big(by).subtract(big(dy));
+        final BigDecimal cdx = big(cx).subtract(big(dx)), cdy = big(cy).subtract(big(dy));
+        final BigDecimal alift = adx.multiply(adx).add(ady.multiply(ady));
+        final BigDecimal blift = bdx.multiply(bdx).add(bdy.multiply(bdy));
+        final BigDecimal clift = cdx.multiply(cdx).add(cdy.multiply(cdy));
+        return alift.multiply(bdx.multiply(cdy).subtract(cdx.multiply(bdy)))
+                .add(blift.multiply(cdx.multiply(ady).subtract(adx.multiply(cdy))))
+                .add(clift.multiply(adx.multiply(bdy).subtract(bdx.multiply(ady)))).signum();
+    }
+
+    @Test
+    public void testOrientNearlyCollinear() {
+        final Random random = new Random(1);
+        int numDegenerate = 0;
+        for (int n = 0; n < 20000; n++) {
+            // points on a line far from the origin, rounded to doubles and nudged by a few ulps
+            final double t0 = random.nextDouble(), t1 = random.nextDouble(), t2 = random.nextDouble();
+            final double ax = 1000.123 + 0.98 * t0, ay = 50.7 + 0.07 * t0;
+            final double bx = 1000.123 + 0.98 * t1, by = 50.7 + 0.07 * t1;
+            final double cx = 1000.123 + 0.98 * t2 + (random.nextInt(5) - 2) * Math.ulp(1000.0),
+                    cy = 50.7 + 0.07 * t2;
+
+            final int expected = exactOrient(ax, ay, bx, by, cx, cy);
+            Assert.assertEquals(expected, (int) Math.signum(RobustPredicates.orient(ax, ay, bx, by, cx, cy)));
+            if (expected == 0) {
+                numDegenerate++;
+            }
+        }
+        Assert.assertTrue(numDegenerate > 0);
+        Assert.assertEquals(0.0, RobustPredicates.orient(0.1, 0.3, 0.2, 0.6, 0.4, 1.2), 0.0);
+    }
+
+    @Test
+    public void testInCircleNearlyCocircular() {
+        final Random random = new Random(2);
+        for (int n = 0; n < 20000; n++) {
+            // corners of a sheared grid cell, cocircular up to round off, and a point near the fourth corner
+            final int i = random.nextInt(200), j = random.nextInt(200);
+            final double ax = 0.98 * i + 0.13 * j + 1000.123, ay = (0.07 * i + 1.9 * j + 50.7) * 0.2;
+            final double bx = 0.98 * (i + 1) + 0.13 * j + 1000.123, by = (0.07 * (i + 1) + 1.9 * j + 50.7) * 0.2;
+            final double cx = 0.98 * (i + 1) + 0.13 * (j + 1) + 1000.123,
+                    cy = (0.07 * (i + 1) + 1.9 * (j + 1) + 50.7) * 0.2;
+            final double dx = 0.98 * i + 0.13 * (j + 1) + 1000.123 + (random.nextInt(3) - 1) * Math.ulp(1000.0),
+                    dy = (0.07 * i + 1.9 * (j + 1) + 50.7) * 0.2;
+
+            Assert.assertEquals(exactInCircle(ax, ay, bx, by, cx, cy, dx, dy),
+                    (int) Math.signum(RobustPredicates.inCircle(ax, ay, bx, by, cx, cy, dx, dy)));
+        }
+        // unit square
+        Assert.assertEquals(0.0, RobustPredicates.inCircle(0, 0, 1, 0, 1, 1, 0, 1), 0.0);
+        Assert.assertTrue(RobustPredicates.inCircle(0, 0, 1, 0, 1, 1, 0.5, 0.5) > 0);
+        Assert.assertTrue(RobustPredicates.inCircle(0, 0, 1, 0, 1, 1, 2, 2) < 0);
+    }
+}
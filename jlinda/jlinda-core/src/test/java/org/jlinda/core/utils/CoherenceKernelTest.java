@@ -0,0 +1,162 @@
+package org.jlinda.core.utils;
+
+import org.jblas.ComplexDouble;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CoherenceKernelTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static double[] createSamples(final int rows, final int cols, final long seed) {
+        final Random random = new Random(seed);
+        final double[] data = new double[2 * rows * cols];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextGaussian() * 100.0;
+        }
+        return data;
+    }
+
+    private static double[] bruteForce(final double[] master, final double[] slave, final int rows, final int cols,
+                                       final int winL, final int winP) {
+        final int outRows = rows - winL + 1;
+        final int outCols = cols - winP + 1;
+        final double[] out = new double[outRows * outCols];
+        for (int i = 0; i < outRows; i++) {
+            for (int j = 0; j < outCols; j++) {
+                double re = 0, im = 0, pm = 0, ps = 0;
+                for (int k = i; k < i + winL; k++) {
+                    for (int l = j; l < j + winP; l++) {
+                        final int idx = 2 * (k * cols + l);
+                        final double mr = master[idx], mi = master[idx + 1];
+                        final double sr = slave[idx], si = slave[idx + 1];
+                        re += mr * sr + mi * si;
+                        im += mi * sr - mr * si;
+                        pm += mr * mr + mi * mi;
+                        ps += sr * sr + si * si;
+                    }
+                }
+                out[i * outCols + j] = pm * ps > 0 ? Math.sqrt(re * re + im * im) / Math.sqrt(pm * ps) : 0;
+            }
+        }
+        return out;
+    }
+
+    @Test
+    public void testAgainstBruteForce() {
+        final int rows = 37, cols = 29;
+        final double[] master = createSamples(rows, cols, 1);
+        final double[] slave = createSamples(rows, cols, 2);
+
+        final int[][] windows = {{1, 1}, {2, 10}, {10, 10}, {5, 3}, {rows, cols}};
+        for (int[] win : windows) {
+            final double[] expected = bruteForce(master, slave, rows, cols, win[0], win[1]);
+            final double[] actual = new double[expected.length];
+            CoherenceKernel.coherence(master, slave, rows, cols, win[0], win[1], actual);
+            Assert.assertArrayEquals(expected, actual, DELTA);
+        }
+    }
+
+    @Test
+    public void testFloatSamples() {
+        final int rows = 20, cols = 30;
+        final double[] master = createSamples(rows, cols, 3);
+        final double[] slave = createSamples(rows, cols, 4);
+        final float[] masterF = new float[master.length];
+        final float[] slaveF = new float[slave.length];
+        for (int i = 0; i < master.length; i++) {
+            masterF[i] = (float) master[i];
+            slaveF[i] = (float) slave[i];
+            master[i] = masterF[i];
+            slave[i] = slaveF[i];
+        }
+
+        final double[] expected = bruteForce(master, slave, rows, cols, 4, 7);
+        final float[] actual = new float[expected.length];
+        CoherenceKernel.coherence(masterF, slaveF, rows, cols, 4, 7, actual);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], actual[i], 1e-6);
+        }
+    }
+
+    @Test
+    public void testZeroPower() {
+        final int rows = 8, cols = 8;
+        final double[] master = new double[2 * rows * cols];
+        final double[] slave = createSamples(rows, cols, 5);
+        final double[] out = new double[(rows - 2) * (cols - 2)];
+        CoherenceKernel.coherence(master, slave, rows, cols, 3, 3, out);
+        for (double coh : out) {
+            Assert.assertEquals(0.0, coh, 0.0);
+        }
+    }
+
+    @Test
+    public void testZeroPowerAfterBrightBlock() {
+        // bright samples in the first rows and columns, a faint patch and zeros elsewhere
+        final int rows = 60, cols = 50;
+        final Random random = new Random(8);
+        final double[] master = new double[2 * rows * cols];
+        final double[] slave = new double[2 * rows * cols];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                final double amplitude = (y < 20 || x < 15) ? 3000.0 : (y >= 40 && x >= 35) ? 1e-3 : 0.0;
+                final int idx = 2 * (y * cols + x);
+                for (int k = 0; k < 2; k++) {
+                    master[idx + k] = random.nextGaussian() * amplitude;
+                    slave[idx + k] = random.nextGaussian() * amplitude;
+                }
+            }
+        }
+
+        final int[][] windows = {{3, 3}, {10, 2}, {5, 8}};
+        for (int[] win : windows) {
+            final int outCols = cols - win[1] + 1;
+            final double[] expected = bruteForce(master, slave, rows, cols, win[0], win[1]);
+            final double[] actual = new double[expected.length];
+            CoherenceKernel.coherence(master, slave, rows, cols, win[0], win[1], actual);
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertTrue(actual[i] >= 0.0 && actual[i] <= 1.0);
+                final int y = i / outCols, x = i % outCols;
+                if (y >= 20 && x >= 15 && y + win[0] <= 40) {
+                    // window entirely in the zeros
+                    Assert.assertEquals(0.0, actual[i], 0.0);
+                }
+            }
+            Assert.assertArrayEquals(expected, actual, DELTA);
+        }
+    }
+
+    @Test
+    public void testSameAsCoherence2() {
+        final int rows = 25, cols = 40;
+        final int winL = 3, winP = 9;
+        final double[] master = createSamples(rows, cols, 6);
+        final double[] slave = createSamples(rows, cols, 7);
+
+        final ComplexDoubleMatrix input = new ComplexDoubleMatrix(rows, cols);
+        final ComplexDoubleMatrix norms = new ComplexDoubleMatrix(rows, cols);
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                final int idx = 2 * (y * cols + x);
+                final ComplexDouble m = new ComplexDouble(master[idx], master[idx + 1]);
+                final ComplexDouble s = new ComplexDouble(slave[idx], slave[idx + 1]);
+                input.put(y, x, m.mul(s.conj()));
+                norms.put(y, x, new ComplexDouble(s.abs() * s.abs(), m.abs() * m.abs()));
+            }
+        }
+        final DoubleMatrix expected = SarUtils.coherence2(input, norms, winL, winP);
+
+        final double[] actual = new double[(rows - winL + 1) * (cols - winP + 1)];
+        CoherenceKernel.coherence(master, slave, rows, cols, winL, winP, actual);
+        for (int i = 0; i < expected.rows; i++) {
+            for (int j = 0; j < expected.columns; j++) {
+                Assert.assertEquals(expected.get(i, j), actual[i * expected.columns + j], DELTA);
+            }
+        }
+    }
+}
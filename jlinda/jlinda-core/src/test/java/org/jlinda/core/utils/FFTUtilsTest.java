@@ -0,0 +1,105 @@
+package org.jlinda.core.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class FFTUtilsTest {
+
+    private static final double EPS = 1e-9;
+
+    private static double[] randomGrid(final int rows, final int cols, final long seed) {
+        final Random random = new Random(seed);
+        final double[] data = new double[2 * rows * cols];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextDouble() - 0.5;
+        }
+        return data;
+    }
+
+    // direct 2-D DFT of an interleaved row-major grid
+    private static double[] dft2D(final double[] data, final int rows, final int cols) {
+        final double[] out = new double[data.length];
+        for (int u = 0; u < rows; u++) {
+            for (int v = 0; v < cols; v++) {
+                double re = 0, im = 0;
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        final double angle = -2 * Math.PI * ((double) u * r / rows + (double) v * c / cols);
+                        final double cos = Math.cos(angle), sin = Math.sin(angle);
+                        final int k = 2 * (r * cols + c);
+                        re += data[k] * cos - data[k + 1] * sin;
+                        im += data[k] * sin + data[k + 1] * cos;
+                    }
+                }
+                out[2 * (u * cols + v)] = re;
+                out[2 * (u * cols + v) + 1] = im;
+            }
+        }
+        return out;
+    }
+
+    @Test
+    public void testForward2D() {
+        // odd sizes and more columns than one gather block
+        final int rows = 6, cols = 11;
+        final double[] data = randomGrid(rows, cols, 1);
+        final double[] expected = dft2D(data, rows, cols);
+
+        FFTUtils.forward2D(data, rows, cols);
+        Assert.assertArrayEquals(expected, data, EPS);
+    }
+
+    @Test
+    public void testRowsThenColumns() {
+        final int rows = 5, cols = 12;
+        final double[] data = randomGrid(rows, cols, 2);
+        final double[] expected = dft2D(data, rows, cols);
+
+        FFTUtils.forwardRows(data, rows, cols);
+        FFTUtils.forwardColumns(data, rows, cols);
+        Assert.assertArrayEquals(expected, data, EPS);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final int rows = 16, cols = 9;
+        final double[] data = randomGrid(rows, cols, 3);
+        final double[] expected = data.clone();
+
+        FFTUtils.forward2D(data, rows, cols);
+        FFTUtils.inverse2D(data, rows, cols, true);
+        Assert.assertArrayEquals(expected, data, EPS);
+    }
+
+    @Test
+    public void testFloat() {
+        final int rows = 8, cols = 10;
+        final double[] reference = randomGrid(rows, cols, 4);
+        final float[] data = new float[reference.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (float) reference[i];
+            reference[i] = data[i];
+        }
+        final double[] expected = dft2D(reference, rows, cols);
+
+        FFTUtils.forward2D(data, rows, cols);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(expected[i], data[i], 1e-4);
+        }
+    }
+
+    @Test
+    public void testOffset() {
+        final double[] data = randomGrid(3, 4, 5);
+        final double[] expected = data.clone();
+        final double[] row = new double[8];
+        System.arraycopy(data, 8, row, 0, 8);
+        FFTUtils.forward(row, 0, 4);
+        System.arraycopy(row, 0, expected, 8, 8);
+
+        FFTUtils.forward(data, 8, 4);
+        Assert.assertArrayEquals(expected, data, 0.0);
+    }
+}
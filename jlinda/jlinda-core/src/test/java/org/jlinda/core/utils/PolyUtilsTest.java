@@ -204,6 +204,31 @@ public class PolyUtilsTest {
         }
     }
 
+    @Test
+    public void testPolyvalGridArray() throws Exception {
 
-}
+        final int numX = 7;
+        final int numY = 5;
+        final double[] x = MathUtils.increment(numX, -2, 4.0 / (numX - 1));
+        final double[] y = MathUtils.increment(numY, -2, 4.0 / (numY - 1));
+        final double[] result = new double[numX * numY];
+
+        for (int degree = 0; degree < 8; degree++) {
+
+            final double[] coeffs = new double[PolyUtils.numberOfCoefficients(degree)];
+            for (int k = 0; k < coeffs.length; k++) {
+                coeffs[k] = Math.pow(-1, k) * (k + 1) / 3.0;
+            }
+
+            PolyUtils.polyvalGrid(x, numX, y, numY, coeffs, degree, result);
 
+            // same layout as a jblas matrix with x along the rows
+            for (int i = 0; i < numX; i++) {
+                for (int j = 0; j < numY; j++) {
+                    final double expected = PolyUtils.polyval(x[i], y[j], coeffs, degree);
+                    Assert.assertEquals(expected, result[i + j * numX], 1e-12 * Math.max(1.0, Math.abs(expected)));
+                }
+            }
+        }
+    }
+}
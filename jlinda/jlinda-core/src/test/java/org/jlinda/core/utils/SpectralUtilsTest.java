@@ -1,10 +1,10 @@
 package org.jlinda.core.utils;
 
+import org.jblas.ComplexDouble;
 import org.jblas.ComplexDoubleMatrix;
 import org.jblas.DoubleMatrix;
 import org.junit.Assert;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 
 public class SpectralUtilsTest {
@@ -246,7 +246,6 @@ public class SpectralUtilsTest {
 
 
     @Test
-    @Ignore
     public void testFft2D() throws Exception {
         ComplexDoubleMatrix fftMatrix_2D_ACTUAL = SpectralUtils.fft2D(complexMatrix_EXPECTED);
         Assert.assertEquals(fftMatrix_2D_EXPECTED, fftMatrix_2D_ACTUAL);
@@ -257,7 +256,6 @@ public class SpectralUtilsTest {
     }
 
     @Test
-    @Ignore
     public void testFft2D_inplace() throws Exception {
         ComplexDoubleMatrix fftMatrix_2D_ACTUAL = complexMatrix_EXPECTED.dup();
         SpectralUtils.fft2D_inplace(fftMatrix_2D_ACTUAL);
@@ -270,6 +268,45 @@ public class SpectralUtilsTest {
 
     }
 
+    @Test
+    public void testFft2D_nonSquare() throws Exception {
+        // 3 x 5 against the direct 2-D DFT sum, a swapped row and column length shows up here
+        final int rows = 3;
+        final int columns = 5;
+        ComplexDoubleMatrix matrix = new ComplexDoubleMatrix(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                matrix.put(r, c, new ComplexDouble(r + 2 * c * c, r * c - 1));
+            }
+        }
+
+        ComplexDoubleMatrix fftMatrix_EXPECTED = new ComplexDoubleMatrix(rows, columns);
+        for (int k = 0; k < rows; k++) {
+            for (int l = 0; l < columns; l++) {
+                double re = 0;
+                double im = 0;
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < columns; c++) {
+                        final double phase = -2 * Math.PI * ((double) k * r / rows + (double) l * c / columns);
+                        final ComplexDouble value = matrix.get(r, c);
+                        re += value.real() * Math.cos(phase) - value.imag() * Math.sin(phase);
+                        im += value.real() * Math.sin(phase) + value.imag() * Math.cos(phase);
+                    }
+                }
+                fftMatrix_EXPECTED.put(k, l, new ComplexDouble(re, im));
+            }
+        }
+
+        ComplexDoubleMatrix fftMatrix_ACTUAL = matrix.dup();
+        SpectralUtils.fft2D_inplace(fftMatrix_ACTUAL);
+        Assert.assertArrayEquals(fftMatrix_EXPECTED.real().toArray(), fftMatrix_ACTUAL.real().toArray(), 1e-9);
+        Assert.assertArrayEquals(fftMatrix_EXPECTED.imag().toArray(), fftMatrix_ACTUAL.imag().toArray(), 1e-9);
+
+        SpectralUtils.invfft2D_inplace(fftMatrix_ACTUAL);
+        Assert.assertArrayEquals(matrix.real().toArray(), fftMatrix_ACTUAL.real().toArray(), 1e-9);
+        Assert.assertArrayEquals(matrix.imag().toArray(), fftMatrix_ACTUAL.imag().toArray(), 1e-9);
+    }
+
     @Test
     public void testInvfft2D() throws Exception {
         ComplexDoubleMatrix complexMatrix_ACTUAL = SpectralUtils.invfft2d(fftMatrix_2D_EXPECTED);
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import eu.esa.sar.io.binary.BinaryFileReader;
+import eu.esa.sar.io.binary.PositionalFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.stream.FileImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reader level: concurrent line reads from a CEOS-like image file, through one shared seek and read stream
+ * or through positional reads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BinaryReaderBenchmark {
+
+    private static final int NUM_SAMPLES = 4096;
+    private static final int NUM_LINES = 2048;
+    private static final int PREFIX_BYTES = 12;
+
+    private File file;
+    private int recordLength;
+    private BinaryFileReader binaryReader;
+    private PositionalFileReader positionalReader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("benchmark", ".dat");
+        recordLength = SyntheticData.writeBinaryRaster(file, NUM_SAMPLES, NUM_LINES);
+
+        binaryReader = new BinaryFileReader(new FileImageInputStream(file));
+        binaryReader.setByteOrder(ByteOrder.BIG_ENDIAN);
+        positionalReader = new PositionalFileReader(file, ByteOrder.BIG_ENDIAN);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        binaryReader.close();
+        positionalReader.close();
+        file.delete();
+    }
+
+    @State(Scope.Thread)
+    public static class LineCursor {
+        private int line;
+        private final short[] samples = new short[NUM_SAMPLES * 2];
+
+        int next() {
+            line = (line + 13) % NUM_LINES;
+            return line;
+        }
+    }
+
+    private long getLinePosition(final int line) {
+        return (long) line * recordLength + PREFIX_BYTES;
+    }
+
+    @Benchmark
+    public short[] sharedStreamLine(final LineCursor cursor) throws IOException {
+        final long pos = getLinePosition(cursor.next());
+        synchronized (binaryReader) {
+            binaryReader.seek(pos);
+            binaryReader.read(cursor.samples);
+        }
+        return cursor.samples;
+    }
+
+    @Benchmark
+    public short[] positionalLine(final LineCursor cursor) throws IOException {
+        positionalReader.read(getLinePosition(cursor.next()), cursor.samples);
+        return cursor.samples;
+    }
+}
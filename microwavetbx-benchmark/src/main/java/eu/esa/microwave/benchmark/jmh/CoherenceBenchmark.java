@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.insar.gpf.CoherenceOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.jlinda.core.utils.CoherenceKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coherence estimation of a complex pair: CoherenceOp over a synthetic coregistered stack, and the
+ * primitive kernel it uses per tile on interleaved buffers. The flat earth and topographic phase
+ * removal of the operator are left off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoherenceBenchmark {
+
+    @Param({"512"})
+    private int tileSize;
+
+    @Param({"2048"})
+    private int size;
+
+    @Param({"10"})
+    private int cohWinRg;
+
+    @Param({"2", "10"})
+    private int cohWinAz;
+
+    private Product stack;
+    private float[] pixels;
+    private double[] masterInterleaved;
+    private double[] slaveInterleaved;
+    private double[] coherence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        stack = SyntheticData.createCoregisteredStack(size, size);
+        pixels = new float[size * size];
+
+        final int height = tileSize + cohWinAz - 1;
+        final int width = tileSize + cohWinRg - 1;
+        final float[][] masterScene = SyntheticData.createComplexScene(width, height, 0.0, 0.0, 0.3, 1);
+        final float[][] slaveScene = SyntheticData.createComplexScene(width, height, 0.2, 0.05, 0.3, 2);
+        masterInterleaved = toInterleaved(masterScene);
+        slaveInterleaved = toInterleaved(slaveScene);
+        coherence = new double[tileSize * tileSize];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stack.dispose();
+    }
+
+    private static double[] toInterleaved(final float[][] data) {
+        final double[] interleaved = new double[2 * data[0].length];
+        for (int i = 0; i < data[0].length; ++i) {
+            interleaved[2 * i] = data[0][i];
+            interleaved[2 * i + 1] = data[1][i];
+        }
+        return interleaved;
+    }
+
+    @Benchmark
+    public float[] coherenceBand() throws Exception {
+        final CoherenceOp op = (CoherenceOp) new CoherenceOp.Spi().createOperator();
+        op.setSourceProduct(stack);
+        op.setParameter("cohWinAz", cohWinAz);
+        op.setParameter("cohWinRg", cohWinRg);
+        try {
+            final Band band = op.getTargetProduct().getBandAt(0);
+            band.readPixels(0, 0, size, size, pixels, ProgressMonitor.NULL);
+            return pixels;
+        } finally {
+            op.dispose();
+        }
+    }
+
+    @Benchmark
+    public double[] primitiveKernel() {
+        final int height = tileSize + cohWinAz - 1;
+        final int width = tileSize + cohWinRg - 1;
+        CoherenceKernel.coherence(masterInterleaved, slaveInterleaved, height, width, cohWinAz, cohWinRg, coherence);
+        return coherence;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.sentinel1.gpf.TOPSARDeburstOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator level: TOPSARDeburstOp over one synthetic IW sub-swath, including the burst aligned GPF tiling.
+ * Only the single sub-swath path is exercised, merging several sub-swaths needs calibration vectors as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeburstBenchmark {
+
+    @Param({"9"})
+    private int numBursts;
+
+    @Param({"1000"})
+    private int linesPerBurst;
+
+    @Param({"2048"})
+    private int width;
+
+    private Product sourceProduct;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sourceProduct = SyntheticData.createTOPSBurstProduct(numBursts, linesPerBurst, width);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sourceProduct.dispose();
+    }
+
+    @Benchmark
+    public float[] deburstSubSwath() throws Exception {
+        final TOPSARDeburstOp op = (TOPSARDeburstOp) new TOPSARDeburstOp.Spi().createOperator();
+        op.setSourceProduct(sourceProduct);
+        try {
+            final Band band = op.getTargetProduct().getBandAt(0);
+            final int w = band.getRasterWidth();
+            final int h = band.getRasterHeight();
+            return band.readPixels(0, 0, w, h, new float[w * h], ProgressMonitor.NULL);
+        } finally {
+            op.dispose();
+        }
+    }
+}
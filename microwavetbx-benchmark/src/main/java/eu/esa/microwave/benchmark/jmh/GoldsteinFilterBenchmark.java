@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.insar.gpf.GoldsteinFilterOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator level: GoldsteinFilterOp on a synthetic interferogram. Dominated by the forward and inverse 2D FFTs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoldsteinFilterBenchmark {
+
+    @Param({"64", "128"})
+    private String fftSize;
+
+    @Param({"1024"})
+    private int size;
+
+    private Product sourceProduct;
+    private float[] pixels;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sourceProduct = SyntheticData.createInterferogramProduct(size, size);
+        pixels = new float[size * size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sourceProduct.dispose();
+    }
+
+    @Benchmark
+    public float[] filterInterferogram() throws Exception {
+        final GoldsteinFilterOp op = new GoldsteinFilterOp();
+        op.setSourceProduct(sourceProduct);
+        op.setParameter("FFTSizeString", fftSize);
+        try {
+            // the i and q bands are computed together
+            final Band band = op.getTargetProduct().getBandAt(0);
+            band.readPixels(0, 0, size, size, pixels, ProgressMonitor.NULL);
+            return pixels;
+        } finally {
+            op.dispose();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import eu.esa.sar.commons.io.ImageIOFile;
+import eu.esa.sar.io.DataCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageReadParam;
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reader level: concurrent tile reads from a tiled measurement TIFF through ImageIOFile, serialized on one
+ * reader or spread over the reader pool, and the hit path of the shared reader tile cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ImageIOReaderBenchmark {
+
+    private static final int IMAGE_SIZE = 4096;
+    private static final int TILE_SIZE = 512;
+    private static final int TILES_PER_ROW = IMAGE_SIZE / TILE_SIZE;
+
+    @Param({"false", "true"})
+    private boolean readerPool;
+
+    private File file;
+    private ImageIOFile img;
+    private DataCache cache;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("benchmark", ".tiff");
+        SyntheticData.writeTiledTiff(file, IMAGE_SIZE, IMAGE_SIZE, 256);
+
+        img = new ImageIOFile(file, ImageIOFile.getIIOReader(file), file);
+        if (readerPool) {
+            img.enableReaderPool(file);
+        }
+        cache = new DataCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        cache.clear();
+        img.close();
+        file.delete();
+    }
+
+    @State(Scope.Thread)
+    public static class TileCursor {
+        private int tile;
+
+        Rectangle next() {
+            tile = (tile + 7) % (TILES_PER_ROW * TILES_PER_ROW);
+            return new Rectangle((tile % TILES_PER_ROW) * TILE_SIZE, (tile / TILES_PER_ROW) * TILE_SIZE,
+                    TILE_SIZE, TILE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public int[] readTile(final TileCursor cursor) throws IOException {
+        return readRect(cursor.next());
+    }
+
+    @Benchmark
+    public int[] readTileThroughCache(final TileCursor cursor) throws IOException {
+        final Rectangle rect = cursor.next();
+        final DataCache.DataKey key = new DataCache.DataKey(img, rect);
+        DataCache.Data data = cache.get(key);
+        if (data == null) {
+            data = new DataCache.Data(readRect(rect));
+            cache.put(key, data);
+        }
+        return data.intArray;
+    }
+
+    private int[] readRect(final Rectangle rect) throws IOException {
+        final ImageReadParam readParam = img.getReader().getDefaultReadParam();
+        readParam.setSourceRegion(rect);
+        final Raster data = img.getData(readParam, rect);
+        return data.getSamples(data.getMinX(), data.getMinY(), rect.width, rect.height, 0,
+                new int[rect.width * rect.height]);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import eu.esa.sar.commons.OrbitStateVectors;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position/velocity lookups as done by the zero Doppler solvers: a few thousand distinct line times
+ * queried repeatedly. Compares the cached OrbitStateVectors with the former HashMap memoization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrbitStateVectorsBenchmark {
+
+    private static final int NUM_TIMES = 2048;
+
+    private OrbitStateVectors orbit;
+    private LegacyOrbitStateVectors legacyOrbit;
+    private double[] times;
+
+    @Setup
+    public void setup() {
+        final OrbitStateVector[] vectors = SyntheticData.createCircularOrbit(30);
+        orbit = new OrbitStateVectors(vectors);
+        legacyOrbit = new LegacyOrbitStateVectors(vectors);
+
+        times = new double[NUM_TIMES];
+        final double lineTimeInterval = 0.002 / 86400.0;
+        final double firstLineTime = SyntheticData.FIRST_TIME_MJD + 60.0 / 86400.0;
+        for (int i = 0; i < NUM_TIMES; ++i) {
+            times[i] = firstLineTime + i * lineTimeInterval;
+        }
+    }
+
+    @Benchmark
+    public void cachedLookup(final Blackhole bh) {
+        for (double time : times) {
+            bh.consume(orbit.getPositionVelocity(time));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void cachedLookupConcurrent(final Blackhole bh) {
+        for (double time : times) {
+            bh.consume(orbit.getPositionVelocity(time));
+        }
+    }
+
+    @Benchmark
+    public void legacyHashMapLookup(final Blackhole bh) {
+        for (double time : times) {
+            bh.consume(legacyOrbit.getPositionVelocity(time));
+        }
+    }
+
+    @Benchmark
+    public void uncachedInterpolation(final Blackhole bh) {
+        for (double time : times) {
+            bh.consume(legacyOrbit.interpolate(time));
+        }
+    }
+
+    /**
+     * The previous implementation: unbounded, unsynchronized memoization keyed on boxed doubles.
+     * Only safe to use from a single thread.
+     */
+    static final class LegacyOrbitStateVectors {
+
+        private static final int nv = 8;
+        private final OrbitStateVector[] orbitStateVectors;
+        private final double dt;
+        private final Map<Double, OrbitStateVectors.PositionVelocity> timeMap = new HashMap<>();
+
+        LegacyOrbitStateVectors(final OrbitStateVector[] orbitStateVectors) {
+            this.orbitStateVectors = orbitStateVectors;
+            this.dt = (orbitStateVectors[orbitStateVectors.length - 1].time_mjd - orbitStateVectors[0].time_mjd) /
+                    (orbitStateVectors.length - 1);
+        }
+
+        OrbitStateVectors.PositionVelocity getPositionVelocity(final Double time) {
+            OrbitStateVectors.PositionVelocity cachedPosVel = timeMap.get(time);
+            if (cachedPosVel != null) {
+                return cachedPosVel;
+            }
+            final OrbitStateVectors.PositionVelocity pv = interpolate(time);
+            timeMap.put(time, pv);
+            return pv;
+        }
+
+        OrbitStateVectors.PositionVelocity interpolate(final double time) {
+            int i0 = Math.max((int) ((time - orbitStateVectors[0].time_mjd) / dt) - nv / 2 + 1, 0);
+            final int iN = Math.min(i0 + nv - 1, orbitStateVectors.length - 1);
+            i0 = (iN < orbitStateVectors.length - 1 ? i0 : iN - nv + 1);
+
+            final OrbitStateVectors.PositionVelocity pv = new OrbitStateVectors.PositionVelocity();
+            for (int i = i0; i <= iN; ++i) {
+                final OrbitStateVector orbI = orbitStateVectors[i];
+                double weight = 1;
+                for (int j = i0; j <= iN; ++j) {
+                    if (j != i) {
+                        final double time2 = orbitStateVectors[j].time_mjd;
+                        weight *= (time - time2) / (orbI.time_mjd - time2);
+                    }
+                }
+                pv.position.x += weight * orbI.x_pos;
+                pv.position.y += weight * orbI.y_pos;
+                pv.position.z += weight * orbI.z_pos;
+                pv.velocity.x += weight * orbI.x_vel;
+                pv.velocity.y += weight * orbI.y_vel;
+                pv.velocity.z += weight * orbI.z_vel;
+            }
+            return pv;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.sar.gpf.geometric.EllipsoidCorrectionRDOp;
+import eu.esa.sar.sar.gpf.geometric.RangeDopplerGeocodingOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.util.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator level: Range Doppler terrain correction of a synthetic detected product, on the ellipsoid at the
+ * average scene height and with a generated elevation model read as external DEM, so that no DEM is downloaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeDopplerGeocodingBenchmark {
+
+    private static final String ELLIPSOID_CORRECTION = "Ellipsoid-Correction-RD";
+    private static final String TERRAIN_CORRECTION = "Terrain-Correction";
+
+    @Param({ELLIPSOID_CORRECTION, TERRAIN_CORRECTION})
+    private String operator;
+
+    @Param({"2048"})
+    private int size;
+
+    private Product sourceProduct;
+    private File demFolder;
+    private File demFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        sourceProduct = SyntheticData.createSARProduct("SYNTHETIC", false, size, size);
+        demFolder = Files.createTempDirectory("benchmark_dem").toFile();
+        demFile = new File(demFolder, "synthetic_dem.dim");
+        SyntheticData.writeElevationModel(demFile, sourceProduct);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sourceProduct.dispose();
+        FileUtils.deleteTree(demFolder);
+    }
+
+    @Benchmark
+    public float[] geocodeBand() throws Exception {
+        final RangeDopplerGeocodingOp op;
+        if (ELLIPSOID_CORRECTION.equals(operator)) {
+            op = (RangeDopplerGeocodingOp) new EllipsoidCorrectionRDOp.Spi().createOperator();
+        } else {
+            op = (RangeDopplerGeocodingOp) new RangeDopplerGeocodingOp.Spi().createOperator();
+            op.setParameter("demName", RangeDopplerGeocodingOp.externalDEMStr);
+            op.setParameter("externalDEMFile", demFile);
+            op.setParameter("externalDEMApplyEGM", false);
+        }
+        op.setSourceProduct(sourceProduct);
+        try {
+            final Band band = op.getTargetProduct().getBandAt(0);
+            final int w = band.getRasterWidth();
+            final int h = band.getRasterHeight();
+            return band.readPixels(0, 0, w, h, new float[w * h], ProgressMonitor.NULL);
+        } finally {
+            op.dispose();
+        }
+    }
+}
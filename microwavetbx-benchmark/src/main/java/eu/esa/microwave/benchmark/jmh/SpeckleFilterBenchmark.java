@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilterOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator level: SpeckleFilterOp over a whole synthetic GRD band, including the GPF tile scheduling.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpeckleFilterBenchmark {
+
+    @Param({SpeckleFilterOp.BOXCAR_SPECKLE_FILTER, SpeckleFilterOp.MEDIAN_SPECKLE_FILTER,
+            SpeckleFilterOp.LEE_SPECKLE_FILTER, SpeckleFilterOp.LEE_REFINED_FILTER, SpeckleFilterOp.LEE_SIGMA_FILTER})
+    private String filter;
+
+    @Param({"1024"})
+    private int size;
+
+    private Product sourceProduct;
+    private float[] pixels;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sourceProduct = SyntheticData.createAmplitudeProduct(size, size);
+        pixels = new float[size * size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sourceProduct.dispose();
+    }
+
+    @Benchmark
+    public float[] filterBand() throws Exception {
+        final SpeckleFilterOp op = new SpeckleFilterOp();
+        op.setSourceProduct(sourceProduct);
+        op.SetFilter(filter);
+        try {
+            final Band band = op.getTargetProduct().getBandAt(0);
+            band.readPixels(0, 0, size, size, pixels, ProgressMonitor.NULL);
+            return pixels;
+        } finally {
+            op.dispose();
+        }
+    }
+}
@@ -0,0 +1,659 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import org.esa.snap.core.dataio.ProductIO;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.CrsGeoCoding;
+import org.esa.snap.core.datamodel.GeoPos;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.datamodel.TiePointGeoCoding;
+import org.esa.snap.core.datamodel.TiePointGrid;
+import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.eo.Constants;
+import org.esa.snap.engine_utilities.eo.GeoUtils;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.esa.snap.engine_utilities.gpf.StackUtils;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.Random;
+
+/**
+ * Generated inputs for the benchmarks so that they run without any test products.
+ */
+public final class SyntheticData {
+
+    public static final double ORBIT_RADIUS = 7071000.0; // m
+    public static final double ANGULAR_RATE = 2.0 * Math.PI / 5926.0; // rad/s
+    public static final double FIRST_TIME_MJD = 8000.0;
+    public static final double VECTOR_INTERVAL_SEC = 10.0;
+
+    // acquisition geometry of the generated SAR products, right looking from the circular orbit
+    public static final double SCENE_START_SEC = 30.0; // first line after the first state vector
+    public static final double LINE_TIME_INTERVAL = 0.002; // s
+    public static final double RADAR_FREQUENCY = 5405.0; // MHz
+    public static final double NEAR_SLANT_RANGE = 800000.0; // m
+    public static final double RANGE_SPACING = 10.0; // m in slant range
+    public static final double AZIMUTH_SPACING = 13.5; // m
+    public static final double REPEAT_CYCLE_DAYS = 12.0;
+
+    private static final int NUM_ORBIT_VECTORS = 20;
+    private static final int GEO_GRID_SIZE = 11;
+
+    // fixed seed so that all runs see the same data
+    private static final long SEED = 12345L;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Orbit state vectors of a polar circular orbit sampled every 10 seconds
+     *
+     * @param numVectors number of state vectors
+     * @return the state vectors
+     */
+    public static OrbitStateVector[] createCircularOrbit(final int numVectors) {
+        return createCircularOrbit(numVectors, FIRST_TIME_MJD);
+    }
+
+    /**
+     * Orbit state vectors of the same polar circular orbit with the first vector at the given time,
+     * e.g. one repeat cycle later for the secondary of a stack
+     *
+     * @param numVectors   number of state vectors
+     * @param firstTimeMJD time of the first vector
+     * @return the state vectors
+     */
+    public static OrbitStateVector[] createCircularOrbit(final int numVectors, final double firstTimeMJD) {
+        final OrbitStateVector[] vectors = new OrbitStateVector[numVectors];
+        for (int i = 0; i < numVectors; ++i) {
+            final double t = i * VECTOR_INTERVAL_SEC;
+            final double angle = ANGULAR_RATE * t;
+            final double cos = Math.cos(angle);
+            final double sin = Math.sin(angle);
+            vectors[i] = new OrbitStateVector(new ProductData.UTC(firstTimeMJD + t / 86400.0),
+                    ORBIT_RADIUS * cos, 0.0, ORBIT_RADIUS * sin,
+                    -ORBIT_RADIUS * ANGULAR_RATE * sin, 0.0, ORBIT_RADIUS * ANGULAR_RATE * cos);
+        }
+        return vectors;
+    }
+
+    /**
+     * Fully developed speckle on a smooth scene: amplitude = scene * sqrt(exponential)
+     *
+     * @param width  scene width
+     * @param height scene height
+     * @return the amplitudes in row order
+     */
+    public static float[] createSpeckledAmplitude(final int width, final int height) {
+        final Random random = new Random(SEED);
+        final float[] data = new float[width * height];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                final double scene = 100.0 + 50.0 * Math.sin(x * 0.01) * Math.cos(y * 0.013) + (x > width / 2 ? 80.0 : 0.0);
+                final double speckle = Math.sqrt(-Math.log(1.0 - random.nextDouble()));
+                data[y * width + x] = (float) (scene * speckle);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Unit amplitude complex samples with a linear phase ramp and additive noise
+     *
+     * @param width      scene width
+     * @param height     scene height
+     * @param fringeX    phase ramp in radians per sample
+     * @param fringeY    phase ramp in radians per line
+     * @param noise      standard deviation of the additive noise
+     * @param seedOffset changes the noise realisation
+     * @return {real, imaginary} in row order
+     */
+    public static float[][] createComplexScene(final int width, final int height, final double fringeX,
+                                               final double fringeY, final double noise, final int seedOffset) {
+        final Random random = new Random(SEED + seedOffset);
+        final float[] re = new float[width * height];
+        final float[] im = new float[width * height];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                final double phase = fringeX * x + fringeY * y;
+                final int i = y * width + x;
+                re[i] = (float) (Math.cos(phase) + noise * random.nextGaussian());
+                im[i] = (float) (Math.sin(phase) + noise * random.nextGaussian());
+            }
+        }
+        return new float[][]{re, im};
+    }
+
+    /**
+     * A detected product with one speckled amplitude band
+     *
+     * @param width  scene width
+     * @param height scene height
+     * @return the product
+     */
+    public static Product createAmplitudeProduct(final int width, final int height) {
+        final Product product = TestUtils.createProduct("GRD", width, height);
+        final Band band = product.addBand("Amplitude_VV", ProductData.TYPE_FLOAT32);
+        band.setUnit(Unit.AMPLITUDE);
+        band.setData(ProductData.createInstance(createSpeckledAmplitude(width, height)));
+        return product;
+    }
+
+    /**
+     * A coregistered complex product with one interferogram as i and q bands
+     *
+     * @param width  scene width
+     * @param height scene height
+     * @return the product
+     */
+    public static Product createInterferogramProduct(final int width, final int height) {
+        final Product product = TestUtils.createProduct("SLC", width, height);
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.SAMPLE_TYPE, "COMPLEX");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.coregistered_stack, 1);
+
+        final float[][] ifg = createComplexScene(width, height, 0.3, 0.05, 0.5, 0);
+        final Band iBand = product.addBand("i_ifg_VV", ProductData.TYPE_FLOAT32);
+        iBand.setUnit(Unit.REAL);
+        iBand.setData(ProductData.createInstance(ifg[0]));
+        final Band qBand = product.addBand("q_ifg_VV", ProductData.TYPE_FLOAT32);
+        qBand.setUnit(Unit.IMAGINARY);
+        qBand.setData(ProductData.createInstance(ifg[1]));
+        return product;
+    }
+
+    /**
+     * A slant range SAR product whose metadata, orbit and tie point grids describe one consistent
+     * acquisition, so that operators which geolocate or calibrate the data accept it.
+     * Detected products carry one Amplitude_VV band, complex products an i_VV and q_VV pair.
+     *
+     * @param mission mission name, selects the calibrator
+     * @param complex complex or detected samples
+     * @param width   scene width
+     * @param height  scene height
+     * @return the product
+     */
+    public static Product createSARProduct(final String mission, final boolean complex, final int width,
+                                           final int height) {
+        final Product product = createSARProductHeader("SYNTHETIC_" + (complex ? "SLC" : "DET"), mission,
+                complex ? "SLC" : "DET", "Stripmap", complex, width, height, FIRST_TIME_MJD,
+                SCENE_START_SEC + (height - 1) * LINE_TIME_INTERVAL);
+        addGeometryTiePointGrids(product);
+
+        if (complex) {
+            addComplexBands(product, "_VV", 0.3, 0.05, 0);
+        } else {
+            final Band band = product.addBand("Amplitude_VV", ProductData.TYPE_FLOAT32);
+            band.setUnit(Unit.AMPLITUDE);
+            band.setData(ProductData.createInstance(createSpeckledAmplitude(width, height)));
+        }
+        return product;
+    }
+
+    /**
+     * An ICEYE product as seen by the calibrator: the calibration factor in the original metadata
+     * and an incidence angle tie point grid
+     *
+     * @param complex complex or detected samples
+     * @param width   scene width
+     * @param height  scene height
+     * @return the product
+     */
+    public static Product createIceyeProduct(final boolean complex, final int width, final int height) {
+        final Product product = createSARProduct("ICEYE", complex, width, height);
+        AbstractMetadata.addOriginalProductMetadata(product.getMetadataRoot()).setAttributeDouble("calibration_factor", 1.0e-5);
+        return product;
+    }
+
+    /**
+     * A coregistered complex pair, the secondary acquired one repeat cycle after the reference on the same orbit.
+     * The secondary metadata is stored as CreateStackOp does and the bands are named by role and date.
+     *
+     * @param width  scene width
+     * @param height scene height
+     * @return the stack
+     */
+    public static Product createCoregisteredStack(final int width, final int height) {
+        final double lastLineSec = SCENE_START_SEC + (height - 1) * LINE_TIME_INTERVAL;
+        final Product product = createSARProductHeader("SYNTHETIC_STACK", "SYNTHETIC", "SLC", "Stripmap", true,
+                width, height, FIRST_TIME_MJD, lastLineSec);
+        addGeometryTiePointGrids(product);
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.coregistered_stack, 1);
+
+        final Product secondary = createSARProductHeader("SYNTHETIC_SLC", "SYNTHETIC", "SLC", "Stripmap", true,
+                width, height, FIRST_TIME_MJD + REPEAT_CYCLE_DAYS, lastLineSec);
+        final MetadataElement slvAbsRoot = AbstractMetadata.getAbstractedMetadata(secondary);
+        final String mstDate = OperatorUtils.getAcquisitionDate(absRoot);
+        final String slvDate = OperatorUtils.getAcquisitionDate(slvAbsRoot);
+
+        final MetadataElement slaveMetadata = new MetadataElement(secondary.getName() + '_' + slvDate);
+        AbstractMetadata.getSlaveMetadata(product.getMetadataRoot()).addElement(slaveMetadata);
+        ProductUtils.copyMetadata(slvAbsRoot, slaveMetadata);
+        secondary.dispose();
+
+        StackUtils.saveMasterProductBandNames(product, addComplexBands(product, "_VV_mst_" + mstDate, 0.0, 0.0, 1));
+        StackUtils.saveSlaveProductBandNames(product, slaveMetadata.getName(),
+                addComplexBands(product, "_VV_slv1_" + slvDate, 0.2, 0.05, 2));
+        return product;
+    }
+
+    /**
+     * A single sub-swath Sentinel-1 IW SLC with the bursts stacked in the image as the reader delivers them.
+     * The annotation carries what Sentinel1Utils reads for one sub-swath: image information, burst list with
+     * valid samples, product information and geolocation grid. Consecutive bursts overlap by a tenth of a burst.
+     *
+     * @param numBursts     number of bursts
+     * @param linesPerBurst lines of one burst
+     * @param width         samples per line
+     * @return the product
+     */
+    public static Product createTOPSBurstProduct(final int numBursts, final int linesPerBurst, final int width) {
+        final int overlapLines = linesPerBurst / 10;
+        final int invalidLines = overlapLines / 4;
+        final int invalidSamples = 20;
+        final double burstCycle = (linesPerBurst - overlapLines) * LINE_TIME_INTERVAL;
+        final double lastLineSec = SCENE_START_SEC + (numBursts - 1) * burstCycle + (linesPerBurst - 1) * LINE_TIME_INTERVAL;
+        final int height = numBursts * linesPerBurst;
+
+        final Product product = createSARProductHeader("S1A_IW_SLC__1SSV_SYNTHETIC", "SENTINEL-1A", "SLC", "IW", true,
+                width, height, FIRST_TIME_MJD, lastLineSec);
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        final MetadataElement bandMetadata = new MetadataElement(AbstractMetadata.BAND_PREFIX + "IW1_VV");
+        bandMetadata.setAttributeString("swath", "IW1");
+        bandMetadata.setAttributeString("polarization", "VV");
+        absRoot.addElement(bandMetadata);
+        addComplexBands(product, "_IW1_VV", 0.3, 0.05, 0);
+
+        final MetadataElement annotation = new MetadataElement("annotation");
+        AbstractMetadata.addOriginalProductMetadata(product.getMetadataRoot()).addElement(annotation);
+        final MetadataElement swathAnnotation = new MetadataElement("s1a-iw1-slc-vv-synthetic.xml");
+        annotation.addElement(swathAnnotation);
+        final MetadataElement productElem = addElement(swathAnnotation, "product");
+
+        final MetadataElement imageInformation = addElement(addElement(productElem, "imageAnnotation"), "imageInformation");
+        imageInformation.setAttributeString("productFirstLineUtcTime", toAnnotationTime(SCENE_START_SEC));
+        imageInformation.setAttributeString("productLastLineUtcTime", toAnnotationTime(lastLineSec));
+        imageInformation.setAttributeString("ascendingNodeTime", toAnnotationTime(0.0));
+        imageInformation.setAttributeString("numberOfSamples", String.valueOf(width));
+        imageInformation.setAttributeString("numberOfLines", String.valueOf(height));
+        imageInformation.setAttributeString("azimuthTimeInterval", String.valueOf(LINE_TIME_INTERVAL));
+        imageInformation.setAttributeString("rangePixelSpacing", String.valueOf(RANGE_SPACING));
+        imageInformation.setAttributeString("azimuthPixelSpacing", String.valueOf(AZIMUTH_SPACING));
+        imageInformation.setAttributeString("slantRangeTime", String.valueOf(2.0 * NEAR_SLANT_RANGE / Constants.lightSpeed));
+
+        final MetadataElement swathTiming = addElement(productElem, "swathTiming");
+        swathTiming.setAttributeString("linesPerBurst", String.valueOf(linesPerBurst));
+        swathTiming.setAttributeString("samplesPerBurst", String.valueOf(width));
+        final MetadataElement burstList = addElement(swathTiming, "burstList");
+        burstList.setAttributeString("count", String.valueOf(numBursts));
+        for (int b = 0; b < numBursts; ++b) {
+            final StringBuilder firstValid = new StringBuilder();
+            final StringBuilder lastValid = new StringBuilder();
+            for (int line = 0; line < linesPerBurst; ++line) {
+                final boolean valid = line >= invalidLines && line < linesPerBurst - invalidLines;
+                firstValid.append(valid ? invalidSamples : -1).append(' ');
+                lastValid.append(valid ? width - 1 - invalidSamples : -1).append(' ');
+            }
+            final MetadataElement burst = addElement(burstList, "burst");
+            burst.setAttributeString("azimuthTime", toAnnotationTime(SCENE_START_SEC + b * burstCycle));
+            addElement(burst, "firstValidSample").setAttributeString("firstValidSample", firstValid.toString().trim());
+            addElement(burst, "lastValidSample").setAttributeString("lastValidSample", lastValid.toString().trim());
+        }
+
+        final MetadataElement productInformation = addElement(addElement(productElem, "generalAnnotation"), "productInformation");
+        productInformation.setAttributeString("radarFrequency", String.valueOf(RADAR_FREQUENCY * 1.0e6));
+        productInformation.setAttributeString("rangeSamplingRate", String.valueOf(Constants.lightSpeed / (2.0 * RANGE_SPACING)));
+        productInformation.setAttributeString("azimuthSteeringRate", "1.590368784");
+
+        addElement(addElement(productElem, "antennaPattern"), "antennaPatternList").setAttributeString("count", "0");
+
+        // one grid line at the start of each burst and one at the end of the last burst
+        final MetadataElement gridPointList = addElement(addElement(productElem, "geolocationGrid"), "geolocationGridPointList");
+        gridPointList.setAttributeString("count", String.valueOf((numBursts + 1) * GEO_GRID_SIZE));
+        for (int g = 0; g <= numBursts; ++g) {
+            final double time = g < numBursts ? SCENE_START_SEC + g * burstCycle : lastLineSec;
+            for (int i = 0; i < GEO_GRID_SIZE; ++i) {
+                final int pixel = i * (width - 1) / (GEO_GRID_SIZE - 1);
+                final double slantRange = NEAR_SLANT_RANGE + pixel * RANGE_SPACING;
+                final double[] latLonInc = geolocate(time, slantRange);
+                final MetadataElement point = addElement(gridPointList, "geolocationGridPoint");
+                point.setAttributeString("azimuthTime", toAnnotationTime(time));
+                point.setAttributeString("slantRangeTime", String.valueOf(2.0 * slantRange / Constants.lightSpeed));
+                point.setAttributeString("line", String.valueOf(g * linesPerBurst));
+                point.setAttributeString("pixel", String.valueOf(pixel));
+                point.setAttributeString("latitude", String.valueOf(latLonInc[0]));
+                point.setAttributeString("longitude", String.valueOf(latLonInc[1]));
+                point.setAttributeString("incidenceAngle", String.valueOf(latLonInc[2]));
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Writes a geographic BEAM-DIMAP elevation model with gentle hills that covers the product,
+     * to be used as external DEM
+     *
+     * @param file    the output file
+     * @param product the SAR product to cover
+     * @throws IOException on write failure
+     */
+    public static void writeElevationModel(final File file, final Product product) throws IOException {
+        final double margin = 0.05;
+        final double spacing = 1.0 / 1200.0; // 3 arc seconds
+        final float[] lats = product.getTiePointGrid(OperatorUtils.TPG_LATITUDE).getTiePoints();
+        final float[] lons = product.getTiePointGrid(OperatorUtils.TPG_LONGITUDE).getTiePoints();
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < lats.length; ++i) {
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+        }
+        final int width = (int) Math.ceil((maxLon - minLon + 2.0 * margin) / spacing);
+        final int height = (int) Math.ceil((maxLat - minLat + 2.0 * margin) / spacing);
+
+        final float[] elevation = new float[width * height];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                elevation[y * width + x] = (float) (300.0 + 200.0 * Math.sin(x * 0.05) * Math.cos(y * 0.04));
+            }
+        }
+
+        final Product dem = new Product("synthetic_dem", "DEM", width, height);
+        try {
+            dem.setSceneGeoCoding(new CrsGeoCoding(DefaultGeographicCRS.WGS84, width, height,
+                    minLon - margin, maxLat + margin, spacing, spacing, 0.0, 0.0));
+        } catch (Exception e) {
+            throw new IOException("Unable to create the DEM geocoding", e);
+        }
+        final Band band = dem.addBand("elevation", ProductData.TYPE_FLOAT32);
+        band.setUnit(Unit.METERS);
+        band.setData(ProductData.createInstance(elevation));
+        ProductIO.writeProduct(dem, file, "BEAM-DIMAP", false);
+        dem.dispose();
+    }
+
+    private static Product createSARProductHeader(final String name, final String mission, final String productType,
+                                                  final String acquisitionMode, final boolean complex,
+                                                  final int width, final int height, final double orbitStartMJD,
+                                                  final double lastLineSec) {
+        final Product product = new Product(name, productType, width, height);
+        product.setStartTime(toUTC(orbitStartMJD, SCENE_START_SEC));
+        product.setEndTime(toUTC(orbitStartMJD, lastLineSec));
+
+        final MetadataElement absRoot = AbstractMetadata.addAbstractedMetadataHeader(product.getMetadataRoot());
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PRODUCT, name);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PRODUCT_TYPE, productType);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.MISSION, mission);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ACQUISITION_MODE, acquisitionMode);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.SAMPLE_TYPE, complex ? "COMPLEX" : "DETECTED");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PASS, "ASCENDING");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.antenna_pointing, "right");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ABS_ORBIT,
+                1000 + (int) ((orbitStartMJD - FIRST_TIME_MJD) * 86400.0 * ANGULAR_RATE / (2.0 * Math.PI)));
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.REL_ORBIT, 42);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.first_line_time, toUTC(orbitStartMJD, SCENE_START_SEC));
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.last_line_time, toUTC(orbitStartMJD, lastLineSec));
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.line_time_interval, LINE_TIME_INTERVAL);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_output_lines, height);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_samples_per_line, width);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.radar_frequency, RADAR_FREQUENCY);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.pulse_repetition_frequency, 1.0 / LINE_TIME_INTERVAL);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.range_sampling_rate,
+                Constants.lightSpeed / (2.0 * RANGE_SPACING) / 1.0e6);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.range_bandwidth, 10.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.azimuth_bandwidth, 300.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.range_spacing, RANGE_SPACING);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.azimuth_spacing, AZIMUTH_SPACING);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.slant_range_to_first_pixel, NEAR_SLANT_RANGE);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.srgr_flag, 0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.avg_scene_height, 0.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.azimuth_looks, 1.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.range_looks, 1.0);
+        AbstractMetadata.setOrbitStateVectors(absRoot, createCircularOrbit(NUM_ORBIT_VECTORS, orbitStartMJD));
+
+        // zero Doppler processed
+        final MetadataElement dopplerListElem = new MetadataElement(AbstractMetadata.dop_coef_list + ".1");
+        absRoot.getElement(AbstractMetadata.dop_coefficients).addElement(dopplerListElem);
+        dopplerListElem.setAttributeUTC(AbstractMetadata.dop_coef_time, toUTC(orbitStartMJD, SCENE_START_SEC));
+        AbstractMetadata.addAbstractedAttribute(dopplerListElem, AbstractMetadata.slant_range_time,
+                ProductData.TYPE_FLOAT64, "ns", "Slant Range Time");
+        AbstractMetadata.setAttribute(dopplerListElem, AbstractMetadata.slant_range_time,
+                2.0 * NEAR_SLANT_RANGE / Constants.lightSpeed * Constants.oneBillion);
+        final MetadataElement coefElem = new MetadataElement(AbstractMetadata.coefficient + ".1");
+        dopplerListElem.addElement(coefElem);
+        AbstractMetadata.addAbstractedAttribute(coefElem, AbstractMetadata.dop_coef,
+                ProductData.TYPE_FLOAT64, "", "Doppler Centroid Coefficient");
+        AbstractMetadata.setAttribute(coefElem, AbstractMetadata.dop_coef, 0.0);
+        return product;
+    }
+
+    /**
+     * Latitude, longitude, incidence angle and slant range time grids and the tie point geocoding,
+     * for lines evenly spaced in time from the scene start
+     */
+    private static void addGeometryTiePointGrids(final Product product) {
+        final double subSamplingX = (product.getSceneRasterWidth() - 1) / (double) (GEO_GRID_SIZE - 1);
+        final double subSamplingY = (product.getSceneRasterHeight() - 1) / (double) (GEO_GRID_SIZE - 1);
+        final int numPoints = GEO_GRID_SIZE * GEO_GRID_SIZE;
+        final float[] latList = new float[numPoints];
+        final float[] lonList = new float[numPoints];
+        final float[] incList = new float[numPoints];
+        final float[] slrtList = new float[numPoints];
+
+        int k = 0;
+        for (int j = 0; j < GEO_GRID_SIZE; ++j) {
+            final double time = SCENE_START_SEC + j * subSamplingY * LINE_TIME_INTERVAL;
+            for (int i = 0; i < GEO_GRID_SIZE; ++i) {
+                final double slantRange = NEAR_SLANT_RANGE + i * subSamplingX * RANGE_SPACING;
+                final double[] latLonInc = geolocate(time, slantRange);
+                latList[k] = (float) latLonInc[0];
+                lonList[k] = (float) latLonInc[1];
+                incList[k] = (float) latLonInc[2];
+                slrtList[k] = (float) (2.0 * slantRange / Constants.lightSpeed * Constants.oneBillion);
+                ++k;
+            }
+        }
+
+        final TiePointGrid latGrid = new TiePointGrid(OperatorUtils.TPG_LATITUDE, GEO_GRID_SIZE, GEO_GRID_SIZE,
+                0.5, 0.5, subSamplingX, subSamplingY, latList);
+        final TiePointGrid lonGrid = new TiePointGrid(OperatorUtils.TPG_LONGITUDE, GEO_GRID_SIZE, GEO_GRID_SIZE,
+                0.5, 0.5, subSamplingX, subSamplingY, lonList);
+        final TiePointGrid incGrid = new TiePointGrid(OperatorUtils.TPG_INCIDENT_ANGLE, GEO_GRID_SIZE, GEO_GRID_SIZE,
+                0.5, 0.5, subSamplingX, subSamplingY, incList);
+        final TiePointGrid slrtGrid = new TiePointGrid(OperatorUtils.TPG_SLANT_RANGE_TIME, GEO_GRID_SIZE, GEO_GRID_SIZE,
+                0.5, 0.5, subSamplingX, subSamplingY, slrtList);
+        latGrid.setUnit(Unit.DEGREES);
+        lonGrid.setUnit(Unit.DEGREES);
+        incGrid.setUnit(Unit.DEGREES);
+        slrtGrid.setUnit(Unit.NANOSECONDS);
+
+        product.addTiePointGrid(latGrid);
+        product.addTiePointGrid(lonGrid);
+        product.addTiePointGrid(incGrid);
+        product.addTiePointGrid(slrtGrid);
+        product.setSceneGeoCoding(new TiePointGeoCoding(latGrid, lonGrid));
+    }
+
+    /**
+     * Point on the WGS84 ellipsoid seen right looking at zero Doppler from the circular orbit
+     *
+     * @param time       seconds after the first state vector
+     * @param slantRange slant range in m
+     * @return {latitude, longitude, incidence angle} in degrees
+     */
+    private static double[] geolocate(final double time, final double slantRange) {
+        final double angle = ANGULAR_RATE * time;
+        final double sx = ORBIT_RADIUS * Math.cos(angle);
+        final double sz = ORBIT_RADIUS * Math.sin(angle);
+        final double a2 = Constants.semiMajorAxis * Constants.semiMajorAxis;
+        final double b2 = Constants.semiMinorAxis * Constants.semiMinorAxis;
+
+        // the look vector lies in the plane normal to the velocity, find the look angle that reaches the ellipsoid
+        final double[] xyz = new double[3];
+        double lo = 0.0, hi = 0.5 * Math.PI;
+        for (int i = 0; i < 60; ++i) {
+            final double lookAngle = 0.5 * (lo + hi);
+            final double scale = 1.0 - slantRange * Math.cos(lookAngle) / ORBIT_RADIUS;
+            xyz[0] = sx * scale;
+            xyz[1] = slantRange * Math.sin(lookAngle);
+            xyz[2] = sz * scale;
+            if ((xyz[0] * xyz[0] + xyz[1] * xyz[1]) / a2 + xyz[2] * xyz[2] / b2 < 1.0) {
+                lo = lookAngle;
+            } else {
+                hi = lookAngle;
+            }
+        }
+
+        final double nx = xyz[0] / a2;
+        final double ny = xyz[1] / a2;
+        final double nz = xyz[2] / b2;
+        final double cosIncidence = (nx * (sx - xyz[0]) - ny * xyz[1] + nz * (sz - xyz[2])) /
+                (Math.sqrt(nx * nx + ny * ny + nz * nz) * slantRange);
+
+        final GeoPos geoPos = new GeoPos();
+        GeoUtils.xyz2geo(xyz, geoPos);
+        return new double[]{geoPos.lat, geoPos.lon, Math.toDegrees(Math.acos(cosIncidence))};
+    }
+
+    private static String[] addComplexBands(final Product product, final String suffix, final double fringeX,
+                                            final double fringeY, final int seedOffset) {
+        final float[][] scene = createComplexScene(product.getSceneRasterWidth(), product.getSceneRasterHeight(),
+                fringeX, fringeY, 0.3, seedOffset);
+        final Band iBand = product.addBand("i" + suffix, ProductData.TYPE_FLOAT32);
+        iBand.setUnit(Unit.REAL);
+        iBand.setData(ProductData.createInstance(scene[0]));
+        final Band qBand = product.addBand("q" + suffix, ProductData.TYPE_FLOAT32);
+        qBand.setUnit(Unit.IMAGINARY);
+        qBand.setData(ProductData.createInstance(scene[1]));
+        return new String[]{iBand.getName(), qBand.getName()};
+    }
+
+    private static MetadataElement addElement(final MetadataElement parent, final String name) {
+        final MetadataElement elem = new MetadataElement(name);
+        parent.addElement(elem);
+        return elem;
+    }
+
+    private static ProductData.UTC toUTC(final double orbitStartMJD, final double seconds) {
+        return new ProductData.UTC(orbitStartMJD + seconds / Constants.secondsInDay);
+    }
+
+    private static String toAnnotationTime(final double seconds) {
+        final ProductData.UTC utc = toUTC(FIRST_TIME_MJD, seconds);
+        final DateFormat format = ProductData.UTC.createDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        return format.format(utc.getAsDate()) + String.format(".%06d", utc.getMicroSecondsFraction());
+    }
+
+    /**
+     * A smoothly varying tie point grid such as a calibration vector or incidence angle grid
+     *
+     * @param name        grid name
+     * @param gridWidth   number of tie points per line
+     * @param gridHeight  number of tie point lines
+     * @param subSampling raster pixels between tie points in both directions
+     * @return the tie point grid
+     */
+    public static TiePointGrid createTiePointGrid(final String name, final int gridWidth, final int gridHeight,
+                                                  final int subSampling) {
+        final float[] points = new float[gridWidth * gridHeight];
+        for (int y = 0; y < gridHeight; ++y) {
+            for (int x = 0; x < gridWidth; ++x) {
+                points[y * gridWidth + x] = (float) (30.0 + 15.0 * x / gridWidth + 0.5 * Math.sin(y * 0.2));
+            }
+        }
+        return new TiePointGrid(name, gridWidth, gridHeight, 0.5, 0.5, subSampling, subSampling, points);
+    }
+
+    /**
+     * Writes a tiled 16 bit GeoTIFF-like TIFF as found in Sentinel-1 GRD measurement files
+     *
+     * @param file     the output file
+     * @param width    image width
+     * @param height   image height
+     * @param tileSize tile width and height
+     * @throws IOException on write failure
+     */
+    public static void writeTiledTiff(final File file, final int width, final int height, final int tileSize)
+            throws IOException {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_USHORT_GRAY);
+        final WritableRaster raster = image.getRaster();
+        final float[] amplitude = createSpeckledAmplitude(width, height);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                raster.setSample(x, y, 0, Math.min(65535, (int) amplitude[y * width + x]));
+            }
+        }
+
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(out);
+            final ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setTiling(tileSize, tileSize, 0, 0);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Writes a CEOS-like image file: fixed length records of a 12 byte prefix followed by big endian int16 I/Q samples
+     *
+     * @param file       the output file
+     * @param numSamples complex samples per line
+     * @param numLines   number of lines
+     * @return the record length in bytes
+     * @throws IOException on write failure
+     */
+    public static int writeBinaryRaster(final File file, final int numSamples, final int numLines) throws IOException {
+        final Random random = new Random(SEED);
+        final int recordLength = 12 + numSamples * 4;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for (int y = 0; y < numLines; ++y) {
+                out.writeInt(y + 1);
+                out.writeInt(recordLength);
+                out.writeInt(0);
+                for (int x = 0; x < numSamples * 2; ++x) {
+                    out.writeShort((short) (random.nextGaussian() * 100.0));
+                }
+            }
+        }
+        return recordLength;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import eu.esa.sar.commons.OrbitStateVectors;
+import eu.esa.sar.commons.SARGeocoding;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.esa.snap.engine_utilities.eo.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kernel level: the zero Doppler time and slant range solve of terrain correction for one row of a
+ * geocoded tile, comparing the per point solver with the warm started batch solver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TerrainCorrectionBenchmark {
+
+    private static final int NUM_POINTS = 1024;
+    private static final int NUM_LINES = 10000;
+    private static final double WAVELENGTH = Constants.lightSpeed / 5.405e9;
+    private static final double EARTH_RADIUS = 6371000.0;
+
+    private final double firstLineUTC = SyntheticData.FIRST_TIME_MJD + 30.0 / 86400.0;
+    private final double lineTimeInterval = 0.002 / 86400.0;
+
+    private OrbitStateVectors orbit;
+    private final double[] x = new double[NUM_POINTS];
+    private final double[] y = new double[NUM_POINTS];
+    private final double[] z = new double[NUM_POINTS];
+    private final double[] zeroDopplerTime = new double[NUM_POINTS];
+    private final double[] slantRange = new double[NUM_POINTS];
+
+    @Setup
+    public void setup() {
+        orbit = new OrbitStateVectors(SyntheticData.createCircularOrbit(30), firstLineUTC, lineTimeInterval, NUM_LINES);
+
+        // one row of a map projected tile: slowly moving along track, stepping across track
+        for (int i = 0; i < NUM_POINTS; ++i) {
+            final double phi = SyntheticData.ANGULAR_RATE * (40.0 + i * 0.002);
+            final double beta = 0.04 + i * 2.0e-5;
+            x[i] = EARTH_RADIUS * Math.cos(phi) * Math.cos(beta);
+            y[i] = EARTH_RADIUS * Math.sin(beta);
+            z[i] = EARTH_RADIUS * Math.sin(phi) * Math.cos(beta);
+        }
+    }
+
+    @Benchmark
+    public void singlePointSolver(final Blackhole bh) {
+        final PosVector earthPoint = new PosVector();
+        final PosVector sensorPos = new PosVector();
+        for (int i = 0; i < NUM_POINTS; ++i) {
+            earthPoint.x = x[i];
+            earthPoint.y = y[i];
+            earthPoint.z = z[i];
+            final double time = SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC, lineTimeInterval, WAVELENGTH,
+                    earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+            bh.consume(time);
+            if (time != SARGeocoding.NonValidZeroDopplerTime) {
+                bh.consume(SARGeocoding.computeSlantRange(time, orbit, earthPoint, sensorPos));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] batchSolver() {
+        SARGeocoding.getEarthPointZeroDopplerTimes(firstLineUTC, lineTimeInterval, WAVELENGTH, orbit,
+                x, y, z, NUM_POINTS, zeroDopplerTime, slantRange);
+        return slantRange;
+    }
+}
@@ -26,10 +26,12 @@ import java.nio.file.Files;
 
 public abstract class Benchmark {
 
-    private final static boolean DISABLE_BENCHMARKS = true;
+    // the product based benchmarks need the test data and are run on request with -Dmicrowavetbx.benchmarks=true
+    private final static boolean DISABLE_BENCHMARKS = !Boolean.getBoolean("microwavetbx.benchmarks");
     private final static int iterations = 5;
     private final String name;
-    private final File resultsFile = new File("e:\\out\\results.json");
+    private final File resultsFile = new File(System.getProperty("microwavetbx.benchmark.results",
+            new File(System.getProperty("java.io.tmpdir"), "benchmark_results.json").getPath()));
     protected File outputFolder;
 
     public Benchmark(final String name) {
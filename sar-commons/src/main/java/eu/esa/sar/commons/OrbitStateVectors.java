@@ -4,9 +4,7 @@ import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
 import org.esa.snap.engine_utilities.datamodel.PosVector;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public final class OrbitStateVectors {
 
@@ -14,9 +12,13 @@ public final class OrbitStateVectors {
     public PosVector[] sensorPosition = null; // sensor position for all range lines
     public PosVector[] sensorVelocity = null; // sensor velocity for all range lines
     private double dt = 0.0;
-    private final Map<Double, PositionVelocity> timeMap = new HashMap<>();
+
+    // direct mapped cache of interpolated position/velocity keyed on time.
+    // Entries are immutable, so lookups need no locking and a racing write only replaces an entry.
+    private final CacheEntry[] pvCache = new CacheEntry[CACHE_SIZE];
 
     private static final int nv = 8;
+    private static final int CACHE_SIZE = 4096; // must be a power of 2
 
     public OrbitStateVectors(final OrbitStateVector[] orbitStateVectors,
                              final double firstLineUTC, final double lineTimeInterval, final int sourceImageHeight) {
@@ -62,13 +64,36 @@ public final class OrbitStateVectors {
         return vectorList.toArray(new OrbitStateVector[0]);
     }
 
-    public PositionVelocity getPositionVelocity(final Double time) {
+    private static int cacheIndex(final double time) {
+        long bits = Double.doubleToLongBits(time);
+        bits ^= (bits >>> 33);
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= (bits >>> 33);
+        return (int) bits & (CACHE_SIZE - 1);
+    }
 
-        PositionVelocity cachedPosVel = timeMap.get(time);
-        if(cachedPosVel != null) {
-            return cachedPosVel;
+    /**
+     * Get the interpolated sensor position and velocity at the given time.
+     * The returned object may be shared with other callers and must not be modified.
+     *
+     * @param time the time in days
+     * @return the position and velocity
+     */
+    public PositionVelocity getPositionVelocity(final double time) {
+
+        final int index = cacheIndex(time);
+        final CacheEntry entry = pvCache[index];
+        if (entry != null && entry.time == time) {
+            return entry.pv;
         }
 
+        final PositionVelocity pv = interpolatePositionVelocity(time);
+        pvCache[index] = new CacheEntry(time, pv);
+        return pv;
+    }
+
+    private PositionVelocity interpolatePositionVelocity(final double time) {
+
         int i0, iN;
         if (orbitStateVectors.length <= nv) {
             i0 = 0;
@@ -101,8 +126,6 @@ public final class OrbitStateVectors {
             pv.velocity.y += weight * orbI.y_vel;
             pv.velocity.z += weight * orbI.z_vel;
         }
-
-        timeMap.put(time, pv);
         return pv;
     }
 
@@ -219,4 +242,14 @@ public final class OrbitStateVectors {
         public final PosVector position = new PosVector();
         public final PosVector velocity = new PosVector();
     }
+
+    private static final class CacheEntry {
+        final double time;
+        final PositionVelocity pv;
+
+        CacheEntry(final double time, final PositionVelocity pv) {
+            this.time = time;
+            this.pv = pv;
+        }
+    }
 }
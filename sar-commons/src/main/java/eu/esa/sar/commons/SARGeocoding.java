@@ -106,6 +106,161 @@ public final class SARGeocoding {
         return firstLineUTC + y0 * lineTimeInterval;
     }
 
+    /**
+     * Compute zero Doppler time and slant range for a batch of earth points, e.g. one row of a tile.
+     * The search for each point starts from the range line found for the previous point, so neighbouring
+     * points are usually resolved with a few Doppler evaluations instead of a bisection over all range lines.
+     * As long as the Doppler history of a point has a single zero crossing, the results are identical to
+     * calling getEarthPointZeroDopplerTime for each point.
+     *
+     * @param firstLineUTC     The zero Doppler time for the first range line.
+     * @param lineTimeInterval The line time interval.
+     * @param wavelength       The radar wavelength.
+     * @param orbit            The orbit with sensor positions and velocities for all range lines.
+     * @param x                The earth point x coordinates. NaN marks a point to skip.
+     * @param y                The earth point y coordinates.
+     * @param z                The earth point z coordinates.
+     * @param length           The number of points.
+     * @param zeroDopplerTime  Output zero Doppler times in days, NonValidZeroDopplerTime if not found.
+     * @param slantRange       Output slant ranges in meters for points with a valid time, may be null.
+     */
+    public static void getEarthPointZeroDopplerTimes(final double firstLineUTC, final double lineTimeInterval,
+                                                     final double wavelength, final OrbitStateVectors orbit,
+                                                     final double[] x, final double[] y, final double[] z,
+                                                     final int length,
+                                                     final double[] zeroDopplerTime, final double[] slantRange) {
+
+        final PosVector[] sensorPosition = orbit.sensorPosition;
+        final PosVector[] sensorVelocity = orbit.sensorVelocity;
+        final int lastLine = sensorPosition.length - 1;
+        final PosVector earthPoint = new PosVector();
+        final PosVector sensorPos = new PosVector();
+        int guess = lastLine / 2;
+
+        for (int i = 0; i < length; ++i) {
+            if (Double.isNaN(x[i])) {
+                zeroDopplerTime[i] = NonValidZeroDopplerTime;
+                continue;
+            }
+            earthPoint.x = x[i];
+            earthPoint.y = y[i];
+            earthPoint.z = z[i];
+
+            final double line = getEarthPointZeroDopplerLine(
+                    wavelength, earthPoint, sensorPosition, sensorVelocity, lastLine, guess);
+            if (Double.isNaN(line)) {
+                zeroDopplerTime[i] = NonValidZeroDopplerTime;
+                continue;
+            }
+            guess = (int) line;
+
+            zeroDopplerTime[i] = firstLineUTC + line * lineTimeInterval;
+            if (slantRange != null) {
+                slantRange[i] = computeSlantRange(zeroDopplerTime[i], orbit, earthPoint, sensorPos);
+            }
+        }
+    }
+
+    /**
+     * Find the fractional range line of zero Doppler for an earth point, starting the search at a guessed line
+     * and doubling the step until the zero crossing is bracketed. Follows the same bracketing and interpolation
+     * rules as getEarthPointZeroDopplerTime.
+     *
+     * @return the range line or NaN if no zero crossing exists
+     */
+    private static double getEarthPointZeroDopplerLine(final double wavelength, final PosVector earthPoint,
+                                                       final PosVector[] sensorPosition,
+                                                       final PosVector[] sensorVelocity,
+                                                       final int lastLine, final int guess) {
+
+        int lowerBound = 0;
+        int upperBound = lastLine;
+        double lowerBoundFreq = getDopplerFrequency(
+                earthPoint, sensorPosition[lowerBound], sensorVelocity[lowerBound], wavelength);
+        double upperBoundFreq = getDopplerFrequency(
+                earthPoint, sensorPosition[upperBound], sensorVelocity[upperBound], wavelength);
+
+        if (Math.abs(lowerBoundFreq) < 1.0) {
+            return lowerBound;
+        } else if (Math.abs(upperBoundFreq) < 1.0) {
+            return upperBound;
+        } else if (!(lowerBoundFreq * upperBoundFreq <= 0.0)) {
+            return Double.NaN;
+        }
+
+        // narrow the bracket around the guess
+        if (upperBound - lowerBound > 1) {
+            final int start = Math.min(Math.max(guess, lowerBound + 1), upperBound - 1);
+            double freq = getDopplerProduct(earthPoint, sensorPosition[start], sensorVelocity[start]);
+            if (freq * lowerBoundFreq > 0.0) {
+                lowerBound = start;
+                lowerBoundFreq = freq;
+                for (int step = 1; lowerBound + step < upperBound; step <<= 1) {
+                    final int p = lowerBound + step;
+                    freq = getDopplerProduct(earthPoint, sensorPosition[p], sensorVelocity[p]);
+                    if (freq * lowerBoundFreq > 0.0) {
+                        lowerBound = p;
+                        lowerBoundFreq = freq;
+                    } else if (freq * upperBoundFreq > 0.0) {
+                        upperBound = p;
+                        upperBoundFreq = freq;
+                        break;
+                    } else if (Double.compare(freq, 0.0) == 0) {
+                        return p;
+                    }
+                }
+            } else if (freq * upperBoundFreq > 0.0) {
+                upperBound = start;
+                upperBoundFreq = freq;
+                for (int step = 1; upperBound - step > lowerBound; step <<= 1) {
+                    final int p = upperBound - step;
+                    freq = getDopplerProduct(earthPoint, sensorPosition[p], sensorVelocity[p]);
+                    if (freq * upperBoundFreq > 0.0) {
+                        upperBound = p;
+                        upperBoundFreq = freq;
+                    } else if (freq * lowerBoundFreq > 0.0) {
+                        lowerBound = p;
+                        lowerBoundFreq = freq;
+                        break;
+                    } else if (Double.compare(freq, 0.0) == 0) {
+                        return p;
+                    }
+                }
+            } else if (Double.compare(freq, 0.0) == 0) {
+                return start;
+            }
+        }
+
+        // binary search within the bracket
+        while (upperBound - lowerBound > 1) {
+
+            final int mid = (int) ((lowerBound + upperBound) / 2.0);
+            final double midFreq = getDopplerProduct(earthPoint, sensorPosition[mid], sensorVelocity[mid]);
+
+            if (midFreq * lowerBoundFreq > 0.0) {
+                lowerBound = mid;
+                lowerBoundFreq = midFreq;
+            } else if (midFreq * upperBoundFreq > 0.0) {
+                upperBound = mid;
+                upperBoundFreq = midFreq;
+            } else if (Double.compare(midFreq, 0.0) == 0) {
+                return mid;
+            }
+        }
+
+        return lowerBound - lowerBoundFreq * (upperBound - lowerBound) / (upperBoundFreq - lowerBoundFreq);
+    }
+
+    /**
+     * Unscaled Doppler frequency, same sign as the Doppler frequency.
+     */
+    private static double getDopplerProduct(final PosVector earthPoint, final PosVector sensorPosition,
+                                            final PosVector sensorVelocity) {
+        return sensorVelocity.x * (earthPoint.x - sensorPosition.x) +
+                sensorVelocity.y * (earthPoint.y - sensorPosition.y) +
+                sensorVelocity.z * (earthPoint.z - sensorPosition.z);
+    }
+
     public static double getEarthPointZeroDopplerTimeNewton(
             final double lineTimeInterval, final double wavelength,
             final PosVector earthPoint, final OrbitStateVectors orbit) {
@@ -34,6 +34,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Reader for ImageIO File
@@ -54,7 +58,17 @@ public class ImageIOFile {
     private ImageInputStream stream;
     private ImageReader reader;
 
+    // when set, additional readers are opened on the file so that tiles can be decoded concurrently,
+    // close clears it and threads waiting for a pooled reader give up within READER_POLL_MILLIS
+    private volatile File sourceFile = null;
+    private int readerPoolSize = 0;
+    private final BlockingQueue<ImageReader> readerPool = new LinkedBlockingQueue<>();
+    private final AtomicInteger numPooledReaders = new AtomicInteger(0);
+
     private static final boolean useFileCache = Config.instance().preferences().getBoolean("s1tbx.readers.useFileCache", false);
+    private static final int maxReaderPoolSize = Config.instance().preferences().getInt("s1tbx.readers.readerPoolSize",
+            Runtime.getRuntime().availableProcessors());
+    private static final long READER_POLL_MILLIS = 100;
 
     public ImageIOFile(final File inputFile, final ImageReader iioReader,
                        final File productInputFile) throws IOException {
@@ -147,6 +161,92 @@ public class ImageIOFile {
         return reader;
     }
 
+    /**
+     * Allow concurrent reads by opening a pool of readers directly on the image file.
+     * Only applicable when the image is a plain file on disk and not read from an archive.
+     *
+     * @param file the image file
+     */
+    public void enableReaderPool(final File file) {
+        enableReaderPool(file, maxReaderPoolSize);
+    }
+
+    void enableReaderPool(final File file, final int poolSize) {
+        if (file != null && file.isFile() && poolSize > 1 && reader != null &&
+                reader.getOriginatingProvider() != null) {
+            readerPoolSize = poolSize;
+            sourceFile = file;
+        }
+    }
+
+    public boolean isReaderPoolEnabled() {
+        return sourceFile != null;
+    }
+
+    ImageReader acquireReader() throws IOException {
+        final File file = sourceFile;
+        if (file == null) {
+            throw new IOException(name + " is closed");
+        }
+        ImageReader pooledReader = readerPool.poll();
+        if (pooledReader != null) {
+            return pooledReader;
+        }
+        if (numPooledReaders.incrementAndGet() <= readerPoolSize) {
+            try {
+                final ImageInputStream pooledStream = ImageIO.createImageInputStream(file);
+                if (pooledStream == null)
+                    throw new IOException("Unable to open " + file);
+                pooledReader = reader.getOriginatingProvider().createReaderInstance();
+                pooledReader.setInput(pooledStream, false, true);
+                return pooledReader;
+            } catch (IOException e) {
+                numPooledReaders.decrementAndGet();
+                throw e;
+            }
+        }
+        numPooledReaders.decrementAndGet();
+        try {
+            while (sourceFile != null) {
+                pooledReader = readerPool.poll(READER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (pooledReader != null) {
+                    return pooledReader;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for reader of " + name, e);
+        }
+        throw new IOException(name + " is closed");
+    }
+
+    void releaseReader(final ImageReader pooledReader) {
+        if (sourceFile != null) {
+            readerPool.offer(pooledReader);
+            // close may have emptied the pool in between
+            if (sourceFile != null || !readerPool.remove(pooledReader)) {
+                return;
+            }
+        }
+        disposeReader(pooledReader);
+    }
+
+    int getNumIdleReaders() {
+        return readerPool.size();
+    }
+
+    private static void disposeReader(final ImageReader pooledReader) {
+        try {
+            final Object input = pooledReader.getInput();
+            if (input instanceof ImageInputStream) {
+                ((ImageInputStream) input).close();
+            }
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to close reader stream " + e.getMessage());
+        }
+        pooledReader.dispose();
+    }
+
     private static int bufferImageTypeToProductType(int biType) {
         switch (biType) {
             case BufferedImage.TYPE_CUSTOM:
@@ -198,6 +298,11 @@ public class ImageIOFile {
     }
 
     public void close() throws IOException {
+        sourceFile = null;
+        ImageReader pooledReader;
+        while ((pooledReader = readerPool.poll()) != null) {
+            disposeReader(pooledReader);
+        }
         if (stream != null)
             stream.close();
         if (reader != null)
@@ -245,7 +350,7 @@ public class ImageIOFile {
         param.setSourceSubsampling(sourceStepX, sourceStepY,
                 sourceOffsetX % sourceStepX,
                 sourceOffsetY % sourceStepY);
-        final Raster data = getData(param, destOffsetX, destOffsetY, destWidth, destHeight);
+        final Raster data = getData(param, new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight));
 
         final DataBuffer dataBuffer = data.getDataBuffer();
         final SampleModel sampleModel = data.getSampleModel();
@@ -289,12 +394,32 @@ public class ImageIOFile {
         }
     }
 
-    private synchronized Raster getData(final ImageReadParam param,
-                                        final int destOffsetX, final int destOffsetY,
-                                        final int destWidth, final int destHeight) throws IOException {
+    /**
+     * Read a region of the first image. Reads are serialized on the shared reader unless a reader pool is
+     * enabled, in which case each concurrent read uses its own reader and stream.
+     *
+     * @param param the read param with subsampling and source region
+     * @param rect  the region to read
+     * @return the raster data
+     * @throws IOException on read failure
+     */
+    public Raster getData(final ImageReadParam param, final Rectangle rect) throws IOException {
+        if (sourceFile != null) {
+            final ImageReader pooledReader = acquireReader();
+            try {
+                final RenderedImage image = pooledReader.readAsRenderedImage(0, param);
+                return image.getData(rect);
+            } finally {
+                releaseReader(pooledReader);
+            }
+        }
+        return getDataSerial(param, rect);
+    }
+
+    private synchronized Raster getDataSerial(final ImageReadParam param, final Rectangle rect) throws IOException {
         try {
             final RenderedImage image = reader.readAsRenderedImage(0, param);
-            return image.getData(new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight));
+            return image.getData(rect);
         } catch (Exception e) {
             if(ZipUtils.isZip(productInputFile) && !ZipUtils.isValid(productInputFile)) {
                 throw new IOException("Zip file is corrupt "+productInputFile.getName());
@@ -0,0 +1,92 @@
+package eu.esa.sar.commons;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class OrbitStateVectorsTest {
+
+    private static final double orbitRadius = 7071000.0; // m
+    private static final double angularRate = 2.0 * Math.PI / 5926.0; // rad/s
+    private static final double firstTime = 8000.0; // mjd
+    private static final double vectorInterval = 10.0 / 86400.0; // 10 s in days
+
+    static OrbitStateVector[] createCircularOrbit(final int numVectors) {
+        final OrbitStateVector[] vectors = new OrbitStateVector[numVectors];
+        for (int i = 0; i < numVectors; ++i) {
+            final double t = i * 10.0;
+            final double angle = angularRate * t;
+            vectors[i] = new OrbitStateVector(new ProductData.UTC(firstTime + i * vectorInterval),
+                    orbitRadius * Math.cos(angle), orbitRadius * Math.sin(angle), 0.0,
+                    -orbitRadius * angularRate * Math.sin(angle), orbitRadius * angularRate * Math.cos(angle), 0.0);
+        }
+        return vectors;
+    }
+
+    @Test
+    public void testInterpolationOnCircularOrbit() {
+        final OrbitStateVectors orbit = new OrbitStateVectors(createCircularOrbit(20));
+
+        final double t = 55.5;
+        final OrbitStateVectors.PositionVelocity pv = orbit.getPositionVelocity(firstTime + t / 86400.0);
+        final double angle = angularRate * t;
+        assertEquals(orbitRadius * Math.cos(angle), pv.position.x, 1e-3);
+        assertEquals(orbitRadius * Math.sin(angle), pv.position.y, 1e-3);
+        assertEquals(-orbitRadius * angularRate * Math.sin(angle), pv.velocity.x, 1e-3);
+        assertEquals(orbitRadius * angularRate * Math.cos(angle), pv.velocity.y, 1e-3);
+    }
+
+    @Test
+    public void testCachedLookup() {
+        final OrbitStateVectors orbit = new OrbitStateVectors(createCircularOrbit(20));
+
+        final double time = firstTime + 42.0 / 86400.0;
+        final OrbitStateVectors.PositionVelocity pv1 = orbit.getPositionVelocity(time);
+        final OrbitStateVectors.PositionVelocity pv2 = orbit.getPositionVelocity(time);
+        assertSame(pv1, pv2);
+
+        // filling the cache far beyond its capacity must not change results
+        for (int i = 0; i < 100000; ++i) {
+            orbit.getPositionVelocity(firstTime + i * 1e-3 / 86400.0);
+        }
+        final OrbitStateVectors.PositionVelocity pv3 = orbit.getPositionVelocity(time);
+        assertEquals(pv1.position.x, pv3.position.x, 0.0);
+        assertEquals(pv1.velocity.y, pv3.velocity.y, 0.0);
+    }
+
+    @Test
+    public void testConcurrentLookup() throws Exception {
+        final OrbitStateVectors orbit = new OrbitStateVectors(createCircularOrbit(20));
+        final OrbitStateVectors reference = new OrbitStateVectors(createCircularOrbit(20));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int n = 0; n < 4; ++n) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20000; ++i) {
+                        final double time = firstTime + (i % 1500) * 0.1 / 86400.0;
+                        final OrbitStateVectors.PositionVelocity pv = orbit.getPositionVelocity(time);
+                        final OrbitStateVectors.PositionVelocity ref = reference.getPositionVelocity(time);
+                        assertEquals(ref.position.x, pv.position.x, 0.0);
+                        assertEquals(ref.velocity.z, pv.velocity.z, 0.0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package eu.esa.sar.commons;
 
 import com.bc.ceres.annotation.STTM;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 public class SARGeocodingTest {
@@ -26,4 +29,57 @@ public class SARGeocodingTest {
 
     assumeTrue(Math.abs(groundRange - groundRangeExp) <= 1e-3);
   }
+
+  @Test
+  public void testBatchZeroDopplerTimeMatchesSinglePoint() {
+
+    final double firstLineUTC = 8000.0 + 30.0 / 86400.0;
+    final double lineTimeInterval = 0.01 / 86400.0;
+    final double wavelength = 0.055;
+    final int numLines = 5000;
+    final OrbitStateVectors orbit = new OrbitStateVectors(OrbitStateVectorsTest.createCircularOrbit(20),
+            firstLineUTC, lineTimeInterval, numLines);
+
+    // earth points along and across the ground track, including points outside the scene and a skipped point
+    final int length = 400;
+    final double[] x = new double[length];
+    final double[] y = new double[length];
+    final double[] z = new double[length];
+    final double angularRate = 2.0 * Math.PI / 5926.0;
+    for (int i = 0; i < length; ++i) {
+      final double phi = angularRate * (25.0 + i * 0.15);
+      final double beta = 0.05 + 0.0001 * (i % 7);
+      x[i] = 6371000.0 * Math.cos(phi) * Math.cos(beta);
+      y[i] = 6371000.0 * Math.sin(phi) * Math.cos(beta);
+      z[i] = 6371000.0 * Math.sin(beta);
+    }
+    x[100] = Double.NaN;
+
+    final double[] zeroDopplerTime = new double[length];
+    final double[] slantRange = new double[length];
+    SARGeocoding.getEarthPointZeroDopplerTimes(firstLineUTC, lineTimeInterval, wavelength, orbit,
+            x, y, z, length, zeroDopplerTime, slantRange);
+
+    final PosVector earthPoint = new PosVector();
+    final PosVector sensorPos = new PosVector();
+    int numValid = 0;
+    for (int i = 0; i < length; ++i) {
+      if (i == 100) {
+        assertEquals(SARGeocoding.NonValidZeroDopplerTime, zeroDopplerTime[i], 0.0);
+        continue;
+      }
+      earthPoint.x = x[i];
+      earthPoint.y = y[i];
+      earthPoint.z = z[i];
+      final double expected = SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC, lineTimeInterval, wavelength,
+              earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+      assertEquals(expected, zeroDopplerTime[i], 1e-12);
+
+      if (expected != SARGeocoding.NonValidZeroDopplerTime) {
+        ++numValid;
+        assertEquals(SARGeocoding.computeSlantRange(expected, orbit, earthPoint, sensorPos), slantRange[i], 1e-6);
+      }
+    }
+    assertTrue(numValid > 0 && numValid < length - 1);
+  }
 }
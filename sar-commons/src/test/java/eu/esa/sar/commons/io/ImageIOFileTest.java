@@ -1,21 +1,153 @@
 package eu.esa.sar.commons.io;
 
 import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.stream.FileCacheImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ImageIOFileTest {
 
+  private static final int WIDTH = 300;
+  private static final int HEIGHT = 200;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private ImageIOFile createPooledImage(final int poolSize) throws IOException {
+    final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_GRAY);
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        image.getRaster().setSample(x, y, 0, expectedSample(x, y));
+      }
+    }
+    final File file = folder.newFile("image.png");
+    Assert.assertTrue(ImageIO.write(image, "png", file));
+
+    final ImageIOFile img = new ImageIOFile(file, ImageIOFile.getIIOReader(file), file);
+    img.enableReaderPool(file, poolSize);
+    Assert.assertTrue(img.isReaderPoolEnabled());
+    return img;
+  }
+
+  private static int expectedSample(final int x, final int y) {
+    return (x * 31 + y * 17) % 65536;
+  }
+
+  private static void readAndCheck(final ImageIOFile img, final Rectangle rect) throws IOException {
+    final ImageReadParam param = new ImageReadParam();
+    param.setSourceRegion(rect);
+    final Raster data = img.getData(param, new Rectangle(0, 0, rect.width, rect.height));
+    for (int y = 0; y < rect.height; y++) {
+      for (int x = 0; x < rect.width; x++) {
+        Assert.assertEquals(expectedSample(rect.x + x, rect.y + y), data.getSample(x, y, 0));
+      }
+    }
+  }
+
   @Test
   public void createImageInputStreamForLargeDimension() throws IOException {
     try(ImageInputStream imageInputStream = ImageIOFile.createImageInputStream(new ByteArrayInputStream(new byte[0]), new Dimension(60000, 60000))) {
       Assert.assertTrue("For large files we expect a FileCacheImageInputStream", imageInputStream instanceof FileCacheImageInputStream);
     }
   }
+
+  @Test
+  public void concurrentReadsMatchTheImage() throws Exception {
+    final ImageIOFile img = createPooledImage(3);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        final Rectangle rect = new Rectangle((i * 37) % (WIDTH - 40), (i * 23) % (HEIGHT - 30), 40, 30);
+        results.add(executor.submit(() -> {
+          readAndCheck(img, rect);
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get(30, TimeUnit.SECONDS);
+      }
+      Assert.assertTrue(img.getNumIdleReaders() <= 3);
+    } finally {
+      executor.shutdownNow();
+      img.close();
+    }
+  }
+
+  @Test
+  public void exhaustedPoolWaitsForAReleasedReader() throws Exception {
+    final ImageIOFile img = createPooledImage(2);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final ImageReader first = img.acquireReader();
+      final ImageReader second = img.acquireReader();
+      Assert.assertNotSame(first, second);
+
+      final Future<ImageReader> third = executor.submit(img::acquireReader);
+      try {
+        third.get(300, TimeUnit.MILLISECONDS);
+        Assert.fail("no more than two readers expected");
+      } catch (TimeoutException expected) {
+        // both readers are in use
+      }
+
+      img.releaseReader(second);
+      Assert.assertSame(second, third.get(5, TimeUnit.SECONDS));
+      img.releaseReader(first);
+      img.releaseReader(second);
+      Assert.assertEquals(2, img.getNumIdleReaders());
+    } finally {
+      executor.shutdownNow();
+      img.close();
+    }
+  }
+
+  @Test
+  public void closeReleasesWaitingThreads() throws Exception {
+    final ImageIOFile img = createPooledImage(2);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final ImageReader first = img.acquireReader();
+      final ImageReader second = img.acquireReader();
+      final Future<ImageReader> waiting = executor.submit(img::acquireReader);
+
+      img.close();
+      try {
+        waiting.get(5, TimeUnit.SECONDS);
+        Assert.fail("closed file should not hand out readers");
+      } catch (ExecutionException expected) {
+        Assert.assertTrue(expected.getCause() instanceof IOException);
+      }
+
+      // readers in use when the file was closed are disposed, not pooled
+      img.releaseReader(first);
+      img.releaseReader(second);
+      Assert.assertEquals(0, img.getNumIdleReaders());
+      Assert.assertFalse(img.isReaderPoolEnabled());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
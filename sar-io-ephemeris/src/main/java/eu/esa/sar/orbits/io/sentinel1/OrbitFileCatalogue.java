@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.esa.snap.core.util.SystemUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent catalogue of the Sentinel-1 orbit files found under an orbit folder.
+ * Files are indexed by their validity period, parsed once from the file name, and grouped by file name prefix
+ * (mission and orbit type). The index is kept in a file in the root folder and only folders which changed since
+ * they were last listed are scanned again.
+ * <p>
+ * Lookups work on an immutable snapshot and need no locking, updates replace the snapshot.
+ */
+final class OrbitFileCatalogue {
+
+    static final String INDEX_FILE_NAME = "orbit-catalogue.idx";
+
+    private static final int PREFIX_LENGTH = 25;
+    private static final int VALIDITY_START_OFFSET = 42;
+    private static final int VALIDITY_STOP_OFFSET = 58;
+    private static final int MIN_NAME_LENGTH = VALIDITY_STOP_OFFSET + 15;
+    private static final int MAX_FOLDER_DEPTH = 3;
+    private static final double SECONDS_PER_DAY = 86400.0;
+    private static final long MJD2000_EPOCH_SECONDS = 946684800L;
+
+    private static final Map<File, OrbitFileCatalogue> catalogues = new ConcurrentHashMap<>();
+
+    private final File rootFolder;
+    private final File indexFile;
+    private final Map<String, Long> folderTimes = new HashMap<>();
+    private final Map<String, List<Entry>> folderEntries = new HashMap<>();
+    private volatile Map<String, Interval> intervals = Collections.emptyMap();
+
+    OrbitFileCatalogue(final File rootFolder) {
+        this.rootFolder = rootFolder;
+        this.indexFile = new File(rootFolder, INDEX_FILE_NAME);
+        load();
+        update();
+    }
+
+    /**
+     * Get the shared catalogue for an orbit root folder
+     * @param rootFolder the folder holding the mission/year/month folders
+     * @return the catalogue
+     */
+    static OrbitFileCatalogue getCatalogue(final File rootFolder) {
+        return catalogues.computeIfAbsent(rootFolder.getAbsoluteFile(), OrbitFileCatalogue::new);
+    }
+
+    /**
+     * Find the orbit file valid at a time. Of several valid files the one with the latest validity start is returned.
+     * @param prefix the file name prefix such as S1A_OPER_AUX_POEORB_OPOD_
+     * @param mjd the time in MJD 2000
+     * @return the orbit file or null if none is known
+     */
+    File findOrbitFile(final String prefix, final double mjd) {
+        final Interval interval = intervals.get(prefix.toUpperCase());
+        if (interval == null) {
+            return null;
+        }
+        final Entry entry = interval.find(mjd);
+        return entry == null ? null : new File(rootFolder, entry.path);
+    }
+
+    /**
+     * Scan the folders which changed since they were last listed and store the index if anything changed
+     * @return true if the catalogue changed
+     */
+    synchronized boolean update() {
+        final Set<String> folders = new TreeSet<>();
+        collectFolders(rootFolder, "", 0, folders);
+
+        boolean changed = folderEntries.keySet().retainAll(folders);
+        folderTimes.keySet().retainAll(folders);
+        for (String folder : folders) {
+            final long lastModified = new File(rootFolder, folder).lastModified();
+            if (folder.isEmpty()) {
+                // writing the index touches the root folder, compare its files instead
+                changed |= scanFolder(folder, lastModified);
+                continue;
+            }
+            final Long knownTime = folderTimes.get(folder);
+            if (knownTime == null || knownTime != lastModified) {
+                scanFolder(folder, lastModified);
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebuild();
+            store();
+        }
+        return changed;
+    }
+
+    /**
+     * List a folder again regardless of its modification time
+     * @param folder a folder below the root folder
+     * @return true if the catalogue changed
+     */
+    synchronized boolean update(final File folder) {
+        final String relativePath = relativePath(folder);
+        if (relativePath == null || !folder.isDirectory()) {
+            return false;
+        }
+        if (scanFolder(relativePath, folder.lastModified())) {
+            rebuild();
+            store();
+            return true;
+        }
+        return false;
+    }
+
+    private void collectFolders(final File folder, final String relativePath, final int depth, final Set<String> folders) {
+        folders.add(relativePath);
+        if (depth >= MAX_FOLDER_DEPTH) {
+            return;
+        }
+        final File[] subFolders = folder.listFiles(File::isDirectory);
+        if (subFolders != null) {
+            for (File subFolder : subFolders) {
+                collectFolders(subFolder, relativePath.isEmpty() ? subFolder.getName() :
+                        relativePath + '/' + subFolder.getName(), depth + 1, folders);
+            }
+        }
+    }
+
+    private boolean scanFolder(final String folder, final long lastModified) {
+        final List<Entry> entries = new ArrayList<>();
+        final String[] names = new File(rootFolder, folder).list();
+        if (names != null) {
+            for (String name : names) {
+                final Entry entry = createEntry(folder.isEmpty() ? name : folder + '/' + name);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        folderTimes.put(folder, lastModified);
+        final List<Entry> previous = entries.isEmpty() ? folderEntries.remove(folder) : folderEntries.put(folder, entries);
+        return !entries.equals(previous == null ? Collections.emptyList() : previous);
+    }
+
+    private String relativePath(final File folder) {
+        final Path root = rootFolder.getAbsoluteFile().toPath().normalize();
+        final Path path = folder.getAbsoluteFile().toPath().normalize();
+        if (!path.startsWith(root)) {
+            return null;
+        }
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private void rebuild() {
+        final Map<String, List<Entry>> byPrefix = new HashMap<>();
+        for (List<Entry> entries : folderEntries.values()) {
+            for (Entry entry : entries) {
+                byPrefix.computeIfAbsent(entry.prefix, k -> new ArrayList<>()).add(entry);
+            }
+        }
+        final Map<String, Interval> newIntervals = new HashMap<>();
+        for (Map.Entry<String, List<Entry>> e : byPrefix.entrySet()) {
+            newIntervals.put(e.getKey(), new Interval(e.getValue()));
+        }
+        intervals = newIntervals;
+    }
+
+    private void load() {
+        if (!indexFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] tokens = line.split("\t");
+                if (tokens.length == 3 && tokens[0].equals("D")) {
+                    folderTimes.put(tokens[1].equals(".") ? "" : tokens[1], Long.parseLong(tokens[2]));
+                } else if (tokens.length == 2 && tokens[0].equals("F")) {
+                    final Entry entry = createEntry(tokens[1]);
+                    if (entry != null) {
+                        final int sep = entry.path.lastIndexOf('/');
+                        final String folder = sep < 0 ? "" : entry.path.substring(0, sep);
+                        folderEntries.computeIfAbsent(folder, k -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            SystemUtils.LOG.warning("Unable to read orbit catalogue " + indexFile + ": " + e.getMessage());
+            folderTimes.clear();
+            folderEntries.clear();
+        }
+    }
+
+    private void store() {
+        // write to a temporary file and move it in place so other processes never see a partial index
+        try {
+            final Path tmpFile = Files.createTempFile(rootFolder.toPath(), "orbit-catalogue", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> e : folderTimes.entrySet()) {
+                    writer.write("D\t" + (e.getKey().isEmpty() ? "." : e.getKey()) + '\t' + e.getValue());
+                    writer.newLine();
+                }
+                for (List<Entry> entries : folderEntries.values()) {
+                    for (Entry entry : entries) {
+                        writer.write("F\t" + entry.path);
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmpFile);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            // the orbit folder may be read-only, the catalogue then lives in memory only
+            SystemUtils.LOG.fine("Unable to write orbit catalogue " + indexFile + ": " + e.getMessage());
+        }
+    }
+
+    private static Entry createEntry(final String path) {
+        final String name = path.substring(path.lastIndexOf('/') + 1);
+        final String upperName = name.toUpperCase();
+        if (upperName.length() < MIN_NAME_LENGTH || upperName.charAt(VALIDITY_START_OFFSET - 1) != 'V' ||
+                !(upperName.endsWith(".EOF") || upperName.endsWith(".ZIP"))) {
+            return null;
+        }
+        try {
+            return new Entry(path, upperName.substring(0, PREFIX_LENGTH),
+                    parseMJD(name, VALIDITY_START_OFFSET), parseMJD(name, VALIDITY_STOP_OFFSET));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // parse yyyyMMddTHHmmss to MJD 2000
+    static double parseMJD(final String name, final int offset) {
+        final LocalDateTime time = LocalDateTime.of(
+                Integer.parseInt(name.substring(offset, offset + 4)),
+                Integer.parseInt(name.substring(offset + 4, offset + 6)),
+                Integer.parseInt(name.substring(offset + 6, offset + 8)),
+                Integer.parseInt(name.substring(offset + 9, offset + 11)),
+                Integer.parseInt(name.substring(offset + 11, offset + 13)),
+                Integer.parseInt(name.substring(offset + 13, offset + 15)));
+        return (time.toEpochSecond(ZoneOffset.UTC) - MJD2000_EPOCH_SECONDS) / SECONDS_PER_DAY;
+    }
+
+    private static final class Entry {
+        final String path;
+        final String prefix;
+        final double start;
+        final double stop;
+
+        Entry(final String path, final String prefix, final double start, final double stop) {
+            this.path = path;
+            this.prefix = prefix;
+            this.start = start;
+            this.stop = stop;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Entry && path.equals(((Entry) o).path);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode();
+        }
+    }
+
+    /**
+     * Validity periods sorted by start time. The running maximum of the stop times bounds the search
+     * backwards from the latest start at or before the requested time.
+     */
+    private static final class Interval {
+        private final Entry[] entries;
+        private final double[] starts;
+        private final double[] maxStops;
+
+        Interval(final List<Entry> list) {
+            entries = list.toArray(new Entry[0]);
+            // newer files of the same validity sort last, the file name holds the creation time
+            Arrays.sort(entries, (a, b) -> a.start != b.start ? Double.compare(a.start, b.start) :
+                    a.path.substring(a.path.lastIndexOf('/') + 1).compareTo(b.path.substring(b.path.lastIndexOf('/') + 1)));
+            starts = new double[entries.length];
+            maxStops = new double[entries.length];
+            double maxStop = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < entries.length; ++i) {
+                starts[i] = entries[i].start;
+                maxStop = Math.max(maxStop, entries[i].stop);
+                maxStops[i] = maxStop;
+            }
+        }
+
+        Entry find(final double mjd) {
+            int idx = Arrays.binarySearch(starts, mjd);
+            if (idx < 0) {
+                idx = -idx - 2;
+            } else {
+                while (idx + 1 < starts.length && starts[idx + 1] == mjd) {
+                    ++idx;
+                }
+            }
+            for (int i = idx; i >= 0 && maxStops[i] > mjd; --i) {
+                if (mjd < entries[i].stop) {
+                    return entries[i];
+                }
+            }
+            return null;
+        }
+    }
+}
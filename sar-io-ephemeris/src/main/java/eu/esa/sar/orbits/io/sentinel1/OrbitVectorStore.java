@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.esa.snap.core.util.SystemUtils;
+import org.esa.snap.engine_utilities.datamodel.Orbits;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary sidecar of the pre-parsed content of a Sentinel-1 orbit file.
+ * The sidecar is written next to the orbit file the first time it is parsed and memory mapped on later reads,
+ * which avoids building the XML document of the orbit file in every new process.
+ * <p>
+ * The sidecar records the length and modification time of the orbit file and is ignored once these differ.
+ */
+final class OrbitVectorStore {
+
+    static final String EXTENSION = ".osv";
+
+    private static final int MAGIC = 0x53314F53; // S1OS
+    private static final int VERSION = 1;
+    private static final int DOUBLES_PER_VECTOR = 7;
+
+    private OrbitVectorStore() {
+    }
+
+    static File getStoreFile(final File orbitFile) {
+        return new File(orbitFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * Read the sidecar of an orbit file
+     * @param orbitFile the orbit file
+     * @return the stored content or null if there is no valid sidecar
+     */
+    static Content read(final File orbitFile) {
+        final File storeFile = getStoreFile(orbitFile);
+        if (!storeFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(storeFile.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION ||
+                    buffer.getLong() != orbitFile.length() || buffer.getLong() != orbitFile.lastModified()) {
+                return null;
+            }
+            final String[] header = new String[buffer.getInt()];
+            for (int i = 0; i < header.length; ++i) {
+                final int len = buffer.getInt();
+                if (len < 0) {
+                    continue;
+                }
+                final byte[] bytes = new byte[len];
+                buffer.get(bytes);
+                header[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            final int numVectors = buffer.getInt();
+            final DoubleBuffer values = buffer.asDoubleBuffer();
+            if (values.remaining() < numVectors * DOUBLES_PER_VECTOR) {
+                return null;
+            }
+            final List<Orbits.OrbitVector> osvList = new ArrayList<>(numVectors);
+            for (int i = 0; i < numVectors; ++i) {
+                osvList.add(new Orbits.OrbitVector(values.get(),
+                        values.get(), values.get(), values.get(),
+                        values.get(), values.get(), values.get()));
+            }
+            return new Content(header, osvList);
+        } catch (IOException | RuntimeException e) {
+            SystemUtils.LOG.warning("Unable to read orbit vector store " + storeFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the sidecar of an orbit file. Failures are logged only, the orbit folder may be read-only.
+     * @param orbitFile the orbit file
+     * @param header the header values of the orbit file, entries may be null
+     * @param osvList the orbit state vectors
+     */
+    static void write(final File orbitFile, final String[] header, final List<Orbits.OrbitVector> osvList) {
+        final File storeFile = getStoreFile(orbitFile);
+        try {
+            // write to a temporary file and move it in place so other processes never see a partial store
+            final Path tmpFile = Files.createTempFile(storeFile.getAbsoluteFile().getParentFile().toPath(),
+                    storeFile.getName(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(orbitFile.length());
+                    out.writeLong(orbitFile.lastModified());
+                    out.writeInt(header.length);
+                    for (String value : header) {
+                        if (value == null) {
+                            out.writeInt(-1);
+                        } else {
+                            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                            out.writeInt(bytes.length);
+                            out.write(bytes);
+                        }
+                    }
+                    out.writeInt(osvList.size());
+                    for (Orbits.OrbitVector osv : osvList) {
+                        out.writeDouble(osv.utcMJD);
+                        out.writeDouble(osv.xPos);
+                        out.writeDouble(osv.yPos);
+                        out.writeDouble(osv.zPos);
+                        out.writeDouble(osv.xVel);
+                        out.writeDouble(osv.yVel);
+                        out.writeDouble(osv.zVel);
+                    }
+                }
+                Files.move(tmpFile, storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            SystemUtils.LOG.fine("Unable to write orbit vector store " + storeFile + ": " + e.getMessage());
+        }
+    }
+
+    static final class Content {
+        final String[] header;
+        final List<Orbits.OrbitVector> osvList;
+
+        Content(final String[] header, final List<Orbits.OrbitVector> osvList) {
+            this.header = header;
+            this.osvList = osvList;
+        }
+    }
+}
@@ -50,6 +50,13 @@ public class Sentinel1OrbitFileReader {
 
     void read() throws Exception {
 
+        final OrbitVectorStore.Content content = OrbitVectorStore.read(orbitFile);
+        if (content != null && content.header.length == FixedHeader.NUM_VALUES) {
+            fixedHeader = FixedHeader.fromValues(content.header);
+            osvList = content.osvList;
+            return;
+        }
+
         final Document doc;
         if (orbitFile.getName().toLowerCase().endsWith(".zip")) {
             final ZipFile productZip = new ZipFile(orbitFile, ZipFile.OPEN_READ);
@@ -75,6 +82,9 @@ public class Sentinel1OrbitFileReader {
             final Element listOfOSVs = dataBlock.getChild("List_of_OSVs");
             osvList = readOSVList(listOfOSVs);
         }
+
+        OrbitVectorStore.write(orbitFile,
+                fixedHeader != null ? fixedHeader.toValues() : new String[FixedHeader.NUM_VALUES], osvList);
     }
 
     private static FixedHeader readFixedHeader(final Element fixedHeaderElem) {
@@ -244,6 +254,8 @@ public class Sentinel1OrbitFileReader {
 
     private static final class FixedHeader {
 
+        private static final int NUM_VALUES = 5;
+
         private final String mission;
         private final String fileType;
         private final String validityStart;
@@ -259,5 +271,16 @@ public class Sentinel1OrbitFileReader {
             this.validityStop = validityStop;
             this.version = version;
         }
+
+        private String[] toValues() {
+            return new String[]{mission, fileType, validityStart, validityStop, version};
+        }
+
+        private static FixedHeader fromValues(final String[] values) {
+            if (values[0] == null) {
+                return null;
+            }
+            return new FixedHeader(values[0], values[1], values[2], values[3], values[4]);
+        }
     }
 }
@@ -56,7 +56,7 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
     private List<Orbits.OrbitVector> osvList = new ArrayList<>();
     private String fileVersion;
 
-    private static LoadingCache<File, Sentinel1OrbitFileReader> cache;
+    private static final LoadingCache<File, Sentinel1OrbitFileReader> cache = createCache();
 
     public SentinelPODOrbitFile(final MetadataElement absRoot, final int polyDegree) {
         super(absRoot);
@@ -75,14 +75,13 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
         final int day = calendar.get(Calendar.DAY_OF_MONTH);
         final String missionPrefix = getMissionPrefix(absRoot);
 
-        final File localFolder = getDestFolder(missionPrefix, orbitType, year, month);
-
         orbitFile = findOrbitFile(missionPrefix, orbitType, stateVectorTime, year, month);
 
         if (orbitFile == null) {
             OrbitFileScraper scraper = null;
             try {
                 scraper = new OrbitFileScraper.Step(orbitType);
+                final File localFolder = getDestFolder(missionPrefix, orbitType, year, month);
                 orbitFile = scraper.download(localFolder, missionPrefix, orbitType, year, month, day, stateVectorTime);
             } catch(Exception e) {
                 // try next
@@ -98,7 +97,7 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
                 msg = "RESORB files are no longer available from Copernicus Dataspaces";
             } else {
                 String timeStr = absRoot.getAttributeUTC(AbstractMetadata.STATE_VECTOR_TIME).format();
-                final File destFolder = getDestFolder(missionPrefix, orbitType, year, month);
+                final File destFolder = getOrbitFolder(missionPrefix, orbitType, year, month);
                 msg = "No valid orbit file found for " + timeStr +
                         "\nOrbit files may be downloaded from Copernicus Dataspaces "
                         + "\nand placed in " + destFolder.getAbsolutePath();
@@ -121,7 +120,7 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
         return "S1" + mission.substring(mission.length() - 1);
     }
 
-    static File getDestFolder(final String missionPrefix, final String orbitType, final int year, final int month) {
+    private static File getOrbitRootFolder(final String orbitType) {
         final String prefOrbitPath;
         if (orbitType.startsWith(RESTITUTED)) {
             String def = SystemUtils.getAuxDataPath().resolve("Orbits").resolve("Sentinel-1").resolve("RESORB").toString();
@@ -130,14 +129,20 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
             String def = SystemUtils.getAuxDataPath().resolve("Orbits").resolve("Sentinel-1").resolve("POEORB").toString();
             prefOrbitPath = Settings.instance().get("OrbitFiles.sentinel1POEOrbitPath", def);
         }
-        final File destFolder = new File(prefOrbitPath +
-                File.separator + missionPrefix +
+        return new File(prefOrbitPath);
+    }
+
+    private static File getOrbitFolder(final String missionPrefix, final String orbitType, final int year, final int month) {
+        return new File(getOrbitRootFolder(orbitType), missionPrefix +
                 File.separator + year +
                 File.separator + StringUtils.padNum(month, 2, '0'));
+    }
+
+    static File getDestFolder(final String missionPrefix, final String orbitType, final int year, final int month) {
+        final File destFolder = getOrbitFolder(missionPrefix, orbitType, year, month);
 
         if(month < 10) {
-            File oldFolder = new File(prefOrbitPath +
-                    File.separator + missionPrefix +
+            File oldFolder = new File(getOrbitRootFolder(orbitType), missionPrefix +
                     File.separator + year +
                     File.separator + month);
             if(oldFolder.exists()) {
@@ -150,6 +155,10 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
         return destFolder;
     }
 
+    /**
+     * Find a local orbit file valid at the state vector time using the orbit file catalogue.
+     * The catalogue is only refreshed when no valid file is known, the folders are not modified.
+     */
     static File findOrbitFile(final String missionPrefix, final String orbitType,
                               final ProductData.UTC stateVectorTime, final int year, final int month) {
         final String prefix;
@@ -158,20 +167,19 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
         } else {
             prefix = missionPrefix + "_OPER_AUX_POEORB_OPOD_";
         }
-        final File orbitFileFolder = getDestFolder(missionPrefix, orbitType, year, month);
+        final OrbitFileCatalogue catalogue = OrbitFileCatalogue.getCatalogue(getOrbitRootFolder(orbitType));
+        final double stateVectorMJD = stateVectorTime.getMJD();
 
-        if (!orbitFileFolder.exists())
-            return null;
-        final File[] files = orbitFileFolder.listFiles(new S1OrbitFileFilter(prefix));
-        if (files == null || files.length == 0)
-            return null;
-
-        for (File file : files) {
-            if (Sentinel1OrbitFileReader.isWithinRange(file.getName(), stateVectorTime)) {
-                return file;
-            }
+        File file = catalogue.findOrbitFile(prefix, stateVectorMJD);
+        if (file != null && file.exists()) {
+            return file;
         }
-        return null;
+
+        // files may have been added or removed since the catalogue was built
+        catalogue.update();
+        catalogue.update(getOrbitFolder(missionPrefix, orbitType, year, month));
+        file = catalogue.findOrbitFile(prefix, stateVectorMJD);
+        return file != null && file.exists() ? file : null;
     }
 
     /**
@@ -267,7 +275,7 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
 
     private void readOrbitFile() throws Exception {
 
-        final Sentinel1OrbitFileReader orbitFileReader = getCache().get(orbitFile);
+        final Sentinel1OrbitFileReader orbitFileReader = cache.get(orbitFile);
 
         checkOrbitFileValidity(orbitFileReader);
 
@@ -275,27 +283,6 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
         fileVersion = orbitFileReader.getFileVersion();
     }
 
-    private static class S1OrbitFileFilter implements FilenameFilter {
-        private final String prefix;
-
-        S1OrbitFileFilter(String prefix) {
-            this.prefix = prefix;
-        }
-
-        @Override
-        public boolean accept(File dir, String name) {
-            name = name.toUpperCase();
-            return (name.endsWith(".ZIP") || name.endsWith(".EOF")) && name.startsWith(prefix);
-        }
-    }
-
-    private LoadingCache<File, Sentinel1OrbitFileReader> getCache() {
-        if(cache == null) {
-            cache = createCache();
-        }
-        return cache;
-    }
-
     private static LoadingCache<File, Sentinel1OrbitFileReader> createCache() {
         return CacheBuilder.newBuilder().maximumSize(100).initialCapacity(100)
                 .expireAfterAccess(20, TimeUnit.MINUTES)
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test OrbitFileCatalogue
+ */
+public class TestOrbitFileCatalogue {
+
+    private static final String POEORB = "S1A_OPER_AUX_POEORB_OPOD_";
+
+    private File rootFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        rootFolder = Files.createTempDirectory("orbits").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.walk(rootFolder.toPath()).sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+    }
+
+    private File createOrbitFile(final String folder, final String name) throws IOException {
+        final File dir = new File(rootFolder, folder);
+        dir.mkdirs();
+        final File file = new File(dir, name);
+        file.createNewFile();
+        return file;
+    }
+
+    private static double mjd(final String time) {
+        return OrbitFileCatalogue.parseMJD(time, 0);
+    }
+
+    @Test
+    public void testParseMJD() {
+        assertEquals(0.0, mjd("20000101T000000"), 0.0);
+        assertEquals(5714.5, mjd("20150824T120000"), 1e-9);
+    }
+
+    @Test
+    public void testFindOrbitFile() throws IOException {
+        final File file1 = createOrbitFile("S1A/2015/08",
+                POEORB + "20150916T122058_V20150826T225943_20150828T005943.EOF");
+        final File file2 = createOrbitFile("S1A/2015/08",
+                POEORB + "20150917T122301_V20150827T225943_20150829T005943.EOF");
+        createOrbitFile("S1A/2015/08", "S1A_OPER_AUX_RESORB_OPOD_20150828T021527_V20150827T220000_20150828T013000.EOF");
+        createOrbitFile("S1A/2015/08", "readme.txt");
+
+        final OrbitFileCatalogue catalogue = new OrbitFileCatalogue(rootFolder);
+
+        assertEquals(file1, catalogue.findOrbitFile(POEORB, mjd("20150827T120000")));
+        // overlap of both files, the later validity start wins
+        assertEquals(file2, catalogue.findOrbitFile(POEORB, mjd("20150827T235900")));
+        assertEquals(file2, catalogue.findOrbitFile(POEORB, mjd("20150828T120000")));
+        assertNull(catalogue.findOrbitFile(POEORB, mjd("20150829T010000")));
+        assertNull(catalogue.findOrbitFile(POEORB, mjd("20150826T120000")));
+        assertNull(catalogue.findOrbitFile("S1B_OPER_AUX_POEORB_OPOD_", mjd("20150827T120000")));
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws IOException {
+        createOrbitFile("S1A/2015/08", POEORB + "20150916T122058_V20150826T225943_20150828T005943.EOF");
+        final OrbitFileCatalogue catalogue = new OrbitFileCatalogue(rootFolder);
+        assertNull(catalogue.findOrbitFile(POEORB, mjd("20150901T120000")));
+
+        final File newFile = createOrbitFile("S1A/2015/09", POEORB + "20150921T122058_V20150831T225943_20150902T005943.EOF");
+        assertTrue(catalogue.update());
+        assertEquals(newFile, catalogue.findOrbitFile(POEORB, mjd("20150901T120000")));
+        assertFalse(catalogue.update());
+
+        final File sameFolderFile = createOrbitFile("S1A/2015/09", POEORB + "20150922T122058_V20150901T225943_20150903T005943.EOF");
+        assertTrue(catalogue.update(sameFolderFile.getParentFile()));
+        assertEquals(sameFolderFile, catalogue.findOrbitFile(POEORB, mjd("20150902T120000")));
+    }
+
+    @Test
+    public void testPersistentIndex() throws IOException {
+        final File file = createOrbitFile("S1A/2015/08", POEORB + "20150916T122058_V20150826T225943_20150828T005943.EOF");
+        new OrbitFileCatalogue(rootFolder);
+        assertTrue(new File(rootFolder, OrbitFileCatalogue.INDEX_FILE_NAME).exists());
+
+        final OrbitFileCatalogue catalogue = new OrbitFileCatalogue(rootFolder);
+        assertEquals(file, catalogue.findOrbitFile(POEORB, mjd("20150827T120000")));
+        assertFalse(catalogue.update());
+    }
+
+    @Test
+    public void testConcurrentLookup() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int day = 1; day <= 28; ++day) {
+            final String dd = String.format("%02d", day);
+            final String next = String.format("%02d", day + 1);
+            files.add(createOrbitFile("S1A/2015/02", POEORB + "201503" + dd + "T120000_V201502" + dd + "T000000_201502" +
+                    (day == 28 ? "28T235959" : next + "T000000") + ".EOF"));
+        }
+        final OrbitFileCatalogue catalogue = new OrbitFileCatalogue(rootFolder);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int n = 0; n < 4; ++n) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; ++i) {
+                        final int day = i % 28;
+                        final double time = mjd("20150201T120000") + day;
+                        assertEquals(files.get(day), catalogue.findOrbitFile(POEORB, time));
+                        if (i % 1000 == 0) {
+                            catalogue.update();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
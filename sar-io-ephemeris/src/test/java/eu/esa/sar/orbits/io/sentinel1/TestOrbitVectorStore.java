@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.esa.snap.engine_utilities.datamodel.Orbits;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * To test OrbitVectorStore
+ */
+public class TestOrbitVectorStore {
+
+    private File orbitFile;
+
+    @Before
+    public void setUp() throws IOException {
+        orbitFile = File.createTempFile("S1A_OPER_AUX_POEORB_OPOD_", ".EOF");
+        try (Writer writer = new FileWriter(orbitFile)) {
+            writer.write("<Earth_Explorer_File/>");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        OrbitVectorStore.getStoreFile(orbitFile).delete();
+        orbitFile.delete();
+    }
+
+    private static List<Orbits.OrbitVector> createVectors(final int numVectors) {
+        final List<Orbits.OrbitVector> osvList = new ArrayList<>();
+        for (int i = 0; i < numVectors; ++i) {
+            osvList.add(new Orbits.OrbitVector(5717.0 + i * 10.0 / 86400.0,
+                    -368251.718419 + i, -2299963.236657 - i, 6671242.884855 + i,
+                    -1432.208372 + i, 7075.567358 - i, 2364.843476 + i));
+        }
+        return osvList;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final List<Orbits.OrbitVector> osvList = createVectors(9361);
+        final String[] header = {"Sentinel-1A", "AUX_POEORB", "UTC=2015-08-26T22:59:43", "UTC=2015-08-28T00:59:43", null};
+        OrbitVectorStore.write(orbitFile, header, osvList);
+
+        final OrbitVectorStore.Content content = OrbitVectorStore.read(orbitFile);
+        assertNotNull(content);
+        assertEquals(header.length, content.header.length);
+        for (int i = 0; i < header.length; ++i) {
+            assertEquals(header[i], content.header[i]);
+        }
+        assertEquals(osvList.size(), content.osvList.size());
+        for (int i = 0; i < osvList.size(); ++i) {
+            final Orbits.OrbitVector expected = osvList.get(i);
+            final Orbits.OrbitVector actual = content.osvList.get(i);
+            assertEquals(expected.utcMJD, actual.utcMJD, 0.0);
+            assertEquals(expected.xPos, actual.xPos, 0.0);
+            assertEquals(expected.yPos, actual.yPos, 0.0);
+            assertEquals(expected.zPos, actual.zPos, 0.0);
+            assertEquals(expected.xVel, actual.xVel, 0.0);
+            assertEquals(expected.yVel, actual.yVel, 0.0);
+            assertEquals(expected.zVel, actual.zVel, 0.0);
+        }
+    }
+
+    @Test
+    public void testStaleStoreIsIgnored() throws IOException {
+        assertNull(OrbitVectorStore.read(orbitFile));
+
+        OrbitVectorStore.write(orbitFile, new String[5], createVectors(10));
+        assertNotNull(OrbitVectorStore.read(orbitFile));
+
+        try (Writer writer = new FileWriter(orbitFile, true)) {
+            writer.write("<!-- modified -->");
+        }
+        assertNull(OrbitVectorStore.read(orbitFile));
+    }
+}
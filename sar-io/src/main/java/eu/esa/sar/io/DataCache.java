@@ -1,77 +1,188 @@
 package eu.esa.sar.io;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import eu.esa.sar.commons.io.ImageIOFile;
+import org.esa.snap.runtime.Config;
 
 import java.awt.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Tile cache shared by the ImageIO based readers.
+ * <p>
+ * All instances share one JVM wide cache bounded by a memory budget in bytes rather than by a number of entries.
+ * The budget is read from the preference {@value #CACHE_SIZE_PREF} (in MB) and defaults to an eighth of the
+ * maximum heap. The underlying cache is segmented so that reads are lock free and writes only contend within
+ * one segment.
+ * <p>
  * Created by lveci on 20/05/2014.
  */
 public class DataCache {
 
-    private final LoadingCache<DataKey, Data> cache;
+    public static final String CACHE_SIZE_PREF = "s1tbx.readers.tileCacheSizeMB";
+
+    private static final long ENTRY_OVERHEAD = 64;
+    private static final Cache<DataKey, Data> sharedCache = createCache(getMemoryBudget());
+
+    private final Cache<DataKey, Data> cache;
+    private final Set<ImageIOFile> images = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     public DataCache() {
-        cache = CacheBuilder.newBuilder().maximumSize(500).initialCapacity(500)
+        this.cache = sharedCache;
+    }
+
+    DataCache(final long maxBytes) {
+        this.cache = createCache(maxBytes);
+    }
+
+    private static Cache<DataKey, Data> createCache(final long maxBytes) {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Weigher<DataKey, Data>) (key, value) -> value.sizeInBytes())
+                .concurrencyLevel(Math.max(4, Runtime.getRuntime().availableProcessors()))
                 .expireAfterAccess(10, TimeUnit.MINUTES)
-                //.recordStats()
-                .build(new CacheLoader<DataKey, Data>() {
-                           @Override
-                           public Data load(DataKey key) throws Exception {
-                               return new Data();
-                           }
-                       }
-        );
+                .recordStats()
+                .build();
+    }
+
+    static long getMemoryBudget() {
+        final long defaultMB = Math.max(64, Runtime.getRuntime().maxMemory() / 8 / (1024 * 1024));
+        final long budgetMB = Config.instance().preferences().getLong(CACHE_SIZE_PREF, defaultMB);
+        return Math.max(1, budgetMB) * 1024 * 1024;
     }
 
     public long size() {
         return cache.size();
     }
 
+    /**
+     * @return the number of lookups through this instance that found a cached tile
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups through this instance that found no cached tile
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of tiles evicted from the underlying cache, which may be shared with other instances
+     */
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
     public String stats() {
-        return cache.stats().toString();
+        final CacheStats stats = cache.stats();
+        return "hits=" + hitCount() + " misses=" + missCount() +
+                " evictions=" + stats.evictionCount() + " entries=" + cache.size();
     }
 
+    /**
+     * Get a cached tile
+     *
+     * @param key the tile key
+     * @return the cached data or null if not cached
+     */
     public Data get(DataKey key) {
-        return cache.getUnchecked(key);
+        final Data data = cache.getIfPresent(key);
+        if (data != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return data;
     }
 
-    public synchronized void put(DataKey key, Data value) {
+    public void put(DataKey key, Data value) {
+        if (key.img != null) {
+            images.add(key.img);
+        }
         cache.put(key, value);
     }
 
+    /**
+     * Remove all tiles put through this instance from the shared cache, e.g. when its reader is closed
+     */
+    public void clear() {
+        if (cache != sharedCache) {
+            // a private cache only holds the tiles of this instance
+            cache.invalidateAll();
+            images.clear();
+        } else if (!images.isEmpty()) {
+            cache.asMap().keySet().removeIf(key -> images.contains(key.img));
+            images.clear();
+        }
+    }
+
     public static class DataKey {
         private final ImageIOFile img;
-        private final Rectangle rect;
+        private final int x, y, width, height;
+        private final int stepX, stepY;
+        private final int hash;
 
         public DataKey(final ImageIOFile img, final Rectangle rect) {
+            this(img, rect, 1, 1);
+        }
+
+        public DataKey(final ImageIOFile img, final Rectangle rect, final int stepX, final int stepY) {
             this.img = img;
-            this.rect = rect;
+            this.x = rect.x;
+            this.y = rect.y;
+            this.width = rect.width;
+            this.height = rect.height;
+            this.stepX = stepX;
+            this.stepY = stepY;
+
+            int h = System.identityHashCode(img);
+            h = 31 * h + x;
+            h = 31 * h + y;
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + stepX;
+            h = 31 * h + stepY;
+            this.hash = h;
         }
 
         @Override
         public boolean equals(Object obj) {
-
-            DataKey key = (DataKey) obj;
-            return (rect.x == key.rect.x &&
-                    rect.y == key.rect.y &&
-                    rect.width == key.rect.width &&
-                    rect.height == key.rect.height &&
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DataKey)) {
+                return false;
+            }
+            final DataKey key = (DataKey) obj;
+            return (x == key.x &&
+                    y == key.y &&
+                    width == key.width &&
+                    height == key.height &&
+                    stepX == key.stepX &&
+                    stepY == key.stepY &&
                     img == key.img);
         }
 
         @Override
         public int hashCode() {
-            return img.hashCode();
+            return hash;
         }
 
         @Override
         public String toString() {
-            return rect.toString();
+            return "[x=" + x + ",y=" + y + ",width=" + width + ",height=" + height +
+                    ",stepX=" + stepX + ",stepY=" + stepY + ']';
         }
     }
 
@@ -88,5 +199,10 @@ public class DataCache {
             this.intArray = srcArray;
             this.valid = true;
         }
+
+        int sizeInBytes() {
+            final long bytes = ENTRY_OVERHEAD + (intArray != null ? 4L * intArray.length : 0);
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.binary;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader for binary files using positional reads on a FileChannel.
+ * There is no shared file pointer, so reads from many threads do not need to be synchronized.
+ */
+public final class PositionalFileReader {
+
+    private final FileChannel channel;
+    private final ByteOrder byteOrder;
+    private final ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    public PositionalFileReader(final File file, final ByteOrder byteOrder) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.byteOrder = byteOrder;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public long length() throws IOException {
+        return channel.size();
+    }
+
+    private ByteBuffer readFully(final long pos, final int numBytes) throws IOException {
+        ByteBuffer buffer = localBuffer.get();
+        if (buffer == null || buffer.capacity() < numBytes) {
+            buffer = ByteBuffer.allocate(numBytes);
+            localBuffer.set(buffer);
+        }
+        buffer.clear();
+        buffer.limit(numBytes);
+        buffer.order(byteOrder);
+
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, pos + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Expected bytes to read " + numBytes + ", but only found " + buffer.position());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public void read(final long pos, final byte[] array) throws IOException {
+        readFully(pos, array.length).get(array);
+    }
+
+    public void read(final long pos, final short[] array) throws IOException {
+        readFully(pos, array.length * 2).asShortBuffer().get(array);
+    }
+
+    public void read(final long pos, final int[] array) throws IOException {
+        readFully(pos, array.length * 4).asIntBuffer().get(array);
+    }
+
+    public void read(final long pos, final float[] array) throws IOException {
+        readFully(pos, array.length * 4).asFloatBuffer().get(array);
+    }
+
+    public void read(final long pos, final double[] array) throws IOException {
+        readFully(pos, array.length * 8).asDoubleBuffer().get(array);
+    }
+}
@@ -64,6 +64,7 @@ public class CapellaProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        cache.clear();
         super.close();
     }
 
@@ -119,7 +120,7 @@ public class CapellaProductReader extends SARReader {
         final ImageIOFile.BandInfo bandInfo = dataDir.getBandInfo(destBand);
 
         final Rectangle destRect = new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight);
-        final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
+        final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect, sourceStepX, sourceStepY);
         DataCache.Data cachedData = cache.get(datakey);
         if (cachedData != null && cachedData.valid) {
             srcArray = cachedData.intArray;
@@ -18,10 +18,13 @@ package eu.esa.sar.io.ceos;
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.io.binary.BinaryFileReader;
 import eu.esa.sar.io.binary.BinaryRecord;
+import eu.esa.sar.io.binary.PositionalFileReader;
 import org.esa.snap.core.datamodel.MetadataElement;
 import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.eo.Constants;
 
+import java.io.File;
 import java.io.IOException;
 
 
@@ -36,6 +39,10 @@ public abstract class CEOSImageFile {
     protected BinaryFileReader binaryReader = null;
     protected BinaryRecord[] imageRecords = null;
 
+    // positional reader used for raster data when the image is a plain file, so tiles can be read concurrently
+    private volatile PositionalFileReader positionalReader = null;
+    private volatile boolean positionalReaderUnavailable = false;
+
     protected long _imageRecordLength = 0;
     protected long startPosImageRecords = 0;
     protected int imageHeaderLength = 0;
@@ -131,6 +138,72 @@ public abstract class CEOSImageFile {
         }
     }
 
+    private PositionalFileReader getPositionalReader() {
+        PositionalFileReader reader = positionalReader;
+        if (reader == null && !positionalReaderUnavailable) {
+            synchronized (this) {
+                reader = positionalReader;
+                if (reader == null && !positionalReaderUnavailable) {
+                    final File file = binaryReader.getFile();
+                    if (file != null) {
+                        try {
+                            reader = new PositionalFileReader(file, binaryReader.getByteOrder());
+                            positionalReader = reader;
+                        } catch (IOException e) {
+                            SystemUtils.LOG.warning("Unable to open " + file + " for positional reads: " + e.getMessage());
+                        }
+                    }
+                    positionalReaderUnavailable = reader == null;
+                }
+            }
+        }
+        return reader;
+    }
+
+    private void readLine(final PositionalFileReader posReader, final long pos, final byte[] line) throws IOException {
+        if (posReader != null) {
+            posReader.read(pos, line);
+        } else {
+            synchronized (binaryReader) {
+                binaryReader.seek(pos);
+                binaryReader.read(line);
+            }
+        }
+    }
+
+    private void readLine(final PositionalFileReader posReader, final long pos, final short[] line) throws IOException {
+        if (posReader != null) {
+            posReader.read(pos, line);
+        } else {
+            synchronized (binaryReader) {
+                binaryReader.seek(pos);
+                binaryReader.read(line);
+            }
+        }
+    }
+
+    private void readLine(final PositionalFileReader posReader, final long pos, final int[] line) throws IOException {
+        if (posReader != null) {
+            posReader.read(pos, line);
+        } else {
+            synchronized (binaryReader) {
+                binaryReader.seek(pos);
+                binaryReader.read(line);
+            }
+        }
+    }
+
+    private void readLine(final PositionalFileReader posReader, final long pos, final float[] line) throws IOException {
+        if (posReader != null) {
+            posReader.read(pos, line);
+        } else {
+            synchronized (binaryReader) {
+                binaryReader.seek(pos);
+                binaryReader.read(line);
+            }
+        }
+    }
+
     public void assignMetadataTo(MetadataElement rootElem, int count) {
         final MetadataElement imgDescElem = new MetadataElement("Image Descriptor " + count);
         imageFDR.assignMetadataTo(imgDescElem);
@@ -161,6 +234,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * ProductData.getElemSize(destBuffer.getType());
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -174,10 +248,7 @@ public abstract class CEOSImageFile {
                 }
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -212,6 +283,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * ProductData.getElemSize(destBuffer.getType());
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -225,10 +297,7 @@ public abstract class CEOSImageFile {
                 }
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -256,6 +325,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * ProductData.getElemSize(destBuffer.getType());
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -269,10 +339,7 @@ public abstract class CEOSImageFile {
                 }
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -299,6 +366,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * ProductData.getElemSize(destBuffer.getType());
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -312,10 +380,7 @@ public abstract class CEOSImageFile {
                 }
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -344,6 +409,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * elemSize;
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         try {
             final short[] srcLine = new short[sourceWidth * 2];
@@ -374,10 +440,7 @@ public abstract class CEOSImageFile {
                 }   */
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -392,7 +455,7 @@ public abstract class CEOSImageFile {
         }
     }
 
-    public synchronized void readBandRasterDataSLCFloat(final int sourceOffsetX, final int sourceOffsetY,
+    public void readBandRasterDataSLCFloat(final int sourceOffsetX, final int sourceOffsetY,
                                            final int sourceWidth, final int sourceHeight,
                                            final int sourceStepX, final int sourceStepY,
                                            final int destWidth, final ProductData destBuffer, boolean oneOf2,
@@ -400,6 +463,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * 8;
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -407,10 +471,7 @@ public abstract class CEOSImageFile {
             final float[] destLine = new float[destWidth];
             for (int y = sourceOffsetY; y <= sourceMaxY; y += sourceStepY) {
                 // Read source line
-                //synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                //}
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -434,6 +495,7 @@ public abstract class CEOSImageFile {
         final int sourceMaxY = sourceOffsetY + sourceHeight - 1;
         final int x = sourceOffsetX * 2;
         final long xpos = startPosImageRecords + imageHeaderLength + x;
+        final PositionalFileReader posReader = getPositionalReader();
 
         pm.beginTask("Reading band...", sourceMaxY - sourceOffsetY);
         try {
@@ -445,10 +507,7 @@ public abstract class CEOSImageFile {
                 }
 
                 // Read source line
-                synchronized (binaryReader) {
-                    binaryReader.seek(_imageRecordLength * y + xpos);
-                    binaryReader.read(srcLine);
-                }
+                readLine(posReader, _imageRecordLength * y + xpos, srcLine);
 
                 // Copy source line into destination buffer
                 final int currentLineIndex = (y - sourceOffsetY) * destWidth;
@@ -549,6 +608,10 @@ public abstract class CEOSImageFile {
     }
 
     public void close() throws IOException {
+        if (positionalReader != null) {
+            positionalReader.close();
+            positionalReader = null;
+        }
         binaryReader.close();
         binaryReader = null;
     }
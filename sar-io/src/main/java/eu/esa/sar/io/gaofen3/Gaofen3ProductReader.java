@@ -62,6 +62,7 @@ public class Gaofen3ProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        cache.clear();
         super.close();
     }
 
@@ -112,7 +113,7 @@ public class Gaofen3ProductReader extends SARReader {
         final int[] srcArray;
         final ImageIOFile.BandInfo bandInfo = dataDir.getBandInfo(destBand);
         final Rectangle destRect = new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight);
-        final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
+        final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect, sourceStepX, sourceStepY);
         DataCache.Data cachedData = cache.get(datakey);
         if (cachedData != null && cachedData.valid) {
             srcArray = cachedData.intArray;
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One Sentinel-1 Level-0 instrument source packet (ISP).
+ * The primary and secondary header fields are decoded to their raw values as defined in the
+ * Sentinel-1 SAR Space Packet Protocol Data Unit specification. The user data is a read-only view
+ * into the measurement data and is only valid while the packet reader is open.
+ */
+public final class Sentinel1Level0Packet {
+
+    public static final int PRIMARY_HEADER_LENGTH = 6;
+    public static final int SECONDARY_HEADER_LENGTH = 62;
+    public static final int HEADER_LENGTH = PRIMARY_HEADER_LENGTH + SECONDARY_HEADER_LENGTH;
+    public static final int SYNC_MARKER = 0x352EF853;
+
+    public final int index;
+    public final long offset;
+
+    // primary header
+    public final int packetVersion;
+    public final int packetType;
+    public final int secondaryHeaderFlag;
+    public final int processId;
+    public final int packetCategory;
+    public final int sequenceFlags;
+    public final int sequenceCount;
+    public final int packetDataLength;
+
+    // secondary header
+    public final long coarseTime;
+    public final int fineTime;
+    public final int syncMarker;
+    public final long dataTakeId;
+    public final int eccNumber;
+    public final int testMode;
+    public final int rxChannelId;
+    public final long instrumentConfigId;
+    public final int subCommutatedIndex;
+    public final int subCommutatedData;
+    public final long spacePacketCount;
+    public final long priCount;
+    public final int errorFlag;
+    public final int baqMode;
+    public final int baqBlockLength;
+    public final int rangeDecimation;
+    public final int rxGain;
+    public final int txRampRate;
+    public final int txPulseStartFrequency;
+    public final int txPulseLength;
+    public final int rank;
+    public final int pri;
+    public final int swst;
+    public final int swl;
+    public final int sasSsbMessage;
+    public final int sesSsbMessage;
+    public final int numberOfQuads;
+
+    private final ByteBuffer userData;
+
+    /**
+     * Decode the headers of the packet at the current position of the buffer. The buffer must be big-endian
+     * and hold the complete packet, its position is left at the start of the packet.
+     */
+    Sentinel1Level0Packet(final int index, final long offset, final ByteBuffer buffer) {
+        this.index = index;
+        this.offset = offset;
+
+        final int p = buffer.position();
+        final int word0 = buffer.getShort(p) & 0xFFFF;
+        final int word1 = buffer.getShort(p + 2) & 0xFFFF;
+        packetVersion = word0 >>> 13;
+        packetType = (word0 >>> 12) & 0x1;
+        secondaryHeaderFlag = (word0 >>> 11) & 0x1;
+        processId = (word0 >>> 4) & 0x7F;
+        packetCategory = word0 & 0xF;
+        sequenceFlags = word1 >>> 14;
+        sequenceCount = word1 & 0x3FFF;
+        packetDataLength = buffer.getShort(p + 4) & 0xFFFF;
+
+        final int s = p + PRIMARY_HEADER_LENGTH;
+        coarseTime = buffer.getInt(s) & 0xFFFFFFFFL;
+        fineTime = buffer.getShort(s + 4) & 0xFFFF;
+        syncMarker = buffer.getInt(s + 6);
+        dataTakeId = buffer.getInt(s + 10) & 0xFFFFFFFFL;
+        eccNumber = buffer.get(s + 14) & 0xFF;
+        final int testAndChannel = buffer.get(s + 15) & 0xFF;
+        testMode = (testAndChannel >>> 4) & 0x7;
+        rxChannelId = testAndChannel & 0xF;
+        instrumentConfigId = buffer.getInt(s + 16) & 0xFFFFFFFFL;
+        subCommutatedIndex = buffer.get(s + 20) & 0xFF;
+        subCommutatedData = buffer.getShort(s + 21) & 0xFFFF;
+        spacePacketCount = buffer.getInt(s + 23) & 0xFFFFFFFFL;
+        priCount = buffer.getInt(s + 27) & 0xFFFFFFFFL;
+        final int errorAndBaq = buffer.get(s + 31) & 0xFF;
+        errorFlag = errorAndBaq >>> 7;
+        baqMode = errorAndBaq & 0x1F;
+        baqBlockLength = buffer.get(s + 32) & 0xFF;
+        rangeDecimation = buffer.get(s + 34) & 0xFF;
+        rxGain = buffer.get(s + 35) & 0xFF;
+        txRampRate = buffer.getShort(s + 36) & 0xFFFF;
+        txPulseStartFrequency = buffer.getShort(s + 38) & 0xFFFF;
+        txPulseLength = getUInt24(buffer, s + 40);
+        rank = buffer.get(s + 43) & 0x1F;
+        pri = getUInt24(buffer, s + 44);
+        swst = getUInt24(buffer, s + 47);
+        swl = getUInt24(buffer, s + 50);
+        sasSsbMessage = getUInt24(buffer, s + 53);
+        sesSsbMessage = getUInt24(buffer, s + 56);
+        numberOfQuads = buffer.getShort(s + 59) & 0xFFFF;
+
+        final ByteBuffer data = buffer.duplicate();
+        data.position(p + HEADER_LENGTH);
+        data.limit(p + getPacketLength());
+        userData = data.slice().asReadOnlyBuffer();
+    }
+
+    private static int getUInt24(final ByteBuffer buffer, final int pos) {
+        return ((buffer.get(pos) & 0xFF) << 16) | ((buffer.get(pos + 1) & 0xFF) << 8) | (buffer.get(pos + 2) & 0xFF);
+    }
+
+    /**
+     * @return the total length of the packet in bytes including the primary header
+     */
+    public int getPacketLength() {
+        return getPacketLength(packetDataLength);
+    }
+
+    static int getPacketLength(final int packetDataLength) {
+        return PRIMARY_HEADER_LENGTH + packetDataLength + 1;
+    }
+
+    /**
+     * @return the datation of the packet in seconds since the GPS epoch
+     */
+    public double getTime() {
+        return coarseTime + (fineTime + 0.5) / 65536.0;
+    }
+
+    public boolean hasValidSyncMarker() {
+        return syncMarker == SYNC_MARKER;
+    }
+
+    /**
+     * @return a read-only view of the user data field following the secondary header
+     */
+    public ByteBuffer getUserData() {
+        return userData.duplicate();
+    }
+
+    public int getUserDataLength() {
+        return userData.remaining();
+    }
+}
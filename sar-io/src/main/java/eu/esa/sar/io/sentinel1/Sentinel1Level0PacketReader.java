@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming reader of the instrument source packets in a Sentinel-1 Level-0 measurement data file.
+ * <p>
+ * Opening the reader builds a packet index from the primary headers only. Packets are then decoded on demand,
+ * either by index or through a spliterator which maps the file window by window and can be split across threads.
+ */
+public final class Sentinel1Level0PacketReader implements Closeable {
+
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+    private static final long WINDOW_SIZE = 32L * 1024 * 1024;
+
+    private final File file;
+    private final FileChannel channel;
+    // start of each packet followed by the end of the last packet
+    private final long[] offsets;
+
+    public Sentinel1Level0PacketReader(final File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            this.offsets = buildIndex(channel, file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getNumPackets() {
+        return offsets.length - 1;
+    }
+
+    public long getPacketOffset(final int index) {
+        return offsets[index];
+    }
+
+    public int getPacketLength(final int index) {
+        return (int) (offsets[index + 1] - offsets[index]);
+    }
+
+    private static long[] buildIndex(final FileChannel channel, final File file) throws IOException {
+        final long fileSize = channel.size();
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        long[] offsets = new long[1024];
+        int numPackets = 0;
+
+        long bufferStart = 0;
+        buffer.limit(0);
+        long pos = 0;
+        while (pos < fileSize) {
+            if (pos + Sentinel1Level0Packet.PRIMARY_HEADER_LENGTH > bufferStart + buffer.limit()) {
+                bufferStart = pos;
+                readFully(channel, buffer, bufferStart, (int) Math.min(buffer.capacity(), fileSize - bufferStart));
+                if (buffer.limit() < Sentinel1Level0Packet.PRIMARY_HEADER_LENGTH) {
+                    throw new EOFException("Truncated packet header at offset " + pos + " in " + file);
+                }
+            }
+            final int packetDataLength = buffer.getShort((int) (pos - bufferStart) + 4) & 0xFFFF;
+            final long end = pos + Sentinel1Level0Packet.getPacketLength(packetDataLength);
+            if (end > fileSize) {
+                throw new EOFException("Truncated packet at offset " + pos + " in " + file);
+            }
+            if (numPackets + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[numPackets++] = pos;
+            pos = end;
+        }
+        offsets[numPackets] = pos;
+        return Arrays.copyOf(offsets, numPackets + 1);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer,
+                                  final long pos, final int numBytes) throws IOException {
+        buffer.clear();
+        buffer.limit(numBytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Read and decode one packet
+     * @param index the packet index
+     * @return the packet
+     * @throws IOException if the packet can not be read
+     */
+    public Sentinel1Level0Packet readPacket(final int index) throws IOException {
+        final int length = getPacketLength(index);
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+        readFully(channel, buffer, offsets[index], length);
+        if (buffer.limit() < length) {
+            throw new EOFException("Truncated packet " + index + " in " + file);
+        }
+        return new Sentinel1Level0Packet(index, offsets[index], buffer);
+    }
+
+    /**
+     * @return a spliterator over all packets in file order
+     */
+    public Spliterator<Sentinel1Level0Packet> spliterator() {
+        return new PacketSpliterator(0, getNumPackets());
+    }
+
+    /**
+     * @param parallel true for a parallel stream
+     * @return a stream of all packets in file order
+     */
+    public Stream<Sentinel1Level0Packet> packets(final boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    private final class PacketSpliterator implements Spliterator<Sentinel1Level0Packet> {
+
+        private int current;
+        private final int end;
+
+        private ByteBuffer window;
+        private int windowFirst;
+        private int windowEnd;
+
+        PacketSpliterator(final int first, final int end) {
+            this.current = first;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Sentinel1Level0Packet> action) {
+            if (current >= end) {
+                return false;
+            }
+            if (window == null || current < windowFirst || current >= windowEnd) {
+                mapWindow(current);
+            }
+            window.position((int) (offsets[current] - offsets[windowFirst]));
+            action.accept(new Sentinel1Level0Packet(current, offsets[current], window));
+            ++current;
+            return true;
+        }
+
+        private void mapWindow(final int first) {
+            int last = first + 1;
+            while (last < end && offsets[last + 1] - offsets[first] <= WINDOW_SIZE) {
+                ++last;
+            }
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offsets[first], offsets[last] - offsets[first]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            window.order(ByteOrder.BIG_ENDIAN);
+            windowFirst = first;
+            windowEnd = last;
+        }
+
+        @Override
+        public Spliterator<Sentinel1Level0Packet> trySplit() {
+            final int mid = (current + end) >>> 1;
+            if (mid <= current) {
+                return null;
+            }
+            final Spliterator<Sentinel1Level0Packet> prefix = new PacketSpliterator(current, mid);
+            current = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - current;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -15,25 +15,24 @@
  */
 package eu.esa.sar.io.sentinel1;
 
-import eu.esa.sar.commons.io.FileImageInputStreamExtImpl;
-import eu.esa.sar.io.binary.BinaryFileReader;
-import eu.esa.sar.io.binary.IllegalBinaryFormatException;
 import org.esa.snap.core.datamodel.MetadataAttribute;
 import org.esa.snap.core.datamodel.MetadataElement;
 import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.util.SystemUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.imageio.stream.ImageInputStream;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
-import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -124,14 +123,14 @@ public class Sentinel1Level0Reader {
 
     private class DataComponent {
 
-        private final BinaryFileReader reader;
+        private final File file;
         private final ArrayList<DataElement> elemList;
         private final MetadataElement parentMetadataElem;
         private final long numRecords;
 
-        DataComponent(final BinaryFileReader reader, final ArrayList<DataElement> elemList, final MetadataElement parentMetadataElem, final long numRecords) {
+        DataComponent(final File file, final ArrayList<DataElement> elemList, final MetadataElement parentMetadataElem, final long numRecords) {
 
-            this.reader = reader;
+            this.file = file;
             this.elemList = elemList;
             this.parentMetadataElem = parentMetadataElem;
             this.numRecords = numRecords;
@@ -139,6 +138,7 @@ public class Sentinel1Level0Reader {
     }
 
     private ArrayList<DataComponent> dataComponents = new ArrayList<>();
+    private final List<File> measurementDataFiles = new ArrayList<>();
 
     public Sentinel1Level0Reader(final File baseDir, final MetadataElement originalProductMetadata) {
 
@@ -186,6 +186,7 @@ public class Sentinel1Level0Reader {
 
                 componentElem = new MetadataElement(extractPolarization(dataFilename) + "measurement_data");
                 measurementDataElem.addElement(componentElem);
+                measurementDataFiles.add(new File(baseDir.getAbsolutePath() + dataFilename));
             }
 
             final MetadataAttribute nameAttr = new MetadataAttribute("filename", ProductData.TYPE_ASCII);
@@ -202,47 +203,34 @@ public class Sentinel1Level0Reader {
                 final long numRecs = createBinaryReader(baseDir, dataFilename, recordElem);
                 numRecsAttr.getData().setElemUInt(numRecs);
             }
-
-
-            // TODO handle measurement data
         }
 
     }
 
+    /**
+     * @return the measurement data files, packets are decoded with a {@link Sentinel1Level0PacketReader}
+     */
+    public List<File> getMeasurementDataFiles() {
+        return measurementDataFiles;
+    }
+
     private long createBinaryReader(final File baseDir, final String binDataFilename, MetadataElement metadataElement) {
 
         final File binDataFile = new File(baseDir.getAbsolutePath() + binDataFilename);
 
         long numRecs = 0;
 
-        try {
-            ImageInputStream imageInputStream = FileImageInputStreamExtImpl.createInputStream(binDataFile);
-
-            final BinaryFileReader binaryReader = new BinaryFileReader(imageInputStream);
+        final long filesize = binDataFile.length(); // bytes
 
-            // According to Product Specs, binary data is stored in Big Endian format.
-            binaryReader.setByteOrder(ByteOrder.BIG_ENDIAN);
+        if (binDataFilename.contains(ANNOT_PREFIX)) {
 
-            DataComponent dataComponent = null;
-
-            final long filesize = binDataFile.length(); // bytes
-
-            if (binDataFilename.contains(ANNOT_PREFIX)) {
-
-                numRecs = filesize / getTotalNumberOfBytes(annotElemList);
-                dataComponent = new DataComponent(binaryReader, annotElemList, metadataElement, numRecs);
-
-            } else if (binDataFilename.contains(INDEX_PREFIX)) {
-
-                numRecs = filesize / getTotalNumberOfBytes(indexElemList);
-                dataComponent = new DataComponent(binaryReader, indexElemList, metadataElement, numRecs);
-            }
+            numRecs = filesize / getTotalNumberOfBytes(annotElemList);
+            dataComponents.add(new DataComponent(binDataFile, annotElemList, metadataElement, numRecs));
 
-            dataComponents.add(dataComponent);
+        } else if (binDataFilename.contains(INDEX_PREFIX)) {
 
-        } catch (IOException e) {
-
-            System.out.println("Sentinel1Level0Reader.createBinaryReader: IOException " + e.getMessage());
+            numRecs = filesize / getTotalNumberOfBytes(indexElemList);
+            dataComponents.add(new DataComponent(binDataFile, indexElemList, metadataElement, numRecs));
         }
 
         return numRecs;
@@ -587,139 +575,106 @@ public class Sentinel1Level0Reader {
 
     public void readData() {
 
-        //System.out.println("Sentinel1Level0Reader.readData: called");
-
         for (DataComponent d : dataComponents) {
-
-            //System.out.println("Sentinel1Level0Reader.readData: read one data component");
-            readBinaryData(d);
+            try {
+                readBinaryData(d);
+            } catch (IOException e) {
+                SystemUtils.LOG.warning("Sentinel1Level0Reader.readData: unable to read " + d.file + ": " + e.getMessage());
+            }
         }
     }
 
-    private byte readOneBinaryElement(final BinaryFileReader reader,
+    private byte readOneBinaryElement(final ByteBuffer buffer,
                                       final DataElement elem,
                                       final DataElement prevElem,
                                       final byte prevByte,
                                       MetadataElement parentMetadataElem) {
 
-        //System.out.println("Sentinel1Level0Reader.readOneBinaryElement: read " + elem.name + " " + elem.baseType);
-
         byte lastByteRead = 0;
 
-        try {
-            switch (elem.baseType) {
-                case BOOLEAN_TAG_NAME:
-                case UNSIGNED_BYTE_TAG_NAME: {
-                    final int val = reader.readUB1();
-                    //System.out.println(elem.name + " = " + val + "; " + elem.baseType + " (unsigned byte); pos = " + reader.getCurrentPos());
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT8);
-                    ProductData productData = attr.getData();
-                    productData.setElemInt(val);
-                    parentMetadataElem.addAttribute(attr);
-                }
-                break;
-                case UNSIGNED_SHORT_TAG_NAME: {
-                    final int val = reader.readUB2();
-                    //System.out.println(elem.name + " = " + val + "; " + elem.baseType + " (unsigned short); pos = " + reader.getCurrentPos());
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT16);
-                    ProductData productData = attr.getData();
-                    productData.setElemInt(val);
-                    parentMetadataElem.addAttribute(attr);
-                }
-                break;
-                case UNSIGNED_INT_TAG_NAME: {
-                    final long val = getUnsignedInt(reader.readB4());
-                    //System.out.println(elem.name + " = " + val + "; " + elem.baseType + " (unsigned int); pos = " + reader.getCurrentPos());
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT32);
-                    ProductData productData = attr.getData();
-                    productData.setElemUInt(val);
-                    parentMetadataElem.addAttribute(attr);
-                }
-                break;
-                case UNSIGNED_LONG_TAG_NAME: {
-                    final byte[] bytes = new byte[8];
-                    reader.read(bytes);
-                    final BigInteger val = new BigInteger(bytes);
-                    final String valStr = String.valueOf(val);
-                    //System.out.println(elem.name + " = " + val + "; " + elem.baseType + " (unsigned long);  pos = " + reader.getCurrentPos());
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_ASCII);
-                    ProductData productData = attr.getData();
-                    productData.setElems(valStr);
-                    parentMetadataElem.addAttribute(attr);
-                    // To get back the unsigned long value, one can get the String back and create a BigInteger with it.
-                    // Constructor of BigInteger takes a String.
-                }
-                break;
-                case DOUBLE_TAG_NAME: {
-                    final double val = (double) reader.readB8();
-                    //System.out.println(elem.name + " = " + val + "; " + elem.baseType + " (double); pos" + reader.getCurrentPos());
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_FLOAT64);
-                    ProductData productData = attr.getData();
-                    productData.setElemDouble(val);
-                    parentMetadataElem.addAttribute(attr);
+        switch (elem.baseType) {
+            case BOOLEAN_TAG_NAME:
+            case UNSIGNED_BYTE_TAG_NAME: {
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT8);
+                attr.getData().setElemInt(buffer.get() & 0xFF);
+                parentMetadataElem.addAttribute(attr);
+            }
+            break;
+            case UNSIGNED_SHORT_TAG_NAME: {
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT16);
+                attr.getData().setElemInt(buffer.getShort() & 0xFFFF);
+                parentMetadataElem.addAttribute(attr);
+            }
+            break;
+            case UNSIGNED_INT_TAG_NAME: {
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT32);
+                attr.getData().setElemUInt(getUnsignedInt(buffer.getInt()));
+                parentMetadataElem.addAttribute(attr);
+            }
+            break;
+            case UNSIGNED_LONG_TAG_NAME: {
+                // To get back the unsigned long value, one can get the String back and create a BigInteger with it.
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_ASCII);
+                attr.getData().setElems(Long.toUnsignedString(buffer.getLong()));
+                parentMetadataElem.addAttribute(attr);
+            }
+            break;
+            case DOUBLE_TAG_NAME: {
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_FLOAT64);
+                attr.getData().setElemDouble(buffer.getDouble());
+                parentMetadataElem.addAttribute(attr);
+            }
+            break;
+            case BIT_BASE_TYPE: {
+                if (prevElem == null || elem.startBit == 0) {
+                    lastByteRead = buffer.get();
+                } else {
+                    lastByteRead = prevByte;
                 }
-                break;
-                case BIT_BASE_TYPE: {
-                    if (prevElem == null || elem.startBit == 0) {
-                        final byte[] oneByte = new byte[1];
-                        reader.read(oneByte);
-                        lastByteRead = oneByte[0];
-                        //System.out.println(elem.name + " = "  + Integer.toBinaryString(getInteger(lastByteRead)) + "; " + elem.baseType + " (unsigned int); pos = " + reader.getCurrentPos());
-                    } else {
-                        lastByteRead = prevByte;
-                    }
 
-                    final byte val = extract(lastByteRead, elem.startBit, elem.numBytes);
+                final byte val = extract(lastByteRead, elem.startBit, elem.numBytes);
 
-                    MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT8);
-                    ProductData productData = attr.getData();
-                    productData.setElemInt(getInteger(val));
-                    parentMetadataElem.addAttribute(attr);
-                }
-                break;
-                default: {
-                    System.out.println("Sentinel1Level0Reader.readOneBinaryElement: ERROR Unknown baseType = " + elem.baseType);
-                }
-                break;
+                final MetadataAttribute attr = new MetadataAttribute(elem.name, ProductData.TYPE_UINT8);
+                attr.getData().setElemInt(getInteger(val));
+                parentMetadataElem.addAttribute(attr);
             }
-
-        } catch (IOException e) {
-
-            System.out.println("Sentinel1Level0Reader.readOneBinaryElement: IOException " + e.getMessage());
-
-        } catch (IllegalBinaryFormatException e) {
-
-            System.out.println("Sentinel1Level0Reader.readOneBinaryElement: IllegalBinaryFormatException " + e.getMessage());
+            break;
+            default: {
+                SystemUtils.LOG.warning("Sentinel1Level0Reader.readOneBinaryElement: ERROR Unknown baseType = " + elem.baseType);
+            }
+            break;
         }
 
         return lastByteRead;
     }
 
-    private void readBinaryData(DataComponent dataComponent) {
+    private void readBinaryData(DataComponent dataComponent) throws IOException {
 
-        final BinaryFileReader reader = dataComponent.reader;
         final ArrayList<DataElement> elemList = dataComponent.elemList;
         final MetadataElement parentMetadataElem = dataComponent.parentMetadataElem;
+        final String parentName = parentMetadataElem.getName();
+        final String recordName = parentName.substring(0, parentName.length() - 1);
+        final int recordLength = getTotalNumberOfBytes(elemList);
+
+        // According to Product Specs, binary data is stored in Big Endian format.
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(dataComponent.file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataComponent.numRecords * recordLength);
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
 
         for (long i = 0; i < dataComponent.numRecords; i++) {
 
-            final String parentName = parentMetadataElem.getName();
-            final MetadataElement recMetaElem = new MetadataElement(parentName.substring(0, parentName.length() - 1) + i);
+            final MetadataElement recMetaElem = new MetadataElement(recordName + i);
             parentMetadataElem.addElement(recMetaElem);
-            /*
-            try {
-                System.out.println("readBinaryData: file pos = " + reader.getCurrentPos());
-            } catch (IOException e) {
-                System.out.println("readBinaryData: file pos = ERROR " + e.getMessage());
-            }
-            */
+
             DataElement prevDataElem = null;
             byte prevByte = 0;
 
             for (DataElement elem : elemList) {
 
                 for (int j = 0; j < elem.numOccurrences; j++) {
-                    prevByte = readOneBinaryElement(reader, elem, prevDataElem, prevByte, recMetaElem);
+                    prevByte = readOneBinaryElement(buffer, elem, prevDataElem, prevByte, recMetaElem);
                     prevDataElem = elem;
                 }
             }
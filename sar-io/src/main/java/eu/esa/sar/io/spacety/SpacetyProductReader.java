@@ -76,6 +76,9 @@ public class SpacetyProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        if (cache != null) {
+            cache.clear();
+        }
     }
 
     /**
@@ -165,7 +168,7 @@ public class SpacetyProductReader extends SARReader {
         final Rectangle destRect = new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight);
 
         if (useCache) {
-            final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
+            final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect, sourceStepX, sourceStepY);
             DataCache.Data cachedData = cache.get(datakey);
             if (cachedData != null && cachedData.valid) {
                 srcArray = cachedData.intArray;
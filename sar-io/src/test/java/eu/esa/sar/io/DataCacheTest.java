@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataCacheTest {
+
+    @Test
+    public void testKeyIncludesRectangleAndStep() {
+        final DataCache.DataKey key1 = new DataCache.DataKey(null, new Rectangle(0, 0, 256, 256), 1, 1);
+        final DataCache.DataKey key2 = new DataCache.DataKey(null, new Rectangle(0, 0, 256, 256), 1, 1);
+        final DataCache.DataKey key3 = new DataCache.DataKey(null, new Rectangle(256, 0, 256, 256), 1, 1);
+        final DataCache.DataKey key4 = new DataCache.DataKey(null, new Rectangle(0, 0, 256, 256), 2, 2);
+
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+        assertNotEquals(key1, key3);
+        assertNotEquals(key1.hashCode(), key3.hashCode());
+        assertNotEquals(key1, key4);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        final DataCache cache = new DataCache(1024 * 1024);
+        final DataCache.DataKey key = new DataCache.DataKey(null, new Rectangle(0, 0, 10, 10));
+
+        assertNull(cache.get(key));
+        cache.put(key, new DataCache.Data(new int[100]));
+        final DataCache.Data data = cache.get(key);
+        assertNotNull(data);
+        assertTrue(data.valid);
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        // lookups through other instances are not counted
+        final DataCache other = new DataCache(1024 * 1024);
+        assertNull(other.get(key));
+        assertEquals(1, cache.missCount());
+        assertEquals(1, other.missCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMemoryBound() {
+        final DataCache cache = new DataCache(64 * 1024);
+        for (int i = 0; i < 100; ++i) {
+            cache.put(new DataCache.DataKey(null, new Rectangle(i * 64, 0, 64, 64)),
+                    new DataCache.Data(new int[64 * 64]));
+        }
+        assertTrue(cache.size() < 100);
+        assertTrue(cache.evictionCount() > 0);
+    }
+}
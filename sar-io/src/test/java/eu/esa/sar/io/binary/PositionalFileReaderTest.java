@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PositionalFileReaderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("positional", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < 10; ++i) {
+                out.writeShort(i * 100);
+            }
+            out.writeInt(123456);
+            out.writeFloat(1.5f);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final PositionalFileReader reader = new PositionalFileReader(file, ByteOrder.BIG_ENDIAN);
+        try {
+            final short[] shorts = new short[3];
+            reader.read(4, shorts);
+            assertArrayEquals(new short[]{200, 300, 400}, shorts);
+
+            final int[] ints = new int[1];
+            reader.read(20, ints);
+            assertEquals(123456, ints[0]);
+
+            final float[] floats = new float[1];
+            reader.read(24, floats);
+            assertEquals(1.5f, floats[0], 0.0f);
+
+            // earlier position after a later one
+            reader.read(0, shorts);
+            assertArrayEquals(new short[]{0, 100, 200}, shorts);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReadPastEnd() throws IOException {
+        final PositionalFileReader reader = new PositionalFileReader(file, ByteOrder.BIG_ENDIAN);
+        try {
+            reader.read(24, new float[2]);
+            fail("EOFException expected");
+        } catch (EOFException e) {
+            // expected
+        } finally {
+            reader.close();
+        }
+    }
+}
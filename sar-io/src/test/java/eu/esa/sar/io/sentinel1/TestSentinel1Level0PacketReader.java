@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test Sentinel1Level0PacketReader on synthetic packets
+ */
+public class TestSentinel1Level0PacketReader {
+
+    private static final int NUM_PACKETS = 500;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("s1a-iw-raw-s-vv", ".dat");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < NUM_PACKETS; ++i) {
+                writePacket(out, i);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static int getUserDataLength(final int i) {
+        return 16 + (i % 7) * 4;
+    }
+
+    private static void writePacket(final DataOutputStream out, final int i) throws IOException {
+        final int userDataLength = getUserDataLength(i);
+        // primary header: version 0, type 0, secondary header flag 1, PID 65, PCAT 12, sequence flags 3
+        out.writeShort((1 << 11) | (65 << 4) | 12);
+        out.writeShort((3 << 14) | (i & 0x3FFF));
+        out.writeShort(Sentinel1Level0Packet.SECONDARY_HEADER_LENGTH + userDataLength - 1);
+
+        // secondary header
+        out.writeInt(1200000000 + i);           // coarse time
+        out.writeShort(32768);                  // fine time
+        out.writeInt(Sentinel1Level0Packet.SYNC_MARKER);
+        out.writeInt(42);                       // data take id
+        out.writeByte(8);                       // ECC number
+        out.writeByte((0 << 4) | 1);            // test mode, rx channel id
+        out.writeInt(7);                        // instrument configuration id
+        out.writeByte(i % 64 + 1);              // sub-commutated index
+        out.writeShort(i);                      // sub-commutated data
+        out.writeInt(i);                        // space packet count
+        out.writeInt(2 * i);                    // PRI count
+        out.writeByte(12);                      // error flag, BAQ mode
+        out.writeByte(31);                      // BAQ block length
+        out.writeByte(0);                       // spare
+        out.writeByte(8);                       // range decimation
+        out.writeByte(10);                      // rx gain
+        out.writeShort(0x1234);                 // tx ramp rate
+        out.writeShort(0x5678);                 // tx pulse start frequency
+        writeUInt24(out, 1400);                 // tx pulse length
+        out.writeByte(9);                       // rank
+        writeUInt24(out, 21000);                // PRI
+        writeUInt24(out, 4000);                 // SWST
+        writeUInt24(out, 12000);                // SWL
+        writeUInt24(out, 0xABCDEF);             // SAS SSB message
+        writeUInt24(out, 0x123456);             // SES SSB message
+        out.writeShort(userDataLength / 4);     // number of quads
+        out.writeByte(0);                       // filler
+
+        for (int j = 0; j < userDataLength; ++j) {
+            out.writeByte(i + j);
+        }
+    }
+
+    private static void writeUInt24(final DataOutputStream out, final int value) throws IOException {
+        out.writeByte(value >>> 16);
+        out.writeByte(value >>> 8);
+        out.writeByte(value);
+    }
+
+    private static void checkPacket(final Sentinel1Level0Packet packet) {
+        final int i = packet.index;
+        assertEquals(65, packet.processId);
+        assertEquals(12, packet.packetCategory);
+        assertEquals(1, packet.secondaryHeaderFlag);
+        assertEquals(3, packet.sequenceFlags);
+        assertEquals(i & 0x3FFF, packet.sequenceCount);
+        assertTrue(packet.hasValidSyncMarker());
+        assertEquals(1200000000 + i + 32768.5 / 65536.0, packet.getTime(), 1e-9);
+        assertEquals(42, packet.dataTakeId);
+        assertEquals(1, packet.rxChannelId);
+        assertEquals(i % 64 + 1, packet.subCommutatedIndex);
+        assertEquals(i, packet.spacePacketCount);
+        assertEquals(2 * i, packet.priCount);
+        assertEquals(12, packet.baqMode);
+        assertEquals(8, packet.rangeDecimation);
+        assertEquals(0x1234, packet.txRampRate);
+        assertEquals(1400, packet.txPulseLength);
+        assertEquals(9, packet.rank);
+        assertEquals(21000, packet.pri);
+        assertEquals(4000, packet.swst);
+        assertEquals(12000, packet.swl);
+        assertEquals(0xABCDEF, packet.sasSsbMessage);
+        assertEquals(0x123456, packet.sesSsbMessage);
+
+        final int userDataLength = getUserDataLength(i);
+        assertEquals(userDataLength / 4, packet.numberOfQuads);
+        assertEquals(userDataLength, packet.getUserDataLength());
+        final ByteBuffer userData = packet.getUserData();
+        for (int j = 0; j < userDataLength; ++j) {
+            assertEquals((byte) (i + j), userData.get());
+        }
+    }
+
+    @Test
+    public void testPacketIndex() throws IOException {
+        try (Sentinel1Level0PacketReader reader = new Sentinel1Level0PacketReader(file)) {
+            assertEquals(NUM_PACKETS, reader.getNumPackets());
+
+            long offset = 0;
+            for (int i = 0; i < NUM_PACKETS; ++i) {
+                assertEquals(offset, reader.getPacketOffset(i));
+                assertEquals(Sentinel1Level0Packet.HEADER_LENGTH + getUserDataLength(i), reader.getPacketLength(i));
+                offset += reader.getPacketLength(i);
+            }
+            assertEquals(file.length(), offset);
+
+            checkPacket(reader.readPacket(0));
+            checkPacket(reader.readPacket(NUM_PACKETS - 1));
+            checkPacket(reader.readPacket(123));
+        }
+    }
+
+    @Test
+    public void testSequentialStream() throws IOException {
+        try (Sentinel1Level0PacketReader reader = new Sentinel1Level0PacketReader(file)) {
+            final List<Sentinel1Level0Packet> packets = reader.packets(false).collect(Collectors.toList());
+            assertEquals(NUM_PACKETS, packets.size());
+            for (int i = 0; i < NUM_PACKETS; ++i) {
+                assertEquals(i, packets.get(i).index);
+                checkPacket(packets.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelStream() throws IOException {
+        try (Sentinel1Level0PacketReader reader = new Sentinel1Level0PacketReader(file)) {
+            final long numQuads = reader.packets(true).peek(TestSentinel1Level0PacketReader::checkPacket)
+                    .mapToLong(p -> p.numberOfQuads).sum();
+
+            long expected = 0;
+            for (int i = 0; i < NUM_PACKETS; ++i) {
+                expected += getUserDataLength(i) / 4;
+            }
+            assertEquals(expected, numQuads);
+        }
+    }
+}
@@ -477,9 +477,7 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
             throws OperatorException {
 
         try {
-            if (useBorderDetection && !borderDetected) {
-                detectBorders();
-            }
+            initBorders();
 
             final int x0 = targetRectangle.x;
             final int y0 = targetRectangle.y;
@@ -515,7 +513,6 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
             final Tile coPolTile = getSourceTile(coPolBand, targetRectangle);
             final ProductData coPolData = coPolTile.getDataBuffer();
 
-            double coPolDataValue, deNoisedDataValue;
             for (int y = y0; y < yMax; y++) {
                 srcIndex.calculateStride(y);
                 tgtIndex.calculateStride(y);
@@ -523,29 +520,18 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
                 for (int x = x0; x < xMax; x++) {
                     final int srcIdx = srcIndex.getIndex(x);
 
-                    boolean testPixel = x < leftBorder || x > rightBorder || y < topBorder || y > bottomBorder;
-
-                    if (testPixel) {
-                        coPolDataValue = coPolData.getElemDoubleAt(srcIdx);
-                        if (noDataValue.equals(coPolDataValue)) {
-                            continue;
-                        }
-
-                        deNoisedDataValue =
-                                Math.sqrt(Math.max(coPolDataValue * coPolDataValue - noiseLUT[x], 0.0));
-
-                        if (deNoisedDataValue < trimThreshold || coPolDataValue < 30) {
-                            final int tgtIdx = tgtIndex.getIndex(x);
-                            for (int i = 0; i < numBands; i++) {
-                                targetData[i].setElemDoubleAt(tgtIdx, bandNoDataValues[i]);
-                            }
-                        } else {
-                            testPixel = false;
-                        }
+                    final BorderPixel borderPixel = isBorderPixel(x, y) ?
+                            testBorderPixel(x, coPolData.getElemDoubleAt(srcIdx)) : BorderPixel.KEEP;
+                    if (borderPixel == BorderPixel.SKIP) {
+                        continue;
                     }
 
-                    if (!testPixel) {
-                        final int tgtIdx = tgtIndex.getIndex(x);
+                    final int tgtIdx = tgtIndex.getIndex(x);
+                    if (borderPixel == BorderPixel.MASK) {
+                        for (int i = 0; i < numBands; i++) {
+                            targetData[i].setElemDoubleAt(tgtIdx, bandNoDataValues[i]);
+                        }
+                    } else {
                         for (int i = 0; i < numBands; i++) {
                             targetData[i].setElemDoubleAt(tgtIdx, sourceData[i].getElemDoubleAt(srcIdx));
                         }
@@ -558,6 +544,67 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
         }
     }
 
+    // outcome of testing a pixel near the border: keep it, set it to no-data or leave it unset
+    enum BorderPixel {KEEP, MASK, SKIP}
+
+    /**
+     * @return true if the IPF has already masked the border noise and the source data is only copied
+     */
+    boolean isMaskedByIPF() {
+        return version >= 2.90;
+    }
+
+    /**
+     * @return the name of the co-polarised source band whose values decide the border mask
+     */
+    String getCoPolBandName() {
+        return coPolBand.getName();
+    }
+
+    /**
+     * Detect the borders if this has not been done yet.
+     */
+    void initBorders() throws OperatorException {
+        if (useBorderDetection && !borderDetected) {
+            detectBorders();
+        }
+    }
+
+    /**
+     * @return true if the pixel lies outside the borders and has to be tested against the mask
+     */
+    boolean isBorderPixel(final int x, final int y) {
+        return x < leftBorder || x > rightBorder || y < topBorder || y > bottomBorder;
+    }
+
+    /**
+     * @return true if the rectangle holds pixels outside the borders
+     */
+    boolean containsBorderPixels(final Rectangle rectangle) {
+        return isBorderPixel(rectangle.x, rectangle.y) ||
+                isBorderPixel(rectangle.x + rectangle.width - 1, rectangle.y + rectangle.height - 1);
+    }
+
+    /**
+     * Test a pixel outside the borders against the border noise mask.
+     *
+     * @param x              The pixel x coordinate.
+     * @param coPolDataValue The co-polarised source value of the pixel.
+     * @return The outcome for all bands of the pixel.
+     */
+    BorderPixel testBorderPixel(final int x, final double coPolDataValue) {
+
+        if (noDataValue.equals(coPolDataValue)) {
+            return BorderPixel.SKIP;
+        }
+
+        final double deNoisedDataValue = Math.sqrt(Math.max(coPolDataValue * coPolDataValue - noiseLUT[x], 0.0));
+        if (deNoisedDataValue < trimThreshold || coPolDataValue < 30) {
+            return BorderPixel.MASK;
+        }
+        return BorderPixel.KEEP;
+    }
+
     private synchronized void detectBorders() throws OperatorException {
 
         if (borderDetected) return;
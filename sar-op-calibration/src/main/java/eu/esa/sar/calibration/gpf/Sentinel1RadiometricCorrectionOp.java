@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUT;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.core.gpf.annotations.Parameter;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.gpf.InputProductValidator;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.*;
+
+/**
+ * Thermal noise removal, GRD border noise removal and calibration of a Sentinel-1 GRD product in one pass.
+ * <p>
+ * The result is the same as running ThermalNoiseRemoval, Remove-GRD-Border-Noise and Calibration one after the
+ * other. Those operators are set up internally for their metadata, LUTs and border detection, but the tiles are
+ * computed here straight from the DN, so no intermediate rasters are computed or cached.
+ */
+@OperatorMetadata(alias = "S1-Radiometric-Correction",
+        category = "Radar/Radiometric",
+        authors = "Jun Lu, Luis Veci",
+        version = "1.0",
+        copyright = "Copyright (C) 2024 by SkyWatch Space Applications Inc.",
+        description = "Remove thermal and border noise and calibrate a Sentinel-1 GRD product in one pass")
+public final class Sentinel1RadiometricCorrectionOp extends Operator {
+
+    @SourceProduct(alias = "source")
+    private Product sourceProduct;
+    @TargetProduct
+    private Product targetProduct;
+
+    @Parameter(description = "The list of polarisations", label = "Polarisations")
+    private String[] selectedPolarisations;
+
+    @Parameter(description = "Remove thermal noise", defaultValue = "true", label = "Remove thermal noise")
+    private Boolean removeThermalNoise = true;
+
+    @Parameter(description = "Remove GRD border noise", defaultValue = "true", label = "Remove border noise")
+    private Boolean removeBorderNoise = true;
+
+    @Parameter(description = "The border margin limit", defaultValue = "500", label = "Border margin limit[pixels]")
+    private int borderLimit = 500;
+
+    @Parameter(description = "The trim threshold", defaultValue = "0.5", label = "Threshold")
+    private double trimThreshold = 0.5;
+
+    @Parameter(description = "Output sigma0 band", defaultValue = "true", label = "Output sigma0 band")
+    private Boolean outputSigmaBand = true;
+
+    @Parameter(description = "Output gamma0 band", defaultValue = "false", label = "Output gamma0 band")
+    private Boolean outputGammaBand = false;
+
+    @Parameter(description = "Output beta0 band", defaultValue = "false", label = "Output beta0 band")
+    private Boolean outputBetaBand = false;
+
+    private Sentinel1RemoveThermalNoiseOp thermalNoiseOp = null;
+    private RemoveGRDBorderNoiseOp borderNoiseOp = null;
+    private Product thermalNoiseProduct = null;
+    private Product borderNoiseProduct = null;
+    private Product calibrationSourceProduct = null;
+    private Sentinel1Calibrator calibrator = null;
+    private int subsetOffsetX = 0;
+    private int subsetOffsetY = 0;
+
+    /**
+     * Default constructor. The graph processing framework
+     * requires that an operator has a default constructor.
+     */
+    public Sentinel1RadiometricCorrectionOp() {
+    }
+
+    /**
+     * Initializes this operator and sets the one and only target product.
+     * <p>The target product can be either defined by a field of type {@link Product} annotated with the
+     * {@link TargetProduct TargetProduct} annotation or
+     * by calling {@link #setTargetProduct} method.</p>
+     * <p>The framework calls this method after it has created this operator.
+     * Any client code that must be performed before computation of tile data
+     * should be placed here.</p>
+     *
+     * @throws OperatorException If an error occurs during operator initialisation.
+     * @see #getTargetProduct()
+     */
+    @Override
+    public void initialize() throws OperatorException {
+
+        try {
+            final InputProductValidator validator = new InputProductValidator(sourceProduct);
+            validator.checkIfSentinel1Product();
+            validator.checkIfGRD();
+            validator.checkIfCalibrated(false);
+
+            Product product = sourceProduct;
+            if (removeThermalNoise) {
+                thermalNoiseOp = (Sentinel1RemoveThermalNoiseOp) new Sentinel1RemoveThermalNoiseOp.Spi().createOperator();
+                thermalNoiseOp.setSourceProduct(product);
+                if (selectedPolarisations != null) {
+                    thermalNoiseOp.setParameter("selectedPolarisations", selectedPolarisations);
+                }
+                thermalNoiseProduct = thermalNoiseOp.getTargetProduct();
+                product = thermalNoiseProduct;
+            }
+
+            if (removeBorderNoise) {
+                borderNoiseOp = (RemoveGRDBorderNoiseOp) new RemoveGRDBorderNoiseOp.Spi().createOperator();
+                borderNoiseOp.setSourceProduct(product);
+                if (selectedPolarisations != null) {
+                    borderNoiseOp.setParameter("selectedPolarisations", selectedPolarisations);
+                }
+                borderNoiseOp.setParameter("borderLimit", borderLimit);
+                borderNoiseOp.setParameter("trimThreshold", trimThreshold);
+                borderNoiseProduct = borderNoiseOp.getTargetProduct();
+                product = borderNoiseProduct;
+            }
+            calibrationSourceProduct = product;
+
+            calibrator = new Sentinel1Calibrator();
+            calibrator.setUserSelections(calibrationSourceProduct,
+                    selectedPolarisations, outputSigmaBand, outputGammaBand, outputBetaBand, false);
+            targetProduct = calibrator.createTargetProduct(calibrationSourceProduct, null);
+            calibrator.initialize(this, calibrationSourceProduct, targetProduct, false, true);
+
+            final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(targetProduct);
+            absRoot.getAttribute(AbstractMetadata.abs_calibration_flag).getData().setElemBoolean(true);
+            absRoot.setAttributeString(AbstractMetadata.SAMPLE_TYPE, "DETECTED");
+
+            subsetOffsetX = absRoot.getAttributeInt(AbstractMetadata.subset_offset_x);
+            subsetOffsetY = absRoot.getAttributeInt(AbstractMetadata.subset_offset_y);
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    /**
+     * Releases the internal noise removal operators and their products, which are not part of any graph.
+     */
+    @Override
+    public synchronized void dispose() {
+        if (borderNoiseOp != null) {
+            borderNoiseOp.dispose();
+            borderNoiseOp = null;
+        }
+        if (borderNoiseProduct != null) {
+            borderNoiseProduct.dispose();
+            borderNoiseProduct = null;
+        }
+        if (thermalNoiseOp != null) {
+            thermalNoiseOp.dispose();
+            thermalNoiseOp = null;
+        }
+        if (thermalNoiseProduct != null) {
+            thermalNoiseProduct.dispose();
+            thermalNoiseProduct = null;
+        }
+        calibrationSourceProduct = null;
+        super.dispose();
+    }
+
+    /**
+     * Called by the framework in order to compute a tile for the given target band.
+     * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
+     *
+     * @param targetBand The target band.
+     * @param targetTile The current tile associated with the target band to be computed.
+     * @param pm         A progress monitor which should be used to determine computation cancelation requests.
+     * @throws OperatorException If an error occurs during computation of the target raster.
+     */
+    @Override
+    public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
+
+        final Rectangle targetTileRectangle = targetTile.getRectangle();
+        final int x0 = targetTileRectangle.x;
+        final int y0 = targetTileRectangle.y;
+        final int w = targetTileRectangle.width;
+        final int h = targetTileRectangle.height;
+
+        try {
+            final String targetBandName = targetBand.getName();
+            final String bandName = calibrator.getSourceBandNames(targetBandName)[0];
+            final BandSource bandSource = new BandSource(bandName, targetTileRectangle);
+
+            // border noise is decided by the co-polarised band after thermal noise removal
+            BandSource coPolSource = null;
+            double borderNoDataValue = 0.0;
+            if (borderNoiseOp != null && !borderNoiseOp.isMaskedByIPF()) {
+                borderNoiseOp.initBorders();
+                if (borderNoiseOp.containsBorderPixels(targetTileRectangle)) {
+                    final String coPolBandName = borderNoiseOp.getCoPolBandName();
+                    coPolSource = coPolBandName.equals(bandName) ? bandSource :
+                            new BandSource(coPolBandName, targetTileRectangle);
+                    borderNoDataValue = borderNoiseOp.getTargetProduct().getBand(bandName).getNoDataValue();
+                }
+            }
+
+            final Sentinel1Calibrator.CalibrationInfo calInfo = calibrator.getCalibrationInfo(targetBandName);
+            if (calInfo == null) {
+                throw new OperatorException("Calibration information not found.");
+            }
+            final Sentinel1LUT lut = calInfo.getLUT(Sentinel1Calibrator.getCalibrationType(targetBandName));
+            final Sentinel1LUT.ColumnWeights columns = lut.getColumnWeights(subsetOffsetX + x0, w);
+            final double[] lutLine = new double[w];
+
+            final Unit.UnitType bandUnit = Unit.getUnitType(calibrationSourceProduct.getBand(bandName));
+            if (bandUnit != Unit.UnitType.AMPLITUDE && bandUnit != Unit.UnitType.INTENSITY) {
+                throw new OperatorException("Sentinel-1 Calibration: unhandled unit");
+            }
+            final boolean isUnitAmplitude = bandUnit == Unit.UnitType.AMPLITUDE;
+            final float trgFloorValue = Sentinel1RemoveThermalNoiseOp.trgFloorValue;
+            final ProductData tgtData = targetTile.getDataBuffer();
+            final TileIndex tgtIndex = new TileIndex(targetTile);
+            final int maxY = y0 + h;
+            final int maxX = x0 + w;
+
+            for (int y = y0; y < maxY; ++y) {
+                tgtIndex.calculateStride(y);
+                bandSource.setLine(y);
+                if (coPolSource != null && coPolSource != bandSource) {
+                    coPolSource.setLine(y);
+                }
+
+                final double azTime = calInfo.firstLineTime + (subsetOffsetY + y) * calInfo.lineTimeInterval;
+                lut.getLine(columns, subsetOffsetY + y, azTime, lutLine);
+
+                for (int x = x0; x < maxX; ++x) {
+                    final int xx = x - x0;
+
+                    double dn = bandSource.getValue(x, xx);
+                    if (coPolSource != null && borderNoiseOp.isBorderPixel(x, y)) {
+                        final RemoveGRDBorderNoiseOp.BorderPixel borderPixel =
+                                borderNoiseOp.testBorderPixel(x, coPolSource.getValue(x, xx));
+                        if (borderPixel == RemoveGRDBorderNoiseOp.BorderPixel.SKIP) {
+                            dn = 0.0; // left unset by the border noise removal
+                        } else if (borderPixel == RemoveGRDBorderNoiseOp.BorderPixel.MASK) {
+                            dn = borderNoDataValue;
+                        }
+                    }
+
+                    // calibration as in Sentinel1Calibrator
+                    if (isUnitAmplitude) {
+                        dn *= dn;
+                    }
+                    final double calibrationFactor = 1.0 / (lutLine[xx] * lutLine[xx]);
+                    double calValue = dn * calibrationFactor;
+
+                    if (dn == trgFloorValue) {
+                        while ((float) calValue < 0.00001) {
+                            dn *= 2;
+                            calValue = dn * calibrationFactor;
+                        }
+                    }
+
+                    tgtData.setElemDoubleAt(tgtIndex.getIndex(x), calValue);
+                }
+            }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            pm.done();
+        }
+    }
+
+    /**
+     * Values of a band of the calibration source, computed from the DN of the source product.
+     */
+    private final class BandSource {
+        private final ProductData srcData;
+        private final TileIndex srcIndex;
+        private final boolean isUnitAmplitude;
+        private final double noDataValue;
+        private final Sentinel1RemoveThermalNoiseOp.TileNoiseLUT noiseLUT;
+        private final double[] noise;
+
+        /**
+         * @param bandName        Band name in the product after thermal noise removal.
+         * @param targetRectangle The target tile rectangle.
+         */
+        BandSource(final String bandName, final Rectangle targetRectangle) {
+
+            String srcBandName = bandName;
+            if (thermalNoiseOp != null) {
+                final String[] srcBandNames = thermalNoiseOp.getSourceBandNames(bandName);
+                if (srcBandNames == null) {
+                    throw new OperatorException("Source band not found for " + bandName);
+                }
+                srcBandName = srcBandNames[0];
+                noiseLUT = thermalNoiseOp.getTileNoiseLUT(bandName, targetRectangle);
+                noise = new double[targetRectangle.width];
+            } else {
+                noiseLUT = null;
+                noise = null;
+            }
+
+            final Band srcBand = sourceProduct.getBand(srcBandName);
+            final Tile srcTile = getSourceTile(srcBand, targetRectangle);
+            srcData = srcTile.getDataBuffer();
+            srcIndex = new TileIndex(srcTile);
+            noDataValue = srcBand.getNoDataValue();
+
+            final Unit.UnitType unit = Unit.getUnitType(srcBand);
+            if (noiseLUT != null && unit != Unit.UnitType.AMPLITUDE && unit != Unit.UnitType.INTENSITY) {
+                throw new OperatorException("Unhandled unit");
+            }
+            isUnitAmplitude = unit == Unit.UnitType.AMPLITUDE;
+        }
+
+        void setLine(final int y) {
+            srcIndex.calculateStride(y);
+            if (noiseLUT != null) {
+                noiseLUT.getLine(y + subsetOffsetY, noise);
+            }
+        }
+
+        /**
+         * @return The band value at pixel x, offset xx in the tile, with thermal noise removed if selected.
+         */
+        double getValue(final int x, final int xx) {
+            final double dn = srcData.getElemDoubleAt(srcIndex.getIndex(x));
+            if (noiseLUT == null) {
+                return dn;
+            }
+            final double dn2 = isUnitAmplitude ? dn * dn : dn;
+
+            // the noise removal writes float32 bands
+            return (float) Sentinel1RemoveThermalNoiseOp.removeNoise(dn2, noise[xx], noDataValue);
+        }
+    }
+
+    /**
+     * The SPI is used to register this operator in the graph processing framework
+     * via the SPI configuration file
+     * {@code META-INF/services/org.esa.snap.core.gpf.OperatorSpi}.
+     * This class may also serve as a factory for new operator instances.
+     *
+     * @see OperatorSpi#createOperator()
+     * @see OperatorSpi#createOperator(java.util.Map, java.util.Map)
+     */
+    public static class Spi extends OperatorSpi {
+        public Spi() {
+            super(Sentinel1RadiometricCorrectionOp.class);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package eu.esa.sar.calibration.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUT;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -39,7 +40,6 @@ import org.esa.snap.engine_utilities.eo.Constants;
 import org.esa.snap.engine_utilities.gpf.InputProductValidator;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.TileIndex;
-import org.esa.snap.engine_utilities.util.Maths;
 
 import java.awt.Rectangle;
 import java.io.IOException;
@@ -584,16 +584,9 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         final int y0 = targetTileRectangle.y;
         final int w = targetTileRectangle.width;
         final int h = targetTileRectangle.height;
-        final int sx0 = subsetOffsetX + x0; // tile start x coordinate in original image
-        final int sy0 = subsetOffsetY + y0; // tile start y coordinate in original image
         //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h + ", target band = " + targetBandName);
 
         try {
-            double[][] noiseBlock = null;
-            if (version >= 2.9 && !isSM) {
-                noiseBlock = populateNoiseAzimuthBlock(sx0, sy0, w, h, targetBandName);
-            }
-
             Tile sourceRaster1 = null;
             ProductData srcData1 = null;
             ProductData srcData2 = null;
@@ -632,47 +625,15 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
                 }
             }
 
-            Sentinel1Calibrator.CalibrationInfo calInfo = null;
-            Sentinel1Calibrator.CALTYPE calType = null;
-            if (absoluteCalibrationPerformed) {
-                calInfo = getCalInfo(targetBandName);
-                calType = Sentinel1Calibrator.getCalibrationType(targetBandName);
-            }
+            final TileNoiseLUT tileLUT = getTileNoiseLUT(targetBandName, targetTileRectangle);
+            final double[] lut = new double[w];
 
             double dn, dn2, i, q;
             int srcIdx, tgtIdx;
             for (int y = y0; y < maxY; ++y) {
                 srcIndex.calculateStride(y);
                 tgtIndex.calculateStride(y);
-                final int sy = y + subsetOffsetY;
-
-                double[] lut = new double[w];
-                if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    }
-
-                } else {
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileNoiseLUT(sy, sx0, w, noiseInfo, lut);
-                    } else {
-                        computeTileNoiseLUT(sy - sy0, sx0, w, noiseBlock, lut);
-                    }
-                }
+                tileLUT.getLine(y + subsetOffsetY, lut);
 
                 for (int x = x0; x < maxX; ++x) {
                     final int xx = x - x0;
@@ -691,19 +652,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
                         throw new OperatorException("Unhandled unit");
                     }
 
-                    if(dn2 == srcNoDataValue) {
-                        tgtData.setElemDoubleAt(tgtIdx, srcNoDataValue);
-                        continue;
-                    }
-
-                    double value = dn2 - lut[xx];
-                    if(value < 0) {
-                        //value = dn2;       // small intensity value; if too small, calibration will make it nodatavalue
-
-                        // Eq-1 in Section 6 of MPC-0392 DI-MPC-TN Issue 1.1 2017,Nov.28 "Thermal Denoising of Products Generated by the S-1 IPF"
-                        value = trgFloorValue;
-                    }
-                    tgtData.setElemDoubleAt(tgtIdx, value);
+                    tgtData.setElemDoubleAt(tgtIdx, removeNoise(dn2, lut[xx], srcNoDataValue));
                 }
             }
         } catch (Throwable e) {
@@ -718,61 +667,23 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         final int y0 = targetTileRectangle.y;
         final int w = targetTileRectangle.width;
         final int h = targetTileRectangle.height;
-        final int sx0 = subsetOffsetX + x0; // tile start x coordinate in original image
-        final int sy0 = subsetOffsetY + y0; // tile start y coordinate in original image
         //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h + ", target band = " + targetBandName);
 
         try {
             final String targetBandName = targetNoiseBandNameToImageBandName.get(targetNoiseBandName);
-            double[][] noiseBlock = null;
-            if (version >= 2.9 && !isSM) {
-                noiseBlock = populateNoiseAzimuthBlock(sx0, sy0, w, h, targetBandName);
-            }
 
             final ProductData tgtData = targetTile.getDataBuffer();
             final TileIndex tgtIndex = new TileIndex(targetTile);
             final int maxY = y0 + h;
             final int maxX = x0 + w;
 
-            Sentinel1Calibrator.CalibrationInfo calInfo = null;
-            Sentinel1Calibrator.CALTYPE calType = null;
-            if (absoluteCalibrationPerformed) {
-                calInfo = getCalInfo(targetBandName);
-                calType = Sentinel1Calibrator.getCalibrationType(targetBandName);
-            }
+            final TileNoiseLUT tileLUT = getTileNoiseLUT(targetBandName, targetTileRectangle);
+            final double[] lut = new double[w];
 
             int tgtIdx;
             for (int y = y0; y < maxY; ++y) {
                 tgtIndex.calculateStride(y);
-                final int sy = y + subsetOffsetY;
-
-                double[] lut = new double[w];
-                if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    }
-
-                } else {
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileNoiseLUT(sy, sx0, w, noiseInfo, lut);
-                    } else {
-                        computeTileNoiseLUT(sy - sy0, sx0, w, noiseBlock, lut);
-                    }
-                }
+                tileLUT.getLine(y + subsetOffsetY, lut);
 
                 for (int x = x0; x < maxX; ++x) {
                     final int xx = x - x0;
@@ -832,193 +743,134 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
     }
 
     /**
-     * Compute scaled noise LUTs for the given range line.
+     * Subtract the noise from an intensity value.
      *
-     * @param y         Index of the given range line.
-     * @param x0        X coordinate of the upper left corner pixel of the given tile.
-     * @param w         Tile width.
-     * @param noiseInfo Object of ThermalNoiseInfo class.
-     * @param calInfo   Object of CalibrationInfo class.
-     * @param lut       The scaled noise LUT.
+     * @param dn2         The intensity value.
+     * @param noise       The noise at the pixel.
+     * @param noDataValue The no-data value of the source band.
+     * @return The de-noised intensity, floored at trgFloorValue.
      */
-    private void computeTileScaledNoiseLUT(final int y, final int x0, final int w,
-                                           final ThermalNoiseInfo noiseInfo,
-                                           final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                           final double azT0, final double azT1,
-                                           final float[] vec0LUT, final float[] vec1LUT,
-                                           final int[] vec0Pixels, final int pixelIdx0,
-                                           final double[] lut) {
-
-        final double[] noiseLut = new double[w];
-        computeTileNoiseLUT(y, x0, w, noiseInfo, noiseLut);
-
-        final double[] calLut = new double[w];
-        computeTileCalibrationLUTs(y, x0, w, calInfo, azT0, azT1, vec0LUT, vec1LUT, vec0Pixels, pixelIdx0, calLut);
-
-        if (removeThermalNoise) {
-            for (int i = 0; i < w; i++) {
-                lut[i] = noiseLut[i] / (calLut[i]*calLut[i]);
-            }
-        } else { // reIntroduceThermalNoise
-            for (int i = 0; i < w; i++) {
-                lut[i] = -noiseLut[i] / (calLut[i]*calLut[i]);
-            }
+    static double removeNoise(final double dn2, final double noise, final double noDataValue) {
+
+        if (dn2 == noDataValue) {
+            return noDataValue;
         }
-    }
 
-    private void computeTileScaledNoiseLUT(final int y, final int x0, final int y0, final int w,
-                                           final double[][] noiseBlock,
-                                           final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                           final double azT0, final double azT1,
-                                           final float[] vec0LUT, final float[] vec1LUT,
-                                           final int[] vec0Pixels, final int pixelIdx0,
-                                           final double[] lut) {
-
-        final double[] calLut = new double[w];
-        computeTileCalibrationLUTs(y, x0, w, calInfo, azT0, azT1,
-                vec0LUT, vec1LUT, vec0Pixels, pixelIdx0, calLut);
-
-        final int yy = y - y0;
-        if (removeThermalNoise) {
-            for (int i = 0; i < w; i++) {
-                lut[i] = noiseBlock[yy][i] / (calLut[i]*calLut[i]);
-            }
-        } else { // reIntroduceThermalNoise
-            for (int i = 0; i < w; i++) {
-                lut[i] = -noiseBlock[yy][i] / (calLut[i]*calLut[i]);
-            }
+        double value = dn2 - noise;
+        if (value < 0) {
+            //value = dn2;       // small intensity value; if too small, calibration will make it nodatavalue
+
+            // Eq-1 in Section 6 of MPC-0392 DI-MPC-TN Issue 1.1 2017,Nov.28 "Thermal Denoising of Products Generated by the S-1 IPF"
+            value = trgFloorValue;
         }
+        return value;
     }
 
     /**
-     * Compute calibration LUTs for the given range line.
+     * Get the source band names of a target image band.
      *
-     * @param y       Index of the given range line.
-     * @param x0      X coordinate of the upper left corner pixel of the given tile.
-     * @param w       Tile width.
-     * @param calInfo Object of CalibrationInfo class.
-     * @param lut     LUT for calibration.
+     * @param targetBandName Target band name.
+     * @return The source band names, or null if the band is not a target image band.
      */
-    private static void computeTileCalibrationLUTs(final int y, final int x0, final int w,
-                                                  final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                                  final double azT0, final double azT1,
-                                                  final float[] vec0LUT, final float[] vec1LUT,
-                                                  final int[] vec0Pixels, int pixelIdx0,
-                                                  final double[] lut) {
-        final double azTime = calInfo.firstLineTime + y * calInfo.lineTimeInterval;
-        double muX, muY = (azTime - azT0) / (azT1 - azT0);
-
-        int pixelIdx = pixelIdx0;
-        final int maxX = x0 + w;
-        for (int x = x0; x < maxX; x++) {
-            if (x > vec0Pixels[pixelIdx + 1]) {
-                pixelIdx++;
-            }
-
-            muX = (double) (x - vec0Pixels[pixelIdx]) / (double) (vec0Pixels[pixelIdx + 1] - vec0Pixels[pixelIdx]);
-            lut[x - x0] = Maths.interpolationBiLinear(
-                    vec0LUT[pixelIdx], vec0LUT[pixelIdx + 1], vec1LUT[pixelIdx], vec1LUT[pixelIdx + 1], muX, muY);
-        }
+    String[] getSourceBandNames(final String targetBandName) {
+        return targetBandNameToSourceBandName.get(targetBandName);
     }
 
     /**
-     * Compute noise LUTs for the given range line.
+     * Get the noise LUT of the lines of a target tile.
      *
-     * @param y         Index of the given range line.
-     * @param x0        X coordinate of the upper left corner pixel of the given tile.
-     * @param w         Tile width.
-     * @param noiseInfo Object of ThermalNoiseInfo class.
-     * @param lut       The noise LUT.
+     * @param targetBandName  Target image band name.
+     * @param targetRectangle The target tile rectangle.
+     * @return The noise LUT of the tile.
      */
-    private static void computeTileNoiseLUT(final int y, final int x0, final int w,
-                                            final ThermalNoiseInfo noiseInfo, final double[] lut) {
-        try {
-            final double azTime = noiseInfo.firstLineTime + y * noiseInfo.lineTimeInterval;
-            final int noiseVecIdx = getNoiseVectorIndex(azTime, noiseInfo);
-            final Sentinel1Utils.NoiseVector noiseVector0 = noiseInfo.noiseVectorList[noiseVecIdx];
-            final Sentinel1Utils.NoiseVector noiseVector1 = noiseInfo.noiseVectorList[noiseVecIdx + 1];
+    TileNoiseLUT getTileNoiseLUT(final String targetBandName, final Rectangle targetRectangle) {
 
-            final double azT0 = noiseVector0.timeMJD;
-            final double azT1 = noiseVector1.timeMJD;
-            final double muY = (azTime - azT0) / (azT1 - azT0);
+        final int w = targetRectangle.width;
+        final int h = targetRectangle.height;
+        final int sx0 = subsetOffsetX + targetRectangle.x; // tile start x coordinate in original image
+        final int sy0 = subsetOffsetY + targetRectangle.y; // tile start y coordinate in original image
 
-            int pixelIdx0 = getPixelIndex(x0, noiseVector0);
-            int pixelIdx1 = getPixelIndex(x0, noiseVector1);
-
-            final int maxLength0 = noiseVector0.pixels.length - 2;
-            final int maxLength1 = noiseVector1.pixels.length - 2;
-            final int maxX = x0 + w;
-            for (int x = x0; x < maxX; x++) {
-
-                if (x > noiseVector0.pixels[pixelIdx0 + 1] && pixelIdx0 < maxLength0) {
-                    pixelIdx0++;
-                }
-                final int x00 = noiseVector0.pixels[pixelIdx0];
-                final int x01 = noiseVector0.pixels[pixelIdx0 + 1];
-                final double muX0 = (double) (x - x00) / (double) (x01 - x00);
-                final double noise0 = Maths.interpolationLinear(
-                        noiseVector0.noiseLUT[pixelIdx0], noiseVector0.noiseLUT[pixelIdx0 + 1], muX0);
-
-                if (x > noiseVector1.pixels[pixelIdx1 + 1] && pixelIdx1 < maxLength1) {
-                    pixelIdx1++;
-                }
-                final int x10 = noiseVector1.pixels[pixelIdx1];
-                final int x11 = noiseVector1.pixels[pixelIdx1 + 1];
-                final double muX1 = (double) (x - x10) / (double) (x11 - x10);
-                final double noise1 = Maths.interpolationLinear(
-                        noiseVector1.noiseLUT[pixelIdx1], noiseVector1.noiseLUT[pixelIdx1 + 1], muX1);
-
-                lut[x - x0] = Maths.interpolationLinear(noise0, noise1, muY);
-            }
-        } catch (Throwable e) {
-            OperatorUtils.catchOperatorException("computeTileNoiseLUT", e);
-        }
-    }
-
-    private static void computeTileNoiseLUT(final int yy, final int x0, final int w,
-                                            final double[][] noiseBlock, final double[] lut) {
-        try {
-            final int maxX = x0 + w;
-            for (int x = x0; x < maxX; x++) {
-                final int xx = x - x0;
-                lut[xx] = noiseBlock[yy][xx];
-            }
-        } catch (Throwable e) {
-            OperatorUtils.catchOperatorException("computeTileNoiseLUT", e);
+        double[][] noiseBlock = null;
+        if (version >= 2.9 && !isSM) {
+            noiseBlock = populateNoiseAzimuthBlock(sx0, sy0, w, h, targetBandName);
         }
+        return new TileNoiseLUT(targetBandName, noiseBlock, sx0, sy0, w);
     }
 
     /**
-     * Get index of the noise vector in the list for a given line.
-     *
-     * @param azTime    Azimuth time.
-     * @param noiseInfo Object of ThermalNoiseInfo class.
-     * @return The noise vector index.
+     * Noise LUT of the lines of a tile, scaled by the calibration LUT if the product has been calibrated.
      */
-    private static int getNoiseVectorIndex(final double azTime, final ThermalNoiseInfo noiseInfo) {
-        for (int i = 1; i < noiseInfo.count; i++) {
-            if (azTime < noiseInfo.noiseVectorList[i].timeMJD) {
-                return i - 1;
+    final class TileNoiseLUT {
+        private final int sy0;
+        private final double[][] noiseBlock;
+        private final ThermalNoiseInfo noiseInfo;
+        private final Sentinel1LUT noiseLUT;
+        private final Sentinel1LUT.ColumnWeights noiseColumns;
+        private final Sentinel1Calibrator.CalibrationInfo calInfo;
+        private final Sentinel1LUT calLUT;
+        private final Sentinel1LUT.ColumnWeights calColumns;
+        private final double[] calLine;
+
+        /**
+         * @param targetBandName Target band name.
+         * @param noiseBlock     Noise of the tile for IPF 2.9 and later TOPS products, null otherwise.
+         * @param sx0            X coordinate of the upper left corner pixel of the tile in the original image.
+         * @param sy0            Y coordinate of the upper left corner pixel of the tile in the original image.
+         * @param w              Tile width.
+         */
+        TileNoiseLUT(final String targetBandName, final double[][] noiseBlock,
+                     final int sx0, final int sy0, final int w) {
+            this.sy0 = sy0;
+            this.noiseBlock = noiseBlock;
+
+            if (version < 2.9 || isSM) {
+                noiseInfo = getNoiseInfo(targetBandName);
+                noiseLUT = noiseInfo.getNoiseLUT();
+                noiseColumns = noiseLUT.getColumnWeights(sx0, w);
+            } else {
+                noiseInfo = null;
+                noiseLUT = null;
+                noiseColumns = null;
+            }
+
+            if (absoluteCalibrationPerformed) {
+                calInfo = getCalInfo(targetBandName);
+                calLUT = calInfo.getLUT(Sentinel1Calibrator.getCalibrationType(targetBandName));
+                calColumns = calLUT.getColumnWeights(sx0, w);
+                calLine = new double[w];
+            } else {
+                calInfo = null;
+                calLUT = null;
+                calColumns = null;
+                calLine = null;
             }
         }
-        return noiseInfo.count - 2;
-    }
 
-    /**
-     * Get pixel index in a given noise vector for a given pixel.
-     *
-     * @param x           Pixel coordinate.
-     * @param noiseVector Noise vector.
-     * @return The pixel index.
-     */
-    private static int getPixelIndex(final int x, final Sentinel1Utils.NoiseVector noiseVector) {
+        /**
+         * Compute the LUT for the given range line.
+         *
+         * @param y   Index of the range line in the original image, including the subset offset.
+         * @param lut The noise LUT of the tile width.
+         */
+        void getLine(final int y, final double[] lut) {
+
+            if (noiseLUT != null) {
+                final double azTime = noiseInfo.firstLineTime + y * noiseInfo.lineTimeInterval;
+                noiseLUT.getLine(noiseColumns, y, azTime, lut);
+            } else {
+                System.arraycopy(noiseBlock[y - sy0], 0, lut, 0, lut.length);
+            }
 
-        for (int i = 0; i < noiseVector.pixels.length; i++) {
-            if (x < noiseVector.pixels[i]) {
-                return i - 1;
+            if (calLUT != null) {
+                final double azTime = calInfo.firstLineTime + y * calInfo.lineTimeInterval;
+                calLUT.getLine(calColumns, y, azTime, calLine);
+
+                final double sign = removeThermalNoise ? 1.0 : -1.0; // otherwise reIntroduceThermalNoise
+                for (int i = 0; i < lut.length; i++) {
+                    lut[i] = sign * lut[i] / (calLine[i] * calLine[i]);
+                }
             }
         }
-        return noiseVector.pixels.length - 2;
     }
 
     private void getIPFVersion() {
@@ -1646,6 +1498,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         public Sentinel1Utils.NoiseVector[] noiseVectorList;
 
         final double lineTimeInterval;
+        private Sentinel1LUT noiseLUT = null;
 
         ThermalNoiseInfo(final String pol, final String subSwath, final double firstLineTime, final double lastLineTime,
                          final int numOfLines, final int count, final Sentinel1Utils.NoiseVector[] noiseVectorList) {
@@ -1659,6 +1512,24 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
             lineTimeInterval = (lastLineTime - firstLineTime) / (numOfLines - 1);
         }
+
+        /**
+         * Get the LUT grid of the noise vectors, built on first use and shared by all tiles.
+         */
+        public synchronized Sentinel1LUT getNoiseLUT() {
+            if (noiseLUT == null) {
+                final int[][] pixels = new int[count][];
+                final float[][] values = new float[count][];
+                final double[] times = new double[count];
+                for (int i = 0; i < count; i++) {
+                    pixels[i] = noiseVectorList[i].pixels;
+                    values[i] = noiseVectorList[i].noiseLUT;
+                    times[i] = noiseVectorList[i].timeMJD;
+                }
+                noiseLUT = new Sentinel1LUT(pixels, values, times, null, count);
+            }
+            return noiseLUT;
+        }
     }
     
     /**
@@ -909,8 +909,8 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
         final int maxY = y0 + h;
         final int maxX = x0 + w;
 
-        final double[] incidenceAnglesArray = new double[w];
-        final double[] slantRangeTimeArray = new double[w];
+        final float[] incidenceAngles = inputSigma0 ? null :
+                incidenceTPGInterp.getPixels(x0, y0, w, h, (float[]) null, TiePointInterpolator.InterpMode.QUADRATIC);
 
         double[][] targetTileOldAntPat = null; // old antenna pattern gains for row pixels in a tile, in linear scale
         double[][] targetTileNewAntPat = null; // new antenna pattern gains for row pixels in a tile, in linear scale
@@ -940,11 +940,7 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
             srcIndex.calculateStride(y);
             tgtIndex.calculateStride(y);
 
-            incidenceTPGInterp.getPixels(x0, y, w, 1, incidenceAnglesArray, pm, TiePointInterpolator.InterpMode.QUADRATIC);
-
-            if (applyRangeSpreadingCorr) {
-                slantRangeTPGInterp.getPixels(x0, y, w, 1, slantRangeTimeArray, pm, TiePointInterpolator.InterpMode.QUADRATIC);
-            }
+            final int lineOffset = yy * w;
 
             for (int x = x0, xx = 0; x < maxX; ++x, ++xx) {
                 srcIdx = srcIndex.getIndex(x);
@@ -984,7 +980,7 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
                     }
 
                     // apply calibration constant and incidence angle corrections
-                    calFactor *= FastMath.sin(incidenceAnglesArray[xx] * Constants.DTOR) / theCalibrationFactor;
+                    calFactor *= FastMath.sin(incidenceAngles[lineOffset + xx] * Constants.DTOR) / theCalibrationFactor;
 
                     if (applyRangeSpreadingCorr && targetTileSlantRange != null) { // apply range spreading loss compensation
                         calFactor *= FastMath.pow(targetTileSlantRange[yy][xx] / refSlantRange800km, rangeSpreadingCompPower);
@@ -1031,6 +1027,8 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
                                                                 final int band,
                                                                 final TiePointInterpolator slantRangeTPGInterp) {
 
+        final double[] slantRangeTimes = getTileSlantRangeTimes(x0, y0, w, h, slantRangeTPGInterp);
+
         final int yMax = y0 + h;
         for (int y = y0; y < yMax; y++) {
 
@@ -1047,7 +1045,9 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
             for (int x = x0; x < xMax; x++) {
 
                 final int xx = x - x0;
-                targetTileSlantRange[yy][xx] = computeSlantRange(x, y, srgrConvParam, slantRangeTPGInterp); // in m
+                targetTileSlantRange[yy][xx] = srgrFlag ?
+                        computeSlantRange(x, y, srgrConvParam, slantRangeTPGInterp) :
+                        slantRangeTimes[yy * w + xx] / Constants.oneBillion * Constants.halfLightSpeed; // in m
 
                 final double localEarthRadius = getEarthRadius(x, y);
 
@@ -1084,6 +1084,8 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
                                                               final double[][] targetTileSlantRange,
                                                               final TiePointInterpolator slantRangeTPGInterp) {
 
+        final double[] slantRangeTimes = getTileSlantRangeTimes(x0, y0, w, h, slantRangeTPGInterp);
+
         final int yMax = y0 + h;
         for (int y = y0; y < yMax; y++) {
 
@@ -1100,7 +1102,9 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
             for (int x = x0; x < xMax; x++) {
 
                 final int xx = x - x0;
-                targetTileSlantRange[yy][xx] = computeSlantRange(x, y, srgrConvParam, slantRangeTPGInterp); // in m
+                targetTileSlantRange[yy][xx] = srgrFlag ?
+                        computeSlantRange(x, y, srgrConvParam, slantRangeTPGInterp) :
+                        slantRangeTimes[yy * w + xx] / Constants.oneBillion * Constants.halfLightSpeed; // in m
 
                 final double localEarthRadius = getEarthRadius(x, y);
 
@@ -1232,6 +1236,20 @@ public class ASARCalibrator extends BaseCalibrator implements Calibrator {
         return srgrConvParam;
     }
 
+    /**
+     * Interpolate the slant range times (in ns) of a tile for slant range products.
+     *
+     * @return The slant range times, or null for ground detected products.
+     */
+    private double[] getTileSlantRangeTimes(final int x0, final int y0, final int w, final int h,
+                                            final TiePointInterpolator slantRangeTPGInterp) {
+        if (srgrFlag) {
+            return null;
+        }
+        return slantRangeTPGInterp.getPixels(x0, y0, w, h, (double[]) null, ProgressMonitor.NULL,
+                TiePointInterpolator.InterpMode.QUADRATIC);
+    }
+
     /**
      * Compute slant range for given pixel.
      *
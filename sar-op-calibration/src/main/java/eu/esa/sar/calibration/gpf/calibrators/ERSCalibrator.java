@@ -19,6 +19,7 @@ import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.calibration.gpf.support.BaseCalibrator;
 import eu.esa.sar.calibration.gpf.support.Calibrator;
+import eu.esa.sar.calibration.gpf.support.TiePointInterpolator;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataAttribute;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -2278,16 +2279,24 @@ public final class ERSCalibrator extends BaseCalibrator implements Calibrator {
         lookAngles = new double[sourceImageWidth];
         rangeSpreadingLoss = new double[sourceImageWidth];
 
-        final TiePointGrid incidenceAngleTiePointGrid = OperatorUtils.getIncidenceAngle(sourceProduct);
-        final TiePointGrid slantRangeTimeTiePointGrid = OperatorUtils.getSlantRangeTime(sourceProduct);
+        final TiePointInterpolator incidenceAngleInterp =
+                new TiePointInterpolator(OperatorUtils.getIncidenceAngle(sourceProduct));
+        final TiePointInterpolator slantRangeTimeInterp =
+                new TiePointInterpolator(OperatorUtils.getSlantRangeTime(sourceProduct));
 
         final double rSat = getSatelliteToEarthCenterDistanceForENVISAT();
 
+        // tie point grids sampled at the pixel centres of the middle range line
         final int y = sourceImageHeight / 2;
+        final double[] incidenceAngleLine = incidenceAngleInterp.getPixels(0, y, sourceImageWidth, 1,
+                (double[]) null, ProgressMonitor.NULL, TiePointInterpolator.InterpMode.BILINEAR);
+        final double[] slantRangeTimeLine = slantRangeTimeInterp.getPixels(0, y, sourceImageWidth, 1,
+                (double[]) null, ProgressMonitor.NULL, TiePointInterpolator.InterpMode.BILINEAR);
+
         for (int x = 0; x < sourceImageWidth; x++) {
 
-            final double alpha = incidenceAngleTiePointGrid.getPixelDouble(x + 0.5, y + 0.5) * Constants.DTOR; // in radian
-            final double time = slantRangeTimeTiePointGrid.getPixelDouble(x + 0.5, y + 0.5) / Constants.oneBillion; //convert ns to s
+            final double alpha = incidenceAngleLine[x] * Constants.DTOR; // in radian
+            final double time = slantRangeTimeLine[x] / Constants.oneBillion; //convert ns to s
             final double r = time * Constants.halfLightSpeed; // in m
             final double theta = alpha - FastMath.asin(FastMath.sin(alpha) * r / rSat); // in radian
 
@@ -19,6 +19,7 @@ import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.calibration.gpf.support.BaseCalibrator;
 import eu.esa.sar.calibration.gpf.support.Calibrator;
+import eu.esa.sar.calibration.gpf.support.TiePointInterpolator;
 import eu.esa.sar.commons.product.Missions;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
@@ -44,6 +45,7 @@ public class IceyeCalibrator extends BaseCalibrator implements Calibrator {
     private boolean inputSigma0 = false;
     private double calibrationFactor;
     private TiePointGrid incidenceAngle = null;
+    private TiePointInterpolator incidenceAngleInterp = null;
 
     private static final String USE_INCIDENCE_ANGLE_FROM_DEM = "Use projected local incidence angle from DEM";
     private static final String CALIBRATION_FACTOR = "calibration_factor";
@@ -130,6 +132,7 @@ public class IceyeCalibrator extends BaseCalibrator implements Calibrator {
         if (incidenceAngle == null) {
             throw new OperatorException("Incidence angle tie point grid is not available");
         }
+        incidenceAngleInterp = new TiePointInterpolator(incidenceAngle);
     }
 
     /**
@@ -191,14 +194,18 @@ public class IceyeCalibrator extends BaseCalibrator implements Calibrator {
         final TileIndex srcIndex = new TileIndex(sourceRaster1);
         final TileIndex tgtIndex = new TileIndex(targetTile);
 
+        // incidence angles of the tile, at the integer pixel co-ordinates as incidenceAngle.getPixelDouble(x, y)
+        final float[] incidenceAngles = inputSigma0 ? null : incidenceAngleInterp.getPixels(
+                x0, y0, w, h, (float[]) null, TiePointInterpolator.InterpMode.BILINEAR, 0.0);
+
         double sigma, dn, i, q, phaseTerm = 0.0;
         int srcIdx, tgtIdx;
 
-        for (int y = y0; y < maxY; ++y) {
+        for (int y = y0, k = 0; y < maxY; ++y) {
             srcIndex.calculateStride(y);
             tgtIndex.calculateStride(y);
 
-            for (int x = x0; x < maxX; ++x) {
+            for (int x = x0; x < maxX; ++x, ++k) {
                 srcIdx = srcIndex.getIndex(x);
                 tgtIdx = tgtIndex.getIndex(x);
 
@@ -230,7 +237,7 @@ public class IceyeCalibrator extends BaseCalibrator implements Calibrator {
                     sigma = dn;
                 } else {
                     //K * DN2, calibrated_dB=10*log10(calibrated), DN2=square(S_I)+square(S_Q)
-                    sigma = calibrationFactor * dn * Math.sin(incidenceAngle.getPixelDouble(x, y) * Constants.DTOR);
+                    sigma = calibrationFactor * dn * Math.sin(incidenceAngles[k] * Constants.DTOR);
 
                     if (isComplex && outputImageInComplex) {
                         sigma = Math.sqrt(sigma)*phaseTerm;
@@ -20,6 +20,7 @@ import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.calibration.gpf.Sentinel1RemoveThermalNoiseOp;
 import eu.esa.sar.calibration.gpf.support.BaseCalibrator;
 import eu.esa.sar.calibration.gpf.support.Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUT;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -41,9 +42,10 @@ import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Calibration for Sentinel1 data products.
@@ -524,6 +526,13 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         return targetBandNames;
     }
 
+    /**
+     * Get the calibration information of a target band.
+     */
+    public CalibrationInfo getCalibrationInfo(final String targetBandName) {
+        return targetBandToCalInfo.get(targetBandName);
+    }
+
     /**
      * Called by the framework in order to compute a tile for the given target band.
      * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
@@ -584,9 +593,20 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
             }
             final CALTYPE calType = getCalibrationType(targetBandName);
 
-            double dn = 0.0, i, q, muX, lutVal, retroLutVal = 1.0, calValue, calibrationFactor, phaseTerm = 0.0;
+            final Sentinel1LUT lut = calInfo.getLUT(calType);
+            final Sentinel1LUT.ColumnWeights columns = lut.getColumnWeights(subsetOffsetX + x0, w);
+            final double[] lutLine = new double[w];
+            Sentinel1LUT retroLut = null;
+            Sentinel1LUT.ColumnWeights retroColumns = null;
+            double[] retroLutLine = null;
+            if (dataType != null && isUnitIntensity) {
+                retroLut = calInfo.getLUT(dataType);
+                retroColumns = retroLut.getColumnWeights(subsetOffsetX + x0, w);
+                retroLutLine = new double[w];
+            }
+
+            double dn = 0.0, i, q, lutVal, retroLutVal = 1.0, calValue, calibrationFactor, phaseTerm = 0.0;
             int srcIdx;
-            int pixelIdx = -1;
 
             float trgFloorValue = Sentinel1RemoveThermalNoiseOp.trgFloorValue;
 
@@ -594,42 +614,25 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
                 srcIndex.calculateStride(y);
                 trgIndex.calculateStride(y);
 
-                final int calVecIdx = calInfo.getCalibrationVectorIndex(subsetOffsetY + y);
-                final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                final float[] vec0LUT = getVector(calType, vec0);
-                final float[] vec1LUT = getVector(calType, vec1);
-                float[] retroVec0LUT = null;
-                float[] retroVec1LUT = null;
-                if (dataType != null) {
-                    retroVec0LUT = getVector(dataType, vec0);
-                    retroVec1LUT = getVector(dataType, vec1);
-                }
                 final double azTime = calInfo.firstLineTime + (subsetOffsetY + y) * calInfo.lineTimeInterval;
-                final double muY = (azTime - vec0.timeMJD) / (vec1.timeMJD - vec0.timeMJD);
-                final int[] vec0Pixels = vec0.pixels;
-                final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
+                lut.getLine(columns, subsetOffsetY + y, azTime, lutLine);
+                if (retroLut != null) {
+                    retroLut.getLine(retroColumns, subsetOffsetY + y, azTime, retroLutLine);
+                }
 
                 for (int x = x0; x < maxX; ++x) {
                     srcIdx = srcIndex.getIndex(x);
 
                     dn = srcData1.getElemDoubleAt(srcIdx);
 
-                    pixelIdx = getPixelIndex(calVec, pixelIdx, subsetOffsetX + x);
-                    muX = (subsetOffsetX + x - vec0Pixels[pixelIdx]) /
-                            (double)(vec0Pixels[pixelIdx + 1] - vec0Pixels[pixelIdx]);
-
-                    lutVal = (1 - muY) * ((1 - muX) * vec0LUT[pixelIdx] + muX * vec0LUT[pixelIdx + 1]) +
-                            muY * ((1 - muX) * vec1LUT[pixelIdx] + muX * vec1LUT[pixelIdx + 1]);
-
+                    lutVal = lutLine[x - x0];
                     calibrationFactor = 1.0 / (lutVal*lutVal);
 
                     if (isUnitAmplitude) {
                         dn *= dn;
                     } else if (isUnitIntensity) {
-                        if (dataType != null) {
-                            retroLutVal = (1 - muY) * ((1 - muX) * retroVec0LUT[pixelIdx] + muX * retroVec0LUT[pixelIdx + 1]) +
-                                    muY * ((1 - muX) * retroVec1LUT[pixelIdx] + muX * retroVec1LUT[pixelIdx + 1]);
+                        if (retroLutLine != null) {
+                            retroLutVal = retroLutLine[x - x0];
                         }
                         calibrationFactor *= retroLutVal;
                     } else if (isUnitReal) {
@@ -675,21 +678,6 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         }
     }
 
-    private static int getPixelIndex(final Sentinel1Utils.CalibrationVector calVec, final int lastIndex, final int x) {
-        if(lastIndex >= 0 && lastIndex < calVec.pixels.length-1 && x >= calVec.pixels[lastIndex] && x < calVec.pixels[lastIndex+1]) {
-            return lastIndex;
-        }
-        int index = Arrays.binarySearch(calVec.pixels, x);
-        if(index < 0) {
-            index *= -1;
-            index -= 2;
-        }
-        if(index >= calVec.pixels.length-1)
-            index--;
-
-        return index;
-    }
-
     public static CALTYPE getCalibrationType(final String bandName) {
         CALTYPE calType;
         if (bandName.contains("Beta")) {
@@ -725,22 +713,9 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
             final String bandName, final String bandPolar, final Unit.UnitType bandUnit, int[] subSwathIndex) {
 
         final CalibrationInfo calInfo = targetBandToCalInfo.get(bandName);
-        final int calVecIdx = calInfo.getCalibrationVectorIndex((int)azimuthIndex);
-        final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-        final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-        final CALTYPE calType = getCalibrationType(bandName);
-        final float[] vec0LUT = getVector(calType, vec0);
-        final float[] vec1LUT = getVector(calType, vec1);
-        final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-        final int pixelIdx = calVec.getPixelIndex((int)rangeIndex);
         final double azTime = calInfo.firstLineTime + azimuthIndex * calInfo.lineTimeInterval;
-        final double muY = (azTime - vec0.timeMJD) / (vec1.timeMJD - vec0.timeMJD);
-        final double muX =
-                (rangeIndex - vec0.pixels[pixelIdx]) / (double)(vec0.pixels[pixelIdx + 1] - vec0.pixels[pixelIdx]);
-
-        final double lutVal =
-                (1 - muY) * ((1 - muX) * vec0LUT[pixelIdx] + muX * vec0LUT[pixelIdx + 1]) +
-                        muY * ((1 - muX) * vec1LUT[pixelIdx] + muX * vec1LUT[pixelIdx + 1]);
+        final Sentinel1LUT lut = calInfo.getLUT(getCalibrationType(bandName));
+        final double lutVal = lut.getValue(rangeIndex, (int)azimuthIndex, azTime);
 
         double sigma = 0.0;
         if (bandUnit == Unit.UnitType.AMPLITUDE) {
@@ -782,6 +757,7 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         public final int count; // number of calibrationVector records within the list
         public final Sentinel1Utils.CalibrationVector[] calibrationVectorList;
         public final double lineTimeInterval;
+        private final Map<CALTYPE, Sentinel1LUT> lutMap = new EnumMap<>(CALTYPE.class);
 
         CalibrationInfo(String subSwath, String polarization, final double firstLineTime, final double lastLineTime,
                         final int numOfLines, final int count,
@@ -809,5 +785,28 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         public Sentinel1Utils.CalibrationVector getCalibrationVector(final int calVecIdx) {
             return calibrationVectorList[calVecIdx];
         }
+
+        /**
+         * Get the LUT grid of a calibration type, built on first use and shared by all tiles.
+         */
+        public synchronized Sentinel1LUT getLUT(final CALTYPE calType) {
+            Sentinel1LUT lut = lutMap.get(calType);
+            if (lut == null) {
+                final int[][] pixels = new int[count][];
+                final float[][] values = new float[count][];
+                final double[] times = new double[count];
+                final int[] lines = new int[count];
+                for (int i = 0; i < count; i++) {
+                    final Sentinel1Utils.CalibrationVector vec = calibrationVectorList[i];
+                    pixels[i] = vec.pixels;
+                    values[i] = getVector(calType, vec);
+                    times[i] = vec.timeMJD;
+                    lines[i] = vec.line;
+                }
+                lut = new Sentinel1LUT(pixels, values, times, lines, count);
+                lutMap.put(calType, lut);
+            }
+            return lut;
+        }
     }
 }
@@ -77,6 +77,13 @@ public class BaseCalibrator {
         incidenceAngleSelection = incidenceAngleForSigma0;
     }
 
+    /**
+     * Get the names of the source bands a target band is computed from.
+     */
+    public String[] getSourceBandNames(final String targetBandName) {
+        return targetBandNameToSourceBandName.get(targetBandName);
+    }
+
     /**
      * Get calibration flag from abstract metadata.
      */
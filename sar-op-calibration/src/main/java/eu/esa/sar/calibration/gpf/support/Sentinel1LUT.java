@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.support;
+
+import java.util.Arrays;
+
+/**
+ * Sentinel-1 calibration or noise LUT of one swath and polarisation evaluated once onto a grid.
+ * <p>
+ * The grid columns are the range samples of all vectors and the grid rows are the vectors. Each vector is
+ * evaluated at every column by linear interpolation, so interpolating the grid bilinearly gives exactly the
+ * values of interpolating the vectors themselves, without searching the vectors for every pixel and line.
+ * The grid is immutable and can be shared by all tiles.
+ */
+public final class Sentinel1LUT {
+
+    private final int[] pixels;     // range sample of every grid column in ascending order
+    private final int[] lines;      // azimuth line of every grid row, or null to find rows by time
+    private final double[] times;   // azimuth time (MJD) of every grid row
+    private final float[] values;   // grid values, one row of pixels.length values per vector
+
+    /**
+     * @param vectorPixels range samples of every vector in ascending order
+     * @param vectorValues LUT values of every vector at its range samples
+     * @param times        azimuth time (MJD) of every vector in ascending order
+     * @param lines        azimuth line of every vector, or null to find the vectors of a line by its time
+     * @param numVectors   number of vectors to use
+     */
+    public Sentinel1LUT(final int[][] vectorPixels, final float[][] vectorValues, final double[] times,
+                        final int[] lines, final int numVectors) {
+
+        if (numVectors < 2) {
+            throw new IllegalArgumentException("At least two vectors are required");
+        }
+
+        this.pixels = getColumns(vectorPixels, numVectors);
+        this.times = Arrays.copyOf(times, numVectors);
+        this.lines = lines != null ? Arrays.copyOf(lines, numVectors) : null;
+
+        final int numColumns = pixels.length;
+        values = new float[numVectors * numColumns];
+        for (int r = 0; r < numVectors; r++) {
+            final int[] vp = vectorPixels[r];
+            final float[] vv = vectorValues[r];
+            int i = 0;
+            for (int c = 0; c < numColumns; c++) {
+                final int x = pixels[c];
+                while (i < vp.length - 2 && x >= vp[i + 1]) {
+                    i++;
+                }
+                final double mu = (double) (x - vp[i]) / (double) (vp[i + 1] - vp[i]);
+                values[r * numColumns + c] = (float) ((1 - mu) * vv[i] + mu * vv[i + 1]);
+            }
+        }
+    }
+
+    // union of the range samples of all vectors
+    private static int[] getColumns(final int[][] vectorPixels, final int numVectors) {
+
+        int n = 0;
+        for (int r = 0; r < numVectors; r++) {
+            if (vectorPixels[r].length < 2) {
+                throw new IllegalArgumentException("At least two samples per vector are required");
+            }
+            n += vectorPixels[r].length;
+        }
+
+        final int[] all = new int[n];
+        n = 0;
+        for (int r = 0; r < numVectors; r++) {
+            System.arraycopy(vectorPixels[r], 0, all, n, vectorPixels[r].length);
+            n += vectorPixels[r].length;
+        }
+        Arrays.sort(all);
+
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (k == 0 || all[i] != all[k - 1]) {
+                all[k++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, k);
+    }
+
+    /**
+     * Get the grid column and the interpolation weight of every pixel of a range line segment, to be computed
+     * once per tile and used for all its lines.
+     *
+     * @param x0 first range sample in the original image
+     * @param w  number of range samples
+     * @return the column weights
+     */
+    public ColumnWeights getColumnWeights(final int x0, final int w) {
+
+        final ColumnWeights columns = new ColumnWeights(w);
+        int c = getColumnIndex(x0);
+        for (int xx = 0; xx < w; xx++) {
+            final int x = x0 + xx;
+            while (c < pixels.length - 2 && x >= pixels[c + 1]) {
+                c++;
+            }
+            columns.index[xx] = c;
+            columns.mu[xx] = (double) (x - pixels[c]) / (double) (pixels[c + 1] - pixels[c]);
+        }
+        return columns;
+    }
+
+    /**
+     * Interpolate the LUT along a range line segment.
+     *
+     * @param columns the column weights of the segment from {@link #getColumnWeights}
+     * @param line    azimuth line in the original image
+     * @param azTime  azimuth time (MJD) of the line
+     * @param lut     output of the LUT values of the segment
+     */
+    public void getLine(final ColumnWeights columns, final int line, final double azTime, final double[] lut) {
+
+        final int r = getRowIndex(line, azTime);
+        final int numColumns = pixels.length;
+        final int row0 = r * numColumns;
+        final int row1 = row0 + numColumns;
+        final double muY = (azTime - times[r]) / (times[r + 1] - times[r]);
+
+        final int[] index = columns.index;
+        final double[] mu = columns.mu;
+        for (int xx = 0; xx < index.length; xx++) {
+            final int c = index[xx];
+            final double muX = mu[xx];
+            lut[xx] = (1 - muY) * ((1 - muX) * values[row0 + c] + muX * values[row0 + c + 1]) +
+                    muY * ((1 - muX) * values[row1 + c] + muX * values[row1 + c + 1]);
+        }
+    }
+
+    /**
+     * Interpolate the LUT at a single pixel.
+     *
+     * @param x      range sample in the original image
+     * @param line   azimuth line in the original image
+     * @param azTime azimuth time (MJD) of the line
+     * @return the LUT value
+     */
+    public double getValue(final double x, final int line, final double azTime) {
+
+        final int c = getColumnIndex((int) Math.floor(x));
+        final int r = getRowIndex(line, azTime);
+        final int numColumns = pixels.length;
+        final int row0 = r * numColumns;
+        final int row1 = row0 + numColumns;
+        final double muX = (x - pixels[c]) / (double) (pixels[c + 1] - pixels[c]);
+        final double muY = (azTime - times[r]) / (times[r + 1] - times[r]);
+
+        return (1 - muY) * ((1 - muX) * values[row0 + c] + muX * values[row0 + c + 1]) +
+                muY * ((1 - muX) * values[row1 + c] + muX * values[row1 + c + 1]);
+    }
+
+    // grid column whose segment holds x, the first or last segment outside the grid
+    private int getColumnIndex(final int x) {
+        int c = Arrays.binarySearch(pixels, x);
+        if (c < 0) {
+            c = -c - 2;
+        }
+        return Math.max(0, Math.min(c, pixels.length - 2));
+    }
+
+    // grid row whose interval holds the line, the first or last interval outside the grid
+    private int getRowIndex(final int line, final double azTime) {
+        final int numRows = times.length;
+        for (int r = 1; r < numRows - 1; r++) {
+            if (lines != null ? line < lines[r] : azTime < times[r]) {
+                return r - 1;
+            }
+        }
+        return numRows - 2;
+    }
+
+    /**
+     * Grid column and interpolation weight of the pixels of a range line segment.
+     */
+    public static final class ColumnWeights {
+        private final int[] index;
+        private final double[] mu;
+
+        private ColumnWeights(final int w) {
+            index = new int[w];
+            mu = new double[w];
+        }
+    }
+}
@@ -97,7 +97,9 @@ public class TiePointInterpolator {
         final float[] tiePoints = tpg.getTiePoints();
 
         final double[] tiePointArray = new double[n];
-        System.arraycopy(tiePoints, 0, tiePointArray, 0, n);
+        for (int k = 0; k < n; k++) {
+            tiePointArray[k] = tiePoints[k];
+        }
         final Matrix b = new Matrix(tiePointArray, n);
 
         // compute coefficients
@@ -166,25 +168,201 @@ public class TiePointInterpolator {
     public double[] getPixels(int x0, int y0, int w, int h, double[] pixels, ProgressMonitor pm, InterpMode interpMethod) {
 
         pixels = ensureMinLengthArray(pixels, w * h);
-        if (interpMethod == InterpMode.BILINEAR) {
-
+        if (interpMethod == InterpMode.BILINEAR && tpg.getDiscontinuity() != TiePointGrid.DISCONT_NONE) {
             return tpg.getPixels(x0, y0, w, h, pixels, pm);
+        }
 
-        } else if (interpMethod == InterpMode.QUADRATIC || interpMethod == InterpMode.BIQUADRATIC) {
+        final BlockInterpolator block = new BlockInterpolator(x0, w, interpMethod, defaultSampleOffset(interpMethod));
+        final int maxY = y0 + h;
+        for (int y = y0, k = 0; y < maxY; y++, k += w) {
+            block.getLine(y, pixels, k);
+        }
+        return pixels;
+    }
 
-            int k = 0;
-            final int maxY = y0 + h;
-            final int maxX = x0 + w;
-            for (int y = y0; y < maxY; y++) {
-                for (int x = x0; x < maxX; x++) {
-                    pixels[k++] = getPixelDouble(x, y, interpMethod);
+    /**
+     * Retrieves a block of tie point data interpolated to the product pixels as a flat float array. If the given
+     * array is <code>null</code> a new one is created and returned. The samples are the same as those of
+     * {@link #getPixels(int, int, int, int, double[], ProgressMonitor, InterpMode)}.
+     *
+     * @param x0           the x coordinate of the array to be read
+     * @param y0           the y coordinate of the array to be read
+     * @param w            the width of the array to be read
+     * @param h            the height of the array to be read
+     * @param pixels       the float array to be filled with data
+     * @param interpMethod String indicating the interpolation method.
+     * @return Array of interpolated sample values.
+     * @throws IllegalArgumentException if the length of the given array is less than <code>w*h</code>.
+     */
+    public float[] getPixels(int x0, int y0, int w, int h, float[] pixels, InterpMode interpMethod) {
+        return getPixels(x0, y0, w, h, pixels, interpMethod, defaultSampleOffset(interpMethod));
+    }
+
+    /**
+     * Retrieves a block of tie point data as {@link #getPixels(int, int, int, int, float[], InterpMode)}, but sampled
+     * at (x + sampleOffset, y + sampleOffset) for the pixel (x, y) in every mode. An offset of 0 gives the same
+     * samples as {@link #getPixelDouble} and {@link TiePointGrid#getPixelDouble} at the integer pixel co-ordinates.
+     *
+     * @param x0           the x coordinate of the array to be read
+     * @param y0           the y coordinate of the array to be read
+     * @param w            the width of the array to be read
+     * @param h            the height of the array to be read
+     * @param pixels       the float array to be filled with data
+     * @param interpMethod String indicating the interpolation method.
+     * @param sampleOffset offset added to the pixel co-ordinates
+     * @return Array of interpolated sample values.
+     * @throws IllegalArgumentException if the length of the given array is less than <code>w*h</code>.
+     */
+    public float[] getPixels(int x0, int y0, int w, int h, float[] pixels, InterpMode interpMethod,
+                             double sampleOffset) {
+
+        if (pixels == null) {
+            pixels = new float[w * h];
+        } else if (pixels.length < w * h) {
+            throw new IllegalArgumentException("The length of the given array is less than " + w * h);
+        }
+        if (interpMethod == InterpMode.BILINEAR && tpg.getDiscontinuity() != TiePointGrid.DISCONT_NONE) {
+            if (sampleOffset == 0.5) {
+                return tpg.getPixels(x0, y0, w, h, pixels, ProgressMonitor.NULL);
+            }
+            for (int y = y0, k = 0; y < y0 + h; y++) {
+                for (int x = x0; x < x0 + w; x++) {
+                    pixels[k++] = (float) tpg.getPixelDouble(x + sampleOffset, y + sampleOffset);
                 }
             }
             return pixels;
+        }
 
-        } else {
-            throw new IllegalArgumentException("unsupported interpolation method");
+        final BlockInterpolator block = new BlockInterpolator(x0, w, interpMethod, sampleOffset);
+        final double[] line = new double[w];
+        final int maxY = y0 + h;
+        for (int y = y0, k = 0; y < maxY; y++) {
+            block.getLine(y, line, 0);
+            for (int i = 0; i < w; i++) {
+                pixels[k++] = (float) line[i];
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Interpolates the lines of a block of w pixels starting at column x0. The column positions and weights are
+     * derived once per block and the row dependent terms once per line, leaving a few multiply-adds per sample.
+     * The samples are taken at the pixel co-ordinates plus the sample offset.
+     */
+    private final class BlockInterpolator {
+
+        private final int w;
+        private final InterpMode interpMethod;
+        private final double sampleOffset;
+
+        // x co-ordinates for the quadratic modes
+        private double[] xs;
+
+        // tie point column to the left of each pixel relative to colMin, its weight and the row interpolated tie
+        // points of the columns colMin .. colMin + rowValues.length - 1
+        private int[] colIndex;
+        private double[] colWeight;
+        private double[] rowValues;
+        private int colMin;
+
+        BlockInterpolator(final int x0, final int w, final InterpMode interpMethod, final double sampleOffset) {
+            this.w = w;
+            this.interpMethod = interpMethod;
+            this.sampleOffset = sampleOffset;
+
+            if (interpMethod == InterpMode.BILINEAR) {
+
+                final int maxCol = tpg.getGridWidth() - 2;
+                colIndex = new int[w];
+                colWeight = new double[w];
+                for (int i = 0; i < w; i++) {
+                    final double fi = (x0 + i + sampleOffset - tpg.getOffsetX()) / tpg.getSubSamplingX();
+                    final int c = floorAndCrop(fi, maxCol);
+                    colIndex[i] = c;
+                    colWeight[i] = fi - c;
+                }
+                colMin = w > 0 ? colIndex[0] : 0;
+                final int colMax = w > 0 ? colIndex[w - 1] : 0;
+                for (int i = 0; i < w; i++) {
+                    colIndex[i] -= colMin;
+                }
+                rowValues = new double[colMax - colMin + 2];
+
+            } else if (interpMethod == InterpMode.QUADRATIC || interpMethod == InterpMode.BIQUADRATIC) {
+
+                if (interpMethod == InterpMode.QUADRATIC) {
+                    computeQuadraticInterpCoeffs();
+                } else {
+                    computeBiquadraticInterpCoeffs();
+                }
+                xs = new double[w];
+                for (int i = 0; i < w; i++) {
+                    xs[i] = x0 + i + sampleOffset;
+                }
+
+            } else {
+                throw new IllegalArgumentException("unsupported interpolation method");
+            }
         }
+
+        void getLine(final int pixelY, final double[] line, final int offset) {
+
+            final double y = pixelY + sampleOffset;
+
+            if (interpMethod == InterpMode.BILINEAR) {
+
+                final int gridWidth = tpg.getGridWidth();
+                final double fj = (y - tpg.getOffsetY()) / tpg.getSubSamplingY();
+                final int r = floorAndCrop(fj, tpg.getGridHeight() - 2);
+                final double wj = fj - r;
+                final int k0 = r * gridWidth + colMin;
+                for (int c = 0; c < rowValues.length; c++) {
+                    final double t0 = tiePoints[k0 + c];
+                    rowValues[c] = t0 + wj * (tiePoints[k0 + gridWidth + c] - t0);
+                }
+
+                for (int i = 0; i < w; i++) {
+                    final double v0 = rowValues[colIndex[i]];
+                    line[offset + i] = v0 + colWeight[i] * (rowValues[colIndex[i] + 1] - v0);
+                }
+                return;
+            }
+
+            // quadratic polynomial in x for this line
+            final double c0, c1, c2;
+            if (interpMethod == InterpMode.QUADRATIC) {
+                int r = (int) ((y - tpg.getOffsetY()) / tpg.getSubSamplingY());
+                if (r >= quadraticInterpCoeffs.length) {
+                    r = quadraticInterpCoeffs.length - 1;
+                }
+                c0 = quadraticInterpCoeffs[r][0];
+                c1 = quadraticInterpCoeffs[r][1];
+                c2 = quadraticInterpCoeffs[r][2];
+            } else {
+                final double[] a = biquadraticInterpCoeffs;
+                c0 = a[0] + a[2] * y + a[5] * y * y;
+                c1 = a[1] + a[4] * y;
+                c2 = a[3];
+            }
+
+            for (int i = 0; i < w; i++) {
+                final double x = xs[i];
+                line[offset + i] = c0 + x * (c1 + x * c2);
+            }
+        }
+    }
+
+    /**
+     * Bilinear samples are taken at the pixel centres as in {@link TiePointGrid#getPixels}, the quadratic modes at
+     * the integer pixel co-ordinates as in {@link #getPixelDouble}.
+     */
+    private static double defaultSampleOffset(final InterpMode interpMethod) {
+        return interpMethod == InterpMode.BILINEAR ? 0.5 : 0.0;
+    }
+
+    private static int floorAndCrop(final double value, final int max) {
+        return Math.max(0, Math.min((int) Math.floor(value), max));
     }
 
     protected static double[] ensureMinLengthArray(double[] array, int length) {
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.test.TestData;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit test for the fused Sentinel-1 radiometric correction operator.
+ */
+public class TestSentinel1RadiometricCorrectionOp {
+
+    private final static File inputFile = TestData.inputS1_GRD;
+
+    @Before
+    public void setUp() {
+        // If any of the file does not exist: the test will be ignored
+        assumeTrue(inputFile + "not found", inputFile.exists());
+    }
+
+    static {
+        TestUtils.initTestEnvironment();
+    }
+
+    private static Product chain(final Operator op, final Product sourceProduct) {
+        op.setSourceProduct(sourceProduct);
+        return op.getTargetProduct();
+    }
+
+    @Test
+    public void testSameAsChainedOperators() throws Exception {
+        try (final Product sourceProduct = TestUtils.readSourceProduct(inputFile)) {
+
+            final Product noiseRemoved = chain(new Sentinel1RemoveThermalNoiseOp.Spi().createOperator(), sourceProduct);
+            final Product borderRemoved = chain(new RemoveGRDBorderNoiseOp.Spi().createOperator(), noiseRemoved);
+            final Operator calibrationOp = new CalibrationOp.Spi().createOperator();
+            calibrationOp.setParameter("outputBetaBand", true);
+            final Product chained = chain(calibrationOp, borderRemoved);
+
+            final Operator fusedOp = new Sentinel1RadiometricCorrectionOp.Spi().createOperator();
+            fusedOp.setParameter("outputBetaBand", true);
+            final Product fused = chain(fusedOp, sourceProduct);
+            TestUtils.verifyProduct(fused, true, true, true);
+
+            final int w = Math.min(fused.getSceneRasterWidth(), 600);
+            final int h = Math.min(fused.getSceneRasterHeight(), 600);
+            for (Band chainedBand : chained.getBands()) {
+                final Band fusedBand = fused.getBand(chainedBand.getName());
+                assertNotNull(fusedBand);
+
+                final float[] expected = new float[w * h];
+                final float[] actual = new float[w * h];
+                chainedBand.readPixels(0, 0, w, h, expected, ProgressMonitor.NULL);
+                fusedBand.readPixels(0, 0, w, h, actual, ProgressMonitor.NULL);
+                assertArrayEquals(expected, actual, 0.0f);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.support;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the Sentinel-1 calibration and noise LUT grid.
+ */
+public class TestSentinel1LUT {
+
+    private static final int numVectors = 6;
+
+    // linear interpolation of a vector at x, extrapolating its first or last segment
+    private static double interpolateVector(final int[] pixels, final float[] values, final int x) {
+        int i = 0;
+        while (i < pixels.length - 2 && x >= pixels[i + 1]) {
+            i++;
+        }
+        final double mu = (double) (x - pixels[i]) / (double) (pixels[i + 1] - pixels[i]);
+        return (1 - mu) * values[i] + mu * values[i + 1];
+    }
+
+    private static void check(final boolean samePixels, final boolean byLine) {
+        final Random random = new Random(samePixels ? 1 : 2);
+        final int[][] pixels = new int[numVectors][];
+        final float[][] values = new float[numVectors][];
+        final double[] times = new double[numVectors];
+        final int[] lines = new int[numVectors];
+        for (int r = 0; r < numVectors; r++) {
+            // vectors every 40 samples, or with irregular samples that differ from vector to vector
+            final int n = samePixels ? 26 : 20 + random.nextInt(10);
+            pixels[r] = new int[n];
+            values[r] = new float[n];
+            for (int i = 0; i < n; i++) {
+                pixels[r][i] = samePixels ? 40 * i : (i == 0 ? 0 : pixels[r][i - 1] + 20 + random.nextInt(60));
+                values[r][i] = 500f + 100f * random.nextFloat();
+            }
+            times[r] = 7000.0 + r * 1.0e-5;
+            lines[r] = r * 300;
+        }
+
+        final Sentinel1LUT lut = new Sentinel1LUT(pixels, values, times, byLine ? lines : null, numVectors);
+        final double lineTimeInterval = 1.0e-5 / 300;
+        final int x0 = 17;
+        final int w = 900;
+        final Sentinel1LUT.ColumnWeights columns = lut.getColumnWeights(x0, w);
+        final double[] line = new double[w];
+
+        for (int y = 0; y < 1600; y += 7) {
+            final double azTime = times[0] + y * lineTimeInterval;
+            int r = 0;
+            while (r < numVectors - 2 && (byLine ? y >= lines[r + 1] : azTime >= times[r + 1])) {
+                r++;
+            }
+            final double muY = (azTime - times[r]) / (times[r + 1] - times[r]);
+
+            lut.getLine(columns, y, azTime, line);
+            for (int xx = 0; xx < w; xx++) {
+                final int x = x0 + xx;
+                final double expected = (1 - muY) * interpolateVector(pixels[r], values[r], x) +
+                        muY * interpolateVector(pixels[r + 1], values[r + 1], x);
+                assertEquals(expected, line[xx], 1e-4);
+                assertEquals(expected, lut.getValue(x, y, azTime), 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void testCalibrationVectors() {
+        check(true, true);
+    }
+
+    @Test
+    public void testNoiseVectors() {
+        check(false, false);
+    }
+}
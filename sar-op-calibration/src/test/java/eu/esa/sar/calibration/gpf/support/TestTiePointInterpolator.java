@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.support;
+
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.datamodel.TiePointGrid;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the block evaluation of the tie point interpolator.
+ */
+public class TestTiePointInterpolator {
+
+    private static final int gridWidth = 11;
+    private static final int gridHeight = 7;
+    private static final int subSampling = 50;
+
+    // smooth incidence angle like grid with some noise so that the quadratic fits are not exact
+    private static TiePointGrid createGrid() {
+        final Random random = new Random(7);
+        final float[] tiePoints = new float[gridWidth * gridHeight];
+        for (int r = 0; r < gridHeight; r++) {
+            for (int c = 0; c < gridWidth; c++) {
+                tiePoints[r * gridWidth + c] = (float) (20.0 + 1.5 * c - 0.02 * c * c + 0.1 * r +
+                        0.05 * random.nextDouble());
+            }
+        }
+        return new TiePointGrid("incident_angle", gridWidth, gridHeight, 0.5, 0.5, subSampling, subSampling,
+                tiePoints);
+    }
+
+    private static double expected(final TiePointGrid tpg, final TiePointInterpolator interp, final int x,
+                                   final int y, final TiePointInterpolator.InterpMode mode) {
+        if (mode == TiePointInterpolator.InterpMode.BILINEAR) {
+            return tpg.getPixelDouble(x + 0.5, y + 0.5);
+        }
+        return interp.getPixelDouble(x, y, mode);
+    }
+
+    private static void check(final TiePointInterpolator.InterpMode mode) {
+        final TiePointGrid tpg = createGrid();
+        final TiePointInterpolator interp = new TiePointInterpolator(tpg);
+
+        // blocks inside the grid and beyond its last tie points
+        final int[][] blocks = {{0, 0, 40, 30}, {137, 61, 64, 48}, {480, 290, 60, 40}};
+        for (int[] b : blocks) {
+            final int x0 = b[0], y0 = b[1], w = b[2], h = b[3];
+            final float[] floats = interp.getPixels(x0, y0, w, h, (float[]) null, mode);
+            final double[] doubles = interp.getPixels(x0, y0, w, h, (double[]) null, ProgressMonitor.NULL, mode);
+
+            int k = 0;
+            for (int y = y0; y < y0 + h; y++) {
+                for (int x = x0; x < x0 + w; x++, k++) {
+                    final double v = expected(tpg, interp, x, y, mode);
+                    assertEquals(v, doubles[k], 1e-9 * Math.abs(v));
+                    assertEquals(v, floats[k], 1e-6 * Math.abs(v));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBilinear() {
+        check(TiePointInterpolator.InterpMode.BILINEAR);
+    }
+
+    @Test
+    public void testQuadratic() {
+        check(TiePointInterpolator.InterpMode.QUADRATIC);
+    }
+
+    @Test
+    public void testBiquadratic() {
+        check(TiePointInterpolator.InterpMode.BIQUADRATIC);
+    }
+
+    @Test
+    public void testSampleOffset() {
+        final TiePointGrid tpg = createGrid();
+        final TiePointInterpolator interp = new TiePointInterpolator(tpg);
+        final int x0 = 137, y0 = 61, w = 64, h = 48;
+
+        for (TiePointInterpolator.InterpMode mode : TiePointInterpolator.InterpMode.values()) {
+            for (double sampleOffset : new double[]{0.0, 0.5}) {
+                final float[] floats = interp.getPixels(x0, y0, w, h, (float[]) null, mode, sampleOffset);
+                int k = 0;
+                for (int y = y0; y < y0 + h; y++) {
+                    for (int x = x0; x < x0 + w; x++, k++) {
+                        final double v = interp.getPixelDouble(x + sampleOffset, y + sampleOffset, mode);
+                        assertEquals(v, floats[k], 1e-6 * Math.abs(v));
+                    }
+                }
+            }
+        }
+
+        // at the integer co-ordinates, as sampled by the ICEYE calibration
+        final float[] floats = interp.getPixels(0, 0, 20, 20, (float[]) null,
+                TiePointInterpolator.InterpMode.BILINEAR, 0.0);
+        assertEquals(tpg.getPixelDouble(7, 11), floats[11 * 20 + 7], 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArrayTooSmall() {
+        new TiePointInterpolator(createGrid()).getPixels(0, 0, 10, 10, new float[99],
+                TiePointInterpolator.InterpMode.QUADRATIC);
+    }
+}
@@ -44,7 +44,6 @@ import org.esa.snap.engine_utilities.gpf.TileIndex;
 import org.jblas.ComplexDouble;
 import org.jblas.ComplexDoubleMatrix;
 import org.jblas.DoubleMatrix;
-import org.jblas.MatrixFunctions;
 import org.jlinda.core.GeoPoint;
 import org.jlinda.core.Orbit;
 import org.jlinda.core.Point;
@@ -743,23 +742,17 @@ public class CoherenceOp extends Operator {
 
                 final ProductContainer product = targetMap.get(cohKey);
 
-                final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, extRect, border);
-                final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
-
-                final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, extRect, border);
-                final Tile slvTileImag = getSourceTile(product.sourceSlave.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
+                final double[] dataMaster = pullInterleaved(getSourceTile(product.sourceMaster.realBand, extRect, border),
+                        getSourceTile(product.sourceMaster.imagBand, extRect, border));
+                final double[] dataSlave = pullInterleaved(getSourceTile(product.sourceSlave.realBand, extRect, border),
+                        getSourceTile(product.sourceSlave.imagBand, extRect, border));
 
                 if (subtractFlatEarthPhase) {
                     final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
                             cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
                             0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSlave.name);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                    applyPhase(dataSlave, flatEarthPhase);
 
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
@@ -770,26 +763,17 @@ public class CoherenceOp extends Operator {
                     final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             product, tileWindow, demTile, false);
 
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
+                    applyPhase(dataSlave, topoPhase.demPhase);
 
                     if (OUTPUT_PHASE) {
                         saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataMaster.length; i++) {
-                    double tmp = norm(dataMaster.get(i));
-                    dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
-                    dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix = SarUtils.coherence2(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                final double[] coherence = new double[targetRectangle.width * targetRectangle.height];
+                CoherenceKernel.coherence(dataMaster, dataSlave, cohh, cohw, cohWinAz, cohWinRg, coherence);
 
-                saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
+                saveCoherence(coherence, product, targetTileMap, targetRectangle);
             }
 
         } catch (Throwable e) {
@@ -812,9 +796,10 @@ public class CoherenceOp extends Operator {
         azimuthAxisNormalized = InterferogramOp.normalizeDoubleMatrix(azimuthAxisNormalized, minLine, maxLine);
 
         final DoubleMatrix polyCoeffs = flatEarthPolyMap.get(polynomialName);
-
-        return PolyUtils.polyval(azimuthAxisNormalized, rangeAxisNormalized,
-                polyCoeffs, PolyUtils.degreeFromCoefficients(polyCoeffs.length));
+        final DoubleMatrix flatEarthPhase = new DoubleMatrix(ySize, xSize);
+        PolyUtils.polyvalGrid(azimuthAxisNormalized.data, ySize, rangeAxisNormalized.data, xSize,
+                polyCoeffs.data, PolyUtils.degreeFromCoefficients(polyCoeffs.length), flatEarthPhase.data);
+        return flatEarthPhase;
     }
 
     private void saveTopoPhase(final int x0, final int xN, final int y0, final int yN, final double[][] topoPhase,
@@ -855,7 +840,7 @@ public class CoherenceOp extends Operator {
         }
     }
 
-    private void saveCoherence(final DoubleMatrix cohMatrix, final ProductContainer product,
+    private void saveCoherence(final double[] coherence, final ProductContainer product,
                                final Map<Band, Tile> targetTileMap, final Rectangle targetRectangle) {
 
         final int x0 = targetRectangle.x;
@@ -884,8 +869,7 @@ public class CoherenceOp extends Operator {
                 if (srcSlvData.getElemDoubleAt(srcSlvIndex.getIndex(x)) == srcNoDataValue) {
                     coherenceData.setElemFloatAt(tgtIdx, (float) srcNoDataValue);
                 } else {
-                    final double coh = cohMatrix.get(yy, xx);
-                    coherenceData.setElemFloatAt(tgtIdx, (float) coh);
+                    coherenceData.setElemFloatAt(tgtIdx, (float) coherence[yy * targetRectangle.width + xx]);
                 }
             }
         }
@@ -982,13 +966,10 @@ public class CoherenceOp extends Operator {
                 updateSlvMetaData(product, burstIndex, slvMeta);
                 final Orbit slvOrbit = product.sourceSlave.orbit;
 
-                final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, extRect, border);
-                final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
-
-                final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, extRect, border);
-                final Tile slvTileImag = getSourceTile(product.sourceSlave.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
+                final double[] dataMaster = pullInterleaved(getSourceTile(product.sourceMaster.realBand, extRect, border),
+                        getSourceTile(product.sourceMaster.imagBand, extRect, border));
+                final double[] dataSlave = pullInterleaved(getSourceTile(product.sourceSlave.realBand, extRect, border),
+                        getSourceTile(product.sourceSlave.imagBand, extRect, border));
 
                 final String polynomialName = product.sourceSlave.name + '_' + (subSwathIndex - 1) + '_' + burstIndex;
                 if (subtractFlatEarthPhase) {
@@ -996,10 +977,7 @@ public class CoherenceOp extends Operator {
                             cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohh,
                             minPixel, maxPixel, minLine, maxLine, polynomialName);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                    applyPhase(dataSlave, flatEarthPhase);
 
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
@@ -1010,26 +988,17 @@ public class CoherenceOp extends Operator {
                     TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             mstMeta, mstOrbit, slvMeta, slvOrbit, tileWindow, demTile, false);
 
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
+                    applyPhase(dataSlave, topoPhase.demPhase);
 
                     if (OUTPUT_PHASE) {
                         saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataMaster.length; i++) {
-                    double tmp = norm(dataMaster.get(i));
-                    dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
-                    dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix = SarUtils.coherence2(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                final double[] coherence = new double[targetRectangle.width * targetRectangle.height];
+                CoherenceKernel.coherence(dataMaster, dataSlave, cohh, cohw, cohWinAz, cohWinRg, coherence);
 
-                saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
+                saveCoherence(coherence, product, targetTileMap, targetRectangle);
             }
 
         } catch (Throwable e) {
@@ -1088,12 +1057,49 @@ public class CoherenceOp extends Operator {
         return new GeoPoint(lat / (2*cols), lon / (2*cols));
     }
 
-    private static double norm(final ComplexDouble number) {
-        return number.real() * number.real() + number.imag() * number.imag();
+    private static double[] pullInterleaved(final Tile realTile, final Tile imagTile) {
+
+        final ProductData realData = realTile.getRawSamples();
+        final ProductData imagData = imagTile.getRawSamples();
+        final int size = realTile.getWidth() * realTile.getHeight();
+        final double[] data = new double[2 * size];
+        for (int i = 0; i < size; i++) {
+            data[2 * i] = realData.getElemDoubleAt(i);
+            data[2 * i + 1] = imagData.getElemDoubleAt(i);
+        }
+        return data;
+    }
+
+    // multiply interleaved samples by exp(i * phase), the phase matrix is in column-major order
+    private static void applyPhase(final double[] data, final DoubleMatrix phase) {
+
+        final int rows = phase.rows;
+        final int cols = phase.columns;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                rotate(data, 2 * (y * cols + x), phase.data[x * rows + y]);
+            }
+        }
+    }
+
+    private static void applyPhase(final double[] data, final double[][] phase) {
+
+        final int cols = phase[0].length;
+        for (int y = 0; y < phase.length; y++) {
+            final double[] row = phase[y];
+            for (int x = 0; x < cols; x++) {
+                rotate(data, 2 * (y * cols + x), row[x]);
+            }
+        }
     }
 
-    private static double norm(final double real, final double imag) {
-        return real * real + imag * imag;
+    private static void rotate(final double[] data, final int idx, final double phase) {
+        final double c = FastMath.cos(phase);
+        final double s = FastMath.sin(phase);
+        final double re = data[idx];
+        final double im = data[idx + 1];
+        data[idx] = re * c - im * s;
+        data[idx + 1] = re * s + im * c;
     }
 
     public static DoubleMatrix coherence(final double[] iMst, final double[] qMst, final double[] iSlv,
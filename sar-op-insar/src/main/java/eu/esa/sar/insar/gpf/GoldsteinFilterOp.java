@@ -246,14 +246,7 @@ public class GoldsteinFilterOp extends Operator {
                 noDataValue = iBand.getNoDataValue();
 
                 // perform filtering with a sliding window
-                final boolean[][] mask = new boolean[FFTSize][FFTSize];
-                final double[][] I = new double[FFTSize][FFTSize];
-                final double[][] Q = new double[FFTSize][FFTSize];
-                final double[][] specI = new double[FFTSize][FFTSize];
-                final double[][] specQ = new double[FFTSize][FFTSize];
-                final double[][] pwrSpec = new double[FFTSize][FFTSize];
-                final double[][] fltSpec = new double[FFTSize][FFTSize];
-                final int colMax = I[0].length;
+                final FFTWorkspace ws = FFTWorkspace.get(FFTSize);
 
                 // arrays saving filtered I/Q data for the tile, note tile size could be different from 512x512 on boundary
                 final float[] iBandFiltered = new float[w * h];
@@ -265,33 +258,14 @@ public class GoldsteinFilterOp extends Operator {
                 for (int y = sy0; y <= syMax; y += stepSize) {
                     for (int x = sx0; x <= sxMax; x += stepSize) {
 
-                        getComplexImagettes(x, y, iBandData, qBandData, srcIndex, I, Q, mask);
-
-                        // check for no data value
-                        boolean allNoData = true;
-                        for (double[] aI : I) {
-                            for (int c = 0; c < colMax; ++c) {
-                                if (aI[c] != noDataValue) {
-                                    allNoData = false;
-                                    break;
-                                }
-                            }
-                            if (!allNoData)
-                                break;
-                        }
-                        if (allNoData) {
+                        // skip imagettes with no data only
+                        if (!getComplexImagettes(x, y, iBandData, qBandData, srcIndex, ws)) {
                             continue;
                         }
 
-                        perform2DFFT(I, Q, specI, specQ);
-
-                        getPowerSpectrum(specI, specQ, pwrSpec);
-
-                        getFilteredPowerSpectrum(pwrSpec, fltSpec, alpha, halfWindowSize);
-
-                        performInverse2DFFT(specI, specQ, fltSpec, I, Q);
+                        filterImagette(ws, alpha, halfWindowSize, noDataValue);
 
-                        updateFilteredBands(x0, y0, w, h, x, y, I, Q, mask, iBandFiltered, qBandFiltered);
+                        updateFilteredBands(x0, y0, w, h, x, y, ws.data, ws.mask, iBandFiltered, qBandFiltered);
                     }
                 }
 
@@ -352,163 +326,94 @@ public class GoldsteinFilterOp extends Operator {
     /**
      * Get source image data for given sliding window
      *
-     * @param x           The x coordinate of the upper left pixel in the sliding window
-     * @param y           The y coordinate of the upper left pixel in the sliding window
+     * @param x         The x coordinate of the upper left pixel in the sliding window
+     * @param y         The y coordinate of the upper left pixel in the sliding window
      * @param iBandData The source tile for I band
      * @param qBandData The source tile for Q band
-     * @param I           Real parts of the retrieved data
-     * @param Q           Imaginary parts of the retrieved data
+     * @param ws        The workspace receiving the interleaved data and the mask
+     * @return false if all pixels in the window are no data
      */
-    private void getComplexImagettes(final int x, final int y,
-                                     final ProductData iBandData, final ProductData qBandData,
-                                     final TileIndex srcIndex,
-                                     final double[][] I, final double[][] Q,
-                                     final boolean[][] mask) {
-        int index;
+    private boolean getComplexImagettes(final int x, final int y,
+                                        final ProductData iBandData, final ProductData qBandData,
+                                        final TileIndex srcIndex, final FFTWorkspace ws) {
+        final double[] data = ws.data;
+        final boolean[] mask = ws.mask;
+        boolean hasData = false;
+        int k = 0;
         final int maxY = y + FFTSize;
         final int maxX = x + FFTSize;
         for (int yy = y; yy < maxY; yy++) {
             srcIndex.calculateStride(yy);
-            final int yidx = yy - y;
-            for (int xx = x; xx < maxX; xx++) {
-                index = srcIndex.getIndex(xx);
-                I[yidx][xx - x] = iBandData.getElemDoubleAt(index);
-                Q[yidx][xx - x] = qBandData.getElemDoubleAt(index);
-                mask[yidx][xx - x] = I[yidx][xx - x] != noDataValue;
+            for (int xx = x; xx < maxX; xx++, k++) {
+                final int index = srcIndex.getIndex(xx);
+                final double i = iBandData.getElemDoubleAt(index);
+                // Q is the real and I the imaginary part in the spectrum
+                data[2 * k] = qBandData.getElemDoubleAt(index);
+                data[2 * k + 1] = i;
+                mask[k] = i != noDataValue;
+                hasData |= mask[k];
             }
         }
+        return hasData;
     }
 
-    private static void perform2DFFT(final double[][] I, final double[][] Q,
-                                     final double[][] specI, final double[][] specQ) {
-
-        final int rowMax = I.length;
-        final int colMax = I[0].length;
-
-        // perform 1-D FFT to each row
-        final int rowFFTSize = colMax;
-        final int colFFTSize = rowMax;
-        final DoubleFFT_1D row_fft = new DoubleFFT_1D(rowFFTSize);
-        final double[][] complexDataI = new double[colFFTSize][rowFFTSize];
-        final double[][] complexDataQ = new double[colFFTSize][rowFFTSize];
-        final double[] rowArray = new double[2 * rowFFTSize];
-        for (int r = 0; r < rowMax; r++) {
-            int k = 0;
-            for (int c = 0; c < colMax; c++) {
-                rowArray[k++] = Q[r][c];
-                rowArray[k++] = I[r][c];
-            }
-            row_fft.complexForward(rowArray);
-            for (int c = 0; c < rowFFTSize; c++) {
-                complexDataQ[r][c] = rowArray[c + c];
-                complexDataI[r][c] = rowArray[c + c + 1];
-            }
-        }
-
-        // perform 1-D FFT to each column
-        final DoubleFFT_1D col_fft = new DoubleFFT_1D(colFFTSize);
-        final double[] colArray = new double[2 * colFFTSize];
-        for (int c = 0; c < colMax; c++) {
-            int k = 0;
-            for (int r = 0; r < rowMax; r++) {
-                colArray[k++] = complexDataQ[r][c];
-                colArray[k++] = complexDataI[r][c];
-            }
-            col_fft.complexForward(colArray);
-            for (int r = 0; r < colFFTSize; r++) {
-                specQ[r][c] = colArray[r + r];
-                specI[r][c] = colArray[r + r + 1];
-            }
-        }
+    /**
+     * Filter the imagette held in the workspace in place: the spectrum is weighted by its smoothed magnitude
+     * raised to the power alpha and transformed back without scaling.
+     *
+     * @param ws             The workspace holding the interleaved imagette.
+     * @param alpha          The adaptive filter exponent.
+     * @param halfWindowSize Half the size of the power spectrum smoothing window.
+     * @param noDataValue    Power spectrum value left out of the smoothing.
+     */
+    static void filterImagette(final FFTWorkspace ws, final double alpha, final int halfWindowSize,
+                               final double noDataValue) {
+        ws.forward2D();
+        getPowerSpectrum(ws.data, ws.pwrSpec);
+        getFilteredPowerSpectrum(ws.pwrSpec, ws.fltSpec, ws.size, alpha, halfWindowSize, noDataValue);
+        ws.filterInverse2D(ws.fltSpec);
     }
 
-    private static void getPowerSpectrum(final double[][] specI, final double[][] specQ, final double[][] pwrSpec) {
+    private static void getPowerSpectrum(final double[] spec, final double[] pwrSpec) {
 
-        final int rowMax = specI.length;
-        final int colMax = specI[0].length;
-
-        for (int r = 0; r < rowMax; r++) {
-            for (int c = 0; c < colMax; c++) {
-                pwrSpec[r][c] = Math.sqrt(specI[r][c] * specI[r][c] + specQ[r][c] * specQ[r][c]);
-            }
+        for (int k = 0; k < pwrSpec.length; k++) {
+            final double re = spec[2 * k];
+            final double im = spec[2 * k + 1];
+            pwrSpec[k] = Math.sqrt(re * re + im * im);
         }
     }
 
-    private void getFilteredPowerSpectrum(
-            final double[][] pwrSpec, final double[][] fltSpec, final double alpha, final int halfWindowSize) {
-
-        final int rowMax = pwrSpec.length;
-        final int colMax = pwrSpec[0].length;
+    private static void getFilteredPowerSpectrum(final double[] pwrSpec, final double[] fltSpec, final int size,
+                                                 final double alpha, final int halfWindowSize,
+                                                 final double noDataValue) {
 
-        for (int r = 0; r < rowMax; r++) {
+        for (int r = 0; r < size; r++) {
             final int jMin = Math.max(0, r - halfWindowSize);
-            final int jMax = Math.min(rowMax - 1, r + halfWindowSize);
-            for (int c = 0; c < colMax; c++) {
+            final int jMax = Math.min(size - 1, r + halfWindowSize);
+            for (int c = 0; c < size; c++) {
                 double sum = 0;
                 int k = 0;
                 final int iMin = Math.max(0, c - halfWindowSize);
-                final int iMax = Math.min(colMax - 1, c + halfWindowSize);
+                final int iMax = Math.min(size - 1, c + halfWindowSize);
                 for (int j = jMin; j <= jMax; j++) {
+                    final int rowOffset = j * size;
                     for (int i = iMin; i <= iMax; i++) {
-                        if(pwrSpec[j][i] != noDataValue) {
-                            sum += pwrSpec[j][i];
+                        final double pwr = pwrSpec[rowOffset + i];
+                        if(pwr != noDataValue) {
+                            sum += pwr;
                             k++;
                         }
                     }
                 }
                 if(k != 0) {
-                    fltSpec[r][c] = FastMath.pow(sum / k, alpha);
+                    fltSpec[r * size + c] = FastMath.pow(sum / k, alpha);
                 } else {
-                    fltSpec[r][c] = 0;
+                    fltSpec[r * size + c] = 0;
                 }
             }
         }
     }
 
-    private static void performInverse2DFFT(final double[][] specI, final double[][] specQ, final double[][] fltSpec,
-                                            final double[][] I, final double[][] Q) {
-
-        final int rowMax = I.length;
-        final int colMax = I[0].length;
-
-        final int rowFFTSize = colMax;
-        final int colFFTSize = rowMax;
-        final double[][] complexDataI = new double[colFFTSize][rowFFTSize];
-        final double[][] complexDataQ = new double[colFFTSize][rowFFTSize];
-
-        // perform 1-D FFT to each column
-        final DoubleFFT_1D col_fft = new DoubleFFT_1D(colFFTSize);
-        final double[] colArray = new double[2 * colFFTSize];
-        for (int c = 0; c < colMax; c++) {
-            int k = 0;
-            for (int r = 0; r < rowMax; r++) {
-                colArray[k++] = specQ[r][c] * fltSpec[r][c];
-                colArray[k++] = specI[r][c] * fltSpec[r][c];
-            }
-            col_fft.complexInverse(colArray, false);
-            for (int r = 0; r < colFFTSize; r++) {
-                complexDataQ[r][c] = colArray[r + r];
-                complexDataI[r][c] = colArray[r + r + 1];
-            }
-        }
-
-        // perform 1-D FFT to each row
-        final DoubleFFT_1D row_fft = new DoubleFFT_1D(rowFFTSize);
-        final double[] rowArray = new double[2 * rowFFTSize];
-        for (int r = 0; r < rowMax; r++) {
-            int k = 0;
-            for (int c = 0; c < colMax; c++) {
-                rowArray[k++] = complexDataQ[r][c];
-                rowArray[k++] = complexDataI[r][c];
-            }
-            row_fft.complexInverse(rowArray, false);
-            for (int c = 0; c < rowFFTSize; c++) {
-                Q[r][c] = rowArray[c + c];
-                I[r][c] = rowArray[c + c + 1];
-            }
-        }
-    }
-
     /**
      * @param x0            The x coordinate of the pixel on the upper left corner of current tile.
      * @param y0            The y coordinate of the pixel on the upper left corner of current tile.
@@ -516,14 +421,14 @@ public class GoldsteinFilterOp extends Operator {
      * @param h             The height of current tile.
      * @param x             The x coordinate of the pixel on the upper left corner of the sliding window.
      * @param y             The y coordinate of the pixel on the upper left corner of the sliding window.
-     * @param I             Imaginary part of the filtered imagette.
-     * @param Q             Real part of the filtered imagette.
+     * @param data          The filtered imagette, interleaved real (Q) and imaginary (I) parts.
+     * @param mask          False for no data pixels in the imagette.
      * @param iBandFiltered Buffer holding imaginary part of the filtered image.
      * @param qBandFiltered Buffer holding real part of the filtered image.
      */
     private void updateFilteredBands(final int x0, final int y0, final int w, final int h,
-                                     final int x, final int y, final double[][] I, final double[][] Q,
-                                     final boolean[][] mask,
+                                     final int x, final int y, final double[] data,
+                                     final boolean[] mask,
                                      final float[] iBandFiltered, final float[] qBandFiltered) {
 
         final int xSt = FastMath.max(x, x0);
@@ -536,7 +441,8 @@ public class GoldsteinFilterOp extends Operator {
             final double weightY = (1 - Math.abs(yy - y - halfFFTSize + 0.5) / halfFFTSize);
             for (int xx = xSt; xx < xEd; xx++) {
 
-                if(!mask[yi][xx - x]) {
+                final int m = yi * FFTSize + xx - x;
+                if(!mask[m]) {
                     continue;
                 }
 
@@ -544,8 +450,8 @@ public class GoldsteinFilterOp extends Operator {
                 final double weight = (1 - Math.abs(xx - x - halfFFTSize + 0.5) / halfFFTSize) * weightY;
 
                 final int k = yw + (xx - x0);
-                iBandFiltered[k] += I[yi][xx - x] * weight;
-                qBandFiltered[k] += Q[yi][xx - x] * weight;
+                iBandFiltered[k] += data[2 * m + 1] * weight;
+                qBandFiltered[k] += data[2 * m] * weight;
             }
         }
     }
@@ -565,6 +471,86 @@ public class GoldsteinFilterOp extends Operator {
     }
 
 
+    /**
+     * Per thread FFT plan and work buffers for one FFT size. The imagette is kept as one flat array of
+     * interleaved complex samples in row-major order and transformed in place.
+     */
+    static final class FFTWorkspace {
+
+        private static final ThreadLocal<Map<Integer, FFTWorkspace>> workspaces = ThreadLocal.withInitial(HashMap::new);
+
+        final int size;
+        final double[] data;
+        final boolean[] mask;
+        final double[] pwrSpec;
+        final double[] fltSpec;
+        private final DoubleFFT_1D fft;
+        private final double[] column;
+
+        private FFTWorkspace(final int size) {
+            this.size = size;
+            this.data = new double[2 * size * size];
+            this.mask = new boolean[size * size];
+            this.pwrSpec = new double[size * size];
+            this.fltSpec = new double[size * size];
+            this.fft = new DoubleFFT_1D(size);
+            this.column = new double[2 * size];
+        }
+
+        static FFTWorkspace get(final int size) {
+            return workspaces.get().computeIfAbsent(size, FFTWorkspace::new);
+        }
+
+        /**
+         * Forward 2-D FFT of the data, rows first then columns.
+         */
+        void forward2D() {
+            final int rowLength = 2 * size;
+            for (int r = 0; r < size; r++) {
+                fft.complexForward(data, r * rowLength);
+            }
+            for (int c = 0; c < size; c++) {
+                getColumn(c);
+                fft.complexForward(column);
+                putColumn(c);
+            }
+        }
+
+        /**
+         * Weight the spectrum and apply the unscaled inverse 2-D FFT, columns first then rows.
+         */
+        void filterInverse2D(final double[] weights) {
+            for (int c = 0; c < size; c++) {
+                getColumn(c);
+                for (int r = 0; r < size; r++) {
+                    final double weight = weights[r * size + c];
+                    column[2 * r] *= weight;
+                    column[2 * r + 1] *= weight;
+                }
+                fft.complexInverse(column, false);
+                putColumn(c);
+            }
+            final int rowLength = 2 * size;
+            for (int r = 0; r < size; r++) {
+                fft.complexInverse(data, r * rowLength, false);
+            }
+        }
+
+        private void getColumn(final int c) {
+            for (int r = 0, k = 2 * c; r < size; r++, k += 2 * size) {
+                column[2 * r] = data[k];
+                column[2 * r + 1] = data[k + 1];
+            }
+        }
+
+        private void putColumn(final int c) {
+            for (int r = 0, k = 2 * c; r < size; r++, k += 2 * size) {
+                data[k] = column[2 * r];
+                data[k + 1] = column[2 * r + 1];
+            }
+        }
+    }
+
     /**
      * The SPI is used to register this operator in the graph processing framework
      * via the SPI configuration file
@@ -1040,49 +1040,53 @@ public class InterferogramOp extends Operator {
                         demSamplingLat, demSamplingLon, tileExtensionPercent);
             }
 
-            for (String ifgKey : targetMap.keySet()) {
+            DoubleMatrix[] axes = null, cohAxes = null;
+            if (subtractFlatEarthPhase) {
+                axes = computeNormalizedAxes(x0, xN, targetRectangle.width, y0, yN, targetRectangle.height,
+                        0, sourceImageWidth - 1, 0, sourceImageHeight - 1);
+                if (includeCoherence) {
+                    cohAxes = computeNormalizedAxes(cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
+                            0, sourceImageWidth - 1, 0, sourceImageHeight - 1);
+                }
+            }
 
-                final ProductContainer product = targetMap.get(ifgKey);
+            // in a single reference stack all pairs share the reference tile and every secondary acquisition
+            // shares its phase screens between polarisations, so both are evaluated once per tile
+            final Map<Band, ComplexDoubleMatrix> referenceTiles = new HashMap<>();
+            final Map<Band, ComplexDoubleMatrix> cohReferenceTiles = new HashMap<>();
+            final Map<String, SecondaryPhase> secondaryPhases = new HashMap<>();
+            final Map<String, SecondaryPhase> cohSecondaryPhases = new HashMap<>();
 
-                final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, targetRectangle, border);
-                final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, targetRectangle, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
+            for (ProductContainer product : targetMap.values()) {
+
+                final ComplexDoubleMatrix dataMaster = getReferenceTile(
+                        referenceTiles, product.sourceMaster, targetRectangle, border);
 
                 final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, targetRectangle, border);
                 final Tile slvTileImag = getSourceTile(product.sourceSlave.imagBand, targetRectangle, border);
                 final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
 
-                if (subtractFlatEarthPhase) {
-                    final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
-                            x0, xN, dataMaster.columns, y0, yN, dataMaster.rows,
-                            0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSlave.name);
-
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                SecondaryPhase secondaryPhase = secondaryPhases.get(product.sourceSlave.name);
+                if (secondaryPhase == null) {
+                    final DoubleMatrix flatEarthPhase = subtractFlatEarthPhase ?
+                            computeFlatEarthPhase(axes, product.sourceSlave.name) : null;
+                    final TopoPhase topoPhase = subtractTopographicPhase ?
+                            TopoPhase.computeTopoPhase(product, tileWindow, demTile, outputElevation, false) : null;
+                    secondaryPhase = new SecondaryPhase(flatEarthPhase, topoPhase, null, dataSlave.rows, dataSlave.columns);
+                    secondaryPhases.put(product.sourceSlave.name, secondaryPhase);
+                }
 
-                    if (outputFlatEarthPhase) {
-                        saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
-                    }
+                if (subtractFlatEarthPhase && outputFlatEarthPhase) {
+                    saveFlatEarthPhase(x0, xN, y0, yN, secondaryPhase.flatEarthPhase, product, targetTileMap);
                 }
 
                 if (subtractTopographicPhase) {
-                    final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
-                            product, tileWindow, demTile, outputElevation, false);
-
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
-
                     if (outputTopoPhase) {
-                        saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
+                        saveTopoPhase(x0, xN, y0, yN, secondaryPhase.topoPhase.demPhase, product, targetTileMap);
                     }
 
                     if (outputElevation) {
-                        saveElevation(x0, xN, y0, yN, topoPhase.elevation, product, targetTileMap);
+                        saveElevation(x0, xN, y0, yN, secondaryPhase.topoPhase.elevation, product, targetTileMap);
                     }
 
                     if (outputLatLon) {
@@ -1093,51 +1097,31 @@ public class InterferogramOp extends Operator {
                     }
                 }
 
-                dataMaster.muli(dataSlave.conji());
-
-                saveInterferogram(dataMaster, product, targetTileMap, targetRectangle);
+                saveInterferogram(interfere(dataMaster, dataSlave, secondaryPhase.phase),
+                        product, targetTileMap, targetRectangle);
 
                 // coherence calculation
                 if (includeCoherence) {
-                    final Tile mstTileReal2 = getSourceTile(product.sourceMaster.realBand, rect, border);
-                    final Tile mstTileImag2 = getSourceTile(product.sourceMaster.imagBand, rect, border);
+                    final ComplexDoubleMatrix dataMaster2 = getReferenceTile(
+                            cohReferenceTiles, product.sourceMaster, rect, border);
+
                     final Tile slvTileReal2 = getSourceTile(product.sourceSlave.realBand, rect, border);
                     final Tile slvTileImag2 = getSourceTile(product.sourceSlave.imagBand, rect, border);
-                    final ComplexDoubleMatrix dataMaster2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal2, mstTileImag2);
-
                     final ComplexDoubleMatrix dataSlave2 =
                             TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal2, slvTileImag2);
 
-                    if (subtractFlatEarthPhase) {
-                        final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
-                                cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
-                                0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSlave.name);
-
-                        final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                        dataSlave2.muli(complexReferencePhase);
+                    SecondaryPhase cohPhase = cohSecondaryPhases.get(product.sourceSlave.name);
+                    if (cohPhase == null) {
+                        final DoubleMatrix flatEarthPhase = subtractFlatEarthPhase ?
+                                computeFlatEarthPhase(cohAxes, product.sourceSlave.name) : null;
+                        final TopoPhase topoPhase = subtractTopographicPhase ?
+                                TopoPhase.computeTopoPhase(product, cohTileWindow, cohDemTile, false) : null;
+                        cohPhase = new SecondaryPhase(flatEarthPhase, topoPhase, null, dataSlave2.rows, dataSlave2.columns);
+                        cohSecondaryPhases.put(product.sourceSlave.name, cohPhase);
                     }
 
-                    if (subtractTopographicPhase) {
-                        final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
-                                product, cohTileWindow, cohDemTile, false);
-
-                        final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                                MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                        dataSlave2.muli(ComplexTopoPhase);
-                    }
-
-                    for (int i = 0; i < dataMaster2.length; i++) {
-                        double tmp = norm(dataMaster2.get(i));
-                        dataMaster2.put(i, dataMaster2.get(i).mul(dataSlave2.get(i).conj()));
-                        dataSlave2.put(i, new ComplexDouble(norm(dataSlave2.get(i)), tmp));
-                    }
-
-                    DoubleMatrix cohMatrix = SarUtils.coherence2(dataMaster2, dataSlave2, cohWinAz, cohWinRg);
+                    final ComplexDoubleMatrix cross = computeCoherenceTerms(dataMaster2, dataSlave2, cohPhase.phase);
+                    final DoubleMatrix cohMatrix = SarUtils.coherence2(cross, dataSlave2, cohWinAz, cohWinRg);
 
                     saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
                 }
@@ -1149,19 +1133,142 @@ public class InterferogramOp extends Operator {
         }
     }
 
-    private DoubleMatrix computeFlatEarthPhase(final int xMin, final int xMax, final int xSize,
-                                               final int yMin, final int yMax, final int ySize,
-                                               final int minPixel, final int maxPixel,
-                                               final int minLine, final int maxLine,
-                                               final String polynomialName) {
+    /**
+     * Reads the reference samples of a rectangle once per reference band. The returned matrix is shared by all
+     * pairs with that reference and must not be modified.
+     */
+    private ComplexDoubleMatrix getReferenceTile(final Map<Band, ComplexDoubleMatrix> referenceTiles,
+                                                 final CplxContainer master, final Rectangle rectangle,
+                                                 final BorderExtender border) {
+
+        ComplexDoubleMatrix data = referenceTiles.get(master.realBand);
+        if (data == null) {
+            final Tile mstTileReal = getSourceTile(master.realBand, rectangle, border);
+            final Tile mstTileImag = getSourceTile(master.imagBand, rectangle, border);
+            data = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
+            referenceTiles.put(master.realBand, data);
+        }
+        return data;
+    }
 
-        DoubleMatrix rangeAxisNormalized = normalizeDoubleMatrix(DoubleMatrix.linspace(xMin, xMax, xSize), minPixel, maxPixel);
-        DoubleMatrix azimuthAxisNormalized = normalizeDoubleMatrix(DoubleMatrix.linspace(yMin, yMax, ySize), minLine, maxLine);
+    /**
+     * Phase removed from a secondary tile before it is combined with the reference: flat earth, topographic
+     * and ETAD phase, summed in the element order of the tile matrices.
+     */
+    private static final class SecondaryPhase {
+        final DoubleMatrix flatEarthPhase;
+        final TopoPhase topoPhase;
+        final double[] phase;
+
+        SecondaryPhase(final DoubleMatrix flatEarthPhase, final TopoPhase topoPhase, final double[][] etadPhase,
+                       final int rows, final int cols) {
+            this.flatEarthPhase = flatEarthPhase;
+            this.topoPhase = topoPhase;
+
+            if (flatEarthPhase == null && topoPhase == null && etadPhase == null) {
+                phase = null;
+                return;
+            }
 
-        final DoubleMatrix polyCoeffs = flatEarthPolyMap.get(polynomialName);
+            // jblas matrices are stored column by column
+            phase = flatEarthPhase != null ? flatEarthPhase.data.clone() : new double[rows * cols];
+            for (int c = 0; c < cols; c++) {
+                for (int r = 0; r < rows; r++) {
+                    final int i = c * rows + r;
+                    if (topoPhase != null) {
+                        phase[i] += topoPhase.demPhase[r][c];
+                    }
+                    if (etadPhase != null) {
+                        phase[i] += etadPhase[r][c];
+                    }
+                }
+            }
+        }
+    }
 
-        return PolyUtils.polyval(azimuthAxisNormalized, rangeAxisNormalized,
-                polyCoeffs, PolyUtils.degreeFromCoefficients(polyCoeffs.length));
+    /**
+     * Interferogram of one pair in a single pass, ref * conj(sec * exp(i * phase)), without the intermediate
+     * cos/sin matrices. The result is written over the secondary, the reference is left unchanged.
+     *
+     * @param ref   reference samples
+     * @param sec   secondary samples, overwritten
+     * @param phase phase applied to the secondary, or null
+     * @return the secondary matrix holding the interferogram
+     */
+    static ComplexDoubleMatrix interfere(final ComplexDoubleMatrix ref, final ComplexDoubleMatrix sec,
+                                         final double[] phase) {
+
+        final double[] r = ref.data;
+        final double[] s = sec.data;
+        for (int i = 0; i < sec.length; i++) {
+            final int k = 2 * i;
+            double sRe = s[k];
+            double sIm = s[k + 1];
+            if (phase != null) {
+                final double cos = Math.cos(phase[i]);
+                final double sin = Math.sin(phase[i]);
+                final double tmp = sRe * cos - sIm * sin;
+                sIm = sRe * sin + sIm * cos;
+                sRe = tmp;
+            }
+            s[k] = r[k] * sRe + r[k + 1] * sIm;
+            s[k + 1] = r[k + 1] * sRe - r[k] * sIm;
+        }
+        return sec;
+    }
+
+    /**
+     * Inputs of {@link SarUtils#coherence2} in a single pass. The secondary is overwritten with the powers
+     * (|sec|^2, |ref|^2), the reference is left unchanged.
+     *
+     * @param ref   reference samples
+     * @param sec   secondary samples, overwritten
+     * @param phase phase applied to the secondary, or null
+     * @return ref * conj(sec * exp(i * phase))
+     */
+    static ComplexDoubleMatrix computeCoherenceTerms(final ComplexDoubleMatrix ref, final ComplexDoubleMatrix sec,
+                                                     final double[] phase) {
+
+        final ComplexDoubleMatrix cross = new ComplexDoubleMatrix(sec.rows, sec.columns);
+        final double[] r = ref.data;
+        final double[] s = sec.data;
+        final double[] x = cross.data;
+        for (int i = 0; i < sec.length; i++) {
+            final int k = 2 * i;
+            double sRe = s[k];
+            double sIm = s[k + 1];
+            if (phase != null) {
+                final double cos = Math.cos(phase[i]);
+                final double sin = Math.sin(phase[i]);
+                final double tmp = sRe * cos - sIm * sin;
+                sIm = sRe * sin + sIm * cos;
+                sRe = tmp;
+            }
+            x[k] = r[k] * sRe + r[k + 1] * sIm;
+            x[k + 1] = r[k + 1] * sRe - r[k] * sIm;
+            s[k] = sRe * sRe + sIm * sIm;
+            s[k + 1] = r[k] * r[k] + r[k + 1] * r[k + 1];
+        }
+        return cross;
+    }
+
+    private static DoubleMatrix[] computeNormalizedAxes(final int xMin, final int xMax, final int xSize,
+                                                        final int yMin, final int yMax, final int ySize,
+                                                        final int minPixel, final int maxPixel,
+                                                        final int minLine, final int maxLine) {
+
+        final DoubleMatrix azimuthAxisNormalized = normalizeDoubleMatrix(DoubleMatrix.linspace(yMin, yMax, ySize), minLine, maxLine);
+        final DoubleMatrix rangeAxisNormalized = normalizeDoubleMatrix(DoubleMatrix.linspace(xMin, xMax, xSize), minPixel, maxPixel);
+        return new DoubleMatrix[]{azimuthAxisNormalized, rangeAxisNormalized};
+    }
+
+    private DoubleMatrix computeFlatEarthPhase(final DoubleMatrix[] axes, final String polynomialName) {
+
+        final DoubleMatrix polyCoeffs = flatEarthPolyMap.get(polynomialName);
+        final DoubleMatrix flatEarthPhase = new DoubleMatrix(axes[0].length, axes[1].length);
+        PolyUtils.polyvalGrid(axes[0].data, axes[0].length, axes[1].data, axes[1].length,
+                polyCoeffs.data, PolyUtils.degreeFromCoefficients(polyCoeffs.length), flatEarthPhase.data);
+        return flatEarthPhase;
     }
 
     private void saveElevation(final int x0, final int xN, final int y0, final int yN, final double[][] elevation,
@@ -1406,10 +1513,6 @@ public class InterferogramOp extends Operator {
         }
     }
 
-    private static double norm(final ComplexDouble number) {
-        return number.real() * number.real() + number.imag() * number.imag();
-    }
-
     private void computeTileStackForTOPSARProduct(
             final Map<Band, Tile> targetTileMap, final Rectangle targetRectangle, final ProgressMonitor pm)
             throws OperatorException {
@@ -1505,17 +1608,32 @@ public class InterferogramOp extends Operator {
             final int minPixel = 0;
             final int maxPixel = subSwath[subSwathIndex - 1].samplesPerBurst - 1;
 
-            for (String ifgKey : targetMap.keySet()) {
+            DoubleMatrix[] axes = null, cohAxes = null;
+            if (subtractFlatEarthPhase) {
+                axes = computeNormalizedAxes(x0, xN, targetRectangle.width, y0 - firstLineIdx, yN - firstLineIdx,
+                        targetRectangle.height, minPixel, maxPixel, minLine, maxLine);
+                if (includeCoherence) {
+                    cohAxes = computeNormalizedAxes(cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx,
+                            cohy0 + cohh - 1 - firstLineIdx, cohh, minPixel, maxPixel, minLine, maxLine);
+                }
+            }
+
+            final double[][] etadPhase = subtractETADPhase ? computeETADPhase(targetRectangle) : null;
+
+            final Map<Band, ComplexDoubleMatrix> referenceTiles = new HashMap<>();
+            final Map<Band, ComplexDoubleMatrix> cohReferenceTiles = new HashMap<>();
+            final Map<String, SecondaryPhase> secondaryPhases = new HashMap<>();
+            final Map<String, SecondaryPhase> cohSecondaryPhases = new HashMap<>();
+
+            for (ProductContainer product : targetMap.values()) {
 
-                final ProductContainer product = targetMap.get(ifgKey);
                 final SLCImage slvMeta = product.sourceSlave.metaData.clone();
                 updateSlvMetaData(product, burstIndex, slvMeta);
                 final Orbit slvOrbit = product.sourceSlave.orbit;
 
                 /// check out results from master ///
-                final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, targetRectangle, border);
-                final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, targetRectangle, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
+                final ComplexDoubleMatrix dataMaster = getReferenceTile(
+                        referenceTiles, product.sourceMaster, targetRectangle, border);
 
                 /// check out results from slave ///
                 final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, targetRectangle, border);
@@ -1523,37 +1641,28 @@ public class InterferogramOp extends Operator {
                 final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
 
                 final String polynomialName = product.sourceSlave.name + '_' + (subSwathIndex - 1) + '_' + burstIndex;
-                if (subtractFlatEarthPhase) {
-                    final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
-                            x0, xN, dataMaster.columns, y0 - firstLineIdx, yN - firstLineIdx, dataMaster.rows,
-                            minPixel, maxPixel, minLine, maxLine, polynomialName);
-
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                SecondaryPhase secondaryPhase = secondaryPhases.get(polynomialName);
+                if (secondaryPhase == null) {
+                    final DoubleMatrix flatEarthPhase = subtractFlatEarthPhase ?
+                            computeFlatEarthPhase(axes, polynomialName) : null;
+                    final TopoPhase topoPhase = subtractTopographicPhase ? TopoPhase.computeTopoPhase(
+                            mstMeta, mstOrbit, slvMeta, slvOrbit, tileWindow, demTile, outputElevation, false) : null;
+                    secondaryPhase = new SecondaryPhase(
+                            flatEarthPhase, topoPhase, etadPhase, dataSlave.rows, dataSlave.columns);
+                    secondaryPhases.put(polynomialName, secondaryPhase);
+                }
 
-                    if (outputFlatEarthPhase) {
-                        saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
-                    }
+                if (subtractFlatEarthPhase && outputFlatEarthPhase) {
+                    saveFlatEarthPhase(x0, xN, y0, yN, secondaryPhase.flatEarthPhase, product, targetTileMap);
                 }
 
                 if (subtractTopographicPhase) {
-                    TopoPhase topoPhase = TopoPhase.computeTopoPhase(
-                            mstMeta, mstOrbit, slvMeta, slvOrbit, tileWindow, demTile, outputElevation, false);
-
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
-
                     if (outputTopoPhase) {
-                        saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
+                        saveTopoPhase(x0, xN, y0, yN, secondaryPhase.topoPhase.demPhase, product, targetTileMap);
                     }
 
                     if (outputElevation) {
-                        saveElevation(x0, xN, y0, yN, topoPhase.elevation, product, targetTileMap);
+                        saveElevation(x0, xN, y0, yN, secondaryPhase.topoPhase.elevation, product, targetTileMap);
                     }
 
                     if (outputLatLon) {
@@ -1564,67 +1673,35 @@ public class InterferogramOp extends Operator {
                     }
                 }
 
-                if (subtractETADPhase) {
-                    final double[][] etadPhase = computeETADPhase(targetRectangle);
-
-                    if (etadPhase != null) {
-                        final ComplexDoubleMatrix ComplexETADPhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(new DoubleMatrix(etadPhase)),
-                                MatrixFunctions.sin(new DoubleMatrix(etadPhase)));
-
-                        dataSlave.muli(ComplexETADPhase);
-
-                        if (OUTPUT_ETAD_IFG) {
-                            saveETADPhase(x0, xN, y0, yN, etadPhase, product, targetTileMap);
-                        }
-                    }
+                if (etadPhase != null && OUTPUT_ETAD_IFG) {
+                    saveETADPhase(x0, xN, y0, yN, etadPhase, product, targetTileMap);
                 }
 
-                dataMaster.muli(dataSlave.conji());
-
-                saveInterferogram(dataMaster, product, targetTileMap, targetRectangle);
+                saveInterferogram(interfere(dataMaster, dataSlave, secondaryPhase.phase),
+                        product, targetTileMap, targetRectangle);
 
                 // coherence calculation
                 if (includeCoherence) {
-                    final Tile mstTileReal2 = getSourceTile(product.sourceMaster.realBand, rect, border);
-                    final Tile mstTileImag2 = getSourceTile(product.sourceMaster.imagBand, rect, border);
+                    final ComplexDoubleMatrix dataMaster2 = getReferenceTile(
+                            cohReferenceTiles, product.sourceMaster, rect, border);
+
                     final Tile slvTileReal2 = getSourceTile(product.sourceSlave.realBand, rect, border);
                     final Tile slvTileImag2 = getSourceTile(product.sourceSlave.imagBand, rect, border);
-                    final ComplexDoubleMatrix dataMaster2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal2, mstTileImag2);
-
                     final ComplexDoubleMatrix dataSlave2 =
                             TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal2, slvTileImag2);
 
-                    if (subtractFlatEarthPhase) {
-                        final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
-                                cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohh,
-                                minPixel, maxPixel, minLine, maxLine, polynomialName);
-
-                        final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                        dataSlave2.muli(complexReferencePhase);
-                    }
-
-                    if (subtractTopographicPhase) {
-                        TopoPhase topoPhase = TopoPhase.computeTopoPhase(
-                                mstMeta, mstOrbit, slvMeta, slvOrbit, cohTileWindow, cohDemTile, false);
-
-                        final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                                MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                        dataSlave2.muli(ComplexTopoPhase);
-                    }
-
-                    for (int i = 0; i < dataMaster2.length; i++) {
-                        double tmp = norm(dataMaster2.get(i));
-                        dataMaster2.put(i, dataMaster2.get(i).mul(dataSlave2.get(i).conj()));
-                        dataSlave2.put(i, new ComplexDouble(norm(dataSlave2.get(i)), tmp));
+                    SecondaryPhase cohPhase = cohSecondaryPhases.get(polynomialName);
+                    if (cohPhase == null) {
+                        final DoubleMatrix flatEarthPhase = subtractFlatEarthPhase ?
+                                computeFlatEarthPhase(cohAxes, polynomialName) : null;
+                        final TopoPhase topoPhase = subtractTopographicPhase ? TopoPhase.computeTopoPhase(
+                                mstMeta, mstOrbit, slvMeta, slvOrbit, cohTileWindow, cohDemTile, false) : null;
+                        cohPhase = new SecondaryPhase(flatEarthPhase, topoPhase, null, dataSlave2.rows, dataSlave2.columns);
+                        cohSecondaryPhases.put(polynomialName, cohPhase);
                     }
 
-                    DoubleMatrix cohMatrix = SarUtils.coherence2(dataMaster2, dataSlave2, cohWinAz, cohWinRg);
+                    final ComplexDoubleMatrix cross = computeCoherenceTerms(dataMaster2, dataSlave2, cohPhase.phase);
+                    final DoubleMatrix cohMatrix = SarUtils.coherence2(cross, dataSlave2, cohWinAz, cohWinRg);
 
                     saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
                 }
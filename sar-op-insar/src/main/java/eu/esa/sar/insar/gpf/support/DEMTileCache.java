@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import org.esa.snap.core.datamodel.GeoPos;
+import org.esa.snap.core.datamodel.PixelPos;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.dataop.dem.ElevationModel;
+import org.esa.snap.dem.dataio.EarthGravitationalModel96;
+import org.esa.snap.engine_utilities.gpf.TileGeoreferencing;
+import org.esa.snap.runtime.Config;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resampled DEM tiles shared by the geocoding operators.
+ * <p>
+ * Grids are keyed by the DEM, the resampling method, the no data handling and the geo position of every sample,
+ * so a grid is only shared when it is sampled at exactly the same positions, whichever operator asks for it.
+ * The tiles of getLocalDEM and the regular lat/lon grids of Terrain-Flattening go through the same
+ * sampling, so they are interchangeable where their positions coincide. That takes the same tiling of the same
+ * pixel grid, e.g. an operator applied again to the same product in another graph, or a tile computed again
+ * after it left the GPF tile cache. Terrain-Flattening samples a lat/lon grid around source tiles and
+ * Terrain-Correction the map grid of its target, so the two do not share grids.
+ * Concurrent requests for the same grid wait for the one computation. The cache is bounded by a memory budget
+ * read from the preference {@value #CACHE_SIZE_PREF} (in MB), by default a sixteenth of the maximum heap.
+ */
+public final class DEMTileCache {
+
+    public static final String CACHE_SIZE_PREF = "s1tbx.dem.tileCacheSizeMB";
+
+    private static final long ENTRY_OVERHEAD = 64;
+    private static final DEMTileCache instance = new DEMTileCache(getMemoryBudget());
+
+    private final Cache<GridKey, Grid> cache;
+
+    DEMTileCache(final long maxBytes) {
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Weigher<GridKey, Grid>) (key, grid) -> key.sizeInBytes() + grid.sizeInBytes())
+                .concurrencyLevel(Math.max(4, Runtime.getRuntime().availableProcessors()))
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    public static DEMTileCache instance() {
+        return instance;
+    }
+
+    static long getMemoryBudget() {
+        final long defaultMB = Math.max(32, Runtime.getRuntime().maxMemory() / 16 / (1024 * 1024));
+        final long budgetMB = Config.instance().preferences().getLong(CACHE_SIZE_PREF, defaultMB);
+        return Math.max(1, budgetMB) * 1024 * 1024;
+    }
+
+    /**
+     * Identify the elevation source of an operator
+     *
+     * @param demName             the auto-downloaded DEM name
+     * @param externalDEMFile     the external DEM file or null
+     * @param externalDEMApplyEGM true if the EGM is applied to the external DEM, null if left at the default
+     * @return the key identifying the DEM in the cache
+     */
+    public static String getDEMKey(final String demName, final File externalDEMFile, final Boolean externalDEMApplyEGM) {
+        if (externalDEMFile != null) {
+            final String egm = externalDEMApplyEGM == null ? "" : externalDEMApplyEGM ? ":EGM" : ":noEGM";
+            return externalDEMFile.getAbsolutePath() + ':' + externalDEMFile.lastModified() + egm;
+        }
+        return demName;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Cached equivalent of DEMFactory.getLocalDEM. The grid is identified by the geo positions of all its samples,
+     * so tiles of different operators are only shared when they sample the DEM at the same positions.
+     *
+     * @param dem                 the elevation model
+     * @param demKey              the DEM key from getDEMKey
+     * @param demNoDataValue      the DEM no data value
+     * @param demResamplingMethod the DEM resampling method
+     * @param tileGeoRef          the tile georeferencing
+     * @param x0                  the tile x
+     * @param y0                  the tile y
+     * @param tileWidth           the tile width
+     * @param tileHeight          the tile height
+     * @param sourceProduct       the source product
+     * @param nodataValueAtSea    true if no data is kept over the sea
+     * @param localDEM            the (tileHeight + 2) x (tileWidth + 2) grid to fill
+     * @return true if the tile has valid elevations
+     * @throws Exception from the DEM
+     */
+    public boolean getLocalDEM(final ElevationModel dem, final String demKey, final double demNoDataValue,
+                               final String demResamplingMethod, final TileGeoreferencing tileGeoRef,
+                               final int x0, final int y0, final int tileWidth, final int tileHeight,
+                               final Product sourceProduct, final boolean nodataValueAtSea,
+                               final double[][] localDEM) throws Exception {
+
+        final int rows = localDEM.length;
+        final int cols = localDEM[0].length;
+
+        // the local DEM has one extra row and column on each side of the tile
+        final GeoPos geoPos = new GeoPos();
+        final double[] positions = new double[2 * rows * cols];
+        int k = 0;
+        for (int y = y0 - 1; y < y0 - 1 + rows; ++y) {
+            for (int x = x0 - 1; x < x0 - 1 + cols; ++x) {
+                tileGeoRef.getGeoPos(x, y, geoPos);
+                positions[k++] = geoPos.lat;
+                positions[k++] = geoPos.lon;
+            }
+        }
+
+        final Grid grid = getElevations(dem, demKey, demNoDataValue, demResamplingMethod, positions, rows, cols,
+                !nodataValueAtSea);
+        grid.copyTo(localDEM);
+        return grid.valid;
+    }
+
+    /**
+     * Elevations on a regular lat/lon grid starting at the north west corner
+     *
+     * @param dem                 the elevation model
+     * @param demKey              the DEM key from getDEMKey
+     * @param demNoDataValue      the DEM no data value
+     * @param demResamplingMethod the DEM resampling method
+     * @param latMax              latitude of the first row
+     * @param lonMin              longitude of the first column
+     * @param latSpacing          latitude decrement per row in degrees
+     * @param lonSpacing          longitude increment per column in degrees
+     * @param rows                number of rows
+     * @param cols                number of columns
+     * @param fillWithEGM         true to replace no data with the EGM geoid height
+     * @return the elevations, owned by the caller
+     * @throws Exception from the DEM
+     */
+    public double[][] getElevations(final ElevationModel dem, final String demKey, final double demNoDataValue,
+                                    final String demResamplingMethod, final double latMax, final double lonMin,
+                                    final double latSpacing, final double lonSpacing, final int rows, final int cols,
+                                    final boolean fillWithEGM) throws Exception {
+
+        final double[] positions = getLatLonGrid(latMax, lonMin, latSpacing, lonSpacing, rows, cols);
+        return getElevations(dem, demKey, demNoDataValue, demResamplingMethod, positions, rows, cols,
+                fillWithEGM).toArray();
+    }
+
+    static double[] getLatLonGrid(final double latMax, final double lonMin, final double latSpacing,
+                                  final double lonSpacing, final int rows, final int cols) {
+        final double[] positions = new double[2 * rows * cols];
+        int k = 0;
+        for (int i = 0; i < rows; ++i) {
+            final double lat = latMax - i * latSpacing;
+            for (int j = 0; j < cols; ++j) {
+                positions[k++] = lat;
+                positions[k++] = lonMin + j * lonSpacing;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Elevations at interleaved lat/lon positions of a rows x cols grid, no data at invalid positions.
+     */
+    private Grid getElevations(final ElevationModel dem, final String demKey, final double demNoDataValue,
+                               final String demResamplingMethod, final double[] positions,
+                               final int rows, final int cols, final boolean fillWithEGM) throws Exception {
+
+        final GridKey key = new GridKey(GridKey.GEO_POSITIONS, demKey, demResamplingMethod, demNoDataValue,
+                fillWithEGM, rows, cols, positions);
+
+        return getOrCompute(key, () -> {
+            final EarthGravitationalModel96 egm = EarthGravitationalModel96.instance();
+            final GeoPos geoPos = new GeoPos();
+            final double[][] height = new double[rows][cols];
+            boolean valid = false;
+            int k = 0;
+            for (int i = 0; i < rows; ++i) {
+                for (int j = 0; j < cols; ++j, k += 2) {
+                    geoPos.setLocation(positions[k], positions[k + 1]);
+                    if (!geoPos.isValid()) {
+                        height[i][j] = demNoDataValue;
+                        continue;
+                    }
+                    double alt = dem.getElevation(geoPos);
+                    if (fillWithEGM && Double.compare(alt, demNoDataValue) == 0) {
+                        alt = egm.getEGM(geoPos.lat, geoPos.lon);
+                    }
+                    valid |= Double.compare(alt, demNoDataValue) != 0;
+                    height[i][j] = alt;
+                }
+            }
+            return new Grid(valid, height);
+        });
+    }
+
+    /**
+     * Elevations at the DEM posts of an index range of the DEM
+     *
+     * @param dem                 the elevation model
+     * @param demKey              the DEM key from getDEMKey
+     * @param demNoDataValue      the DEM no data value
+     * @param demResamplingMethod the DEM resampling method
+     * @param firstLine           DEM line index of the first row
+     * @param firstPixel          DEM pixel index of the first column
+     * @param numLines            number of rows
+     * @param numPixels           number of columns
+     * @param fillWithEGM         true to replace no data with the EGM geoid height
+     * @return the elevations, owned by the caller
+     * @throws Exception from the DEM
+     */
+    public double[][] getElevationsAtDEMPosts(final ElevationModel dem, final String demKey,
+                                              final double demNoDataValue, final String demResamplingMethod,
+                                              final int firstLine, final int firstPixel,
+                                              final int numLines, final int numPixels,
+                                              final boolean fillWithEGM) throws Exception {
+
+        final GridKey key = new GridKey(GridKey.DEM_POSTS, demKey, demResamplingMethod, demNoDataValue, fillWithEGM,
+                numLines, numPixels, new double[]{firstLine, firstPixel});
+
+        final Grid grid = getOrCompute(key, () -> {
+            final EarthGravitationalModel96 egm = EarthGravitationalModel96.instance();
+            final PixelPos pix = new PixelPos();
+            final double[][] height = new double[numLines][numPixels];
+            for (int l = 0; l < numLines; ++l) {
+                for (int p = 0; p < numPixels; ++p) {
+                    pix.setLocation(firstPixel + p, firstLine + l);
+                    final GeoPos gp = dem.getGeoPos(pix);
+                    double alt = dem.getElevation(gp);
+                    if (fillWithEGM && Double.compare(alt, demNoDataValue) == 0) {
+                        alt = egm.getEGM(gp.lat, gp.lon);
+                    }
+                    height[l][p] = alt;
+                }
+            }
+            return new Grid(true, height);
+        });
+        return grid.toArray();
+    }
+
+    Grid getOrCompute(final GridKey key, final Callable<Grid> loader) throws Exception {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    static final class GridKey {
+        static final int GEO_POSITIONS = 0;
+        static final int DEM_POSTS = 1;
+
+        private final int type;
+        private final String demKey;
+        private final String resamplingMethod;
+        private final double noDataValue;
+        private final boolean flag;
+        private final int rows, cols;
+        private final double[] positions;
+        private final int hash;
+
+        GridKey(final int type, final String demKey, final String resamplingMethod, final double noDataValue,
+                final boolean flag, final int rows, final int cols, final double[] positions) {
+            this.type = type;
+            this.demKey = demKey;
+            this.resamplingMethod = resamplingMethod;
+            this.noDataValue = noDataValue;
+            this.flag = flag;
+            this.rows = rows;
+            this.cols = cols;
+            this.positions = positions;
+
+            int h = type;
+            h = 31 * h + (demKey != null ? demKey.hashCode() : 0);
+            h = 31 * h + (resamplingMethod != null ? resamplingMethod.hashCode() : 0);
+            h = 31 * h + Double.hashCode(noDataValue);
+            h = 31 * h + (flag ? 1 : 0);
+            h = 31 * h + rows;
+            h = 31 * h + cols;
+            h = 31 * h + Arrays.hashCode(positions);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GridKey)) {
+                return false;
+            }
+            final GridKey key = (GridKey) obj;
+            return type == key.type &&
+                    rows == key.rows &&
+                    cols == key.cols &&
+                    flag == key.flag &&
+                    Double.compare(noDataValue, key.noDataValue) == 0 &&
+                    Arrays.equals(positions, key.positions) &&
+                    Objects.equals(demKey, key.demKey) &&
+                    Objects.equals(resamplingMethod, key.resamplingMethod);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        int sizeInBytes() {
+            return (int) Math.min(Integer.MAX_VALUE, 8L * positions.length);
+        }
+    }
+
+    static final class Grid {
+        final boolean valid;
+        private final int rows, cols;
+        private final double[] data;
+
+        Grid(final boolean valid, final double[][] grid) {
+            this.valid = valid;
+            this.rows = grid.length;
+            this.cols = rows > 0 ? grid[0].length : 0;
+            this.data = new double[rows * cols];
+            for (int i = 0; i < rows; ++i) {
+                System.arraycopy(grid[i], 0, data, i * cols, cols);
+            }
+        }
+
+        void copyTo(final double[][] grid) {
+            for (int i = 0; i < rows; ++i) {
+                System.arraycopy(data, i * cols, grid[i], 0, cols);
+            }
+        }
+
+        double[][] toArray() {
+            final double[][] grid = new double[rows][cols];
+            copyTo(grid);
+            return grid;
+        }
+
+        int sizeInBytes() {
+            return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + 8L * data.length);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf;
+
+import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for the Goldstein filter of a single imagette with the per thread FFT workspace.
+ */
+public class TestGoldsteinFilterOp {
+
+    private static final double alpha = 0.8;
+    private static final int halfWindowSize = 1;
+    private static final double noDataValue = 0.0;
+
+    @Test
+    public void testWorkspaceMatchesPerCallAllocation() {
+        // alternate the FFT sizes on one thread so that a reused workspace must not carry state over
+        final GoldsteinFilterOp.FFTWorkspace ws32 = GoldsteinFilterOp.FFTWorkspace.get(32);
+        final GoldsteinFilterOp.FFTWorkspace ws64 = GoldsteinFilterOp.FFTWorkspace.get(64);
+
+        checkImagette(ws32, 1);
+        checkImagette(ws64, 2);
+        checkImagette(ws32, 3);
+        checkImagette(ws64, 4);
+
+        assertSame(ws32, GoldsteinFilterOp.FFTWorkspace.get(32));
+        assertSame(ws64, GoldsteinFilterOp.FFTWorkspace.get(64));
+    }
+
+    private static void checkImagette(final GoldsteinFilterOp.FFTWorkspace ws, final long seed) {
+        final int size = ws.size;
+        final double[][] I = new double[size][size];
+        final double[][] Q = new double[size][size];
+        createFringes(I, Q, seed);
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                final int k = r * size + c;
+                ws.data[2 * k] = Q[r][c];
+                ws.data[2 * k + 1] = I[r][c];
+            }
+        }
+        GoldsteinFilterOp.filterImagette(ws, alpha, halfWindowSize, noDataValue);
+
+        filterImagette(I, Q);
+
+        double maxAbs = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                maxAbs = Math.max(maxAbs, Math.hypot(I[r][c], Q[r][c]));
+            }
+        }
+        final double tolerance = 1e-9 * maxAbs;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                final int k = r * size + c;
+                assertEquals(Q[r][c], ws.data[2 * k], tolerance);
+                assertEquals(I[r][c], ws.data[2 * k + 1], tolerance);
+            }
+        }
+    }
+
+    // noisy interferometric fringes, a phase ramp with some curvature
+    private static void createFringes(final double[][] I, final double[][] Q, final long seed) {
+        final Random random = new Random(seed);
+        final int size = I.length;
+        final double fx = 2 * Math.PI * (2 + random.nextDouble() * 3) / size;
+        final double fy = 2 * Math.PI * (1 + random.nextDouble() * 2) / size;
+        final double curvature = 4 * Math.PI / (size * size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                final double phase = fx * c + fy * r + curvature * (r - size / 2) * (c - size / 2)
+                        + 0.7 * random.nextGaussian();
+                final double amplitude = 50 + 10 * random.nextGaussian();
+                I[r][c] = amplitude * Math.sin(phase);
+                Q[r][c] = amplitude * Math.cos(phase);
+            }
+        }
+    }
+
+    // the filter with new FFT plans and arrays for every imagette, Q real and I imaginary
+    private static void filterImagette(final double[][] I, final double[][] Q) {
+        final int size = I.length;
+        final double[][] specI = new double[size][size];
+        final double[][] specQ = new double[size][size];
+        transform2D(Q, I, specQ, specI, null, true);
+
+        final double[][] pwrSpec = new double[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                pwrSpec[r][c] = Math.sqrt(specI[r][c] * specI[r][c] + specQ[r][c] * specQ[r][c]);
+            }
+        }
+
+        final double[][] fltSpec = new double[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                double sum = 0;
+                int k = 0;
+                for (int j = Math.max(0, r - halfWindowSize); j <= Math.min(size - 1, r + halfWindowSize); j++) {
+                    for (int i = Math.max(0, c - halfWindowSize); i <= Math.min(size - 1, c + halfWindowSize); i++) {
+                        if (pwrSpec[j][i] != noDataValue) {
+                            sum += pwrSpec[j][i];
+                            k++;
+                        }
+                    }
+                }
+                fltSpec[r][c] = k != 0 ? FastMath.pow(sum / k, alpha) : 0;
+            }
+        }
+
+        transform2D(specQ, specI, Q, I, fltSpec, false);
+    }
+
+    // forward: rows then columns; inverse: weighted, unscaled, columns then rows
+    private static void transform2D(final double[][] re, final double[][] im,
+                                    final double[][] outRe, final double[][] outIm,
+                                    final double[][] weights, final boolean forward) {
+        final int size = re.length;
+        final double[][] tmpRe = new double[size][size];
+        final double[][] tmpIm = new double[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                final double weight = weights != null ? weights[r][c] : 1.0;
+                tmpRe[r][c] = re[r][c] * weight;
+                tmpIm[r][c] = im[r][c] * weight;
+            }
+        }
+
+        final DoubleFFT_1D fft = new DoubleFFT_1D(size);
+        final double[] array = new double[2 * size];
+        for (int pass = 0; pass < 2; pass++) {
+            final boolean rows = (pass == 0) == forward;
+            for (int l = 0; l < size; l++) {
+                for (int k = 0; k < size; k++) {
+                    array[2 * k] = rows ? tmpRe[l][k] : tmpRe[k][l];
+                    array[2 * k + 1] = rows ? tmpIm[l][k] : tmpIm[k][l];
+                }
+                if (forward) {
+                    fft.complexForward(array);
+                } else {
+                    fft.complexInverse(array, false);
+                }
+                for (int k = 0; k < size; k++) {
+                    if (rows) {
+                        tmpRe[l][k] = array[2 * k];
+                        tmpIm[l][k] = array[2 * k + 1];
+                    } else {
+                        tmpRe[k][l] = array[2 * k];
+                        tmpIm[k][l] = array[2 * k + 1];
+                    }
+                }
+            }
+        }
+
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(tmpRe[r], 0, outRe[r], 0, size);
+            System.arraycopy(tmpIm[r], 0, outIm[r], 0, size);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf;
+
+import org.jblas.ComplexDouble;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.jblas.MatrixFunctions;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the fused interferogram and coherence input passes of InterferogramOp, compared with the
+ * jblas matrix operations they replace.
+ */
+public class TestInterferogramKernels {
+
+    private static final int rows = 4;
+    private static final int cols = 5;
+    private static final double tolerance = 1e-9;
+
+    @Test
+    public void testInterfere() {
+        checkInterfere(createPhase());
+        checkInterfere(null);
+    }
+
+    @Test
+    public void testComputeCoherenceTerms() {
+        checkCoherenceTerms(createPhase());
+        checkCoherenceTerms(null);
+    }
+
+    private static void checkInterfere(final double[] phase) {
+        final ComplexDoubleMatrix ref = createSamples(1);
+        final ComplexDoubleMatrix sec = createSamples(2);
+        final double[] refData = ref.data.clone();
+
+        // ref.muli(sec.muli(exp(i * phase)).conji())
+        final ComplexDoubleMatrix expected = ref.dup().muli(rotate(sec.dup(), phase).conji());
+
+        final ComplexDoubleMatrix actual = InterferogramOp.interfere(ref, sec, phase);
+
+        assertArrayEquals(expected.real().toArray(), actual.real().toArray(), tolerance);
+        assertArrayEquals(expected.imag().toArray(), actual.imag().toArray(), tolerance);
+        assertArrayEquals(refData, ref.data, 0.0);
+        assertZeroAmplitude(actual);
+    }
+
+    private static void checkCoherenceTerms(final double[] phase) {
+        final ComplexDoubleMatrix ref = createSamples(3);
+        final ComplexDoubleMatrix sec = createSamples(4);
+        final double[] refData = ref.data.clone();
+
+        final ComplexDoubleMatrix expectedCross = ref.dup();
+        final ComplexDoubleMatrix expectedPowers = rotate(sec.dup(), phase);
+        for (int i = 0; i < expectedCross.length; i++) {
+            final double refPower = norm(expectedCross.get(i));
+            expectedCross.put(i, expectedCross.get(i).mul(expectedPowers.get(i).conj()));
+            expectedPowers.put(i, new ComplexDouble(norm(expectedPowers.get(i)), refPower));
+        }
+
+        final ComplexDoubleMatrix cross = InterferogramOp.computeCoherenceTerms(ref, sec, phase);
+
+        assertArrayEquals(expectedCross.real().toArray(), cross.real().toArray(), tolerance);
+        assertArrayEquals(expectedCross.imag().toArray(), cross.imag().toArray(), tolerance);
+        assertArrayEquals(expectedPowers.real().toArray(), sec.real().toArray(), tolerance);
+        assertArrayEquals(expectedPowers.imag().toArray(), sec.imag().toArray(), tolerance);
+        assertArrayEquals(refData, ref.data, 0.0);
+        assertZeroAmplitude(cross);
+    }
+
+    private static ComplexDoubleMatrix rotate(final ComplexDoubleMatrix sec, final double[] phase) {
+        if (phase == null) {
+            return sec;
+        }
+        final DoubleMatrix phaseMatrix = new DoubleMatrix(rows, cols, phase);
+        return sec.muli(new ComplexDoubleMatrix(MatrixFunctions.cos(phaseMatrix), MatrixFunctions.sin(phaseMatrix)));
+    }
+
+    // a reference sample at index 0 and a secondary sample at index 1 are zero, so both products vanish there
+    private static void assertZeroAmplitude(final ComplexDoubleMatrix product) {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0.0, product.get(i).real(), 0.0);
+            assertEquals(0.0, product.get(i).imag(), 0.0);
+        }
+    }
+
+    private static ComplexDoubleMatrix createSamples(final long seed) {
+        final Random random = new Random(seed);
+        final ComplexDoubleMatrix samples = new ComplexDoubleMatrix(rows, cols);
+        for (int i = 0; i < samples.length; i++) {
+            samples.put(i, new ComplexDouble(100 * random.nextGaussian(), 100 * random.nextGaussian()));
+        }
+        samples.put(seed % 2 == 1 ? 0 : 1, new ComplexDouble(0.0, 0.0));
+        return samples;
+    }
+
+    private static double[] createPhase() {
+        final Random random = new Random(5);
+        final double[] phase = new double[rows * cols];
+        for (int i = 0; i < phase.length; i++) {
+            phase[i] = 4 * Math.PI * (random.nextDouble() - 0.5);
+        }
+        return phase;
+    }
+
+    private static double norm(final ComplexDouble number) {
+        return number.real() * number.real() + number.imag() * number.imag();
+    }
+}
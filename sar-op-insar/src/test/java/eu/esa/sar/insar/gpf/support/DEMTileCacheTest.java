@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DEMTileCacheTest {
+
+    private static DEMTileCache.GridKey createKey(final String demKey, final double[] positions) {
+        return new DEMTileCache.GridKey(DEMTileCache.GridKey.GEO_POSITIONS, demKey, "BILINEAR_INTERPOLATION",
+                -32768, true, 10, 10, positions);
+    }
+
+    private static DEMTileCache.GridKey createKey(final String demKey, final double lat) {
+        return createKey(demKey, DEMTileCache.getLatLonGrid(lat, 10.0, 0.001, 0.001, 10, 10));
+    }
+
+    private static DEMTileCache.Grid createGrid(final double value) {
+        final double[][] data = new double[10][10];
+        for (double[] row : data) {
+            Arrays.fill(row, value);
+        }
+        return new DEMTileCache.Grid(true, data);
+    }
+
+    @Test
+    public void testComputedOnce() throws Exception {
+        final DEMTileCache cache = new DEMTileCache(1024 * 1024);
+        final AtomicInteger numComputed = new AtomicInteger();
+
+        final DEMTileCache.Grid grid1 = cache.getOrCompute(createKey("SRTM 3Sec", 45.0), () -> {
+            numComputed.incrementAndGet();
+            return createGrid(100.0);
+        });
+        final DEMTileCache.Grid grid2 = cache.getOrCompute(createKey("SRTM 3Sec", 45.0), () -> {
+            numComputed.incrementAndGet();
+            return createGrid(200.0);
+        });
+
+        assertEquals(1, numComputed.get());
+        assertArrayEquals(grid1.toArray()[5], grid2.toArray()[5], 0.0);
+        assertEquals(100.0, grid2.toArray()[0][0], 0.0);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void testKeyIncludesDEMAndExtent() {
+        assertEquals(createKey("SRTM 3Sec", 45.0), createKey("SRTM 3Sec", 45.0));
+        assertNotEquals(createKey("SRTM 3Sec", 45.0), createKey("SRTM 1Sec HGT", 45.0));
+        assertNotEquals(createKey("SRTM 3Sec", 45.0), createKey("SRTM 3Sec", 45.001));
+
+        final File file = new File("dem.tif");
+        assertNotEquals(DEMTileCache.getDEMKey("External DEM", file, true),
+                DEMTileCache.getDEMKey("External DEM", file, false));
+        assertEquals("SRTM 3Sec", DEMTileCache.getDEMKey("SRTM 3Sec", null, true));
+    }
+
+    @Test
+    public void testKeyIncludesAllPositions() {
+        // a tile sampled at the positions of a regular grid is the same grid
+        final double[] positions = new double[200];
+        for (int i = 0; i < 10; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                positions[2 * (i * 10 + j)] = 45.0 - i * 0.001;
+                positions[2 * (i * 10 + j) + 1] = 10.0 + j * 0.001;
+            }
+        }
+        assertEquals(createKey("SRTM 3Sec", 45.0), createKey("SRTM 3Sec", positions));
+
+        // same corners and centre, different sampling in between
+        final double[] skewed = positions.clone();
+        skewed[2 * 13 + 1] += 0.0002;
+        skewed[2 * 86] -= 0.0002;
+        assertNotEquals(createKey("SRTM 3Sec", positions), createKey("SRTM 3Sec", skewed));
+    }
+
+    @Test
+    public void testCopiesAreIndependent() throws Exception {
+        final DEMTileCache cache = new DEMTileCache(1024 * 1024);
+        final double[][] first = cache.getOrCompute(createKey("SRTM 3Sec", 45.0), () -> createGrid(100.0)).toArray();
+        first[0][0] = -1.0;
+
+        final double[][] second = cache.getOrCompute(createKey("SRTM 3Sec", 45.0), () -> createGrid(100.0)).toArray();
+        assertEquals(100.0, second[0][0], 0.0);
+    }
+
+    @Test
+    public void testMemoryBound() throws Exception {
+        final DEMTileCache cache = new DEMTileCache(16 * 1024);
+        for (int i = 0; i < 100; ++i) {
+            cache.getOrCompute(createKey("SRTM 3Sec", i), () -> createGrid(1.0));
+        }
+        assertTrue(cache.size() < 100);
+    }
+}
@@ -120,9 +120,13 @@ public class Boxcar implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
 
+        final WindowStatistics stats = new WindowStatistics(
+                WindowStatistics.getPixelValues(sourceData1, sourceData2, srcIndex, sourceTileRectangle,
+                        noDataValue, isComplex),
+                sourceTileRectangle, noDataValue, new Rectangle(x0, y0, w, h), windowSizeX, windowSizeY);
+
         final int xMax = x0 + w;
         final int yMax = y0 + h;
         for (int y = y0; y < yMax; ++y) {
@@ -130,12 +134,8 @@ public class Boxcar implements SpeckleFilter {
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
 
-                final int numSamples = getNeighborValues(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, isComplex,
-                        windowSizeX, windowSizeY, sourceImageWidth, sourceImageHeight, neighborValues);
-
-                if (numSamples > 0) {
-                    filteredTile[yy][xx] = getMeanValue(neighborValues, numSamples, noDataValue);
+                if (stats.getNumSamples(x, y) > 0) {
+                    filteredTile[yy][xx] = stats.getMean(x, y);
                 } else {
                     filteredTile[yy][xx] = noDataValue;
                 }
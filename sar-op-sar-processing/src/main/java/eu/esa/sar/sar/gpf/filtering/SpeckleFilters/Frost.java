@@ -124,7 +124,6 @@ public class Frost implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
         final int xMax = x0 + w;
         final int yMax = y0 + h;
@@ -132,17 +131,18 @@ public class Frost implements SpeckleFilter {
         final double[] mask = new double[windowSizeX * windowSizeY];
         getFrostMask(mask);
 
+        final WindowStatistics stats = new WindowStatistics(
+                WindowStatistics.getPixelValues(sourceData1, sourceData2, srcIndex, sourceTileRectangle,
+                        noDataValue, isComplex),
+                sourceTileRectangle, noDataValue, new Rectangle(x0, y0, w, h), windowSizeX, windowSizeY);
+
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
 
-                final int numSamples = getNeighborValues(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, isComplex,
-                        windowSizeX, windowSizeY, sourceImageWidth, sourceImageHeight, neighborValues);
-
-                if (numSamples > 0) {
-                    filteredTile[yy][xx] = getFrostValue(neighborValues, numSamples, noDataValue, mask);
+                if (stats.getNumSamples(x, y) > 0) {
+                    filteredTile[yy][xx] = getFrostValue(stats, x, y, sourceTileRectangle, noDataValue, mask);
                 } else {
                     filteredTile[yy][xx] = noDataValue;
                 }
@@ -172,37 +172,53 @@ public class Frost implements SpeckleFilter {
     }
 
     /**
-     * Get the Frost filtered pixel intensity for pixels in a given rectangular region.
+     * Get the Frost filtered pixel intensity for the sliding window centred at a given pixel.
      *
-     * @param neighborValues Array holding the pixel values.
-     * @param numSamples     The number of samples.
-     * @param noDataValue    Place holder for no data value.
-     * @param mask           Array holding Frost filter mask values.
+     * @param stats           The sliding window statistics of the tile.
+     * @param x               X coordinate of the pixel.
+     * @param y               Y coordinate of the pixel.
+     * @param sourceRectangle The source tile rectangle.
+     * @param noDataValue     Place holder for no data value.
+     * @param mask            Array holding Frost filter mask values.
      * @return val The Frost filtered value.
      * @throws OperatorException If an error occurs in computation of the Frost filtered value.
      */
-    private double getFrostValue(
-            final double[] neighborValues, final int numSamples, final double noDataValue, final double[] mask) {
+    private double getFrostValue(final WindowStatistics stats, final int x, final int y,
+                                 final Rectangle sourceRectangle, final double noDataValue, final double[] mask) {
 
-        final double mean = getMeanValue(neighborValues, numSamples, noDataValue);
+        final double mean = stats.getMean(x, y);
         if (mean <= Double.MIN_VALUE) {
             return mean;
         }
 
-        final double var = getVarianceValue(neighborValues, numSamples, mean, noDataValue);
+        final double var = stats.getVariance(x, y);
         if (var <= Double.MIN_VALUE) {
             return mean;
         }
 
         final double k = dampingFactor * var / (mean * mean);
 
+        // the distance weights depend on the pixel, only this sum still visits the whole window
+        final int minX = x - halfWindowSizeX;
+        final int minY = y - halfWindowSizeY;
         double sum = 0.0;
         double totalWeight = 0.0;
-        for (int i = 0; i < neighborValues.length; i++) {
-            if (neighborValues[i] != noDataValue) {
-                final double weight = FastMath.exp(-k * mask[i]);
-                sum += weight * neighborValues[i];
-                totalWeight += weight;
+        for (int j = 0; j < windowSizeY; j++) {
+            final int yj = minY + j;
+            if (yj < sourceRectangle.y || yj >= sourceRectangle.y + sourceRectangle.height) {
+                continue;
+            }
+            for (int i = 0; i < windowSizeX; i++) {
+                final int xi = minX + i;
+                if (xi < sourceRectangle.x || xi >= sourceRectangle.x + sourceRectangle.width) {
+                    continue;
+                }
+                final double v = stats.getValue(xi, yj);
+                if (v != noDataValue) {
+                    final double weight = FastMath.exp(-k * mask[j * windowSizeX + i]);
+                    sum += weight * v;
+                    totalWeight += weight;
+                }
             }
         }
         return sum / totalWeight;
@@ -136,22 +136,22 @@ public class Lee implements SpeckleFilter {
         final double cu = 1.0 / Math.sqrt(n);
         final double cu2 = cu * cu;
 
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
         final int xMax = x0 + w;
         final int yMax = y0 + h;
 
+        final WindowStatistics stats = new WindowStatistics(
+                WindowStatistics.getPixelValues(sourceData1, sourceData2, srcIndex, sourceTileRectangle,
+                        noDataValue, isComplex),
+                sourceTileRectangle, noDataValue, new Rectangle(x0, y0, w, h), windowSizeX, windowSizeY);
+
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
 
-                final int numSamples = getNeighborValues(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, isComplex,
-                        windowSizeX, windowSizeY, sourceImageWidth, sourceImageHeight, neighborValues);
-
-                if (numSamples > 0) {
-                    filteredTile[yy][xx] = getLeeValue(neighborValues, numSamples, noDataValue, cu, cu2);
+                if (stats.getNumSamples(x, y) > 0) {
+                    filteredTile[yy][xx] = getLeeValue(stats, x, y, cu, cu2);
                 } else {
                     filteredTile[yy][xx] = noDataValue;
                 }
@@ -162,23 +162,23 @@ public class Lee implements SpeckleFilter {
     }
 
     /**
-     * Get the Lee filtered pixel intensity for pixels in a given rectangular region.
+     * Get the Lee filtered pixel intensity for the sliding window centred at a given pixel.
      *
-     * @param neighborValues Array holding the pixel values.
-     * @param numSamples     The number of samples.
-     * @param noDataValue    Place holder for no data value.
+     * @param stats The sliding window statistics of the tile.
+     * @param x     X coordinate of the pixel.
+     * @param y     Y coordinate of the pixel.
      * @return val The Lee filtered value.
      * @throws OperatorException If an error occurs in computation of the Lee filtered value.
      */
-    private double getLeeValue(final double[] neighborValues, final int numSamples, final double noDataValue,
+    private double getLeeValue(final WindowStatistics stats, final int x, final int y,
                                final double cu, final double cu2) {
 
-        final double mean = getMeanValue(neighborValues, numSamples, noDataValue);
+        final double mean = stats.getMean(x, y);
         if (Double.compare(mean, Double.MIN_VALUE) <= 0) {
             return mean;
         }
 
-        final double var = getVarianceValue(neighborValues, numSamples, mean, noDataValue);
+        final double var = stats.getVariance(x, y);
         if (Double.compare(var, Double.MIN_VALUE) <= 0) {
             return mean;
         }
@@ -188,7 +188,7 @@ public class Lee implements SpeckleFilter {
             return mean;
         }
 
-        final double cp = neighborValues[neighborValues.length / 2];
+        final double cp = stats.getValue(x, y);
         final double w = 1 - cu2 / (ci * ci);
 
         return cp * w + mean * (1 - w);
@@ -419,6 +419,15 @@ public class LeeSigma implements SpeckleFilter {
         final boolean[][] isPointTarget = new boolean[h][w];
         final double[][] targetWindow = new double[targetWindowSize][targetWindowSize];
 
+        final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+        final double[] pixelValues = WindowStatistics.getPixelValues(
+                sourceData1, sourceData2, srcIndex, sourceTileRectangle, noDataValue, isComplex);
+        final Rectangle targetRectangle = new Rectangle(x0, y0, w, h);
+        final WindowStatistics filterStats = new WindowStatistics(
+                pixelValues, sourceTileRectangle, noDataValue, targetRectangle, filterSize, filterSize);
+        final WindowStatistics targetStats = new WindowStatistics(
+                pixelValues, sourceTileRectangle, noDataValue, targetRectangle, targetWindowSize, targetWindowSize);
+
         final int xMax = x0 + w;
         final int yMax = y0 + h;
         for (int y = y0; y < yMax; ++y) {
@@ -439,21 +448,26 @@ public class LeeSigma implements SpeckleFilter {
                 if (y - halfSizeY < sy0 || y + halfSizeY > sy0 + sh - 1 ||
                         x - halfSizeX < sx0 || x + halfSizeX > sx0 + sw - 1) {
 
-                    filteredTile[yy][xx] = filterPixelWithAllValidPixels(v, x, y, sx0, sy0, sw, sh, sourceTile1,
-                            noDataValue, bandUnit, sourceData1, sourceData2, etaV2);
+                    filteredTile[yy][xx] = computeMMSEEstimate(
+                            v, filterStats.getMean(x, y), filterStats.getVariance(x, y), etaV2);
 
                     continue;
                 }
 
-                getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile1, noDataValue, bandUnit,
-                                sourceData1, sourceData2, targetWindow);
+                // only a pixel above z98 can start a point target cluster
+                if (v > z98) {
+                    getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile1, noDataValue, bandUnit,
+                                    sourceData1, sourceData2, targetWindow);
 
-                if (checkPointTarget(x, y, z98, targetWindow, isPointTarget, x0, y0, w, h, noDataValue)) {
-                    filteredTile[yy][xx] = v;
-                    continue;
+                    if (checkPointTarget(x, y, z98, targetWindow, isPointTarget, x0, y0, w, h, noDataValue)) {
+                        filteredTile[yy][xx] = v;
+                        continue;
+                    }
                 }
 
-                final double[] sigmaRange = computeSigmaRange(v, targetWindow, noDataValue, sigmaRangeLow, sigmaRangeHigh, etaV2);
+                final double meanEst = computeMMSEEstimate(
+                        v, targetStats.getMean(x, y), targetStats.getVariance(x, y), etaV2);
+                final double[] sigmaRange = {meanEst * sigmaRangeLow, meanEst * sigmaRangeHigh};
 
                 filteredTile[yy][xx] = filterPixelWithAllPixelsInSigmaRange(v, x, y, sx0, sy0, sw, sh, sourceTile1,
                         noDataValue, bandUnit, sourceData1, sourceData2, etaVP2, sigmaRange);
@@ -504,21 +518,6 @@ public class LeeSigma implements SpeckleFilter {
         }
     }
 
-    private double filterPixelWithAllValidPixels(final double v, final int x, final int y, final int sx0, final int sy0,
-                                                 final int sw, final int sh, final Tile sourceTile,
-                                                 final double noDataValue, final Unit.UnitType bandUnit,
-                                                 final ProductData srcData1, final ProductData srcData2,
-                                                 final double etaV2) {
-
-        final double[][] filterWindow = new double[filterSize][filterSize];
-
-        getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile, noDataValue, bandUnit, srcData1, srcData2, filterWindow);
-
-        final double[] validPixels = getValidPixels(filterWindow, noDataValue);
-
-        return computeMMSEEstimate(v, validPixels, etaV2, noDataValue);
-    }
-
     private static void getWindowPixels(final int x, final int y, final int sx0, final int sy0, final int sw, final int sh,
                                         final Tile sourceTile, final double noDataValue, final Unit.UnitType unit,
                                         final ProductData srcData1, final ProductData srcData2, final double[][] windowPixel) {
@@ -542,24 +541,6 @@ public class LeeSigma implements SpeckleFilter {
         }
     }
 
-    private static double[] getValidPixels(final double[][] filterWindow, final double noDataValue) {
-
-        final List<Double> pixelsSelected = new ArrayList<>();
-        final int nCols = filterWindow[0].length;
-        for (double[] aFilterWindow : filterWindow) {
-            for (int i = 0; i < nCols; i++) {
-                if (Double.compare(aFilterWindow[i], noDataValue) != 0) {
-                    pixelsSelected.add(aFilterWindow[i]);
-                }
-            }
-        }
-        final double[] result = new double[pixelsSelected.size()];
-        for(int i = 0; i < pixelsSelected.size(); ++i) {
-            result[i] = pixelsSelected.get(i);
-        }
-        return result;
-    }
-
     private boolean checkPointTarget(final int x, final int y, final double z98, final double[][] targetWindow,
                                      final boolean[][] isPointTarget, final int x0, final int y0, final int w,
                                      final int h, final double noDataValue) {
@@ -607,14 +588,6 @@ public class LeeSigma implements SpeckleFilter {
         }
     }
 
-    private double[] computeSigmaRange(final double v, final double[][] targetWindow, final double noDataValue,
-                                       final double sigmaRangeLow, final double sigmaRangeHigh, final double etaV2) {
-
-        final double[] validPixels = getValidPixels(targetWindow, noDataValue);
-        final double meanEst = computeMMSEEstimate(v, validPixels, etaV2, noDataValue);
-        return new double[]{meanEst * sigmaRangeLow, meanEst * sigmaRangeHigh};
-    }
-
     private double filterPixelWithAllPixelsInSigmaRange(final double v, final int x, final int y, final int sx0,
                                                         final int sy0, final int sw, final int sh, final Tile sourceTile,
                                                         final double noDataValue, final Unit.UnitType bandUnit,
@@ -636,7 +609,11 @@ public class LeeSigma implements SpeckleFilter {
     private double computeMMSEWeight(
             final double[] dataArray, final double meanZ, final double etaV2, final double noDataValue) {
 
-        final double varY = getVarianceValue(dataArray, dataArray.length, meanZ, noDataValue);
+        return computeMMSEWeight(meanZ, getVarianceValue(dataArray, dataArray.length, meanZ, noDataValue), etaV2);
+    }
+
+    private static double computeMMSEWeight(final double meanZ, final double varY, final double etaV2) {
+
         if (varY == 0.0) {
             return 0.0;
         }
@@ -677,4 +654,12 @@ public class LeeSigma implements SpeckleFilter {
 
         return (1 - b) * mean + b * centerPixelValue;
     }
+
+    private static double computeMMSEEstimate(final double centerPixelValue, final double mean, final double varY,
+                                              final double etaV2) {
+
+        final double b = computeMMSEWeight(mean, varY, etaV2);
+
+        return (1 - b) * mean + b * centerPixelValue;
+    }
 }
@@ -121,8 +121,18 @@ public class Median implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+
+        if (windowSizeX * windowSizeY >= SlidingMedian.MIN_WINDOW_AREA) {
+            final SlidingMedian slidingMedian = new SlidingMedian(
+                    WindowStatistics.getPixelValues(sourceData1, sourceData2, srcIndex, sourceTileRectangle,
+                            noDataValue, isComplex),
+                    sourceTileRectangle, noDataValue, windowSizeX, windowSizeY);
+            slidingMedian.filter(new Rectangle(x0, y0, w, h), filteredTile);
+            return filteredTile;
+        }
+
+        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final int xMax = x0 + w;
         final int yMax = y0 + h;
 
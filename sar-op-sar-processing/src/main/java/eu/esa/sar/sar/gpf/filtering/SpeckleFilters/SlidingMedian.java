@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Sliding window median of a source tile with Huang's running histogram.
+ * <p>
+ * The valid pixels of the tile are ranked once and the ranks are split into bins of about
+ * sqrt(n / window area) samples. Moving the window one pixel to the right subtracts the column leaving it from the
+ * bin histogram and adds the column entering it, so the cost per pixel grows with the window height only. The
+ * bin holding the median is tracked from pixel to pixel, and the pixels of that bin are then visited in rank
+ * order to pick the exact median among those inside the window, so there is no quantisation error.
+ * <p>
+ * For small windows sorting the samples of each window is cheaper; see {@link #MIN_WINDOW_AREA}.
+ */
+public final class SlidingMedian {
+
+    // below this number of window pixels sorting the samples of every window is faster
+    public static final int MIN_WINDOW_AREA = 49;
+
+    private final Rectangle sourceRectangle;
+    private final double noDataValue;
+    private final int windowSizeX;
+    private final int windowSizeY;
+
+    private final int numValid;
+    private final int binSize;
+    private final int numBins;
+    private final double[] sortedValues;   // valid values in ascending order
+    private final int[] sortedX;           // source column of sortedValues[i], relative to the rectangle
+    private final int[] sortedY;           // source line of sortedValues[i], relative to the rectangle
+    private final int[] pixelBin;          // bin of every source pixel, -1 for no-data
+
+    /**
+     * @param values          pixel values of the source rectangle in row-major order
+     * @param sourceRectangle the rectangle the pixel values cover
+     * @param noDataValue     the place holder for no data
+     * @param windowSizeX     the sliding window width
+     * @param windowSizeY     the sliding window height
+     */
+    public SlidingMedian(final double[] values, final Rectangle sourceRectangle, final double noDataValue,
+                         final int windowSizeX, final int windowSizeY) {
+
+        this.sourceRectangle = sourceRectangle;
+        this.noDataValue = noDataValue;
+        this.windowSizeX = windowSizeX;
+        this.windowSizeY = windowSizeY;
+
+        final int sw = sourceRectangle.width;
+        final int numPixels = sw * sourceRectangle.height;
+
+        int n = 0;
+        final double[] sorted = new double[numPixels];
+        for (int p = 0; p < numPixels; p++) {
+            if (Double.compare(values[p], noDataValue) != 0) {
+                sorted[n++] = values[p];
+            }
+        }
+        numValid = n;
+        sortedValues = Arrays.copyOf(sorted, n);
+        Arrays.sort(sortedValues);
+
+        // balances the moves of the median bin between pixels against the samples scanned in that bin
+        binSize = Math.max(1, (int) Math.ceil(Math.sqrt((double) n / (windowSizeX * windowSizeY))));
+        numBins = Math.max(1, (n + binSize - 1) / binSize);
+
+        // equal values take consecutive positions from the first index of their value
+        sortedX = new int[n];
+        sortedY = new int[n];
+        pixelBin = new int[numPixels];
+        final int[] numEqual = new int[n];
+        for (int p = 0; p < numPixels; p++) {
+            if (Double.compare(values[p], noDataValue) == 0) {
+                pixelBin[p] = -1;
+                continue;
+            }
+            final int first = lowerBound(sortedValues, values[p]);
+            final int pos = first + numEqual[first]++;
+            sortedX[pos] = p % sw;
+            sortedY[pos] = p / sw;
+            pixelBin[p] = pos / binSize;
+        }
+    }
+
+    private static int lowerBound(final double[] sorted, final double v) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Double.compare(sorted[mid], v) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compute the median of the valid samples in the window centred at every pixel of the target rectangle,
+     * the upper one of the two middle samples for an even number, or the no-data value if there are none.
+     *
+     * @param targetRectangle the pixels to filter, inside the source rectangle
+     * @param filteredTile    output of targetRectangle.height lines of targetRectangle.width values
+     */
+    public void filter(final Rectangle targetRectangle, final double[][] filteredTile) {
+
+        final int sx0 = sourceRectangle.x;
+        final int sy0 = sourceRectangle.y;
+        final int halfSizeX = windowSizeX / 2;
+        final int halfSizeY = windowSizeY / 2;
+        final Window window = new Window(numBins);
+
+        for (int y = targetRectangle.y; y < targetRectangle.y + targetRectangle.height; y++) {
+
+            // window lines [minY, minY + windowSizeY) and columns [minX, minX + windowSizeX)
+            // relative to the source rectangle
+            final int minY = y - halfSizeY - sy0;
+            final double[] line = filteredTile[y - targetRectangle.y];
+
+            window.clear();
+            int minX = targetRectangle.x - halfSizeX - sx0;
+            for (int i = minX; i < minX + windowSizeX; i++) {
+                updateColumn(window, i, minY, 1);
+            }
+
+            for (int x = targetRectangle.x; x < targetRectangle.x + targetRectangle.width; x++) {
+                if (x > targetRectangle.x) {
+                    updateColumn(window, minX, minY, -1);
+                    updateColumn(window, minX + windowSizeX, minY, 1);
+                    minX++;
+                }
+                line[x - targetRectangle.x] = window.count > 0 ? findMedian(window, minX, minY) : noDataValue;
+            }
+        }
+    }
+
+    private void updateColumn(final Window window, final int i, final int minY, final int sign) {
+
+        final int sw = sourceRectangle.width;
+        if (i < 0 || i >= sw) {
+            return;
+        }
+        final int jMin = Math.max(minY, 0);
+        final int jMax = Math.min(minY + windowSizeY, sourceRectangle.height);
+        for (int j = jMin; j < jMax; j++) {
+            final int bin = pixelBin[j * sw + i];
+            if (bin >= 0) {
+                window.hist[bin] += sign;
+                window.count += sign;
+                if (bin < window.medianBin) {
+                    window.below += sign;
+                }
+            }
+        }
+    }
+
+    private double findMedian(final Window window, final int minX, final int minY) {
+
+        // move to the bin holding the sample of index count / 2
+        final int[] hist = window.hist;
+        final int m = window.count / 2;
+        int bin = window.medianBin;
+        int below = window.below;
+        while (below > m) {
+            bin--;
+            below -= hist[bin];
+        }
+        while (below + hist[bin] <= m) {
+            below += hist[bin];
+            bin++;
+        }
+        window.medianBin = bin;
+        window.below = below;
+
+        final int first = bin * binSize;
+        final int last = Math.min(first + binSize, numValid) - 1;
+        if (Double.compare(sortedValues[first], sortedValues[last]) == 0) {
+            return sortedValues[first];
+        }
+
+        // k-th sample of the bin inside the window, in ascending order
+        int k = m - below;
+        for (int pos = first; pos <= last; pos++) {
+            final int dx = sortedX[pos] - minX;
+            final int dy = sortedY[pos] - minY;
+            if (dx >= 0 && dx < windowSizeX && dy >= 0 && dy < windowSizeY && k-- == 0) {
+                return sortedValues[pos];
+            }
+        }
+        return noDataValue;
+    }
+
+    /**
+     * Bin histogram of the current window with the bin of the median and the number of samples below it.
+     */
+    private static final class Window {
+        final int[] hist;
+        int count;
+        int medianBin;
+        int below;
+
+        Window(final int numBins) {
+            hist = new int[numBins];
+        }
+
+        void clear() {
+            Arrays.fill(hist, 0);
+            count = 0;
+            medianBin = 0;
+            below = 0;
+        }
+    }
+}
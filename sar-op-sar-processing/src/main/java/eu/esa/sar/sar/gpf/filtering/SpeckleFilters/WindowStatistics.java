@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.*;
+
+/**
+ * Number of valid samples, mean and variance of the pixels in a sliding window, for every pixel of a target
+ * rectangle.
+ * <p>
+ * The valid pixel count, mean and sum of squared deviations of each window are computed separably, first along
+ * the rows and then along the columns. Each pass splits the line into blocks of the window length and combines
+ * the running statistics that end in a block with those that start in it, so every window costs a constant
+ * number of operations whatever the window size. Partial statistics are merged with the pairwise update of
+ * Chan et al. instead of accumulating sums of values and squares, so the variance of a bright but uniform window
+ * does not cancel away, and unlike a summed-area table a bright target does not swamp the statistics of the dark
+ * pixels around it.
+ * <p>
+ * Pixels equal to the no-data value and pixels outside the source rectangle are left out of the statistics,
+ * as in {@link SpeckleFilter#getNeighborValues}.
+ */
+public final class WindowStatistics {
+
+    private final Rectangle sourceRectangle;
+    private final Rectangle targetRectangle;
+    private final double[] values;
+    private final double[] count;
+    private final double[] mean;
+    private final double[] m2;
+
+    /**
+     * @param values          pixel values of the source rectangle in row-major order
+     * @param sourceRectangle the rectangle the pixel values cover
+     * @param noDataValue     the place holder for no data
+     * @param targetRectangle the pixels for which the window statistics are computed
+     * @param windowSizeX     the sliding window width
+     * @param windowSizeY     the sliding window height
+     */
+    public WindowStatistics(final double[] values, final Rectangle sourceRectangle, final double noDataValue,
+                            final Rectangle targetRectangle, final int windowSizeX, final int windowSizeY) {
+
+        this.values = values;
+        this.sourceRectangle = sourceRectangle;
+        this.targetRectangle = targetRectangle;
+
+        final int sx0 = sourceRectangle.x;
+        final int sy0 = sourceRectangle.y;
+        final int sw = sourceRectangle.width;
+        final int sh = sourceRectangle.height;
+        final int w = targetRectangle.width;
+        final int h = targetRectangle.height;
+
+        // window of the pixel (x, y) spans [x - halfSizeX, x - halfSizeX + windowSizeX - 1] and likewise in y
+        final int minX = targetRectangle.x - windowSizeX / 2;
+        final int minY = targetRectangle.y - windowSizeY / 2;
+        final int numX = w + windowSizeX - 1;
+        final int numY = h + windowSizeY - 1;
+
+        final Moments row = new Moments(numX);
+        final Moments prefix = new Moments(Math.max(numX, numY * w));
+        final Moments suffix = new Moments(prefix.count.length);
+
+        // row pass, one line of window statistics per window line
+        final Moments col = new Moments(numY * w);
+        final Moments out = new Moments(w);
+        for (int j = 0; j < numY; j++) {
+            final int sy = minY + j - sy0;
+            if (sy < 0 || sy >= sh) {
+                continue;
+            }
+
+            for (int i = 0; i < numX; i++) {
+                final int sx = minX + i - sx0;
+                final double v = sx >= 0 && sx < sw ? values[sy * sw + sx] : noDataValue;
+                if (Double.compare(v, noDataValue) != 0) {
+                    row.set(i, 1.0, v);
+                } else {
+                    row.set(i, 0.0, 0.0);
+                }
+            }
+
+            windowStatistics(row, numX, windowSizeX, 1, prefix, suffix, out);
+            col.copy(out, 0, j * w, w);
+        }
+
+        // column pass over whole lines
+        final Moments stats = new Moments(w * h);
+        windowStatistics(col, numY, windowSizeY, w, prefix, suffix, stats);
+        count = stats.count;
+        mean = stats.mean;
+        m2 = stats.m2;
+    }
+
+    /**
+     * Read the pixel values of a source tile, intensities in the case of complex data.
+     *
+     * @param srcData1        The source ProductData for 1st band.
+     * @param srcData2        The source ProductData for 2nd band.
+     * @param srcIndex        The source tile index.
+     * @param sourceRectangle The source tile rectangle.
+     * @param noDataValue     Place holder for no data value.
+     * @param isComplex       True if it has i and q, otherwise false.
+     * @return the pixel values in row-major order
+     */
+    public static double[] getPixelValues(final ProductData srcData1, final ProductData srcData2,
+                                          final TileIndex srcIndex, final Rectangle sourceRectangle,
+                                          final double noDataValue, final boolean isComplex) {
+
+        final int sx0 = sourceRectangle.x;
+        final int sy0 = sourceRectangle.y;
+        final int sw = sourceRectangle.width;
+        final int sh = sourceRectangle.height;
+        final double[] values = new double[sw * sh];
+
+        int k = 0;
+        for (int y = sy0; y < sy0 + sh; y++) {
+            srcIndex.calculateStride(y);
+            for (int x = sx0; x < sx0 + sw; x++) {
+                final int idx = srcIndex.getIndex(x);
+                if (isComplex) {
+                    final double I = srcData1.getElemDoubleAt(idx);
+                    final double Q = srcData2.getElemDoubleAt(idx);
+                    if (Double.compare(I, noDataValue) != 0 && Double.compare(Q, noDataValue) != 0) {
+                        values[k++] = I * I + Q * Q;
+                    } else {
+                        values[k++] = noDataValue;
+                    }
+                } else {
+                    values[k++] = srcData1.getElemDoubleAt(idx);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * out[k] = statistics of in[k], ..., in[k + win - 1] for vectors of len elements, using prefix statistics that
+     * restart at every multiple of win and the matching suffix statistics. A window either starts a block or
+     * straddles two blocks.
+     */
+    private static void windowStatistics(final Moments in, final int n, final int win, final int len,
+                                         final Moments prefix, final Moments suffix, final Moments out) {
+
+        for (int b = 0; b < n; b += win) {
+            final int e = Math.min(b + win, n);
+
+            prefix.copy(in, b * len, b * len, len);
+            for (int i = b + 1; i < e; i++) {
+                for (int l = i * len; l < (i + 1) * len; l++) {
+                    prefix.merge(prefix, l - len, in, l, l);
+                }
+            }
+
+            suffix.copy(in, (e - 1) * len, (e - 1) * len, len);
+            for (int i = e - 2; i >= b; i--) {
+                for (int l = i * len; l < (i + 1) * len; l++) {
+                    suffix.merge(in, l, suffix, l + len, l);
+                }
+            }
+        }
+
+        final int numOut = n - win + 1;
+        for (int k = 0; k < numOut; k++) {
+            final int end = (k + win - 1) * len;
+            if (k % win == 0) {
+                out.copy(prefix, end, k * len, len);
+            } else {
+                for (int l = 0; l < len; l++) {
+                    out.merge(suffix, k * len + l, prefix, end + l, k * len + l);
+                }
+            }
+        }
+    }
+
+    private int index(final int x, final int y) {
+        return (y - targetRectangle.y) * targetRectangle.width + x - targetRectangle.x;
+    }
+
+    /**
+     * @return the value of the pixel (x, y) of the source rectangle
+     */
+    public double getValue(final int x, final int y) {
+        return values[(y - sourceRectangle.y) * sourceRectangle.width + x - sourceRectangle.x];
+    }
+
+    /**
+     * @return the number of valid samples in the window centred at the target pixel (x, y)
+     */
+    public int getNumSamples(final int x, final int y) {
+        return (int) count[index(x, y)];
+    }
+
+    /**
+     * @return the mean of the valid samples in the window centred at the target pixel (x, y)
+     */
+    public double getMean(final int x, final int y) {
+        final int k = index(x, y);
+        return count[k] > 0 ? mean[k] : Double.NaN;
+    }
+
+    /**
+     * @return the sample variance of the valid samples in the window centred at the target pixel (x, y),
+     * 0 if there are less than two
+     */
+    public double getVariance(final int x, final int y) {
+        final int k = index(x, y);
+        final double n = count[k];
+        if (n <= 1) {
+            return 0.0;
+        }
+        return m2[k] / (n - 1);
+    }
+
+    /**
+     * Count, mean and sum of squared deviations from the mean of a set of samples, for each element.
+     */
+    private static final class Moments {
+
+        final double[] count;
+        final double[] mean;
+        final double[] m2;
+
+        Moments(final int size) {
+            count = new double[size];
+            mean = new double[size];
+            m2 = new double[size];
+        }
+
+        void set(final int i, final double n, final double value) {
+            count[i] = n;
+            mean[i] = value;
+            m2[i] = 0.0;
+        }
+
+        void copy(final Moments src, final int srcPos, final int destPos, final int len) {
+            System.arraycopy(src.count, srcPos, count, destPos, len);
+            System.arraycopy(src.mean, srcPos, mean, destPos, len);
+            System.arraycopy(src.m2, srcPos, m2, destPos, len);
+        }
+
+        /**
+         * Element i becomes the statistics of the union of the samples of a[ia] and b[ib].
+         */
+        void merge(final Moments a, final int ia, final Moments b, final int ib, final int i) {
+            final double na = a.count[ia];
+            final double nb = b.count[ib];
+            final double meanA = a.mean[ia];
+            final double meanB = b.mean[ib];
+            final double m2A = a.m2[ia];
+            final double m2B = b.m2[ib];
+            if (nb == 0) {
+                count[i] = na;
+                mean[i] = meanA;
+                m2[i] = m2A;
+            } else if (na == 0) {
+                count[i] = nb;
+                mean[i] = meanB;
+                m2[i] = m2B;
+            } else {
+                final double n = na + nb;
+                final double delta = meanB - meanA;
+                count[i] = n;
+                mean[i] = meanA + delta * nb / n;
+                m2[i] = m2A + m2B + delta * delta * na * nb / n;
+            }
+        }
+    }
+}
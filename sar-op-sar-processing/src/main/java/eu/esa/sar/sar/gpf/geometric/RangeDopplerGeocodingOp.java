@@ -25,6 +25,7 @@ import eu.esa.sar.commons.CRSGeoCodingHandler;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.insar.gpf.support.DEMTileCache;
 import eu.esa.sar.insar.gpf.support.SARPosition;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
@@ -220,6 +221,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     private MetadataElement absRoot = null;
     private ElevationModel dem = null;
+    private String demKey = null;
     private Band elevationBand = null;
     private double demNoDataValue = 0.0f; // no data value for DEM
     private GeoCoding targetGeoCoding = null;
@@ -494,12 +496,14 @@ public class RangeDopplerGeocodingOp extends Operator {
             dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
             ((FileElevationModel) dem).applyEarthGravitionalModel(externalDEMApplyEGM);
             demNoDataValue = externalDEMNoDataValue;
+            demKey = DEMTileCache.getDEMKey(demName, externalDEMFile, externalDEMApplyEGM);
             demName = externalDEMFile.getName();
 
         } else {
 
             dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
             demNoDataValue = dem.getDescriptor().getNoDataValue();
+            demKey = DEMTileCache.getDEMKey(demName, null, false);
         }
 
         if (elevationBand != null) {
@@ -884,8 +888,8 @@ public class RangeDopplerGeocodingOp extends Operator {
             if (useAvgSceneHeight) {
                 DEMFactory.fillDEM(localDEM, avgSceneHeight);
             } else {
-                final boolean valid = DEMFactory.getLocalDEM(
-                        dem, demNoDataValue, demResamplingMethod, tileGeoRef, x0, y0, w, h, sourceProduct,
+                final boolean valid = DEMTileCache.instance().getLocalDEM(
+                        dem, demKey, demNoDataValue, demResamplingMethod, tileGeoRef, x0, y0, w, h, sourceProduct,
                         nodataValueAtSea, localDEM);
                 if (!valid && nodataValueAtSea) {
                     for (Band targetBand : targetTiles.keySet()) {
@@ -989,17 +993,24 @@ public class RangeDopplerGeocodingOp extends Operator {
             final GeoPos posLast = targetProduct.getSceneGeoCoding().getGeoPos(new PixelPos(0,targetImageHeight), null);
             int diffLat = (int)Math.abs(posFirst.lat - posLast.lat);
 
+            // earth points of one row, solved for zero Doppler time as a batch
+            final double[] rowLat = new double[w];
+            final double[] rowLon = new double[w];
+            final double[] rowAlt = new double[w];
+            final double[] rowX = new double[w];
+            final double[] rowY = new double[w];
+            final double[] rowZ = new double[w];
+            final double[] rowZeroDopplerTime = new double[w];
+
             for (int y = y0; y < maxY; y++) {
                 final int yy = y - y0 + 1;
                 for (int x = x0; x < maxX; x++) {
-                    final int index = tgtTiles[0].targetTile.getDataBufferIndex(x, y);
+                    final int i = x - x0;
 
-                    Double alt = localDEM[yy][x - x0 + 1];
-                    if (alt.equals(demNoDataValue) && !useAvgSceneHeight) {
-                        if (nodataValueAtSea) {
-                            saveNoDataValueToTarget(index, tgtTiles, demBuffer);
-                            continue;
-                        }
+                    double alt = localDEM[yy][i + 1];
+                    if (Double.compare(alt, demNoDataValue) == 0 && !useAvgSceneHeight && nodataValueAtSea) {
+                        rowX[i] = Double.NaN;
+                        continue;
                     }
 
                     tileGeoRef.getGeoPos(x, y, geoPos);
@@ -1009,11 +1020,39 @@ public class RangeDopplerGeocodingOp extends Operator {
                         lon -= 360.0;
                     }
 
-                    if (alt.equals(demNoDataValue) && !nodataValueAtSea) { // get corrected elevation for 0
+                    if (Double.compare(alt, demNoDataValue) == 0 && !nodataValueAtSea) { // get corrected elevation for 0
                         alt = (double) egm.getEGM(lat, lon);
                     }
 
-                    if (!getPosition(lat, lon, alt, posData)) {
+                    rowLat[i] = lat;
+                    rowLon[i] = lon;
+                    rowAlt[i] = alt;
+                    GeoUtils.geo2xyzWGS84(lat, lon, alt, posData.earthPoint);
+                    rowX[i] = posData.earthPoint.x;
+                    rowY[i] = posData.earthPoint.y;
+                    rowZ[i] = posData.earthPoint.z;
+                }
+
+                SARGeocoding.getEarthPointZeroDopplerTimes(firstLineUTC, lineTimeInterval, wavelength, orbit,
+                        rowX, rowY, rowZ, w, rowZeroDopplerTime, null);
+
+                for (int x = x0; x < maxX; x++) {
+                    final int index = tgtTiles[0].targetTile.getDataBufferIndex(x, y);
+                    final int i = x - x0;
+
+                    if (Double.isNaN(rowX[i])) {
+                        saveNoDataValueToTarget(index, tgtTiles, demBuffer);
+                        continue;
+                    }
+
+                    final double lat = rowLat[i];
+                    final double lon = rowLon[i];
+                    final double alt = rowAlt[i];
+                    posData.earthPoint.x = rowX[i];
+                    posData.earthPoint.y = rowY[i];
+                    posData.earthPoint.z = rowZ[i];
+
+                    if (!getPosition(rowZeroDopplerTime[i], posData)) {
                         saveNoDataValueToTarget(index, tgtTiles, demBuffer);
                         continue;
                     }
@@ -1133,8 +1172,9 @@ public class RangeDopplerGeocodingOp extends Operator {
                         final double[][] localDEM = new double[h + 2][w + 2];
                         final TileGeoreferencing tileGeoRef = new TileGeoreferencing(sourceProduct, x0, y0, w, h);
                         try {
-                            final boolean valid = DEMFactory.getLocalDEM(dem, demNoDataValue, demResamplingMethod,
-                                    tileGeoRef, x0, y0, w, h, sourceProduct, true, localDEM);
+                            final boolean valid = DEMTileCache.instance().getLocalDEM(dem, demKey,
+                                    demNoDataValue, demResamplingMethod, tileGeoRef, x0, y0, w, h, sourceProduct,
+                                    true, localDEM);
 
                             if (!valid) {
                                 return;
@@ -1488,9 +1528,17 @@ public class RangeDopplerGeocodingOp extends Operator {
 
         GeoUtils.geo2xyzWGS84(lat, lon, alt, data.earthPoint);
 
-        double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC,
+        final double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC,
                                                                            lineTimeInterval, wavelength, data.earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
 
+        return getPosition(zeroDopplerTime, data);
+    }
+
+    /**
+     * Compute slant range, range and azimuth index for data.earthPoint with a known zero Doppler time.
+     */
+    private boolean getPosition(double zeroDopplerTime, final PositionData data) {
+
         if (Double.compare(zeroDopplerTime, SARGeocoding.NonValidZeroDopplerTime) == 0) {
             return false;
         }
@@ -19,6 +19,7 @@ import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
+import eu.esa.sar.insar.gpf.support.DEMTileCache;
 import eu.esa.sar.insar.gpf.support.SARPosition;
 import eu.esa.sar.commons.SARUtils;
 import org.esa.snap.core.datamodel.*;
@@ -154,6 +155,7 @@ public final class SARSimulationOp extends Operator {
 
     private MetadataElement absRoot = null;
     private ElevationModel dem = null;
+    private String demKey = null;
     private GeoCoding targetGeoCoding = null;
 
     private int sourceImageWidth = 0;
@@ -301,11 +303,13 @@ public final class SARSimulationOp extends Operator {
                 dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
                 ((FileElevationModel)dem).applyEarthGravitionalModel(externalDEMApplyEGM);
                 demNoDataValue = externalDEMNoDataValue;
+                demKey = DEMTileCache.getDEMKey(demName, externalDEMFile, externalDEMApplyEGM);
                 demName = externalDEMFile.getPath();
 
             } else {
                 dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
+                demKey = DEMTileCache.getDEMKey(demName, null, false);
             }
         } catch (Throwable t) {
             t.printStackTrace();
@@ -717,9 +721,9 @@ public final class SARSimulationOp extends Operator {
                     }
                 } else {
 
-                    final boolean valid = DEMFactory.getLocalDEM(
-                            dem, demNoDataValue, demResamplingMethod, tileGeoRef, xmin, ymin, widthExt, heightExt,
-                            sourceProduct, true, localDEM);
+                    final boolean valid = DEMTileCache.instance().getLocalDEM(
+                            dem, demKey, demNoDataValue, demResamplingMethod, tileGeoRef, xmin, ymin, widthExt,
+                            heightExt, sourceProduct, true, localDEM);
 
                     if (!valid)
                         return;
@@ -22,6 +22,7 @@ import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
 import eu.esa.sar.commons.polsar.PolBandUtils;
+import eu.esa.sar.insar.gpf.support.DEMTileCache;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
 import org.esa.snap.core.dataop.resamp.Resampling;
@@ -37,7 +38,6 @@ import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
 import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.dem.dataio.DEMFactory;
-import org.esa.snap.dem.dataio.EarthGravitationalModel96;
 import org.esa.snap.dem.dataio.FileElevationModel;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
@@ -114,6 +114,7 @@ public final class TerrainFlatteningOp extends Operator {
 
     private Product newSourceProduct = null;
     private ElevationModel dem = null;
+    private String demKey = null;
     private FileElevationModel fileElevationModel = null;
     private TiePointGrid incidenceAngleTPG = null;
 
@@ -572,19 +573,9 @@ public final class TerrainFlatteningOp extends Operator {
             final int rows = (int) Math.round((latMax - latMin) / demResolution);
             final int cols = (int) Math.round((lonMax - lonMin) / demResolution);
 
-            final EarthGravitationalModel96 egm = EarthGravitationalModel96.instance();
-            final double[][] height = new double[rows][cols];
-            for (int i = 0; i < rows; ++i) {
-                final double lat = latMax - i * demResolution;
-                for (int j = 0; j < cols; ++j) {
-                    final double lon = lonMin + j * demResolution;
-                    Double alt = dem.getElevation(new GeoPos(lat, lon));
-                    if (alt.equals(demNoDataValue) && !nodataValueAtSea) { // get corrected elevation for 0
-                        alt = (double) egm.getEGM(lat, lon);
-                    }
-                    height[i][j] = alt;
-                }
-            }
+            // shared with the other geocoding operators, no data is replaced with the geoid height unless kept at sea
+            final double[][] height = DEMTileCache.instance().getElevations(dem, demKey, demNoDataValue,
+                    demResamplingMethod, latMax, lonMin, demResolution, demResolution, rows, cols, !nodataValueAtSea);
             final ResamplingRaster resamplingRaster = new ResamplingRaster(demNoDataValue, height);
             final Resampling.Index resamplingIndex = selectedResampling.createIndex();
 
@@ -974,11 +965,13 @@ public final class TerrainFlatteningOp extends Operator {
                 dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
                 ((FileElevationModel) dem).applyEarthGravitionalModel(externalDEMApplyEGM);
                 demNoDataValue = externalDEMNoDataValue;
+                demKey = DEMTileCache.getDEMKey(demName, externalDEMFile, externalDEMApplyEGM);
                 demName = externalDEMFile.getPath();
 
             } else {
                 dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
+                demKey = DEMTileCache.getDEMKey(demName, null, false);
             }
         } catch (Throwable t) {
             t.printStackTrace();
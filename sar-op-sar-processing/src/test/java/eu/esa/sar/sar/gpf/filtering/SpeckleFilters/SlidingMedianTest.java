@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the sliding histogram median of the Median speckle filter.
+ */
+public class SlidingMedianTest {
+
+    private static final double noDataValue = 0.0;
+
+    // brute force median like Median.getMedianValue
+    private static double windowMedian(final double[] values, final Rectangle src, final int x, final int y,
+                                       final int windowSizeX, final int windowSizeY) {
+        final int minX = x - windowSizeX / 2;
+        final int minY = y - windowSizeY / 2;
+        final double[] tmp = new double[windowSizeX * windowSizeY];
+        int n = 0;
+        for (int yy = minY; yy < minY + windowSizeY; yy++) {
+            for (int xx = minX; xx < minX + windowSizeX; xx++) {
+                if (src.contains(xx, yy)) {
+                    final double v = values[(yy - src.y) * src.width + xx - src.x];
+                    if (v != noDataValue) {
+                        tmp[n++] = v;
+                    }
+                }
+            }
+        }
+        if (n == 0) {
+            return noDataValue;
+        }
+        Arrays.sort(tmp, 0, n);
+        return tmp[n / 2];
+    }
+
+    private static void check(final int windowSizeX, final int windowSizeY) {
+        final Random random = new Random(windowSizeX * 31 + windowSizeY);
+        final Rectangle src = new Rectangle(5, 10, 47, 39);
+        final double[] values = new double[src.width * src.height];
+        for (int i = 0; i < values.length; i++) {
+            // exponential intensities with repeated values and some no-data pixels
+            values[i] = random.nextInt(8) == 0 ? noDataValue :
+                    random.nextInt(5) == 0 ? 3.0 : -Math.log(1.0 - random.nextDouble());
+        }
+        // a block of no-data larger than the smallest windows
+        for (int y = 20; y < 26; y++) {
+            Arrays.fill(values, y * src.width + 10, y * src.width + 16, noDataValue);
+        }
+
+        // target rectangle touching the source border on the left and top
+        final Rectangle target = new Rectangle(5, 10, 40, 30);
+        final double[][] filteredTile = new double[target.height][target.width];
+        new SlidingMedian(values, src, noDataValue, windowSizeX, windowSizeY).filter(target, filteredTile);
+
+        for (int y = target.y; y < target.y + target.height; y++) {
+            for (int x = target.x; x < target.x + target.width; x++) {
+                assertEquals(windowMedian(values, src, x, y, windowSizeX, windowSizeY),
+                        filteredTile[y - target.y][x - target.x], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testOddWindows() {
+        check(3, 3);
+        check(7, 5);
+        check(15, 15);
+    }
+
+    @Test
+    public void testEvenAndLargeWindows() {
+        check(4, 6);
+        check(1, 1);
+        check(33, 31);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the sliding window statistics of the speckle filters.
+ */
+public class WindowStatisticsTest {
+
+    private static final double noDataValue = 0.0;
+
+    // brute force count, mean and variance like SpeckleFilter.getMeanValue and getVarianceValue
+    private static double[] windowStatistics(final double[] values, final Rectangle src, final int x, final int y,
+                                             final int windowSizeX, final int windowSizeY) {
+        final int minX = x - windowSizeX / 2;
+        final int minY = y - windowSizeY / 2;
+        int n = 0;
+        double sum = 0.0;
+        for (int yy = minY; yy < minY + windowSizeY; yy++) {
+            for (int xx = minX; xx < minX + windowSizeX; xx++) {
+                if (src.contains(xx, yy)) {
+                    final double v = values[(yy - src.y) * src.width + xx - src.x];
+                    if (v != noDataValue) {
+                        sum += v;
+                        n++;
+                    }
+                }
+            }
+        }
+        final double mean = sum / n;
+        double var = 0.0;
+        for (int yy = minY; yy < minY + windowSizeY; yy++) {
+            for (int xx = minX; xx < minX + windowSizeX; xx++) {
+                if (src.contains(xx, yy)) {
+                    final double v = values[(yy - src.y) * src.width + xx - src.x];
+                    if (v != noDataValue) {
+                        var += (v - mean) * (v - mean);
+                    }
+                }
+            }
+        }
+        return new double[]{n, mean, n > 1 ? var / (n - 1) : 0.0};
+    }
+
+    private static void check(final int windowSizeX, final int windowSizeY) {
+        final Random random = new Random(windowSizeX * 31 + windowSizeY);
+        final Rectangle src = new Rectangle(0, 10, 37, 29);
+        final double[] values = new double[src.width * src.height];
+        for (int i = 0; i < values.length; i++) {
+            // exponential intensities over a wide dynamic range with some no-data pixels
+            values[i] = random.nextInt(10) == 0 ? noDataValue :
+                    -Math.log(1.0 - random.nextDouble()) * Math.pow(10, 4 * random.nextDouble());
+        }
+
+        // target rectangle touching the source border on the left and top
+        final Rectangle target = new Rectangle(0, 10, 30, 20);
+        final WindowStatistics stats = new WindowStatistics(
+                values, src, noDataValue, target, windowSizeX, windowSizeY);
+
+        for (int y = target.y; y < target.y + target.height; y++) {
+            for (int x = target.x; x < target.x + target.width; x++) {
+                final double[] expected = windowStatistics(values, src, x, y, windowSizeX, windowSizeY);
+                assertEquals(expected[0], stats.getNumSamples(x, y), 0.0);
+                if (expected[0] > 0) {
+                    assertEquals(expected[1], stats.getMean(x, y), 1e-9 * expected[1]);
+                    assertEquals(expected[2], stats.getVariance(x, y), 1e-8 * expected[2] + 1e-12);
+                }
+                assertEquals(values[(y - src.y) * src.width + x - src.x], stats.getValue(x, y), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testOddWindows() {
+        check(3, 3);
+        check(7, 5);
+        check(15, 15);
+    }
+
+    @Test
+    public void testEvenAndLargeWindows() {
+        check(4, 2);
+        check(1, 1);
+        check(33, 31);
+    }
+
+    @Test
+    public void testHighDynamicRange() {
+        final Random random = new Random(7);
+        final Rectangle src = new Rectangle(5, 0, 40, 30);
+        final double[] values = new double[src.width * src.height];
+        for (int i = 0; i < values.length; i++) {
+            final int x = i % src.width;
+            if (x < 20) {
+                // bright homogeneous area with unit variance, sum2 - sum * sum / n cancels completely here
+                values[i] = 1e8 + random.nextGaussian();
+            } else {
+                // dark clutter with a few strong point targets
+                values[i] = random.nextInt(50) == 0 ? 1e10 : 1.0 + random.nextDouble();
+            }
+        }
+
+        final Rectangle target = new Rectangle(8, 3, 32, 24);
+        final int windowSize = 7;
+        final WindowStatistics stats = new WindowStatistics(
+                values, src, noDataValue, target, windowSize, windowSize);
+
+        for (int y = target.y; y < target.y + target.height; y++) {
+            for (int x = target.x; x < target.x + target.width; x++) {
+                final double[] expected = windowStatistics(values, src, x, y, windowSize, windowSize);
+                assertEquals(expected[0], stats.getNumSamples(x, y), 0.0);
+                assertEquals(expected[1], stats.getMean(x, y), 1e-12 * expected[1]);
+                assertEquals(expected[2], stats.getVariance(x, y), 1e-6 * expected[2]);
+            }
+        }
+    }
+}
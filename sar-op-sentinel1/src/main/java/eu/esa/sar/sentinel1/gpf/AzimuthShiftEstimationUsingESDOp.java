@@ -18,6 +18,7 @@ package eu.esa.sar.sentinel1.gpf;
 import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.sentinel1.gpf.util.ESDShiftStore;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.downloadable.StatusProgressMonitor;
 import org.esa.snap.core.gpf.Operator;
@@ -46,6 +47,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -98,6 +100,9 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
 
     private boolean outputESDEstimationToFile = true;
 
+    // block shifts of earlier runs on the same stack, null if the source product is not read from a file
+    private ESDShiftStore shiftStore = null;
+
     /**
      * Default constructor. The graph processing framework
      * requires that an operator has a default constructor.
@@ -138,6 +143,10 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
                 subSwathIndex = 1; // subSwathIndex is always 1 because of split product
             }
 
+            if (sourceProduct.getFileLocation() != null) {
+                shiftStore = ESDShiftStore.getDefault();
+            }
+
             constructSourceMetadata();
 
             constructTargetMetadata();
@@ -307,6 +316,12 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
         return mstTag + "_" + slvTag;
     }
 
+    @Override
+    public void doExecute(ProgressMonitor pm) throws OperatorException {
+        // the whole-stack estimation runs here once, before any tile is requested
+        estimateAzimuthOffset(pm);
+    }
+
     /**
      * Called by the framework in order to compute a tile for the given target band.
      * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
@@ -323,7 +338,7 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
 
         try {
             if (!isAzimuthOffsetAvailable) {
-                estimateAzimuthOffset();
+                estimateAzimuthOffset(ProgressMonitor.NULL);
             }
 
             final Band targetBand = targetProduct.getBand(firstBand.getName());
@@ -338,9 +353,12 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
     }
 
     /**
-     * Estimate azimuth offset using ESD approach
+     * Estimate azimuth offset using ESD approach. The block shifts of each pair are kept in the shift store so a
+     * rerun on the same stack with the same parameters skips the estimation.
+     *
+     * @param pm reports one unit per burst overlap of each pair.
      */
-    private synchronized void estimateAzimuthOffset() {
+    private synchronized void estimateAzimuthOffset(final ProgressMonitor pm) {
 
         if (isAzimuthOffsetAvailable) {
             return;
@@ -351,6 +369,7 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
         final int numShifts = numOverlaps * numBlocksPerOverlap;
         final double spectralSeparation = computeSpectralSeparation();
 
+        pm.beginTask("Azimuth shift estimation", targetMap.size() * numOverlaps);
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
         status.beginTask("Estimating azimuth offset... ", numShifts * numPolarizations);
 
@@ -367,60 +386,89 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
                 final Band sBandI = slave.realBand;
                 final Band sBandQ = slave.imagBand;
 
-                final List<AzimuthShiftData> azShiftArray = new ArrayList<>(numShifts);
                 final double[][] shiftLUT = new double[numOverlaps][numBlocksPerOverlap];
 
-                for (int i = 0; i < numOverlaps; i++) {
-
-                    final Rectangle overlapInBurstOneRectangle =  new Rectangle();
-                    final Rectangle overlapInBurstTwoRectangle = new Rectangle();
-
-                    getOverlappedRectangles(i, overlapInBurstOneRectangle, overlapInBurstTwoRectangle);
+                final String storeKey = getShiftStoreKey(master, slave);
+                final double[] storedShifts = storeKey != null ? shiftStore.load(storeKey, numShifts) : null;
+                if (storedShifts != null) {
+                    SystemUtils.LOG.info("Using stored ESD block shifts for " + key);
+                    for (int i = 0; i < numOverlaps; i++) {
+                        System.arraycopy(storedShifts, i * numBlocksPerOverlap, shiftLUT[i], 0, numBlocksPerOverlap);
+                    }
+                    status.worked(numShifts);
+                    pm.worked(numOverlaps);
+                } else {
+                    final int[] blocksLeft = new int[numOverlaps];
+                    Arrays.fill(blocksLeft, numBlocksPerOverlap);
+
+                    for (int i = 0; i < numOverlaps; i++) {
+
+                        final Rectangle overlapInBurstOneRectangle =  new Rectangle();
+                        final Rectangle overlapInBurstTwoRectangle = new Rectangle();
+
+                        getOverlappedRectangles(i, overlapInBurstOneRectangle, overlapInBurstTwoRectangle);
+
+                        final double[][] coherence = computeCoherence(
+                                overlapInBurstOneRectangle, mBandI, mBandQ, sBandI, sBandQ, cohWin);
+
+                        final int w = overlapInBurstOneRectangle.width / numBlocksPerOverlap; // block width
+                        final int h = overlapInBurstOneRectangle.height;
+                        final int x0BurstOne = overlapInBurstOneRectangle.x;
+                        final int y0BurstOne = overlapInBurstOneRectangle.y;
+                        final int y0BurstTwo = overlapInBurstTwoRectangle.y;
+                        final int overlapIndex = i;
+
+                        for (int j = 0; j < numBlocksPerOverlap; j++) {
+                            checkForCancellation();
+                            final int x0 = x0BurstOne + j * w;
+                            final int blockIndex = j;
+
+                            final ThreadRunnable worker = new ThreadRunnable() {
+                                @Override
+                                public void process() {
+                                    try {
+                                        final Rectangle blockInBurstOneRectangle = new Rectangle(x0, y0BurstOne, w, h);
+                                        final Rectangle blockInBurstTwoRectangle = new Rectangle(x0, y0BurstTwo, w, h);
+
+                                        final double[] blockCoherence = getBlockCoherence(blockIndex, w, h, coherence);
+
+                                        final double azShift = estimateAzOffsets(mBandI, mBandQ, sBandI, sBandQ, blockCoherence,
+                                                blockInBurstTwoRectangle, blockInBurstOneRectangle, spectralSeparation);
+
+                                        synchronized(shiftLUT) {
+                                            shiftLUT[overlapIndex][blockIndex] = azShift;
+                                            status.worked(1);
+                                            if (--blocksLeft[overlapIndex] == 0) {
+                                                pm.worked(1);
+                                            }
+                                        }
+                                    } catch (Throwable e) {
+                                        OperatorUtils.catchOperatorException("estimateOffset", e);
+                                    }
+                                }
+                            };
+                            executor.execute(worker);
+                        }
+                    }
 
-                    final double[][] coherence = computeCoherence(
-                            overlapInBurstOneRectangle, mBandI, mBandQ, sBandI, sBandQ, cohWin);
+                    executor.complete();
 
-                    final int w = overlapInBurstOneRectangle.width / numBlocksPerOverlap; // block width
-                    final int h = overlapInBurstOneRectangle.height;
-                    final int x0BurstOne = overlapInBurstOneRectangle.x;
-                    final int y0BurstOne = overlapInBurstOneRectangle.y;
-                    final int y0BurstTwo = overlapInBurstTwoRectangle.y;
-                    final int overlapIndex = i;
+                    if (storeKey != null) {
+                        final double[] shifts = new double[numShifts];
+                        for (int i = 0; i < numOverlaps; i++) {
+                            System.arraycopy(shiftLUT[i], 0, shifts, i * numBlocksPerOverlap, numBlocksPerOverlap);
+                        }
+                        shiftStore.save(storeKey, shifts);
+                    }
+                }
 
+                final List<AzimuthShiftData> azShiftArray = new ArrayList<>(numShifts);
+                for (int i = 0; i < numOverlaps; i++) {
                     for (int j = 0; j < numBlocksPerOverlap; j++) {
-                        checkForCancellation();
-                        final int x0 = x0BurstOne + j * w;
-                        final int blockIndex = j;
-
-                        final ThreadRunnable worker = new ThreadRunnable() {
-                            @Override
-                            public void process() {
-                                try {
-                                    final Rectangle blockInBurstOneRectangle = new Rectangle(x0, y0BurstOne, w, h);
-                                    final Rectangle blockInBurstTwoRectangle = new Rectangle(x0, y0BurstTwo, w, h);
-
-                                    final double[] blockCoherence = getBlockCoherence(blockIndex, w, h, coherence);
-
-                                    final double azShift = estimateAzOffsets(mBandI, mBandQ, sBandI, sBandQ, blockCoherence,
-                                            blockInBurstTwoRectangle, blockInBurstOneRectangle, spectralSeparation);
-
-                                    synchronized(azShiftArray) {
-                                        azShiftArray.add(new AzimuthShiftData(overlapIndex, blockIndex, azShift));
-                                        shiftLUT[overlapIndex][blockIndex] = azShift;
-                                    }
-                                } catch (Throwable e) {
-                                    OperatorUtils.catchOperatorException("estimateOffset", e);
-                                }
-                            }
-                        };
-                        executor.execute(worker);
-                        status.worked(1);
+                        azShiftArray.add(new AzimuthShiftData(i, j, shiftLUT[i][j]));
                     }
                 }
 
-                status.done();
-                executor.complete();
-
                 // todo The following simple average should be replaced by weighted average using coherence as weight
                 final double[] averagedAzShiftArray = new double[numOverlaps];
                 double totalOffset = 0.0;
@@ -463,11 +511,30 @@ public class AzimuthShiftEstimationUsingESDOp extends Operator {
 
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException("estimateAzimuthOffset", e);
+        } finally {
+            status.done();
+            pm.done();
         }
 
         isAzimuthOffsetAvailable = true;
     }
 
+    /**
+     * Identifies the block shifts of a master-slave pair of this stack in the shift store.
+     *
+     * @return the key or null if the shifts should not be stored.
+     */
+    private String getShiftStoreKey(final CplxContainer master, final CplxContainer slave) {
+        if (shiftStore == null) {
+            return null;
+        }
+        final File file = sourceProduct.getFileLocation();
+        return file.getAbsolutePath() + '|' + file.lastModified() + '|' + subSwathNames[0] +
+                '|' + master.realBand.getName() + ',' + master.imagBand.getName() +
+                '|' + slave.realBand.getName() + ',' + slave.imagBand.getName() +
+                '|' + numBlocksPerOverlap + '|' + cohThreshold;
+    }
+
     private double computeSpectralSeparation () {
 
         final double tCycle =
@@ -19,6 +19,7 @@ import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.insar.gpf.coregistration.CreateStackOp;
 import eu.esa.sar.insar.gpf.coregistration.DEMAssistedCoregistrationOp;
+import eu.esa.sar.insar.gpf.support.DEMTileCache;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.datamodel.*;
@@ -115,6 +116,7 @@ public final class BackGeocodingOp extends Operator {
     private String mstSuffix = null;
 
     private ElevationModel dem = null;
+    private String demKey = null;
     private boolean isElevationModelAvailable = false;
     private double demNoDataValue = 0; // no data value for DEM
     private double demSamplingLat = 0.0;
@@ -521,11 +523,15 @@ public final class BackGeocodingOp extends Operator {
                 double[] extendedAmount = {0.0, 0.0, 0.0, 0.0};
                 computeExtendedAmount(ntx0, nty0, ntw, nth, extendedAmount);
 
+                // the reference geometry of the burst tile is computed once and shared by all secondary images
+                final ReferenceGeometry refGeometry = new ReferenceGeometry(
+                        subSwathIndex, burstIndex, ntx0, nty0, ntw, nth, extendedAmount);
+
                 for(SlaveData slaveData : slaveDataList) {
                     //slaveData.print();
 
                     computePartialTile(subSwathIndex, burstIndex, ntx0, nty0, ntw, nth, targetTileMap,
-                            slaveData, extendedAmount);
+                            slaveData, refGeometry);
                 }
             }
 
@@ -548,6 +554,7 @@ public final class BackGeocodingOp extends Operator {
             if (externalDEMFile != null) { // if external DEM file is specified by user
                 dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
                 demNoDataValue = externalDEMNoDataValue;
+                demKey = DEMTileCache.getDEMKey(demName, externalDEMFile, null);
                 demName = externalDEMFile.getPath();
                 try {
                     demSamplingLat = Math.abs(dem.getGeoPos(new PixelPos(0, 1)).getLat() -
@@ -562,6 +569,7 @@ public final class BackGeocodingOp extends Operator {
             } else {
                 dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
+                demKey = DEMTileCache.getDEMKey(demName, null, false);
                 demSamplingLat = (double)dem.getDescriptor().getTileWidthInDegrees() /
                         (double)dem.getDescriptor().getTileWidth();
                 demSamplingLon = demSamplingLat;
@@ -783,7 +791,7 @@ public final class BackGeocodingOp extends Operator {
     private void computePartialTile(final int subSwathIndex, final int mBurstIndex,
                                     final int x0, final int y0, final int w, final int h,
                                     final Map<Band, Tile> targetTileMap, final SlaveData slaveData,
-                                    final double[] extendedAmount)
+                                    final ReferenceGeometry refGeometry)
             throws Exception {
 
         final int sBurstIndex = mBurstIndex + slaveData.burstOffset;
@@ -798,7 +806,7 @@ public final class BackGeocodingOp extends Operator {
 
         final PixelPos[][] slavePixPos = new PixelPos[h][w];
         final boolean isSuccessful = computeSlavePixPos(
-                subSwathIndex, mBurstIndex, sBurstIndex, x0, y0, w, h, extendedAmount, slavePixPos, slaveData, elevation);
+                subSwathIndex, sBurstIndex, x0, y0, w, h, refGeometry, slavePixPos, slaveData, elevation);
 
         if (!isSuccessful) {
             return;
@@ -894,85 +902,138 @@ public final class BackGeocodingOp extends Operator {
         }
     }
 
-    private boolean computeSlavePixPos(final int subSwathIndex, final int mBurstIndex, final int sBurstIndex,
+    /**
+     * Compute the DEM window around a burst tile and the reference image position of each DEM post. None of it
+     * depends on the secondary image, so it is done on the first request and reused for the others.
+     */
+    private void computeReferenceGeometry(final ReferenceGeometry ref) throws Exception {
+
+        if (ref.computed) {
+            return;
+        }
+
+        final int xmin = ref.x0 - (int)ref.extendedAmount[3];
+        final int ymin = ref.y0 - (int)ref.extendedAmount[1];
+        final int ymax = ref.y0 + ref.h + (int)Math.abs(ref.extendedAmount[0]);
+        final int xmax = ref.x0 + ref.w + (int)Math.abs(ref.extendedAmount[2]);
+
+        // Compute lat/lon boundaries (with extensions) for target tile
+        final double[] latLonMinMax = new double[4];
+
+        computeImageGeoBoundary(ref.subSwathIndex, ref.burstIndex, xmin, xmax, ymin, ymax, latLonMinMax);
+
+        final double delta = Math.max(demSamplingLat, demSamplingLon);
+//        final double extralat = 1.5*delta + 4.0/25.0;
+//        final double extralon = 1.5*delta + 4.0/25.0;
+        final double extralat = 20*delta;
+        final double extralon = 20*delta;
+
+        final double latMin = latLonMinMax[0] - extralat;
+        final double latMax = latLonMinMax[1] + extralat;
+        final double lonMin = latLonMinMax[2] - extralon;
+        final double lonMax = latLonMinMax[3] + extralon;
+
+        // Compute lat/lon indices in DEM for the boundaries;
+        final PixelPos upperLeft = dem.getIndex(new GeoPos(latMax, lonMin));
+        final PixelPos lowerRight = dem.getIndex(new GeoPos(latMin, lonMax));
+        final int latMaxIdx = (int)Math.floor(upperLeft.getY());
+        final int latMinIdx = (int)Math.ceil(lowerRight.getY());
+        final int lonMinIdx = (int)Math.floor(upperLeft.getX());
+        final int lonMaxIdx = (int)Math.ceil(lowerRight.getX());
+
+        // Loop through all DEM points bounded by the indices computed above. For each point,
+        // get its lat/lon and its azimuth/range indices in target image;
+        final int numLines = latMinIdx - latMaxIdx;
+        final int numPixels = lonMaxIdx - lonMinIdx;
+        ref.numLines = numLines;
+        ref.numPixels = numPixels;
+        ref.masterAz = new double[numLines][numPixels];
+        ref.masterRg = new double[numLines][numPixels];
+        ref.lat = new double[numLines][numPixels];
+        ref.lon = new double[numLines][numPixels];
+        ref.earthPoints = new double[3 * numLines * numPixels];
+        final PositionData posData = new PositionData();
+        final PixelPos pix = new PixelPos();
+
+        // no data is replaced with the geoid height unless masked out
+        final double[][] elevations = DEMTileCache.instance().getElevationsAtDEMPosts(dem, demKey,
+                demNoDataValue, demResamplingMethod, latMaxIdx, lonMinIdx, numLines, numPixels,
+                !maskOutAreaWithoutElevation);
+
+        for (int l = 0; l < numLines; l++) {
+            for (int p = 0; p < numPixels; p++) {
+
+                pix.setLocation(lonMinIdx + p, latMaxIdx + l);
+                GeoPos gp = dem.getGeoPos(pix);
+                ref.lat[l][p] = gp.lat;
+                ref.lon[l][p] = gp.lon;
+
+                final Double alt = elevations[l][p];
+
+                if (!alt.equals(demNoDataValue)) {
+                    GeoUtils.geo2xyzWGS84(gp.lat, gp.lon, alt, posData.earthPoint);
+                    if(getPosition(ref.subSwathIndex, ref.burstIndex, mSU, posData)) {
+
+                        ref.masterAz[l][p] = posData.azimuthIndex;
+                        ref.masterRg[l][p] = posData.rangeIndex;
+
+                        final int k = 3 * (l * numPixels + p);
+                        ref.earthPoints[k] = posData.earthPoint.x;
+                        ref.earthPoints[k + 1] = posData.earthPoint.y;
+                        ref.earthPoints[k + 2] = posData.earthPoint.z;
+                        ref.hasValidPosition = true;
+                        continue;
+                    }
+                }
+
+                ref.masterAz[l][p] = invalidIndex;
+                ref.masterRg[l][p] = invalidIndex;
+            }
+        }
+        ref.computed = true;
+    }
+
+    private boolean computeSlavePixPos(final int subSwathIndex, final int sBurstIndex,
                                        final int x0, final int y0, final int w, final int h,
-                                       final double[] extendedAmount, final PixelPos[][] slavePixelPos,
+                                       final ReferenceGeometry ref, final PixelPos[][] slavePixelPos,
                                        final SlaveData slaveData,
                                        final double[][] elevation)
             throws Exception {
 
         try {
-            final int xmin = x0 - (int)extendedAmount[3];
-            final int ymin = y0 - (int)extendedAmount[1];
-            final int ymax = y0 + h + (int)Math.abs(extendedAmount[0]);
-            final int xmax = x0 + w + (int)Math.abs(extendedAmount[2]);
-
-            // Compute lat/lon boundaries (with extensions) for target tile
-            final double[] latLonMinMax = new double[4];
-
-            computeImageGeoBoundary(subSwathIndex, mBurstIndex, xmin, xmax, ymin, ymax, latLonMinMax);
-
-            final double delta = Math.max(demSamplingLat, demSamplingLon);
-//            final double extralat = 1.5*delta + 4.0/25.0;
-//            final double extralon = 1.5*delta + 4.0/25.0;
-            final double extralat = 20*delta;
-            final double extralon = 20*delta;
-
-            final double latMin = latLonMinMax[0] - extralat;
-            final double latMax = latLonMinMax[1] + extralat;
-            final double lonMin = latLonMinMax[2] - extralon;
-            final double lonMax = latLonMinMax[3] + extralon;
-
-            // Compute lat/lon indices in DEM for the boundaries;
-            final PixelPos upperLeft = dem.getIndex(new GeoPos(latMax, lonMin));
-            final PixelPos lowerRight = dem.getIndex(new GeoPos(latMin, lonMax));
-            final int latMaxIdx = (int)Math.floor(upperLeft.getY());
-            final int latMinIdx = (int)Math.ceil(lowerRight.getY());
-            final int lonMinIdx = (int)Math.floor(upperLeft.getX());
-            final int lonMaxIdx = (int)Math.ceil(lowerRight.getX());
-
-            // Loop through all DEM points bounded by the indices computed above. For each point,
-            // get its lat/lon and its azimuth/range indices in target image;
-            final int numLines = latMinIdx - latMaxIdx;
-            final int numPixels = lonMaxIdx - lonMinIdx;
+            computeReferenceGeometry(ref);
+            if (!ref.hasValidPosition) {
+                return false;
+            }
+
+            // a DEM post is used only where both the reference and the secondary position are valid
+            final int numLines = ref.numLines;
+            final int numPixels = ref.numPixels;
             double[][] masterAz = new double[numLines][numPixels];
             double[][] masterRg = new double[numLines][numPixels];
             double[][] slaveAz = new double[numLines][numPixels];
             double[][] slaveRg = new double[numLines][numPixels];
-            double[][] lat = new double[numLines][numPixels];
-            double[][] lon = new double[numLines][numPixels];
+            final double[][] lat = ref.lat;
+            final double[][] lon = ref.lon;
             final PositionData posData = new PositionData();
-            final PixelPos pix = new PixelPos();
-
-            final EarthGravitationalModel96 egm = EarthGravitationalModel96.instance();
 
             boolean noValidSlavePixPos = true;
             for (int l = 0; l < numLines; l++) {
                 for (int p = 0; p < numPixels; p++) {
 
-                    pix.setLocation(lonMinIdx + p, latMaxIdx + l);
-                    GeoPos gp = dem.getGeoPos(pix);
-                    lat[l][p] = gp.lat;
-                    lon[l][p] = gp.lon;
-
-                    Double alt = dem.getElevation(gp);
-                    if (alt.equals(demNoDataValue) && !maskOutAreaWithoutElevation) { // get corrected elevation for 0
-                        alt = (double)egm.getEGM(gp.lat, gp.lon);
-                    }
-
-                    if (!alt.equals(demNoDataValue)) {
-                        GeoUtils.geo2xyzWGS84(gp.lat, gp.lon, alt, posData.earthPoint);
-                        if(getPosition(subSwathIndex, mBurstIndex, mSU, posData)) {
-
-                            masterAz[l][p] = posData.azimuthIndex;
-                            masterRg[l][p] = posData.rangeIndex;
-                            if (getPosition(subSwathIndex, sBurstIndex, slaveData.sSU, posData)) {
-
-                                slaveAz[l][p] = posData.azimuthIndex;
-                                slaveRg[l][p] = posData.rangeIndex;
-                                noValidSlavePixPos = false;
-                                continue;
-                            }
+                    if (ref.masterAz[l][p] != invalidIndex) {
+                        final int k = 3 * (l * numPixels + p);
+                        posData.earthPoint.x = ref.earthPoints[k];
+                        posData.earthPoint.y = ref.earthPoints[k + 1];
+                        posData.earthPoint.z = ref.earthPoints[k + 2];
+                        if (getPosition(subSwathIndex, sBurstIndex, slaveData.sSU, posData)) {
+
+                            masterAz[l][p] = ref.masterAz[l][p];
+                            masterRg[l][p] = ref.masterRg[l][p];
+                            slaveAz[l][p] = posData.azimuthIndex;
+                            slaveRg[l][p] = posData.rangeIndex;
+                            noValidSlavePixPos = false;
+                            continue;
                         }
                     }
 
@@ -1666,6 +1727,31 @@ public final class BackGeocodingOp extends Operator {
         }
     }
 
+    private static class ReferenceGeometry {
+        final int subSwathIndex;
+        final int burstIndex;
+        final int x0, y0, w, h;
+        final double[] extendedAmount;
+
+        boolean computed = false;
+        boolean hasValidPosition = false;
+        int numLines, numPixels;
+        double[][] masterAz, masterRg;
+        double[][] lat, lon;
+        double[] earthPoints;
+
+        ReferenceGeometry(final int subSwathIndex, final int burstIndex, final int x0, final int y0,
+                          final int w, final int h, final double[] extendedAmount) {
+            this.subSwathIndex = subSwathIndex;
+            this.burstIndex = burstIndex;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.w = w;
+            this.h = h;
+            this.extendedAmount = extendedAmount;
+        }
+    }
+
     private static class BurstIndices {
         int firstBurstIndex = -1;
         int secondBurstIndex = -1;
@@ -17,10 +17,12 @@
 package eu.esa.sar.sentinel1.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
+import com.bc.ceres.core.SubProgressMonitor;
 import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.commons.Sentinel1Utils;
 import eu.esa.sar.sentinel1.gpf.util.ArcDataIntegration;
+import eu.esa.sar.sentinel1.gpf.util.ESDShiftStore;
 import eu.esa.sar.sentinel1.gpf.util.GraphUtils;
 import eu.esa.sar.sentinel1.gpf.util.OverlapUtils;
 import org.esa.snap.core.datamodel.Band;
@@ -283,6 +285,9 @@ public class SpectralDiversityOp extends Operator {
     private Map<String, List<CplxContainer>> complexImages = new HashMap<>(); // map with lists of complex images (master is first), indexed by swath-polarization
     private int[][] arcs;
 
+    // block shifts of earlier runs on the same stack, null if the source product is not read from a file
+    private ESDShiftStore shiftStore = null;
+
 
     /**
      * Default constructor. The graph processing framework
@@ -358,6 +363,10 @@ public class SpectralDiversityOp extends Operator {
                 isAzimuthOffsetAvailable = true;
             }
 
+            if (sourceProduct.getFileLocation() != null) {
+                shiftStore = ESDShiftStore.getDefault();
+            }
+
             constructSourceMetadata();
             constructTargetMetadata();
             createTargetProduct();
@@ -631,12 +640,18 @@ public class SpectralDiversityOp extends Operator {
 
         updateTargetMetadata(arcs);
 
-        if (doNotWriteTargetBands) {  // if we choose not to write the target bands, we must perform the range/azimuth shift estimation here
+        if (doNotWriteTargetBands) {
             SystemUtils.LOG.info("Starting SpectralDiversity processing (target bands won't be written)");
+        }
 
-            estimateRangeOffset();
+        // the whole-stack estimation runs here once, before any tile is requested
+        pm.beginTask("Spectral diversity estimation", 2);
+        try {
+            estimateRangeOffset(SubProgressMonitor.create(pm, 1));
 
-            estimateAzimuthOffset();
+            estimateAzimuthOffset(SubProgressMonitor.create(pm, 1));
+        } finally {
+            pm.done();
         }
     }
 
@@ -801,12 +816,12 @@ public class SpectralDiversityOp extends Operator {
             throws OperatorException {
 
         try {
-            // offset estimations
+            // offset estimations, normally already done in doExecute
             if (!isRangeOffsetAvailable) {
-                estimateRangeOffset();
+                estimateRangeOffset(ProgressMonitor.NULL);
             }
             if (!isAzimuthOffsetAvailable) {
-                estimateAzimuthOffset();
+                estimateAzimuthOffset(ProgressMonitor.NULL);
             }
 
             // apply offsets to target tiles
@@ -839,13 +854,16 @@ public class SpectralDiversityOp extends Operator {
      * <li>integrate range shifts for each image using the network, and</li>
      * <li>save shifts and network metadata.</li>
      * </ol>
+     *
+     * @param pm reports one unit per image pair.
      */
-    private synchronized void estimateRangeOffset() {
+    private synchronized void estimateRangeOffset(final ProgressMonitor pm) {
 
         if (isRangeOffsetAvailable) {
             return;
         }
 
+        pm.beginTask("Range shift estimation", subSwathNames.length * polarizations.length * arcs.length);
         try {
             final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
 
@@ -882,6 +900,7 @@ public class SpectralDiversityOp extends Operator {
                         arcPolarizationsList.add(polarization);
 
                         status.worked(1);
+                        pm.worked(1);
                     }
                     status.done();
                 }
@@ -940,6 +959,8 @@ public class SpectralDiversityOp extends Operator {
 
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException("estimateRangeOffset", e);
+        } finally {
+            pm.done();
         }
 
         isRangeOffsetAvailable = true;
@@ -1011,18 +1032,23 @@ public class SpectralDiversityOp extends Operator {
      * <li>integrate azimuth shifts for each image using the network, and</li>
      * <li>save shifts and network metadata.</li>
      * </ol>
+     * <p>
+     * The block stacks of all overlaps are estimated in parallel. The block shifts are kept in the shift store
+     * so a rerun on the same stack with the same parameters skips the estimation.
+     *
+     * @param pm reports one unit per burst overlap.
      */
-    private synchronized void estimateAzimuthOffset() {
+    private synchronized void estimateAzimuthOffset(final ProgressMonitor pm) {
 
         if (isAzimuthOffsetAvailable) {
             return;
         }
 
+        final int numOverlaps = subSwath[subSwathIndex - 1].numOfBursts - 1;
+        pm.beginTask("Azimuth shift estimation", subSwathNames.length * polarizations.length * numOverlaps);
         try {
             final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
 
-            final int numOverlaps = subSwath[subSwathIndex - 1].numOfBursts - 1;
-
             // shifts for each block, shape: (overlaps, blocks, arcs)
             ShiftData[][][] shiftAllBlocks = new ShiftData[numOverlaps][numBlocksPerOverlap][arcs.length];
 
@@ -1046,60 +1072,21 @@ public class SpectralDiversityOp extends Operator {
                     List<CplxContainer> complexImages = this.complexImages.get(imagesKey);
                     SystemUtils.LOG.fine("Estimating azimuth offset for: " + imagesKey);
 
-                    // estimate shift for each overlap
-                    status.beginTask("Azimuth shift: ESD for overlap blocks (" + imagesKey + ")...", numOverlaps * numBlocksPerOverlap);
-                    for (int i = 0; i < numOverlaps; i++) {
-                        final ThreadExecutor executor = new ThreadExecutor();
-                        SystemUtils.LOG.info("Estimating azimuth offset for blocks in overlap: " +
-                                                     (i + 1) + "/" + numOverlaps);
-                        final Rectangle overlapInBurstOneRectangle = new Rectangle();
-                        final Rectangle overlapInBurstTwoRectangle = new Rectangle();
-
-                        OverlapUtils.getOverlappedRectangles(i, overlapInBurstOneRectangle, overlapInBurstTwoRectangle,
-                                                             subSwath[subSwathIndex - 1]);
-
-                        final int w = overlapInBurstOneRectangle.width / numBlocksPerOverlap;  // block width
-                        final int h = overlapInBurstOneRectangle.height;
-                        final int x0BurstOne = overlapInBurstOneRectangle.x;
-                        final int y0BurstOne = overlapInBurstOneRectangle.y;
-                        final int y0BurstTwo = overlapInBurstTwoRectangle.y;
-                        final int overlapIndex = i;
-
-                        final double[] spectralSeparation = computeSpectralSeparation(i);
-                        final double searchBoundary = getSearchSpaceBoundary(spectralSeparation);
-
-                        // estimate shift for each block stack
-                        for (int j = 0; j < numBlocksPerOverlap; j++) {
-                            final int x0 = x0BurstOne + j * w;
-                            final int blockIndex = j;
-                            final Rectangle blockRectangle1 = new Rectangle(x0, y0BurstOne, w, h);
-                            final Rectangle blockRectangle2 = new Rectangle(x0, y0BurstTwo, w, h);
-
-                            // apply ESD for pairs in this block stack
-                            final ThreadRunnable worker = new ThreadRunnable() {
-                                @Override
-                                public void process() {
-                                    ShiftData[] azimuthShiftsPerBlock = applyESDToBlockStack(
-                                            swath,
-                                            polarization,
-                                            overlapIndex,
-                                            blockIndex,
-                                            blockRectangle1,
-                                            blockRectangle2,
-                                            spectralSeparation,
-                                            searchBoundary,
-                                            usePeriodogram);
-                                    synchronized (shiftAllBlocks) {
-                                        shiftAllBlocks[overlapIndex][blockIndex] = azimuthShiftsPerBlock;
-                                    }
-                                }
-                            };
-                            executor.execute(worker);
-                            status.worked(1);
+                    // estimate shift for each overlap, unless an earlier run on this stack did
+                    final String storeKey = getShiftStoreKey(swath, polarization);
+                    if (storeKey != null && loadBlockShifts(storeKey, shiftAllBlocks)) {
+                        SystemUtils.LOG.info("Using stored ESD block shifts for " + imagesKey);
+                        pm.worked(numOverlaps);
+                    } else {
+                        status.beginTask("Azimuth shift: ESD for overlap blocks (" + imagesKey + ")...",
+                                         numOverlaps * numBlocksPerOverlap);
+                        estimateBlockShifts(swath, polarization, shiftAllBlocks, status, pm);
+                        status.done();
+
+                        if (storeKey != null) {
+                            saveBlockShifts(storeKey, shiftAllBlocks);
                         }
-                        executor.complete();
                     }
-                    status.done();
 
                     // compute average offset for images of this polarization
                     double[] azOffsets = new double[arcs.length];
@@ -1241,11 +1228,150 @@ public class SpectralDiversityOp extends Operator {
 
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException("estimateAzimuthOffset", e);
+        } finally {
+            pm.done();
         }
 
         isAzimuthOffsetAvailable = true;
     }
 
+    /**
+     * Apply ESD to the block stacks of all overlaps of one swath and polarization. All blocks are submitted to one
+     * executor, so the reads and estimation of the next overlap do not wait for the slowest block of the previous.
+     *
+     * @param swath          swath name.
+     * @param polarization   polarization name.
+     * @param shiftAllBlocks receives the shifts for each block, shape: (overlaps, blocks, arcs).
+     * @param status         reports one unit per block stack.
+     * @param pm             reports one unit per overlap once all of its blocks are done.
+     */
+    private void estimateBlockShifts(final String swath, final String polarization,
+                                     final ShiftData[][][] shiftAllBlocks,
+                                     final StatusProgressMonitor status, final ProgressMonitor pm) {
+
+        final int numOverlaps = shiftAllBlocks.length;
+        final int[] blocksLeft = new int[numOverlaps];
+        Arrays.fill(blocksLeft, numBlocksPerOverlap);
+
+        final ThreadExecutor executor = new ThreadExecutor();
+        for (int i = 0; i < numOverlaps; i++) {
+            checkForCancellation();
+            final Rectangle overlapInBurstOneRectangle = new Rectangle();
+            final Rectangle overlapInBurstTwoRectangle = new Rectangle();
+
+            OverlapUtils.getOverlappedRectangles(i, overlapInBurstOneRectangle, overlapInBurstTwoRectangle,
+                                                 subSwath[subSwathIndex - 1]);
+
+            final int w = overlapInBurstOneRectangle.width / numBlocksPerOverlap;  // block width
+            final int h = overlapInBurstOneRectangle.height;
+            final int x0BurstOne = overlapInBurstOneRectangle.x;
+            final int y0BurstOne = overlapInBurstOneRectangle.y;
+            final int y0BurstTwo = overlapInBurstTwoRectangle.y;
+            final int overlapIndex = i;
+
+            final double[] spectralSeparation = computeSpectralSeparation(i);
+            final double searchBoundary = getSearchSpaceBoundary(spectralSeparation);
+
+            // estimate shift for each block stack
+            for (int j = 0; j < numBlocksPerOverlap; j++) {
+                final int x0 = x0BurstOne + j * w;
+                final int blockIndex = j;
+                final Rectangle blockRectangle1 = new Rectangle(x0, y0BurstOne, w, h);
+                final Rectangle blockRectangle2 = new Rectangle(x0, y0BurstTwo, w, h);
+
+                // apply ESD for pairs in this block stack
+                final ThreadRunnable worker = new ThreadRunnable() {
+                    @Override
+                    public void process() {
+                        ShiftData[] azimuthShiftsPerBlock = applyESDToBlockStack(
+                                swath,
+                                polarization,
+                                overlapIndex,
+                                blockIndex,
+                                blockRectangle1,
+                                blockRectangle2,
+                                spectralSeparation,
+                                searchBoundary,
+                                usePeriodogram);
+                        synchronized (shiftAllBlocks) {
+                            shiftAllBlocks[overlapIndex][blockIndex] = azimuthShiftsPerBlock;
+                            status.worked(1);
+                            if (--blocksLeft[overlapIndex] == 0) {
+                                SystemUtils.LOG.fine("Estimated azimuth offset for blocks in overlap: " +
+                                                             (overlapIndex + 1) + "/" + numOverlaps);
+                                pm.worked(1);
+                            }
+                        }
+                    }
+                };
+                executor.execute(worker);
+            }
+        }
+        executor.complete();
+    }
+
+    /**
+     * Identifies the block shifts of one swath and polarization of this stack in the shift store.
+     *
+     * @return the key or null if the shifts should not be stored.
+     */
+    private String getShiftStoreKey(final String swath, final String polarization) {
+        if (shiftStore == null) {
+            return null;
+        }
+        final File file = sourceProduct.getFileLocation();
+        final String imagesKey = polarization.toUpperCase() + "_" + swath.toUpperCase();
+        final StringBuilder key = new StringBuilder();
+        key.append(file.getAbsolutePath()).append('|').append(file.lastModified());
+        key.append('|').append(imagesKey);
+        for (CplxContainer image : complexImages.get(imagesKey)) {
+            key.append('|').append(image.realBand.getName()).append(',').append(image.imagBand.getName());
+        }
+        key.append('|').append(Arrays.deepToString(arcs));
+        key.append('|').append(numBlocksPerOverlap).append('|').append(cohThreshold);
+        key.append('|').append(esdEstimator).append('|').append(weightFunc).append('|').append(optObjective);
+        key.append('|').append(noOfCandidateSolutions).append('|').append(optTolerance);
+        key.append('|').append(optMaxIterations);
+        return key.toString();
+    }
+
+    private boolean loadBlockShifts(final String storeKey, final ShiftData[][][] shiftAllBlocks) {
+        final int numOverlaps = shiftAllBlocks.length;
+        final double[] values = shiftStore.load(storeKey, numOverlaps * numBlocksPerOverlap * arcs.length * 3);
+        if (values == null) {
+            return false;
+        }
+        int k = 0;
+        for (int i = 0; i < numOverlaps; i++) {
+            for (int j = 0; j < numBlocksPerOverlap; j++) {
+                final ShiftData[] blockShifts = new ShiftData[arcs.length];
+                for (int a = 0; a < arcs.length; a++, k += 3) {
+                    blockShifts[a] = new ShiftData(i, j, values[k], values[k + 1], values[k + 2]);
+                }
+                shiftAllBlocks[i][j] = blockShifts;
+            }
+        }
+        return true;
+    }
+
+    private void saveBlockShifts(final String storeKey, final ShiftData[][][] shiftAllBlocks) {
+        final double[] values = new double[shiftAllBlocks.length * numBlocksPerOverlap * arcs.length * 3];
+        int k = 0;
+        for (ShiftData[][] overlapShifts : shiftAllBlocks) {
+            for (ShiftData[] blockShifts : overlapShifts) {
+                for (ShiftData shiftData : blockShifts) {
+                    if (shiftData == null) {
+                        return; // estimation failed for a block, keep nothing
+                    }
+                    values[k++] = shiftData.shift;
+                    values[k++] = shiftData.weight;
+                    values[k++] = shiftData.searchBoundary;
+                }
+            }
+        }
+        shiftStore.save(storeKey, values);
+    }
+
     /**
      * Writes a json file in the SNAP reports directory.
      *
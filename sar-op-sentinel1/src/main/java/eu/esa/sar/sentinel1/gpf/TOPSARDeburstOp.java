@@ -17,6 +17,7 @@ package eu.esa.sar.sentinel1.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.sentinel1.gpf.util.SourceReadCounter;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
 import org.esa.snap.core.gpf.OperatorException;
@@ -27,6 +28,7 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.eo.Constants;
@@ -81,6 +83,8 @@ public final class TOPSARDeburstOp extends Operator {
     private Sentinel1Utils su = null;
     private Sentinel1Utils.SubSwathInfo[] subSwath = null;
 
+    private final SourceReadCounter readCounter = new SourceReadCounter();
+
     private static int numOfBoundaryPoints = 6;
     private static final String PRODUCT_SUFFIX = "_Deb";
 
@@ -137,6 +141,8 @@ public final class TOPSARDeburstOp extends Operator {
 
             createTargetProduct();
 
+            setBurstAlignedTileSize();
+
             computeSubSwathEffectStartEndPixels();
 
             updateTargetProductMetadata();
@@ -200,6 +206,35 @@ public final class TOPSARDeburstOp extends Operator {
                 targetDeltaSlantRangeTime);
     }
 
+    /**
+     * Use tiles one burst cycle high, so that a target tile spans at most one burst boundary of a sub-swath.
+     */
+    private void setBurstAlignedTileSize() {
+
+        final Sentinel1Utils.SubSwathInfo sw = subSwath[0];
+        if (sw.numOfBursts < 2) {
+            return;
+        }
+
+        final int burstCycleLines = (int) Math.round(
+                (sw.burstFirstLineTime[1] - sw.burstFirstLineTime[0]) / targetLineTimeInterval);
+
+        targetProduct.setPreferredTileSize(Math.min(512, targetWidth), Math.min(burstCycleLines, targetHeight));
+    }
+
+    /**
+     * @return the source pixels read against the target pixels filled so far.
+     */
+    public SourceReadCounter getSourceReadCounter() {
+        return readCounter;
+    }
+
+    @Override
+    public void dispose() {
+        SystemUtils.LOG.fine("TOPSAR-Deburst: " + readCounter);
+        super.dispose();
+    }
+
     private void computeSubSwathEffectStartEndPixels() {
 
         subSwathEffectStartEndPixels = new SubSwathEffectStartEndPixels[numOfSubSwath];
@@ -784,10 +819,13 @@ public final class TOPSARDeburstOp extends Operator {
             final int numOfSourceTiles = lastSubSwathIndex - firstSubSwathIndex + 1;
             final boolean tileInOneSubSwath = (numOfSourceTiles == 1);
 
-            final Rectangle[] sourceRectangle = new Rectangle[numOfSourceTiles];
-            int k = 0;
-            for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
-                sourceRectangle[k++] = getSourceRectangle(tx0, ty0, tw, th, i);
+            Rectangle[] sourceRectangle = null;
+            if (!tileInOneSubSwath) {
+                sourceRectangle = new Rectangle[numOfSourceTiles];
+                int k = 0;
+                for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
+                    sourceRectangle[k++] = getSourceRectangle(tx0, ty0, tw, th, i);
+                }
             }
 
             final BurstInfo burstInfo = new BurstInfo();
@@ -804,13 +842,8 @@ public final class TOPSARDeburstOp extends Operator {
                 final int dataType = tgtBand.getDataType();
                 final Tile tgtTile = targetTiles.get(tgtBand);
                 if (tileInOneSubSwath) {
-                    if (dataType == ProductData.TYPE_INT16) {
-                        computeTileInOneSwathShort(tx0, ty0, txMax, tyMax, firstSubSwathIndex,
-                                sourceRectangle, tgtBandName, tgtTile, burstInfo);
-                    } else {
-                        computeTileInOneSwathFloat(tx0, ty0, txMax, tyMax, firstSubSwathIndex,
-                                sourceRectangle, tgtBandName, tgtTile, burstInfo);
-                    }
+                    computeTileInOneSwath(tx0, ty0, txMax, tyMax, firstSubSwathIndex, tgtBandName, tgtTile,
+                            burstInfo);
 
                 } else {
                     if (dataType == ProductData.TYPE_INT16) {
@@ -829,14 +862,20 @@ public final class TOPSARDeburstOp extends Operator {
         }
     }
 
-    private void computeTileInOneSwathShort(final int tx0, final int ty0, final int txMax, final int tyMax,
-                                            final int firstSubSwathIndex, final Rectangle[] sourceRectangle,
-                                            final String tgtBandName, final Tile tgtTile, final BurstInfo burstInfo) {
+    /**
+     * Copy a tile that lies in one sub-swath. The target lines are copied in runs that come from consecutive
+     * lines of one burst, and each run reads only its own source lines, so the lines of the burst overlap that
+     * are not used are never read.
+     */
+    private void computeTileInOneSwath(final int tx0, final int ty0, final int txMax, final int tyMax,
+                                       final int firstSubSwathIndex, final String tgtBandName, final Tile tgtTile,
+                                       final BurstInfo burstInfo) {
 
-        final int yMin = computeYMin(subSwath[firstSubSwathIndex - 1]);
-        final int yMax = computeYMax(subSwath[firstSubSwathIndex - 1]);
-        final int xMin = computeXMin(subSwath[firstSubSwathIndex - 1]);
-        final int xMax = computeXMax(subSwath[firstSubSwathIndex - 1]);
+        final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex - 1];
+        final int yMin = computeYMin(firstSubSwath);
+        final int yMax = computeYMax(firstSubSwath);
+        final int xMin = computeXMin(firstSubSwath);
+        final int xMax = computeXMax(firstSubSwath);
 
         final int firstY = Math.max(ty0, yMin);
         final int lastY = Math.min(tyMax, yMax + 1);
@@ -851,82 +890,62 @@ public final class TOPSARDeburstOp extends Operator {
 
         final String srcBandName = getSourceBandNameFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
         final Band srcBand = sourceProduct.getBand(srcBandName);
-        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[0]);
-        final TileIndex srcTileIndex = new TileIndex(srcRaster);
-        final TileIndex tgtIndex = new TileIndex(tgtTile);
 
-        final short[] srcArray = (short[]) srcRaster.getDataBuffer().getElems();
-        final short[] tgtArray = (short[]) tgtTile.getDataBuffer().getElems();
+        final int sx = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
+                - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
+        final Rectangle run = new Rectangle(firstX, 0, lastX - firstX, 0);
 
-        for (int y = firstY; y < lastY; y++) {
-            if (!getLineIndicesInSourceProduct(y, subSwath[firstSubSwathIndex - 1], burstInfo)) {
+        int runSy = -1;
+        for (int y = firstY; y <= lastY; y++) {
+            final int sy = y < lastY ? getSourceLineIndex(y, firstSubSwath, burstInfo) : -1;
+            if (run.height > 0 && sy != -1 && sy == runSy + run.height) {
+                run.height++;
                 continue;
             }
 
-            final int tgtOffset = tgtIndex.calculateStride(y);
-            final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex - 1];
-            int offset;
-            if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
-                offset = srcTileIndex.calculateStride(burstInfo.sy1);
-            } else {
-                offset = srcTileIndex.calculateStride(burstInfo.sy0);
+            if (run.height > 0) {
+                copyLines(srcBand, sx, runSy, run, tgtTile);
             }
-
-            final int sx = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
-                    - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
-
-            System.arraycopy(srcArray, sx - offset, tgtArray, firstX - tgtOffset, lastX - firstX);
+            run.y = y;
+            run.height = sy == -1 ? 0 : 1;
+            runSy = sy;
         }
     }
 
-    private void computeTileInOneSwathFloat(final int tx0, final int ty0, final int txMax, final int tyMax,
-                                            final int firstSubSwathIndex, final Rectangle[] sourceRectangle,
-                                            final String tgtBandName, final Tile tgtTile, final BurstInfo burstInfo) {
-
-        final int yMin = computeYMin(subSwath[firstSubSwathIndex - 1]);
-        final int yMax = computeYMax(subSwath[firstSubSwathIndex - 1]);
-        final int xMin = computeXMin(subSwath[firstSubSwathIndex - 1]);
-        final int xMax = computeXMax(subSwath[firstSubSwathIndex - 1]);
-
-        final int firstY = Math.max(ty0, yMin);
-        final int lastY = Math.min(tyMax, yMax + 1);
-        final int firstX = Math.max(tx0, xMin);
-        final int lastX = Math.min(txMax, xMax + 1);
+    /**
+     * Copy the target lines of the run from the source lines starting at sy.
+     */
+    private void copyLines(final Band srcBand, final int sx, final int sy, final Rectangle run, final Tile tgtTile) {
 
-        if (firstY >= lastY || firstX >= lastX) {
-            return;
-        }
-        final String swathIndexStr = numOfSubSwath == 1 ? su.getSubSwathNames()[0].substring(2) :
-                String.valueOf(firstSubSwathIndex);
+        final Rectangle sourceRectangle = new Rectangle(sx, sy, run.width, run.height);
+        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle);
+        readCounter.addSource(sourceRectangle);
 
-        final String srcBandName = getSourceBandNameFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
-        final Band srcBand = sourceProduct.getBand(srcBandName);
-        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[0]);
         final TileIndex srcTileIndex = new TileIndex(srcRaster);
         final TileIndex tgtIndex = new TileIndex(tgtTile);
+        final Object srcArray = srcRaster.getDataBuffer().getElems();
+        final Object tgtArray = tgtTile.getDataBuffer().getElems();
 
-        final float[] srcArray = (float[]) srcRaster.getDataBuffer().getElems();
-        final float[] tgtArray = (float[]) tgtTile.getDataBuffer().getElems();
-
-        for (int y = firstY; y < lastY; y++) {
-            if (!getLineIndicesInSourceProduct(y, subSwath[firstSubSwathIndex - 1], burstInfo)) {
-                continue;
-            }
-
-            final int tgtOffset = tgtIndex.calculateStride(y);
-            final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex - 1];
-            int offset;
-            if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
-                offset = srcTileIndex.calculateStride(burstInfo.sy1);
-            } else {
-                offset = srcTileIndex.calculateStride(burstInfo.sy0);
-            }
+        for (int i = 0; i < run.height; i++) {
+            final int offset = srcTileIndex.calculateStride(sy + i);
+            final int tgtOffset = tgtIndex.calculateStride(run.y + i);
+            System.arraycopy(srcArray, sx - offset, tgtArray, run.x - tgtOffset, run.width);
+        }
+        readCounter.addTarget((long) run.width * run.height);
+    }
 
-            final int sx = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
-                    - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
+    /**
+     * @return the source line used for the target line, or -1 if no burst covers it.
+     */
+    private int getSourceLineIndex(final int ty, final Sentinel1Utils.SubSwathInfo sw, final BurstInfo burstInfo) {
 
-            System.arraycopy(srcArray, sx - offset, tgtArray, firstX - tgtOffset, lastX - firstX);
+        if (!getLineIndicesInSourceProduct(ty, sw, burstInfo)) {
+            return -1;
+        }
+        if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
+            return burstInfo.sy1;
         }
+        return burstInfo.sy0;
     }
 
     private void computeMultipleSubSwathsShort(final int tx0, final int ty0, final int txMax, final int tyMax,
@@ -947,12 +966,14 @@ public final class TOPSARDeburstOp extends Operator {
                     getSourceBandNameFromTargetBandName(tgtBandName, acquisitionMode, String.valueOf(i));
             final Band srcBand = sourceProduct.getBand(srcBandName);
             final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[k]);
+            readCounter.addSource(sourceRectangle[k]);
             srcTiles[k] = srcRaster;
             srcArray[k] = (short[]) srcRaster.getDataBuffer().getElems();
             k++;
         }
 
         int sy;
+        long numPixels = 0;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
 
@@ -1006,8 +1027,10 @@ public final class TOPSARDeburstOp extends Operator {
                     }
                 }
                 tgtArray[x - tgtOffset] = val;
+                numPixels++;
             }
         }
+        readCounter.addTarget(numPixels);
     }
 
     private void computeMultipleSubSwathsFloat(final int tx0, final int ty0, final int txMax, final int tyMax,
@@ -1028,12 +1051,14 @@ public final class TOPSARDeburstOp extends Operator {
                     getSourceBandNameFromTargetBandName(tgtBandName, acquisitionMode, String.valueOf(i));
             final Band srcBand = sourceProduct.getBand(srcBandName);
             final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[k]);
+            readCounter.addSource(sourceRectangle[k]);
             srcTiles[k] = srcRaster;
             srcArray[k] = (float[]) srcRaster.getDataBuffer().getElems();
             k++;
         }
 
         int sy;
+        long numPixels = 0;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
 
@@ -1087,8 +1112,10 @@ public final class TOPSARDeburstOp extends Operator {
                     }
                 }
                 tgtArray[x - tgtOffset] = val;
+                numPixels++;
             }
         }
+        readCounter.addTarget(numPixels);
     }
 
     /**
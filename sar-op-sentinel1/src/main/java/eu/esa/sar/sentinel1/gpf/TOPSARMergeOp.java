@@ -19,6 +19,7 @@ import com.bc.ceres.core.ProgressMonitor;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.sentinel1.gpf.util.SourceReadCounter;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
 import org.esa.snap.core.gpf.OperatorException;
@@ -29,6 +30,7 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProducts;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.eo.Constants;
@@ -77,6 +79,8 @@ public final class TOPSARMergeOp extends Operator {
 
     private Sentinel1Utils[] su = null;
     private Sentinel1Utils.SubSwathInfo[] subSwath = null;
+
+    private final SourceReadCounter readCounter = new SourceReadCounter();
     private final BiMap<Integer, Integer> sourceProductIndexToSubSwathIndexMap = HashBiMap.create();
 
     private static final String PRODUCT_SUFFIX = "_mrg";
@@ -118,6 +122,8 @@ public final class TOPSARMergeOp extends Operator {
 
             computeTargetWidthAndHeight();
 
+            // unlike TOPSAR-Deburst the tiles are not aligned to bursts: the sources are debursted, so each target
+            // line maps to consecutive source lines and only the sub-swath boundaries in range split a tile
             createTargetProduct();
 
             updateTargetProductMetadata();
@@ -127,6 +133,30 @@ public final class TOPSARMergeOp extends Operator {
         }
     }
 
+    /**
+     * @return the source pixels read against the target pixels filled so far.
+     */
+    public SourceReadCounter getSourceReadCounter() {
+        return readCounter;
+    }
+
+    @Override
+    public void dispose() {
+        SystemUtils.LOG.fine("TOPSAR-Merge: " + readCounter);
+        super.dispose();
+    }
+
+    /**
+     * Sets up the target geometry from the sub-swaths alone, without source products, to test the tile geometry.
+     */
+    void initTargetGeometry(final Sentinel1Utils.SubSwathInfo[] subSwath) {
+        this.subSwath = subSwath;
+        numOfSubSwath = subSwath.length;
+        computeTargetStartEndTime();
+        computeTargetSlantRangeTimeToFirstAndLastPixels();
+        computeTargetWidthAndHeight();
+    }
+
     /**
      * Check source product validity.
      */
@@ -636,10 +666,9 @@ public final class TOPSARMergeOp extends Operator {
             final int numOfSourceTiles = lastSubSwathIndex - firstSubSwathIndex + 1;
             final boolean tileInOneSubSwath = (numOfSourceTiles == 1);
 
-            final Rectangle[] sourceRectangle = new Rectangle[numOfSourceTiles];
-            int k = 0;
-            for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
-                sourceRectangle[k++] = getSourceRectangle(tx0, ty0, tw, th, i);
+            Rectangle[] sourceRectangle = null;
+            if (!tileInOneSubSwath) {
+                sourceRectangle = getSelectedSourceRectangles(tx0, ty0, tw, th, firstSubSwathIndex, lastSubSwathIndex);
             }
 
             final int txMax = tx0 + tw;
@@ -655,13 +684,7 @@ public final class TOPSARMergeOp extends Operator {
                 final int dataType = tgtBand.getDataType();
                 final Tile tgtTile = targetTiles.get(tgtBand);
                 if (tileInOneSubSwath) {
-                    if (dataType == ProductData.TYPE_INT16) {
-                        computeTileInOneSwathShort(tx0, ty0, txMax, tyMax, firstSubSwathIndex,
-                                                   sourceRectangle, tgtBandName, tgtTile);
-                    } else {
-                        computeTileInOneSwathFloat(tx0, ty0, txMax, tyMax, firstSubSwathIndex,
-                                                   sourceRectangle, tgtBandName, tgtTile);
-                    }
+                    computeTileInOneSwath(tx0, ty0, txMax, tyMax, firstSubSwathIndex, tgtBandName, tgtTile);
 
                 } else {
                     if (dataType == ProductData.TYPE_INT16) {
@@ -681,14 +704,14 @@ public final class TOPSARMergeOp extends Operator {
         }
     }
 
-    private void computeTileInOneSwathShort(final int tx0, final int ty0, final int txMax, final int tyMax,
-                                            final int firstSubSwathIndex, final Rectangle[] sourceRectangle,
-                                            final String tgtBandName, final Tile tgtTile) {
+    private void computeTileInOneSwath(final int tx0, final int ty0, final int txMax, final int tyMax,
+                                       final int firstSubSwathIndex, final String tgtBandName, final Tile tgtTile) {
 
-        final int yMin = computeYMin(subSwath[firstSubSwathIndex]);
-        final int yMax = computeYMax(subSwath[firstSubSwathIndex]);
-        final int xMin = computeXMin(subSwath[firstSubSwathIndex]);
-        final int xMax = computeXMax(subSwath[firstSubSwathIndex]);
+        final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex];
+        final int yMin = computeYMin(firstSubSwath);
+        final int yMax = computeYMax(firstSubSwath);
+        final int xMin = computeXMin(firstSubSwath);
+        final int xMax = computeXMax(firstSubSwath);
 
         final int firstY = Math.max(ty0, yMin);
         final int lastY = Math.min(tyMax, yMax + 1);
@@ -699,68 +722,34 @@ public final class TOPSARMergeOp extends Operator {
             return;
         }
 
-        final String swathIndexStr = String.valueOf(getSubSwathIndex(subSwath[firstSubSwathIndex].subSwathName));
+        final String swathIndexStr = String.valueOf(getSubSwathIndex(firstSubSwath.subSwathName));
         final Band srcBand = getSourceBandFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
-        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[0]);
-        final TileIndex srcTileIndex = new TileIndex(srcRaster);
-        final TileIndex tgtIndex = new TileIndex(tgtTile);
-
-        final short[] srcArray = (short[]) srcRaster.getDataBuffer().getElems();
-        final short[] tgtArray = (short[]) tgtTile.getDataBuffer().getElems();
-
-        for (int y = firstY; y < lastY; y++) {
-
-            final int sy0 = getLineIndexInSourceProduct(y, subSwath[firstSubSwathIndex]);
-            final int tgtOffset = tgtIndex.calculateStride(y);
-            final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex];
-            final int offset = srcTileIndex.calculateStride(sy0);
-
-            final int sx0 = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
-                    - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
-
-            System.arraycopy(srcArray, sx0 - offset, tgtArray, firstX - tgtOffset, lastX - firstX);
-        }
-    }
-
-    private void computeTileInOneSwathFloat(final int tx0, final int ty0, final int txMax, final int tyMax,
-                                            final int firstSubSwathIndex, final Rectangle[] sourceRectangle,
-                                            final String tgtBandName, final Tile tgtTile) {
-
-        final int yMin = computeYMin(subSwath[firstSubSwathIndex]);
-        final int yMax = computeYMax(subSwath[firstSubSwathIndex]);
-        final int xMin = computeXMin(subSwath[firstSubSwathIndex]);
-        final int xMax = computeXMax(subSwath[firstSubSwathIndex]);
-
-        final int firstY = Math.max(ty0, yMin);
-        final int lastY = Math.min(tyMax, yMax + 1);
-        final int firstX = Math.max(tx0, xMin);
-        final int lastX = Math.min(txMax, xMax + 1);
 
-        if (firstY >= lastY || firstX >= lastX) {
-            return;
-        }
+        // read only the source lines and samples that are copied
+        final int sx0 = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
+                - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
+        final int syFirst = getLineIndexInSourceProduct(firstY, firstSubSwath);
+        final int syLast = getLineIndexInSourceProduct(lastY - 1, firstSubSwath);
+        final int width = lastX - firstX;
+        final Rectangle sourceRectangle = new Rectangle(sx0, syFirst, width, syLast - syFirst + 1);
 
-        final String swathIndexStr = String.valueOf(getSubSwathIndex(subSwath[firstSubSwathIndex].subSwathName));
-        final Band srcBand = getSourceBandFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
-        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[0]);
+        final Tile srcRaster = getSourceTile(srcBand, sourceRectangle);
+        readCounter.addSource(sourceRectangle);
         final TileIndex srcTileIndex = new TileIndex(srcRaster);
         final TileIndex tgtIndex = new TileIndex(tgtTile);
 
-        final float[] srcArray = (float[]) srcRaster.getDataBuffer().getElems();
-        final float[] tgtArray = (float[]) tgtTile.getDataBuffer().getElems();
+        final Object srcArray = srcRaster.getDataBuffer().getElems();
+        final Object tgtArray = tgtTile.getDataBuffer().getElems();
 
         for (int y = firstY; y < lastY; y++) {
 
-            final int sy0 = getLineIndexInSourceProduct(y, subSwath[firstSubSwathIndex]);
+            final int sy0 = getLineIndexInSourceProduct(y, firstSubSwath);
             final int tgtOffset = tgtIndex.calculateStride(y);
-            final Sentinel1Utils.SubSwathInfo firstSubSwath = subSwath[firstSubSwathIndex];
-            int offset = srcTileIndex.calculateStride(sy0);
-
-            final int sx0 = (int) Math.round(((targetSlantRangeTimeToFirstPixel + firstX * targetDeltaSlantRangeTime)
-                    - firstSubSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime);
+            final int offset = srcTileIndex.calculateStride(sy0);
 
-            System.arraycopy(srcArray, sx0 - offset, tgtArray, firstX - tgtOffset, lastX - firstX);
+            System.arraycopy(srcArray, sx0 - offset, tgtArray, firstX - tgtOffset, width);
         }
+        readCounter.addTarget((long) width * (lastY - firstY));
     }
 
     private void computeMultipleSubSwathsShort(final int tx0, final int ty0, final int txMax, final int tyMax,
@@ -777,14 +766,20 @@ public final class TOPSARMergeOp extends Operator {
 
         int k = 0;
         for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
+            if (sourceRectangle[k] == null) {
+                k++;
+                continue;
+            }
             final String swathIndexStr = String.valueOf(getSubSwathIndex(subSwath[i].subSwathName));
             final Band srcBand = getSourceBandFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
             final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[k]);
+            readCounter.addSource(sourceRectangle[k]);
             srcTiles[k] = srcRaster;
             srcArray[k] = (short[]) srcRaster.getDataBuffer().getElems();
             k++;
         }
 
+        long numPixels = 0;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
 
@@ -806,8 +801,10 @@ public final class TOPSARMergeOp extends Operator {
                 }
 
                 tgtArray[x - tgtOffset] = val;
+                numPixels++;
             }
         }
+        readCounter.addTarget(numPixels);
     }
 
     private void computeMultipleSubSwathsFloat(final int tx0, final int ty0, final int txMax, final int tyMax,
@@ -824,14 +821,20 @@ public final class TOPSARMergeOp extends Operator {
 
         int k = 0;
         for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
+            if (sourceRectangle[k] == null) {
+                k++;
+                continue;
+            }
             final String swathIndexStr = String.valueOf(getSubSwathIndex(subSwath[i].subSwathName));
             final Band srcBand = getSourceBandFromTargetBandName(tgtBandName, acquisitionMode, swathIndexStr);
             final Tile srcRaster = getSourceTile(srcBand, sourceRectangle[k]);
+            readCounter.addSource(sourceRectangle[k]);
             srcTiles[k] = srcRaster;
             srcArray[k] = (float[]) srcRaster.getDataBuffer().getElems();
             k++;
         }
 
+        long numPixels = 0;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
 
@@ -853,8 +856,10 @@ public final class TOPSARMergeOp extends Operator {
                 }
 
                 tgtArray[x - tgtOffset] = val;
+                numPixels++;
             }
         }
+        readCounter.addTarget(numPixels);
     }
 
     /**
@@ -867,7 +872,7 @@ public final class TOPSARMergeOp extends Operator {
      * @param subSwathIndex The subswath index.
      * @return The source tile rectangle.
      */
-    private Rectangle getSourceRectangle(
+    Rectangle getSourceRectangle(
             final int tx0, final int ty0, final int tw, final int th, final int subSwathIndex) {
 
         final Sentinel1Utils.SubSwathInfo sw = subSwath[subSwathIndex];
@@ -884,7 +889,58 @@ public final class TOPSARMergeOp extends Operator {
         return new Rectangle(x0, y0, w, h);
     }
 
-    private int getSampleIndexInSourceProduct(final int tx, final Sentinel1Utils.SubSwathInfo subSwath) {
+    /**
+     * Get the source tile rectangles of a tile covering several sub-swaths, clipped to the target columns that
+     * each sub-swath supplies. The choice of sub-swath for a pixel depends on the line only through which
+     * sub-swaths are valid at that line, so one pass along the tile row per distinct validity pattern finds
+     * the columns. Sub-swaths that supply no pixel get a null rectangle.
+     */
+    Rectangle[] getSelectedSourceRectangles(final int tx0, final int ty0, final int tw, final int th,
+                                                    final int firstSubSwathIndex, final int lastSubSwathIndex) {
+
+        final int numOfSourceTiles = lastSubSwathIndex - firstSubSwathIndex + 1;
+        final int[] minX = new int[numOfSourceTiles];
+        final int[] maxX = new int[numOfSourceTiles];
+        Arrays.fill(minX, Integer.MAX_VALUE);
+        Arrays.fill(maxX, -1);
+
+        final boolean[] patternSeen = new boolean[1 << numOfSourceTiles];
+        for (int y = ty0; y < ty0 + th; y++) {
+            final double targetLineTime = targetFirstLineTime + y * targetLineTimeInterval;
+            int pattern = 0;
+            for (int i = firstSubSwathIndex; i <= lastSubSwathIndex; i++) {
+                if (targetLineTime >= subSwath[i].firstValidLineTime &&
+                        targetLineTime <= subSwath[i].lastValidLineTime) {
+                    pattern |= 1 << (i - firstSubSwathIndex);
+                }
+            }
+            if (pattern == 0 || patternSeen[pattern]) {
+                continue;
+            }
+            patternSeen[pattern] = true;
+
+            for (int x = tx0; x < tx0 + tw; x++) {
+                final int s = getSubSwathIndex(x, y, firstSubSwathIndex, lastSubSwathIndex);
+                if (s == -1) {
+                    continue;
+                }
+                final int k = s - firstSubSwathIndex;
+                minX[k] = Math.min(minX[k], x);
+                maxX[k] = Math.max(maxX[k], x);
+            }
+        }
+
+        final Rectangle[] sourceRectangle = new Rectangle[numOfSourceTiles];
+        for (int k = 0; k < numOfSourceTiles; k++) {
+            if (maxX[k] >= 0) {
+                sourceRectangle[k] = getSourceRectangle(minX[k], ty0, maxX[k] - minX[k] + 1, th,
+                        firstSubSwathIndex + k);
+            }
+        }
+        return sourceRectangle;
+    }
+
+    int getSampleIndexInSourceProduct(final int tx, final Sentinel1Utils.SubSwathInfo subSwath) {
 
         final int sx = (int) ((((targetSlantRangeTimeToFirstPixel + tx * targetDeltaSlantRangeTime)
                 - subSwath.slrTimeToFirstPixel) / targetDeltaSlantRangeTime) + 0.5);
@@ -892,7 +948,7 @@ public final class TOPSARMergeOp extends Operator {
         return sx < 0 ? 0 : sx > subSwath.numOfSamples - 1 ? subSwath.numOfSamples - 1 : sx;
     }
 
-    private int getLineIndexInSourceProduct(final int ty, final Sentinel1Utils.SubSwathInfo subSwath) {
+    int getLineIndexInSourceProduct(final int ty, final Sentinel1Utils.SubSwathInfo subSwath) {
 
         final double targetLineTime = targetFirstLineTime + ty * targetLineTimeInterval;
 
@@ -921,7 +977,7 @@ public final class TOPSARMergeOp extends Operator {
         return (int) Math.round((subSwath.slrTimeToLastValidPixel - targetSlantRangeTimeToFirstPixel) / targetDeltaSlantRangeTime);
     }
 
-    private int getSubSwathIndex(
+    int getSubSwathIndex(
             final int tx, final int ty, final int firstSubSwathIndex, final int lastSubSwathIndex) {
 
         final double targetSampleSlrTime = targetSlantRangeTimeToFirstPixel + tx * targetDeltaSlantRangeTime;
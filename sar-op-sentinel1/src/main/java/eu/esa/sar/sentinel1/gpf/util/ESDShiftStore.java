@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.util;
+
+import org.esa.snap.core.util.SystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Keeps the shifts estimated by ESD for a stack so that a rerun on the same stack can skip the estimation.
+ * <p>
+ * Each entry is a file holding the full key and the values. The file name is derived from the key and the key
+ * is compared on load, so an entry is only used for the exact stack, swath, polarization and parameters it was
+ * computed for.
+ */
+public final class ESDShiftStore {
+
+    private static final int MAGIC = 0x45534453; // "ESDS"
+    private static final int VERSION = 1;
+
+    private final File folder;
+
+    public ESDShiftStore(final File folder) {
+        this.folder = folder;
+    }
+
+    public static ESDShiftStore getDefault() {
+        return new ESDShiftStore(new File(SystemUtils.getCacheDir(), "esd"));
+    }
+
+    /**
+     * @param key    identifies the stack and the estimation parameters
+     * @param length the number of values expected
+     * @return the stored values or null if there are none for this key
+     */
+    public double[] load(final String key, final int length) {
+        final File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream is = Files.newInputStream(file.toPath());
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            if (in.readInt() != length) {
+                return null;
+            }
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = in.readDouble();
+            }
+            return values;
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to read ESD shifts " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(final String key, final double[] values) {
+        final File file = getFile(key);
+        File tmpFile = null;
+        try {
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Unable to create " + folder);
+            }
+            tmpFile = File.createTempFile(file.getName(), ".tmp", folder);
+            try (OutputStream os = Files.newOutputStream(tmpFile.toPath());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                out.writeInt(values.length);
+                for (double value : values) {
+                    out.writeDouble(value);
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to write ESD shifts " + file + ": " + e.getMessage());
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    private File getFile(final String key) {
+        return new File(folder, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".esd");
+    }
+}
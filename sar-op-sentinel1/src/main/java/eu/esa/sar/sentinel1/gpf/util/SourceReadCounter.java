@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.util;
+
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the source pixels an operator requests against the target pixels it fills from them, so that source
+ * regions read more than once show up as redundant pixels.
+ */
+public final class SourceReadCounter {
+
+    private final AtomicLong sourcePixels = new AtomicLong();
+    private final AtomicLong targetPixels = new AtomicLong();
+
+    public void addSource(final Rectangle sourceRectangle) {
+        sourcePixels.addAndGet((long) sourceRectangle.width * sourceRectangle.height);
+    }
+
+    public void addTarget(final long numPixels) {
+        targetPixels.addAndGet(numPixels);
+    }
+
+    public long getSourcePixels() {
+        return sourcePixels.get();
+    }
+
+    public long getTargetPixels() {
+        return targetPixels.get();
+    }
+
+    /**
+     * @return the source pixels requested beyond those copied to the target.
+     */
+    public long getRedundantSourcePixels() {
+        return Math.max(0, sourcePixels.get() - targetPixels.get());
+    }
+
+    @Override
+    public String toString() {
+        return "source pixels read " + getSourcePixels() + ", target pixels filled " + getTargetPixels() +
+                ", redundant source pixels " + getRedundantSourcePixels();
+    }
+}
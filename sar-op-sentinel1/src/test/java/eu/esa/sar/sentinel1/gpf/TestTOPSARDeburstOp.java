@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.sentinel1.gpf.util.SourceReadCounter;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.eo.Constants;
+import org.junit.Test;
+
+import java.text.DateFormat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TOPSAR-Deburst of a synthetic single sub-swath IW product. Each source sample holds its own line and sample
+ * index, so the target shows which source pixel every target pixel was copied from.
+ */
+public class TestTOPSARDeburstOp {
+
+    private static final int NUM_BURSTS = 4;
+    private static final int LINES_PER_BURST = 200;
+    private static final int OVERLAP_LINES = 20;
+    private static final int INVALID_LINES = 5;
+    private static final int INVALID_SAMPLES = 20;
+    private static final int WIDTH = 300;
+    private static final double LINE_TIME_INTERVAL = 0.002;
+    private static final double RANGE_PIXEL_SPACING = 2.33;
+    private static final double SLANT_RANGE_TIME = 0.0027; // 1-way
+    private static final double FIRST_LINE_MJD = 8000.0 + 30.0 / Constants.secondsInDay;
+
+    /**
+     * The line runs must copy the source line that the per line burst selection picks, with the later burst
+     * taken after the middle of an overlap.
+     */
+    @Test
+    public void testLineRunsCopyTheSelectedBurstLines() throws Exception {
+        try (final Product sourceProduct = createBurstProduct()) {
+            final Sentinel1Utils.SubSwathInfo sw = new Sentinel1Utils(sourceProduct).getSubSwath()[0];
+
+            final TOPSARDeburstOp op = (TOPSARDeburstOp) new TOPSARDeburstOp.Spi().createOperator();
+            op.setSourceProduct(sourceProduct);
+            final Band targetBand = op.getTargetProduct().getBand("i_IW1_VV");
+            final int width = targetBand.getRasterWidth();
+            final int height = targetBand.getRasterHeight();
+            final float[] pixels = new float[width * height];
+            targetBand.readPixels(0, 0, width, height, pixels, ProgressMonitor.NULL);
+
+            assertArrayEquals(getExpectedPixels(sw, width, height), pixels, 0.0f);
+            op.dispose();
+        }
+    }
+
+    /**
+     * Every source line used is read once and the unused lines of the burst overlaps are not read.
+     */
+    @Test
+    public void testSourceLinesReadOnce() throws Exception {
+        try (final Product sourceProduct = createBurstProduct()) {
+            final TOPSARDeburstOp op = (TOPSARDeburstOp) new TOPSARDeburstOp.Spi().createOperator();
+            op.setSourceProduct(sourceProduct);
+            final Product targetProduct = op.getTargetProduct();
+            final int width = targetProduct.getSceneRasterWidth();
+            final int height = targetProduct.getSceneRasterHeight();
+            for (String bandName : new String[]{"i_IW1_VV", "q_IW1_VV"}) {
+                targetProduct.getBand(bandName).readPixels(0, 0, width, height, new float[width * height],
+                        ProgressMonitor.NULL);
+            }
+
+            final SourceReadCounter counter = op.getSourceReadCounter();
+            assertTrue(counter.getTargetPixels() > 0);
+            assertEquals(counter.getTargetPixels(), counter.getSourcePixels());
+            assertEquals(0, counter.getRedundantSourcePixels());
+            assertTrue(counter.getSourcePixels() < 2L * WIDTH * NUM_BURSTS * LINES_PER_BURST);
+            op.dispose();
+        }
+    }
+
+    /**
+     * Target pixels as copied line by line before the line runs: the source line of each target line is looked
+     * up in the bursts, and the valid target columns map one to one onto source samples.
+     */
+    private static float[] getExpectedPixels(final Sentinel1Utils.SubSwathInfo sw, final int width, final int height) {
+        final double targetFirstLineTime = sw.firstLineTime;
+        final double deltaSlrt = sw.rangePixelSpacing / Constants.lightSpeed;
+        final int yMin = (int) ((sw.firstValidLineTime - targetFirstLineTime) / sw.azimuthTimeInterval);
+        final int yMax = (int) ((sw.lastValidLineTime - targetFirstLineTime) / sw.azimuthTimeInterval);
+        final int xMin = (int) ((sw.slrTimeToFirstValidPixel - sw.slrTimeToFirstPixel) / deltaSlrt);
+        final int xMax = (int) ((sw.slrTimeToLastValidPixel - sw.slrTimeToFirstPixel) / deltaSlrt);
+
+        final float[] expected = new float[width * height];
+        for (int y = Math.max(0, yMin); y < Math.min(height, yMax + 1); y++) {
+            final double targetLineTime = targetFirstLineTime + y * sw.azimuthTimeInterval;
+            int sy0 = -1, sy1 = -1, burst0 = 0, burst1 = 0;
+            for (int b = 0; b < sw.numOfBursts; b++) {
+                if (targetLineTime >= sw.burstFirstLineTime[b] && targetLineTime < sw.burstLastLineTime[b]) {
+                    final int sy = b * sw.linesPerBurst +
+                            (int) (((targetLineTime - sw.burstFirstLineTime[b]) / sw.azimuthTimeInterval) + 0.5);
+                    if (sy0 == -1) {
+                        sy0 = sy;
+                        burst0 = b;
+                    } else {
+                        sy1 = sy;
+                        burst1 = b;
+                        break;
+                    }
+                }
+            }
+            if (sy0 == -1) {
+                continue;
+            }
+            int sy = sy0;
+            if (sy1 != -1 && targetLineTime > (sw.burstLastLineTime[burst0] + sw.burstFirstLineTime[burst1]) / 2.0) {
+                sy = sy1;
+            }
+
+            for (int x = Math.max(0, xMin); x < Math.min(width, xMax + 1); x++) {
+                expected[y * width + x] = encode(sy, x);
+            }
+        }
+        return expected;
+    }
+
+    private static float encode(final int sy, final int sx) {
+        return 1 + sy * WIDTH + sx;
+    }
+
+    private static Product createBurstProduct() {
+        final int height = NUM_BURSTS * LINES_PER_BURST;
+        final double burstCycle = (LINES_PER_BURST - OVERLAP_LINES) * LINE_TIME_INTERVAL;
+        final double lastLineSec = (NUM_BURSTS - 1) * burstCycle + (LINES_PER_BURST - 1) * LINE_TIME_INTERVAL;
+
+        final Product product = new Product("S1A_IW_SLC__1SSV_SYNTHETIC", "SLC", WIDTH, height);
+        final MetadataElement absRoot = AbstractMetadata.addAbstractedMetadataHeader(product.getMetadataRoot());
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PRODUCT, product.getName());
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PRODUCT_TYPE, "SLC");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.MISSION, "SENTINEL-1A");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ACQUISITION_MODE, "IW");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.SAMPLE_TYPE, "COMPLEX");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.srgr_flag, 0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.radar_frequency, 5405.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.range_spacing, RANGE_PIXEL_SPACING);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.azimuth_spacing, 14.0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.slant_range_to_first_pixel,
+                SLANT_RANGE_TIME * Constants.lightSpeed);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.first_line_time, toUTC(0.0));
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.last_line_time, toUTC(lastLineSec));
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.line_time_interval, LINE_TIME_INTERVAL);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_output_lines, height);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_samples_per_line, WIDTH);
+        AbstractMetadata.setOrbitStateVectors(absRoot, createOrbit());
+
+        final MetadataElement bandElem = new MetadataElement(AbstractMetadata.BAND_PREFIX + "IW1_VV");
+        bandElem.setAttributeString("swath", "IW1");
+        bandElem.setAttributeString("polarization", "VV");
+        absRoot.addElement(bandElem);
+
+        final float[] iData = new float[WIDTH * height];
+        final float[] qData = new float[WIDTH * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                iData[y * WIDTH + x] = encode(y, x);
+                qData[y * WIDTH + x] = -encode(y, x);
+            }
+        }
+        final Band iBand = product.addBand("i_IW1_VV", ProductData.TYPE_FLOAT32);
+        iBand.setUnit(Unit.REAL);
+        iBand.setData(ProductData.createInstance(iData));
+        final Band qBand = product.addBand("q_IW1_VV", ProductData.TYPE_FLOAT32);
+        qBand.setUnit(Unit.IMAGINARY);
+        qBand.setData(ProductData.createInstance(qData));
+
+        final MetadataElement annotation = new MetadataElement("annotation");
+        AbstractMetadata.addOriginalProductMetadata(product.getMetadataRoot()).addElement(annotation);
+        final MetadataElement swathAnnotation = new MetadataElement("s1a-iw1-slc-vv-synthetic.xml");
+        annotation.addElement(swathAnnotation);
+        final MetadataElement productElem = addElement(swathAnnotation, "product");
+
+        final MetadataElement imageInformation = addElement(addElement(productElem, "imageAnnotation"), "imageInformation");
+        imageInformation.setAttributeString("productFirstLineUtcTime", toAnnotationTime(0.0));
+        imageInformation.setAttributeString("productLastLineUtcTime", toAnnotationTime(lastLineSec));
+        imageInformation.setAttributeString("ascendingNodeTime", toAnnotationTime(-600.0));
+        imageInformation.setAttributeString("numberOfSamples", String.valueOf(WIDTH));
+        imageInformation.setAttributeString("numberOfLines", String.valueOf(height));
+        imageInformation.setAttributeString("azimuthTimeInterval", String.valueOf(LINE_TIME_INTERVAL));
+        imageInformation.setAttributeString("rangePixelSpacing", String.valueOf(RANGE_PIXEL_SPACING));
+        imageInformation.setAttributeString("azimuthPixelSpacing", "14.0");
+        imageInformation.setAttributeString("slantRangeTime", String.valueOf(2.0 * SLANT_RANGE_TIME));
+
+        final MetadataElement swathTiming = addElement(productElem, "swathTiming");
+        swathTiming.setAttributeString("linesPerBurst", String.valueOf(LINES_PER_BURST));
+        swathTiming.setAttributeString("samplesPerBurst", String.valueOf(WIDTH));
+        final MetadataElement burstList = addElement(swathTiming, "burstList");
+        burstList.setAttributeString("count", String.valueOf(NUM_BURSTS));
+        for (int b = 0; b < NUM_BURSTS; b++) {
+            final StringBuilder firstValid = new StringBuilder();
+            final StringBuilder lastValid = new StringBuilder();
+            for (int line = 0; line < LINES_PER_BURST; line++) {
+                final boolean valid = line >= INVALID_LINES && line < LINES_PER_BURST - INVALID_LINES;
+                firstValid.append(valid ? INVALID_SAMPLES : -1).append(' ');
+                lastValid.append(valid ? WIDTH - 1 - INVALID_SAMPLES : -1).append(' ');
+            }
+            final MetadataElement burst = addElement(burstList, "burst");
+            burst.setAttributeString("azimuthTime", toAnnotationTime(b * burstCycle));
+            addElement(burst, "firstValidSample").setAttributeString("firstValidSample", firstValid.toString().trim());
+            addElement(burst, "lastValidSample").setAttributeString("lastValidSample", lastValid.toString().trim());
+        }
+
+        final MetadataElement productInformation = addElement(addElement(productElem, "generalAnnotation"), "productInformation");
+        productInformation.setAttributeString("radarFrequency", "5.405e9");
+        productInformation.setAttributeString("rangeSamplingRate", String.valueOf(Constants.lightSpeed / (2.0 * RANGE_PIXEL_SPACING)));
+        productInformation.setAttributeString("azimuthSteeringRate", "1.590368784");
+
+        addElement(addElement(productElem, "antennaPattern"), "antennaPatternList").setAttributeString("count", "0");
+
+        // a grid line at the start of each burst and one at the end of the last burst
+        final int pointsPerLine = 6;
+        final MetadataElement gridPointList = addElement(addElement(productElem, "geolocationGrid"), "geolocationGridPointList");
+        gridPointList.setAttributeString("count", String.valueOf((NUM_BURSTS + 1) * pointsPerLine));
+        for (int g = 0; g <= NUM_BURSTS; g++) {
+            final double time = g < NUM_BURSTS ? g * burstCycle : lastLineSec;
+            for (int i = 0; i < pointsPerLine; i++) {
+                final int pixel = i * (WIDTH - 1) / (pointsPerLine - 1);
+                final MetadataElement point = addElement(gridPointList, "geolocationGridPoint");
+                point.setAttributeString("azimuthTime", toAnnotationTime(time));
+                point.setAttributeString("slantRangeTime",
+                        String.valueOf(2.0 * (SLANT_RANGE_TIME + pixel * RANGE_PIXEL_SPACING / Constants.lightSpeed)));
+                point.setAttributeString("line", String.valueOf(g * LINES_PER_BURST));
+                point.setAttributeString("pixel", String.valueOf(pixel));
+                point.setAttributeString("latitude", String.valueOf(45.0 + time * 0.05));
+                point.setAttributeString("longitude", String.valueOf(10.0 + pixel * 1.0e-4));
+                point.setAttributeString("incidenceAngle", String.valueOf(30.0 + pixel * 0.01));
+            }
+        }
+        return product;
+    }
+
+    private static OrbitStateVector[] createOrbit() {
+        final double radius = 7071000.0;
+        final double rate = 2.0 * Math.PI / 5926.0;
+        final OrbitStateVector[] vectors = new OrbitStateVector[20];
+        for (int i = 0; i < vectors.length; i++) {
+            final double t = (i - 5) * 10.0;
+            final double angle = rate * t;
+            vectors[i] = new OrbitStateVector(toUTC(t),
+                    radius * Math.cos(angle), 0.0, radius * Math.sin(angle),
+                    -radius * rate * Math.sin(angle), 0.0, radius * rate * Math.cos(angle));
+        }
+        return vectors;
+    }
+
+    private static MetadataElement addElement(final MetadataElement parent, final String name) {
+        final MetadataElement elem = new MetadataElement(name);
+        parent.addElement(elem);
+        return elem;
+    }
+
+    private static ProductData.UTC toUTC(final double seconds) {
+        return new ProductData.UTC(FIRST_LINE_MJD + seconds / Constants.secondsInDay);
+    }
+
+    private static String toAnnotationTime(final double seconds) {
+        final ProductData.UTC utc = toUTC(seconds);
+        final DateFormat format = ProductData.UTC.createDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        return format.format(utc.getAsDate()) + String.format(".%06d", utc.getMicroSecondsFraction());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf;
+
+import eu.esa.sar.commons.Sentinel1Utils;
+import org.esa.snap.engine_utilities.eo.Constants;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tile geometry of TOPSAR-Merge for tiles spanning several sub-swaths.
+ */
+public class TestTOPSARMergeOp {
+
+    private static final double LINE_TIME_INTERVAL = 0.002;
+    private static final double RANGE_PIXEL_SPACING = 2.33;
+    private static final double DELTA_SLRT = RANGE_PIXEL_SPACING / Constants.lightSpeed;
+    private static final int NUM_LINES = 1500;
+    private static final int NUM_SAMPLES = 600;
+
+    /**
+     * The clipped source rectangles must hold every source pixel that the merge loop reads, as the whole
+     * tile rectangles did before, so that the merged output is unchanged.
+     */
+    @Test
+    public void testSelectedSourceRectanglesHoldAllPixelsRead() {
+        final TOPSARMergeOp op = new TOPSARMergeOp();
+        final Sentinel1Utils.SubSwathInfo[] subSwath = createSubSwaths();
+        op.initTargetGeometry(subSwath);
+
+        final int targetWidth = (int) ((subSwath[2].slrTimeToLastValidPixel - subSwath[0].slrTimeToFirstValidPixel) /
+                DELTA_SLRT);
+        final int targetHeight = (int) ((subSwath[2].lastLineTime - subSwath[0].firstLineTime) / LINE_TIME_INTERVAL);
+
+        long wholeTilePixels = 0, selectedPixels = 0;
+        for (int[] tileSize : new int[][]{{64, 64}, {100, 37}, {256, 512}}) {
+            for (int ty0 = 0; ty0 < targetHeight; ty0 += tileSize[1]) {
+                final int th = Math.min(tileSize[1], targetHeight - ty0);
+                for (int tx0 = 0; tx0 < targetWidth; tx0 += tileSize[0]) {
+                    final int tw = Math.min(tileSize[0], targetWidth - tx0);
+
+                    for (int first = 0; first < subSwath.length - 1; first++) {
+                        for (int last = first + 1; last < subSwath.length; last++) {
+                            final Rectangle[] selected = op.getSelectedSourceRectangles(tx0, ty0, tw, th, first, last);
+                            final Rectangle[] wholeTile = new Rectangle[last - first + 1];
+                            for (int k = 0; k < wholeTile.length; k++) {
+                                wholeTile[k] = op.getSourceRectangle(tx0, ty0, tw, th, first + k);
+                                wholeTilePixels += (long) wholeTile[k].width * wholeTile[k].height;
+                                if (selected[k] != null) {
+                                    assertTrue(wholeTile[k].contains(selected[k]));
+                                    selectedPixels += (long) selected[k].width * selected[k].height;
+                                }
+                            }
+
+                            for (int y = ty0; y < ty0 + th; y++) {
+                                for (int x = tx0; x < tx0 + tw; x++) {
+                                    final int s = op.getSubSwathIndex(x, y, first, last);
+                                    if (s == -1) {
+                                        continue;
+                                    }
+                                    final int sx = op.getSampleIndexInSourceProduct(x, subSwath[s]);
+                                    final int sy = op.getLineIndexInSourceProduct(y, subSwath[s]);
+                                    final Rectangle rect = selected[s - first];
+                                    assertNotNull(rect);
+                                    assertTrue(rect.contains(sx, sy));
+                                    assertTrue(wholeTile[s - first].contains(sx, sy));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(selectedPixels < wholeTilePixels);
+    }
+
+    /**
+     * Three debursted sub-swaths that overlap in range by a hundred samples and are shifted in azimuth.
+     */
+    private static Sentinel1Utils.SubSwathInfo[] createSubSwaths() {
+        final Sentinel1Utils.SubSwathInfo[] subSwath = new Sentinel1Utils.SubSwathInfo[3];
+        for (int i = 0; i < subSwath.length; i++) {
+            final Sentinel1Utils.SubSwathInfo sw = new Sentinel1Utils.SubSwathInfo();
+            sw.subSwathName = "IW" + (i + 1);
+            sw.numOfLines = NUM_LINES;
+            sw.numOfSamples = NUM_SAMPLES;
+            sw.azimuthTimeInterval = LINE_TIME_INTERVAL;
+            sw.rangePixelSpacing = RANGE_PIXEL_SPACING;
+
+            sw.firstLineTime = 7.0e8 + i * 0.3;
+            sw.lastLineTime = sw.firstLineTime + (NUM_LINES - 1) * LINE_TIME_INTERVAL;
+            sw.firstValidLineTime = sw.firstLineTime + 10 * LINE_TIME_INTERVAL;
+            sw.lastValidLineTime = sw.lastLineTime - 10 * LINE_TIME_INTERVAL;
+
+            sw.firstValidPixel = 20;
+            sw.lastValidPixel = NUM_SAMPLES - 20;
+            sw.slrTimeToFirstPixel = 0.0027 + i * (NUM_SAMPLES - 100) * DELTA_SLRT;
+            sw.slrTimeToLastPixel = sw.slrTimeToFirstPixel + (NUM_SAMPLES - 1) * DELTA_SLRT;
+            sw.slrTimeToFirstValidPixel = sw.slrTimeToFirstPixel + sw.firstValidPixel * DELTA_SLRT;
+            sw.slrTimeToLastValidPixel = sw.slrTimeToFirstPixel + sw.lastValidPixel * DELTA_SLRT;
+            subSwath[i] = sw;
+        }
+        return subSwath;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit test for ESDShiftStore.
+ */
+public class TestESDShiftStore {
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("esd").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final ESDShiftStore store = new ESDShiftStore(folder);
+        final double[] shifts = {0.012, 0.8, 0.05, -0.003, 0.4, 0.05};
+
+        assertNull(store.load("stack|IW1|VV", shifts.length));
+
+        store.save("stack|IW1|VV", shifts);
+        assertArrayEquals(shifts, store.load("stack|IW1|VV", shifts.length), 0.0);
+
+        // a new store on the same folder, as in a rerun
+        assertArrayEquals(shifts, new ESDShiftStore(folder).load("stack|IW1|VV", shifts.length), 0.0);
+    }
+
+    @Test
+    public void testMismatch() {
+        final ESDShiftStore store = new ESDShiftStore(folder);
+        store.save("stack|IW1|VV", new double[]{1, 2, 3});
+
+        assertNull(store.load("stack|IW1|VH", 3));
+        assertNull(store.load("stack|IW1|VV", 6));
+    }
+}